@@ -0,0 +1,447 @@
+package com.j256.ormlite.dao;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+import com.j256.ormlite.dao.Dao.CreateOrUpdateStatus;
+import com.j256.ormlite.stmt.AggregateResults;
+import com.j256.ormlite.stmt.PreparedDelete;
+import com.j256.ormlite.stmt.PreparedQuery;
+import com.j256.ormlite.stmt.PreparedUpdate;
+import com.j256.ormlite.stmt.QueryBindings;
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.table.DatabaseTableConfig;
+
+/**
+ * Proxy to a {@link Dao} that runs each operation on a thread from an executor and returns a {@link DaoFuture} of its
+ * result instead of blocking the calling thread on the database. A {@link DaoFuture.Callback} can be added to the
+ * future to be called when the operation finishes, or the caller can block on {@link DaoFuture#get()}. If the
+ * operation throws then {@link DaoFuture#get()} throws an {@link java.util.concurrent.ExecutionException} whose cause
+ * is the exception from the DAO. Other DAO methods can be run with {@link #submit(Callable)}.
+ * 
+ * <p>
+ * 
+ * <pre>
+ * AsyncDao&lt;Account, String&gt; accountDao = AsyncDao.createDao(connectionSource, Account.class, executor);
+ * DaoFuture&lt;Account&gt; future = accountDao.queryForId(&quot;foo&quot;);
+ * </pre>
+ * 
+ * </p>
+ * 
+ * <p>
+ * <b>NOTE:</b> Each operation takes a connection from the {@link ConnectionSource} on the executor's thread so the
+ * executor should not have many more threads than the connection source has connections. With newer JVMs, a
+ * virtual-thread-per-task executor can be passed in.
+ * </p>
+ * 
+ * <p>
+ * <b>NOTE:</b> The operations do not see a connection that the calling thread has bound to itself with
+ * {@link Dao#startThreadConnection()}, or that is in use inside of {@link Dao#callBatchTasks(Callable)} or a
+ * transaction, since those connections belong to the calling thread. The operations run outside of the caller's
+ * transaction and don't see its uncommitted changes. Use {@link #callBatchTasks(Callable)} to run a number of
+ * operations together on the executor's thread.
+ * </p>
+ * 
+ * @author graywatson
+ */
+public class AsyncDao<T, ID> {
+
+	private final Dao<T, ID> dao;
+	private final ExecutorService executor;
+
+	public AsyncDao(Dao<T, ID> dao, ExecutorService executor) {
+		this.dao = dao;
+		this.executor = executor;
+	}
+
+	/**
+	 * Call through to {@link DaoManager#createDao(ConnectionSource, Class)} with the returned DAO wrapped in an
+	 * AsyncDao.
+	 */
+	public static <T, ID> AsyncDao<T, ID> createDao(ConnectionSource connectionSource, Class<T> clazz,
+			ExecutorService executor) throws SQLException {
+		@SuppressWarnings("unchecked")
+		Dao<T, ID> castDao = (Dao<T, ID>) DaoManager.createDao(connectionSource, clazz);
+		return new AsyncDao<T, ID>(castDao, executor);
+	}
+
+	/**
+	 * Call through to {@link DaoManager#createDao(ConnectionSource, DatabaseTableConfig)} with the returned DAO wrapped
+	 * in an AsyncDao.
+	 */
+	public static <T, ID> AsyncDao<T, ID> createDao(ConnectionSource connectionSource,
+			DatabaseTableConfig<T> tableConfig, ExecutorService executor) throws SQLException {
+		@SuppressWarnings("unchecked")
+		Dao<T, ID> castDao = (Dao<T, ID>) DaoManager.createDao(connectionSource, tableConfig);
+		return new AsyncDao<T, ID>(castDao, executor);
+	}
+
+	/**
+	 * @see Dao#queryForId(Object)
+	 */
+	public DaoFuture<T> queryForId(final ID id) {
+		return submit(new Callable<T>() {
+			public T call() throws SQLException {
+				return dao.queryForId(id);
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#queryForIds(Collection)
+	 */
+	public DaoFuture<Map<ID, T>> queryForIds(final Collection<ID> ids) {
+		return submit(new Callable<Map<ID, T>>() {
+			public Map<ID, T> call() throws SQLException {
+				return dao.queryForIds(ids);
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#queryForFirst(PreparedQuery)
+	 */
+	public DaoFuture<T> queryForFirst(final PreparedQuery<T> preparedQuery) {
+		return submit(new Callable<T>() {
+			public T call() throws SQLException {
+				return dao.queryForFirst(preparedQuery);
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#queryForFirst(PreparedQuery, QueryBindings)
+	 */
+	public DaoFuture<T> queryForFirst(final PreparedQuery<T> preparedQuery, final QueryBindings bindings) {
+		return submit(new Callable<T>() {
+			public T call() throws SQLException {
+				return dao.queryForFirst(preparedQuery, bindings);
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#queryForAll()
+	 */
+	public DaoFuture<List<T>> queryForAll() {
+		return submit(new Callable<List<T>>() {
+			public List<T> call() throws SQLException {
+				return dao.queryForAll();
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#queryForEq(String, Object)
+	 */
+	public DaoFuture<List<T>> queryForEq(final String fieldName, final Object value) {
+		return submit(new Callable<List<T>>() {
+			public List<T> call() throws SQLException {
+				return dao.queryForEq(fieldName, value);
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#queryForMatching(Object)
+	 */
+	public DaoFuture<List<T>> queryForMatching(final T matchObj) {
+		return submit(new Callable<List<T>>() {
+			public List<T> call() throws SQLException {
+				return dao.queryForMatching(matchObj);
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#queryForFieldValues(Map)
+	 */
+	public DaoFuture<List<T>> queryForFieldValues(final Map<String, Object> fieldValues) {
+		return submit(new Callable<List<T>>() {
+			public List<T> call() throws SQLException {
+				return dao.queryForFieldValues(fieldValues);
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#query(PreparedQuery)
+	 */
+	public DaoFuture<List<T>> query(final PreparedQuery<T> preparedQuery) {
+		return submit(new Callable<List<T>>() {
+			public List<T> call() throws SQLException {
+				return dao.query(preparedQuery);
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#query(PreparedQuery, QueryBindings)
+	 */
+	public DaoFuture<List<T>> query(final PreparedQuery<T> preparedQuery, final QueryBindings bindings) {
+		return submit(new Callable<List<T>>() {
+			public List<T> call() throws SQLException {
+				return dao.query(preparedQuery, bindings);
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#create(Object)
+	 */
+	public DaoFuture<Integer> create(final T data) {
+		return submit(new Callable<Integer>() {
+			public Integer call() throws SQLException {
+				return dao.create(data);
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#createIfNotExists(Object)
+	 */
+	public DaoFuture<T> createIfNotExists(final T data) {
+		return submit(new Callable<T>() {
+			public T call() throws SQLException {
+				return dao.createIfNotExists(data);
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#createOrUpdate(Object)
+	 */
+	public DaoFuture<CreateOrUpdateStatus> createOrUpdate(final T data) {
+		return submit(new Callable<CreateOrUpdateStatus>() {
+			public CreateOrUpdateStatus call() throws SQLException {
+				return dao.createOrUpdate(data);
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#update(Object)
+	 */
+	public DaoFuture<Integer> update(final T data) {
+		return submit(new Callable<Integer>() {
+			public Integer call() throws SQLException {
+				return dao.update(data);
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#updateId(Object, Object)
+	 */
+	public DaoFuture<Integer> updateId(final T data, final ID newId) {
+		return submit(new Callable<Integer>() {
+			public Integer call() throws SQLException {
+				return dao.updateId(data, newId);
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#update(PreparedUpdate)
+	 */
+	public DaoFuture<Integer> update(final PreparedUpdate<T> preparedUpdate) {
+		return submit(new Callable<Integer>() {
+			public Integer call() throws SQLException {
+				return dao.update(preparedUpdate);
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#refresh(Object)
+	 */
+	public DaoFuture<Integer> refresh(final T data) {
+		return submit(new Callable<Integer>() {
+			public Integer call() throws SQLException {
+				return dao.refresh(data);
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#delete(Object)
+	 */
+	public DaoFuture<Integer> delete(final T data) {
+		return submit(new Callable<Integer>() {
+			public Integer call() throws SQLException {
+				return dao.delete(data);
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#deleteById(Object)
+	 */
+	public DaoFuture<Integer> deleteById(final ID id) {
+		return submit(new Callable<Integer>() {
+			public Integer call() throws SQLException {
+				return dao.deleteById(id);
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#delete(Collection)
+	 */
+	public DaoFuture<Integer> delete(final Collection<T> datas) {
+		return submit(new Callable<Integer>() {
+			public Integer call() throws SQLException {
+				return dao.delete(datas);
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#deleteIds(Collection)
+	 */
+	public DaoFuture<Integer> deleteIds(final Collection<ID> ids) {
+		return submit(new Callable<Integer>() {
+			public Integer call() throws SQLException {
+				return dao.deleteIds(ids);
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#delete(PreparedDelete)
+	 */
+	public DaoFuture<Integer> delete(final PreparedDelete<T> preparedDelete) {
+		return submit(new Callable<Integer>() {
+			public Integer call() throws SQLException {
+				return dao.delete(preparedDelete);
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#queryRawValue(String, String...)
+	 */
+	public DaoFuture<Long> queryRawValue(final String query, final String... arguments) {
+		return submit(new Callable<Long>() {
+			public Long call() throws SQLException {
+				return dao.queryRawValue(query, arguments);
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#executeRaw(String, String...)
+	 */
+	public DaoFuture<Integer> executeRaw(final String statement, final String... arguments) {
+		return submit(new Callable<Integer>() {
+			public Integer call() throws SQLException {
+				return dao.executeRaw(statement, arguments);
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#updateRaw(String, String...)
+	 */
+	public DaoFuture<Integer> updateRaw(final String statement, final String... arguments) {
+		return submit(new Callable<Integer>() {
+			public Integer call() throws SQLException {
+				return dao.updateRaw(statement, arguments);
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#countOf()
+	 */
+	public DaoFuture<Long> countOf() {
+		return submit(new Callable<Long>() {
+			public Long call() throws SQLException {
+				return dao.countOf();
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#countOf(PreparedQuery)
+	 */
+	public DaoFuture<Long> countOf(final PreparedQuery<T> preparedQuery) {
+		return submit(new Callable<Long>() {
+			public Long call() throws SQLException {
+				return dao.countOf(preparedQuery);
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#idExists(Object)
+	 */
+	public DaoFuture<Boolean> idExists(final ID id) {
+		return submit(new Callable<Boolean>() {
+			public Boolean call() throws SQLException {
+				return dao.idExists(id);
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#exists(PreparedQuery)
+	 */
+	public DaoFuture<Boolean> exists(final PreparedQuery<T> preparedQuery) {
+		return submit(new Callable<Boolean>() {
+			public Boolean call() throws SQLException {
+				return dao.exists(preparedQuery);
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#queryForAggregate(PreparedQuery)
+	 */
+	public DaoFuture<AggregateResults> queryForAggregate(final PreparedQuery<T> preparedQuery) {
+		return submit(new Callable<AggregateResults>() {
+			public AggregateResults call() throws SQLException {
+				return dao.queryForAggregate(preparedQuery);
+			}
+		});
+	}
+
+	/**
+	 * @see Dao#callBatchTasks(Callable)
+	 */
+	public <CT> DaoFuture<CT> callBatchTasks(final Callable<CT> callable) {
+		return submit(new Callable<CT>() {
+			public CT call() throws Exception {
+				return dao.callBatchTasks(callable);
+			}
+		});
+	}
+
+	/**
+	 * Run the callable, which would normally make calls to {@link #getDao()}, on the executor. This is how the DAO
+	 * methods that do not have an asynchronous version here can be run.
+	 */
+	public <CT> DaoFuture<CT> submit(Callable<CT> callable) {
+		DaoFuture<CT> future = new DaoFuture<CT>(callable);
+		executor.execute(future);
+		return future;
+	}
+
+	/**
+	 * Return the DAO that this is wrapping.
+	 */
+	public Dao<T, ID> getDao() {
+		return dao;
+	}
+
+	/**
+	 * Return the executor that the operations are run on.
+	 */
+	public ExecutorService getExecutor() {
+		return executor;
+	}
+}
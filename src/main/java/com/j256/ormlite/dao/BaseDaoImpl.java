@@ -1,12 +1,15 @@
 package com.j256.ormlite.dao;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 import com.j256.ormlite.db.DatabaseType;
 import com.j256.ormlite.field.DataType;
@@ -14,14 +17,21 @@ import com.j256.ormlite.field.DatabaseField;
 import com.j256.ormlite.field.FieldType;
 import com.j256.ormlite.misc.BaseDaoEnabled;
 import com.j256.ormlite.misc.SqlExceptionUtil;
+import com.j256.ormlite.stmt.AggregateResults;
+import com.j256.ormlite.stmt.ColumnarResults;
 import com.j256.ormlite.stmt.DeleteBuilder;
 import com.j256.ormlite.stmt.GenericRowMapper;
+import com.j256.ormlite.stmt.InListSizes;
+import com.j256.ormlite.stmt.PrefetchIterator;
 import com.j256.ormlite.stmt.PreparedDelete;
 import com.j256.ormlite.stmt.PreparedQuery;
 import com.j256.ormlite.stmt.PreparedUpdate;
+import com.j256.ormlite.stmt.QueryBindings;
 import com.j256.ormlite.stmt.QueryBuilder;
 import com.j256.ormlite.stmt.SelectArg;
+import com.j256.ormlite.stmt.SelectBatchIterator;
 import com.j256.ormlite.stmt.SelectIterator;
+import com.j256.ormlite.stmt.SqlTemplateCache;
 import com.j256.ormlite.stmt.StatementBuilder.StatementType;
 import com.j256.ormlite.stmt.StatementExecutor;
 import com.j256.ormlite.stmt.UpdateBuilder;
@@ -74,6 +84,10 @@ public abstract class BaseDaoImpl<T, ID> implements Dao<T, ID> {
 	};
 	private static ReferenceObjectCache defaultObjectCache;
 	private ObjectCache objectCache;
+	private DirtyTracker dirtyTracker;
+	private boolean nativeUpsert;
+	private SqlTemplateCache sqlTemplateCache;
+	private volatile QueryForIdCoalescer<T, ID> queryForIdCoalescer;
 
 	/**
 	 * Construct our base DAO using Spring type wiring. The {@link ConnectionSource} must be set with the
@@ -216,6 +230,14 @@ public abstract class BaseDaoImpl<T, ID> implements Dao<T, ID> {
 
 	public T queryForId(ID id) throws SQLException {
 		checkForInitialized();
+		QueryForIdCoalescer<T, ID> coalescer = queryForIdCoalescer;
+		/*
+		 * Callers of the same id share the object so we only coalesce when the object cache does that anyway. A thread
+		 * with its own connection, such as in a transaction, has to use it to see its changes.
+		 */
+		if (coalescer != null && objectCache != null && connectionSource.getSpecialConnection() == null) {
+			return coalescer.queryForId(id);
+		}
 		DatabaseConnection connection = connectionSource.getReadOnlyConnection();
 		try {
 			return statementExecutor.queryForId(connection, id, objectCache);
@@ -224,6 +246,19 @@ public abstract class BaseDaoImpl<T, ID> implements Dao<T, ID> {
 		}
 	}
 
+	public Map<ID, T> queryForIds(Collection<ID> ids) throws SQLException {
+		checkForInitialized();
+		if (ids == null || ids.isEmpty()) {
+			return new HashMap<ID, T>();
+		}
+		DatabaseConnection connection = connectionSource.getReadOnlyConnection();
+		try {
+			return statementExecutor.queryForIds(connection, ids, objectCache);
+		} finally {
+			connectionSource.releaseConnection(connection);
+		}
+	}
+
 	public T queryForFirst(PreparedQuery<T> preparedQuery) throws SQLException {
 		checkForInitialized();
 		DatabaseConnection connection = connectionSource.getReadOnlyConnection();
@@ -234,6 +269,16 @@ public abstract class BaseDaoImpl<T, ID> implements Dao<T, ID> {
 		}
 	}
 
+	public T queryForFirst(PreparedQuery<T> preparedQuery, QueryBindings bindings) throws SQLException {
+		checkForInitialized();
+		DatabaseConnection connection = connectionSource.getReadOnlyConnection();
+		try {
+			return statementExecutor.queryForFirst(connection, preparedQuery, bindings, objectCache);
+		} finally {
+			connectionSource.releaseConnection(connection);
+		}
+	}
+
 	public List<T> queryForAll() throws SQLException {
 		checkForInitialized();
 		return statementExecutor.queryForAll(connectionSource, objectCache);
@@ -245,7 +290,11 @@ public abstract class BaseDaoImpl<T, ID> implements Dao<T, ID> {
 
 	public QueryBuilder<T, ID> queryBuilder() {
 		checkForInitialized();
-		return new QueryBuilder<T, ID>(databaseType, tableInfo, this);
+		QueryBuilder<T, ID> qb = new QueryBuilder<T, ID>(databaseType, tableInfo, this);
+		if (sqlTemplateCache != null) {
+			qb.setSqlTemplateCache(sqlTemplateCache);
+		}
+		return qb;
 	}
 
 	public UpdateBuilder<T, ID> updateBuilder() {
@@ -263,6 +312,16 @@ public abstract class BaseDaoImpl<T, ID> implements Dao<T, ID> {
 		return statementExecutor.query(connectionSource, preparedQuery, objectCache);
 	}
 
+	public List<T> query(PreparedQuery<T> preparedQuery, QueryBindings bindings) throws SQLException {
+		checkForInitialized();
+		return statementExecutor.query(connectionSource, preparedQuery, bindings, objectCache);
+	}
+
+	public <R> List<R> queryInto(PreparedQuery<T> preparedQuery, Class<R> resultClass) throws SQLException {
+		checkForInitialized();
+		return statementExecutor.queryInto(connectionSource, preparedQuery, resultClass, objectCache);
+	}
+
 	public List<T> queryForMatching(T matchObj) throws SQLException {
 		return queryForMatching(matchObj, false);
 	}
@@ -315,6 +374,23 @@ public abstract class BaseDaoImpl<T, ID> implements Dao<T, ID> {
 		if (data == null) {
 			return null;
 		}
+		if (nativeUpsert && statementExecutor.isUpsertSupported(data, false)) {
+			DatabaseConnection connection = connectionSource.getReadWriteConnection();
+			try {
+				if (statementExecutor.insertIfNotExists(connection, data, objectCache) > 0) {
+					return data;
+				}
+			} finally {
+				connectionSource.releaseConnection(connection);
+			}
+			// the row already existed so we return what is in the database
+			T existing = queryForSameId(data);
+			if (existing == null) {
+				throw new SQLException("Insert-if-not-exists of " + data + " did not insert a row but no row with its id"
+						+ " was found");
+			}
+			return existing;
+		}
 		T existing = queryForSameId(data);
 		if (existing == null) {
 			create(data);
@@ -328,6 +404,17 @@ public abstract class BaseDaoImpl<T, ID> implements Dao<T, ID> {
 		if (data == null) {
 			return new CreateOrUpdateStatus(false, false, 0);
 		}
+		// we need to know if the upsert inserted or updated the row to return the status
+		if (nativeUpsert && databaseType.isUpsertResultReported() && statementExecutor.isUpsertSupported(data, true)) {
+			DatabaseConnection connection = connectionSource.getReadWriteConnection();
+			try {
+				int numRows = statementExecutor.upsert(connection, data, objectCache);
+				boolean created = databaseType.isUpsertInsert(numRows);
+				return new CreateOrUpdateStatus(created, !created, numRows);
+			} finally {
+				connectionSource.releaseConnection(connection);
+			}
+		}
 		ID id = extractId(data);
 		// assume we need to create it if there is no id
 		if (id == null || !idExists(id)) {
@@ -339,6 +426,44 @@ public abstract class BaseDaoImpl<T, ID> implements Dao<T, ID> {
 		}
 	}
 
+	public int createOrUpdateAll(final Collection<T> datas) throws SQLException {
+		checkForInitialized();
+		if (datas == null || datas.isEmpty()) {
+			return 0;
+		}
+		// run them all on the same connection and, if the database supports it, in one transaction
+		return callBatchTasks(new Callable<Integer>() {
+			public Integer call() throws SQLException {
+				int numRows = 0;
+				List<T> upserts = new ArrayList<T>();
+				for (T data : datas) {
+					if (nativeUpsert && data != null && statementExecutor.isUpsertSupported(data, true)) {
+						upserts.add(data);
+					} else {
+						// keep the order in case this generates an id that a later one has
+						numRows += upsertAll(upserts);
+						upserts.clear();
+						numRows += createOrUpdate(data).getNumLinesChanged();
+					}
+				}
+				numRows += upsertAll(upserts);
+				return numRows;
+			}
+		});
+	}
+
+	private int upsertAll(List<T> datas) throws SQLException {
+		if (datas.isEmpty()) {
+			return 0;
+		}
+		DatabaseConnection connection = connectionSource.getReadWriteConnection();
+		try {
+			return statementExecutor.upsertAll(connection, datas, objectCache);
+		} finally {
+			connectionSource.releaseConnection(connection);
+		}
+	}
+
 	public int update(T data) throws SQLException {
 		checkForInitialized();
 		// ignore updating a null object
@@ -369,6 +494,25 @@ public abstract class BaseDaoImpl<T, ID> implements Dao<T, ID> {
 		}
 	}
 
+	public int updateColumnValues(final String[] columnNames, final Map<ID, Object[]> idValues)
+			throws SQLException {
+		checkForInitialized();
+		if (idValues == null || idValues.isEmpty()) {
+			return 0;
+		}
+		// run the chunks on the same connection and, if the database supports it, in one transaction
+		return callBatchTasks(new Callable<Integer>() {
+			public Integer call() throws SQLException {
+				DatabaseConnection connection = connectionSource.getReadWriteConnection();
+				try {
+					return statementExecutor.updateColumnValues(connection, columnNames, idValues, objectCache);
+				} finally {
+					connectionSource.releaseConnection(connection);
+				}
+			}
+		});
+	}
+
 	public int update(PreparedUpdate<T> preparedUpdate) throws SQLException {
 		checkForInitialized();
 		DatabaseConnection connection = connectionSource.getReadWriteConnection();
@@ -429,33 +573,57 @@ public abstract class BaseDaoImpl<T, ID> implements Dao<T, ID> {
 		}
 	}
 
-	public int delete(Collection<T> datas) throws SQLException {
+	public int delete(final Collection<T> datas) throws SQLException {
 		checkForInitialized();
 		// ignore deleting a null object
 		if (datas == null || datas.isEmpty()) {
 			return 0;
-		} else {
+		} else if (datas.size() <= InListSizes.chunkSize(databaseType, 0)) {
 			DatabaseConnection connection = connectionSource.getReadWriteConnection();
 			try {
 				return statementExecutor.deleteObjects(connection, datas, objectCache);
 			} finally {
 				connectionSource.releaseConnection(connection);
 			}
+		} else {
+			// more than one DELETE is run so run the chunks on the same connection and in one transaction if supported
+			return callBatchTasks(new Callable<Integer>() {
+				public Integer call() throws SQLException {
+					DatabaseConnection connection = connectionSource.getReadWriteConnection();
+					try {
+						return statementExecutor.deleteObjects(connection, datas, objectCache);
+					} finally {
+						connectionSource.releaseConnection(connection);
+					}
+				}
+			});
 		}
 	}
 
-	public int deleteIds(Collection<ID> ids) throws SQLException {
+	public int deleteIds(final Collection<ID> ids) throws SQLException {
 		checkForInitialized();
 		// ignore deleting a null object
 		if (ids == null || ids.isEmpty()) {
 			return 0;
-		} else {
+		} else if (ids.size() <= InListSizes.chunkSize(databaseType, 0)) {
 			DatabaseConnection connection = connectionSource.getReadWriteConnection();
 			try {
 				return statementExecutor.deleteIds(connection, ids, objectCache);
 			} finally {
 				connectionSource.releaseConnection(connection);
 			}
+		} else {
+			// more than one DELETE is run so run the chunks on the same connection and in one transaction if supported
+			return callBatchTasks(new Callable<Integer>() {
+				public Integer call() throws SQLException {
+					DatabaseConnection connection = connectionSource.getReadWriteConnection();
+					try {
+						return statementExecutor.deleteIds(connection, ids, objectCache);
+					} finally {
+						connectionSource.releaseConnection(connection);
+					}
+				}
+			});
 		}
 	}
 
@@ -532,6 +700,64 @@ public abstract class BaseDaoImpl<T, ID> implements Dao<T, ID> {
 		return lastIterator;
 	}
 
+	public CloseableIterator<T> iterator(PreparedQuery<T> preparedQuery, QueryBindings bindings) throws SQLException {
+		checkForInitialized();
+		try {
+			lastIterator =
+					statementExecutor.buildIterator(this, connectionSource, preparedQuery, bindings, objectCache,
+							DatabaseConnection.DEFAULT_RESULT_FLAGS);
+			return lastIterator;
+		} catch (SQLException e) {
+			throw SqlExceptionUtil.create("Could not build prepared-query iterator for " + dataClass, e);
+		}
+	}
+
+	public CloseableBatchIterator<T> batchIterator(PreparedQuery<T> preparedQuery, int batchSize)
+			throws SQLException {
+		checkForInitialized();
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("batch size " + batchSize + " must be >= 1");
+		}
+		try {
+			SelectIterator<T, ID> iterator =
+					statementExecutor.buildIterator(this, connectionSource, preparedQuery, objectCache,
+							DatabaseConnection.DEFAULT_RESULT_FLAGS);
+			return new SelectBatchIterator<T, ID>(iterator, batchSize);
+		} catch (SQLException e) {
+			throw SqlExceptionUtil.create("Could not build prepared-query batch iterator for " + dataClass, e);
+		}
+	}
+
+	public long forEach(PreparedQuery<T> preparedQuery, RowHandler<T> rowHandler) throws SQLException {
+		checkForInitialized();
+		try {
+			return statementExecutor.forEach(connectionSource, preparedQuery, rowHandler);
+		} catch (SQLException e) {
+			throw SqlExceptionUtil.create("Could not run for-each of prepared-query for " + dataClass, e);
+		}
+	}
+
+	public PrefetchIterator<T> prefetchIterator(PreparedQuery<T> preparedQuery, int bufferSize, Executor executor)
+			throws SQLException {
+		checkForInitialized();
+		if (bufferSize < 1) {
+			throw new IllegalArgumentException("buffer size " + bufferSize + " must be >= 1");
+		}
+		// the iterator would use the thread's own connection from the executor's thread while the thread also uses it
+		if (connectionSource.getSpecialConnection() != null) {
+			throw new SQLException("Cannot prefetch results of " + dataClass
+					+ " while the thread has a special connection, such as inside of a transaction");
+		}
+		try {
+			SelectIterator<T, ID> iterator =
+					statementExecutor.buildIterator(this, connectionSource, preparedQuery, objectCache,
+							DatabaseConnection.DEFAULT_RESULT_FLAGS);
+			return new PrefetchIterator<T>(iterator, bufferSize, executor);
+		} catch (SQLException e) {
+			throw SqlExceptionUtil.create("Could not build prepared-query prefetch iterator for " + dataClass, e);
+		}
+	}
+
 	public GenericRawResults<String[]> queryRaw(String query, String... arguments) throws SQLException {
 		checkForInitialized();
 		try {
@@ -561,6 +787,15 @@ public abstract class BaseDaoImpl<T, ID> implements Dao<T, ID> {
 		}
 	}
 
+	public RawCursor queryRawCursor(String query, String... arguments) throws SQLException {
+		checkForInitialized();
+		try {
+			return statementExecutor.queryRawCursor(connectionSource, query, arguments, objectCache);
+		} catch (SQLException e) {
+			throw SqlExceptionUtil.create("Could not perform raw cursor query for " + query, e);
+		}
+	}
+
 	public long queryRawValue(String query, String... arguments) throws SQLException {
 		checkForInitialized();
 		DatabaseConnection connection = connectionSource.getReadOnlyConnection();
@@ -693,6 +928,10 @@ public abstract class BaseDaoImpl<T, ID> implements Dao<T, ID> {
 	}
 
 	public long countOf(PreparedQuery<T> preparedQuery) throws SQLException {
+		return countOf(preparedQuery, null);
+	}
+
+	public long countOf(PreparedQuery<T> preparedQuery, QueryBindings bindings) throws SQLException {
 		checkForInitialized();
 		if (preparedQuery.getType() != StatementType.SELECT_LONG) {
 			throw new IllegalArgumentException("Prepared query is not of type " + StatementType.SELECT_LONG
@@ -700,7 +939,7 @@ public abstract class BaseDaoImpl<T, ID> implements Dao<T, ID> {
 		}
 		DatabaseConnection connection = connectionSource.getReadOnlyConnection();
 		try {
-			return statementExecutor.queryForLong(connection, preparedQuery);
+			return statementExecutor.queryForLong(connection, preparedQuery, bindings);
 		} finally {
 			connectionSource.releaseConnection(connection);
 		}
@@ -767,6 +1006,59 @@ public abstract class BaseDaoImpl<T, ID> implements Dao<T, ID> {
 		}
 	}
 
+	public void setDirtyTracking(boolean enabled) throws SQLException {
+		if (enabled) {
+			if (dirtyTracker == null) {
+				if (tableInfo.getIdField() == null) {
+					throw new SQLException("Class " + dataClass + " must have an id field to enable dirty tracking");
+				}
+				dirtyTracker = new DirtyTracker();
+			}
+		} else {
+			dirtyTracker = null;
+		}
+	}
+
+	public DirtyTracker getDirtyTracker() {
+		return dirtyTracker;
+	}
+
+	public void setNativeUpsert(boolean enabled) {
+		this.nativeUpsert = enabled;
+	}
+
+	public boolean isNativeUpsert() {
+		return nativeUpsert;
+	}
+
+	public void setSqlTemplateCaching(boolean enabled) {
+		if (enabled) {
+			if (sqlTemplateCache == null) {
+				sqlTemplateCache = new SqlTemplateCache();
+			}
+		} else {
+			sqlTemplateCache = null;
+		}
+	}
+
+	public SqlTemplateCache getSqlTemplateCache() {
+		return sqlTemplateCache;
+	}
+
+	public void setQueryForIdCoalescing(boolean enabled) {
+		if (enabled) {
+			if (queryForIdCoalescer == null) {
+				queryForIdCoalescer = new QueryForIdCoalescer<T, ID>(this);
+			}
+		} else {
+			queryForIdCoalescer = null;
+		}
+	}
+
+	public QueryForIdCoalescer<T, ID> getQueryForIdCoalescer() {
+		return queryForIdCoalescer;
+	}
+
 	/**
 	 * Special call mostly used in testing to clear the internal object caches so we can reset state.
 	 */
@@ -798,6 +1090,48 @@ public abstract class BaseDaoImpl<T, ID> implements Dao<T, ID> {
 		}
 	}
 
+	public boolean exists(PreparedQuery<T> preparedQuery) throws SQLException {
+		return exists(preparedQuery, null);
+	}
+
+	public boolean exists(PreparedQuery<T> preparedQuery, QueryBindings bindings) throws SQLException {
+		checkForInitialized();
+		DatabaseConnection connection = connectionSource.getReadOnlyConnection();
+		try {
+			return statementExecutor.exists(connection, preparedQuery, bindings);
+		} finally {
+			connectionSource.releaseConnection(connection);
+		}
+	}
+
+	public AggregateResults queryForAggregate(PreparedQuery<T> preparedQuery) throws SQLException {
+		checkForInitialized();
+		if (preparedQuery.getType() != StatementType.SELECT_RAW) {
+			throw new IllegalArgumentException("Prepared query is not of type " + StatementType.SELECT_RAW
+					+ ", did you call QueryBuilder.setAggregate(...)?");
+		}
+		DatabaseConnection connection = connectionSource.getReadOnlyConnection();
+		try {
+			return statementExecutor.queryForAggregate(connection, preparedQuery);
+		} finally {
+			connectionSource.releaseConnection(connection);
+		}
+	}
+
+	public ColumnarResults queryForColumnar(PreparedQuery<T> preparedQuery) throws SQLException {
+		checkForInitialized();
+		if (preparedQuery.getType() != StatementType.SELECT_RAW) {
+			throw new IllegalArgumentException("Prepared query is not of type " + StatementType.SELECT_RAW
+					+ ", did you call QueryBuilder.setColumnar(...)?");
+		}
+		DatabaseConnection connection = connectionSource.getReadOnlyConnection();
+		try {
+			return statementExecutor.queryForColumnar(connection, preparedQuery);
+		} finally {
+			connectionSource.releaseConnection(connection);
+		}
+	}
+
 	public DatabaseConnection startThreadConnection() throws SQLException {
 		DatabaseConnection connection = connectionSource.getReadWriteConnection();
 		connectionSource.saveSpecialConnection(connection);
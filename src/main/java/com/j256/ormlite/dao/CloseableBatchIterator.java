@@ -0,0 +1,61 @@
+package com.j256.ormlite.dao;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Iterator returned by {@link Dao#batchIterator(PreparedQuery, int)} which returns the results of a query as lists of
+ * a fixed number of objects. The underlying statement and connection are released as soon as the last batch has been
+ * read so a loop that reads all of the results does not leak them. The batches are independent of the iterator so
+ * they can be handed off to other threads to be processed in parallel while the next batch is read.
+ * 
+ * <pre>
+ * CloseableBatchIterator&lt;Account&gt; iterator = accountDao.batchIterator(qb.prepare(), 1000);
+ * try {
+ *     while (iterator.hasNext()) {
+ *         final List&lt;Account&gt; batch = iterator.next();
+ *         executor.submit(new Runnable() { ... });
+ *     }
+ * } finally {
+ *     iterator.close();
+ * }
+ * </pre>
+ * 
+ * <p>
+ * <b>NOTE:</b> If you stop before reading all of the batches then you must call {@link #close()} otherwise the
+ * underlying SQL statement and connection may be kept open.
+ * </p>
+ * 
+ * @author graywatson
+ */
+public interface CloseableBatchIterator<T> extends Iterator<List<T>> {
+
+	/**
+	 * Return the maximum number of objects in each batch.
+	 */
+	public int getBatchSize();
+
+	/**
+	 * Return the number of objects that have been returned in the batches so far.
+	 */
+	public long getObjectCount();
+
+	/**
+	 * Returns the next batch of objects which has at least one object or null if there are no more results.
+	 * 
+	 * @throws SQLException
+	 *             If there was a problem getting more results via SQL.
+	 */
+	public List<T> nextThrow() throws SQLException;
+
+	/**
+	 * Close the underlying statement and connection.
+	 */
+	public void close() throws SQLException;
+
+	/**
+	 * Close the underlying statement and connection and ignore any exceptions.
+	 */
+	public void closeQuietly();
+}
@@ -8,21 +8,28 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 import com.j256.ormlite.field.DataType;
 import com.j256.ormlite.field.FieldType;
 import com.j256.ormlite.field.ForeignCollectionField;
+import com.j256.ormlite.stmt.AggregateResults;
+import com.j256.ormlite.stmt.ColumnarResults;
 import com.j256.ormlite.stmt.DeleteBuilder;
 import com.j256.ormlite.stmt.GenericRowMapper;
+import com.j256.ormlite.stmt.PrefetchIterator;
 import com.j256.ormlite.stmt.PreparedDelete;
 import com.j256.ormlite.stmt.PreparedQuery;
 import com.j256.ormlite.stmt.PreparedUpdate;
+import com.j256.ormlite.stmt.QueryBindings;
 import com.j256.ormlite.stmt.QueryBuilder;
 import com.j256.ormlite.stmt.SelectArg;
+import com.j256.ormlite.stmt.SqlTemplateCache;
 import com.j256.ormlite.stmt.UpdateBuilder;
 import com.j256.ormlite.support.ConnectionSource;
 import com.j256.ormlite.support.DatabaseConnection;
 import com.j256.ormlite.support.DatabaseResults;
+import com.j256.ormlite.table.DatabaseConstructor;
 import com.j256.ormlite.table.ObjectFactory;
 
 /**
@@ -49,6 +56,19 @@ public interface Dao<T, ID> extends CloseableIterable<T> {
 	 */
 	public T queryForId(ID id) throws SQLException;
 
+	/**
+	 * Retrieves the objects associated with a number of IDs. Objects that are in the {@link ObjectCache}, if one is
+	 * enabled, are returned from there and the rest are queried for using SQL <tt>IN</tt> clauses with as many of the
+	 * ids as the database allows at once. The objects that are queried for are added to the cache.
+	 * 
+	 * @param ids
+	 *            Identifiers that match rows in the database to find and return.
+	 * @return A map of the ids to the objects that have them. IDs that do not match a row are not in the map.
+	 * @throws SQLException
+	 *             on any SQL problems.
+	 */
+	public Map<ID, T> queryForIds(Collection<ID> ids) throws SQLException;
+
 	/**
 	 * Query for and return the first item in the object table which matches the PreparedQuery. See
 	 * {@link #queryBuilder()} for more information. This can be used to return the object that matches a single unique
@@ -62,6 +82,13 @@ public interface Dao<T, ID> extends CloseableIterable<T> {
 	 */
 	public T queryForFirst(PreparedQuery<T> preparedQuery) throws SQLException;
 
+	/**
+	 * Same as {@link #queryForFirst(PreparedQuery)} but the arguments of the query are set from the bindings instead of
+	 * from its argument holders so the same prepared query can be used by many threads at once. See
+	 * {@link QueryBindings}.
+	 */
+	public T queryForFirst(PreparedQuery<T> preparedQuery, QueryBindings bindings) throws SQLException;
+
 	/**
 	 * Query for all of the items in the object table. For medium sized or large tables, this may load a lot of objects
 	 * into memory so you should consider using the {@link #iterator()} method instead.
@@ -149,6 +176,29 @@ public interface Dao<T, ID> extends CloseableIterable<T> {
 	 */
 	public List<T> query(PreparedQuery<T> preparedQuery) throws SQLException;
 
+	/**
+	 * Same as {@link #query(PreparedQuery)} but the arguments of the query are set from the bindings instead of from its
+	 * argument holders so the same prepared query can be used by many threads at once. See {@link QueryBindings}.
+	 */
+	public List<T> query(PreparedQuery<T> preparedQuery, QueryBindings bindings) throws SQLException;
+
+	/**
+	 * Query for the items in the object table which match the prepared query and return them as objects of the result
+	 * class. The result class does not need to be persisted. Its objects are created by passing the selected columns of
+	 * each row, in order, to its constructor, or static factory method, marked with {@link DatabaseConstructor} or
+	 * else the first constructor whose arguments match. This is useful to project the results of
+	 * {@link QueryBuilder#selectColumns(String...)} into data transfer objects.
+	 * 
+	 * @param preparedQuery
+	 *            Query used to match the objects in the database.
+	 * @param resultClass
+	 *            Class of the objects to return.
+	 * @return A list of the result objects created from the rows that match the query.
+	 * @throws SQLException
+	 *             on any SQL problems or if the result class has no matching constructor.
+	 */
+	public <R> List<R> queryInto(PreparedQuery<T> preparedQuery, Class<R> resultClass) throws SQLException;
+
 	/**
 	 * Create a new row in the database from an object.
 	 * 
@@ -161,7 +211,9 @@ public interface Dao<T, ID> extends CloseableIterable<T> {
 	/**
 	 * This is a convenience method to creating a data item but only if the ID does not already exist in the table. This
 	 * extracts the ID from the data parameter, does a {@link #queryForId(Object)} on it, returning the data if it
-	 * exists. If it does not exist {@link #create(Object)} will be called with the parameter.
+	 * exists. If it does not exist {@link #create(Object)} will be called with the parameter. If
+	 * {@link #setNativeUpsert(boolean)} is enabled and the id is set then this is done with a single insert statement
+	 * which leaves existing rows alone and the query is only made if the row already existed.
 	 * 
 	 * @return Either the data parameter if it was inserted (now with the ID field set via the create method) or the
 	 *         data element that existed already in the database.
@@ -175,10 +227,26 @@ public interface Dao<T, ID> extends CloseableIterable<T> {
 	 * (or 0 or some other default value) or doesn't exist in the database then the object will be created in the
 	 * database. This also means that your data item <i>must</i> have an id field defined.
 	 * 
+	 * <p>
+	 * If {@link #setNativeUpsert(boolean)} is enabled and the id is set then this is done with a single upsert
+	 * statement instead, but only if the database reports whether the row was inserted or updated, see
+	 * {@link com.j256.ormlite.db.DatabaseType#isUpsertResultReported()}. Otherwise we couldn't return the status.
+	 * </p>
+	 * 
 	 * @return Status object with the number of rows changed and whether an insert or update was performed.
 	 */
 	public CreateOrUpdateStatus createOrUpdate(T data) throws SQLException;
 
+	/**
+	 * Call {@link #createOrUpdate(Object)} on each of the items in the collection. They are all written using the same
+	 * connection inside of {@link #callBatchTasks(Callable)}. With {@link #setNativeUpsert(boolean)} enabled, the items
+	 * whose id is set are instead written in batches with multi-row upsert statements, as many rows per statement as the
+	 * database's max query parameters allow.
+	 * 
+	 * @return The number of rows changed.
+	 */
+	public int createOrUpdateAll(Collection<T> datas) throws SQLException;
+
 	/**
 	 * Store the fields from an object to the database. If you have made changes to an object, this is how you persist
 	 * those changes to the database. You cannot use this method to update the id field -- see {@link #updateId} .
@@ -216,6 +284,26 @@ public interface Dao<T, ID> extends CloseableIterable<T> {
 	 */
 	public int updateId(T data, ID newId) throws SQLException;
 
+	/**
+	 * Set columns of a number of rows each to their own values. Instead of an update per row, this generates
+	 * <tt>UPDATE ... SET col = CASE id WHEN ? THEN ? ... END WHERE id IN (...)</tt> statements with as many rows as the
+	 * database allows at once. The statements are run on the same connection and, if the database supports it, in one
+	 * transaction. Any objects with the ids are removed from the {@link ObjectCache}.
+	 * 
+	 * <p>
+	 * <b>NOTE:</b> Unlike {@link #update(Object)}, version fields are not checked or incremented.
+	 * </p>
+	 * 
+	 * @param columnNames
+	 *            Columns to set. There must be at least one.
+	 * @param idValues
+	 *            Map of the ids of the rows to their new values which are in the same order as the column names.
+	 * @return The number of rows updated in the database.
+	 * @throws SQLException
+	 *             on any SQL problems.
+	 */
+	public int updateColumnValues(String[] columnNames, Map<ID, Object[]> idValues) throws SQLException;
+
 	/**
 	 * Update all rows in the table according to the prepared statement argument. To use this, the {@link UpdateBuilder}
 	 * must have set-columns applied to it using the {@link UpdateBuilder#updateColumnValue(String, Object)} or
@@ -268,7 +356,9 @@ public interface Dao<T, ID> extends CloseableIterable<T> {
 	public int deleteById(ID id) throws SQLException;
 
 	/**
-	 * Delete a collection of objects from the database using an IN SQL clause.
+	 * Delete a collection of objects from the database using an IN SQL clause. If the collection is larger than the
+	 * database allows in one statement then it is deleted with more than one statement which are run inside of
+	 * {@link #callBatchTasks(Callable)} so they are in one transaction if the database supports it.
 	 * 
 	 * @param datas
 	 *            A collection of data items to be deleted.
@@ -279,7 +369,9 @@ public interface Dao<T, ID> extends CloseableIterable<T> {
 	public int delete(Collection<T> datas) throws SQLException;
 
 	/**
-	 * Delete the objects that match the collection of ids from the database using an IN SQL clause.
+	 * Delete the objects that match the collection of ids from the database using an IN SQL clause. Like
+	 * {@link #delete(Collection)}, large collections are deleted with more than one statement inside of
+	 * {@link #callBatchTasks(Callable)}.
 	 * 
 	 * @param ids
 	 *            A collection of data ids to be deleted.
@@ -369,6 +461,11 @@ public interface Dao<T, ID> extends CloseableIterable<T> {
 	 * </blockquote>
 	 * </p>
 	 * 
+	 * <p>
+	 * To iterate through a large number of rows without the driver buffering all of them in memory, set the fetch-size
+	 * of the query with {@link QueryBuilder#setFetchSize(Integer)}.
+	 * </p>
+	 * 
 	 * @param preparedQuery
 	 *            Query used to iterate across a sub-set of the items in the database.
 	 * @return An iterator for T.
@@ -383,6 +480,75 @@ public interface Dao<T, ID> extends CloseableIterable<T> {
 	 */
 	public CloseableIterator<T> iterator(PreparedQuery<T> preparedQuery, int resultFlags) throws SQLException;
 
+	/**
+	 * Same as {@link #iterator(PreparedQuery)} but the arguments of the query are set from the bindings instead of from
+	 * its argument holders so the same prepared query can be used by many threads at once. See {@link QueryBindings}.
+	 */
+	public CloseableIterator<T> iterator(PreparedQuery<T> preparedQuery, QueryBindings bindings) throws SQLException;
+
+	/**
+	 * Similar to {@link #iterator(PreparedQuery)} but the results are returned in lists of up to batch-size objects.
+	 * This allows you to work through a large number of results without loading them all into memory and to hand each
+	 * batch to other threads to be processed in parallel. The underlying statement and connection are released as soon
+	 * as the last batch has been read.
+	 * 
+	 * <p>
+	 * <b>NOTE:</b> If you stop before reading all of the batches then you must call
+	 * {@link CloseableBatchIterator#close()} otherwise the underlying SQL statement and connection may be kept open.
+	 * </p>
+	 * 
+	 * @param preparedQuery
+	 *            Query used to iterate across a sub-set of the items in the database.
+	 * @param batchSize
+	 *            Maximum number of objects in each batch.
+	 * @return An iterator of batches of T.
+	 */
+	public CloseableBatchIterator<T> batchIterator(PreparedQuery<T> preparedQuery, int batchSize)
+			throws SQLException;
+
+	/**
+	 * Similar to {@link #iterator(PreparedQuery)} but the rows are read and mapped into objects on a thread from the
+	 * executor while the caller is processing the previous objects. Up to buffer-size objects are read ahead. See
+	 * {@link PrefetchIterator}.
+	 * 
+	 * <p>
+	 * <b>NOTE:</b> If you stop before reading all of the results then you must call {@link PrefetchIterator#close()}
+	 * otherwise the underlying SQL statement and connection may be kept open.
+	 * </p>
+	 * 
+	 * <p>
+	 * <b>NOTE:</b> This throws if the thread has a special connection, such as inside of {@link #callBatchTasks(Callable)}
+	 * or a transaction, since that connection would then be used by the executor's thread at the same time.
+	 * </p>
+	 * 
+	 * @param preparedQuery
+	 *            Query used to iterate across a sub-set of the items in the database.
+	 * @param bufferSize
+	 *            Maximum number of objects that are read ahead of the caller.
+	 * @param executor
+	 *            Executor whose thread reads the rows. It is used for the whole time the results are being read.
+	 */
+	public PrefetchIterator<T> prefetchIterator(PreparedQuery<T> preparedQuery, int bufferSize, Executor executor)
+			throws SQLException;
+
+	/**
+	 * Pass each of the results of the prepared query to the row-handler. Unlike {@link #iterator(PreparedQuery)}, the
+	 * rows are all mapped into the same object, whose fields are overwritten by each row, and the object cache is not
+	 * used. This allows a large number of rows to be processed without creating an object for each one.
+	 * 
+	 * <p>
+	 * <b>NOTE:</b> The object passed to the handler must not be kept after the handler returns. Fields that are not
+	 * selected by the query keep their default values.
+	 * </p>
+	 * 
+	 * @param preparedQuery
+	 *            Query used to select the rows.
+	 * @param rowHandler
+	 *            Handler that is called with each of the rows. It returns false to stop early.
+	 * @return The number of rows that were passed to the handler.
+	 */
+	public long forEach(PreparedQuery<T> preparedQuery, RowHandler<T> rowHandler) throws SQLException;
+
 	/**
 	 * This makes a one time use iterable class that can be closed afterwards. The DAO itself is
 	 * {@link CloseableWrappedIterable} but multiple threads can each call this to get their own closeable iterable.
@@ -483,6 +649,19 @@ public interface Dao<T, ID> extends CloseableIterable<T> {
 	public GenericRawResults<Object[]> queryRaw(String query, DataType[] columnTypes, String... arguments)
 			throws SQLException;
 
+	/**
+	 * Similar to the {@link #queryRaw(String, String...)} but instead of creating an array for each row, this returns a
+	 * cursor whose typed getters read the columns of the current row directly from the database results. No objects
+	 * are allocated per row which makes this appropriate for high-volume reporting queries. The arguments are optional
+	 * but can be set with strings to expand ? type of SQL.
+	 * 
+	 * <p>
+	 * <b>NOTE:</b> You must call {@link RawCursor#close()} once you are done with the cursor otherwise the underlying
+	 * SQL statement and connection may be kept open.
+	 * </p>
+	 */
+	public RawCursor queryRawCursor(String query, String... arguments) throws SQLException;
+
 	/**
 	 * Perform a raw query that returns a single value (usually an aggregate function like MAX or COUNT). If the query
 	 * does not return a single long value then it will throw a SQLException.
@@ -586,6 +765,12 @@ public interface Dao<T, ID> extends CloseableIterable<T> {
 	 */
 	public long countOf(PreparedQuery<T> preparedQuery) throws SQLException;
 
+	/**
+	 * Same as {@link #countOf(PreparedQuery)} but the arguments of the query are set from the bindings instead of from
+	 * its argument holders so the same prepared query can be used by many threads at once. See {@link QueryBindings}.
+	 */
+	public long countOf(PreparedQuery<T> preparedQuery, QueryBindings bindings) throws SQLException;
+
 	/**
 	 * Creates an empty collection and assigns it to the appropriate field in the parent object. This allows you to add
 	 * things to the collection from the start.
@@ -654,6 +839,70 @@ public interface Dao<T, ID> extends CloseableIterable<T> {
 	 */
 	public void clearObjectCache();
 
+	/**
+	 * Call this with true to enable dirty tracking for the DAO. A snapshot of the column values is then kept for the
+	 * objects that are loaded, created, or updated through the DAO and {@link #update(Object)} will only write the
+	 * columns that have changed. If nothing has changed, the update is skipped and 0 is returned without a round trip
+	 * to the database unless the class has a version field, in which case the version is still checked and moved to
+	 * its next value. Objects without a snapshot are updated in full. Set to false to disable the tracking.
+	 * 
+	 * @throws SQLException
+	 *             If the DAO's class does not have an id field which is required to update objects.
+	 */
+	public void setDirtyTracking(boolean enabled) throws SQLException;
+
+	/**
+	 * Returns the current dirty-tracker being used by the DAO or null if none.
+	 */
+	public DirtyTracker getDirtyTracker();
+
+	/**
+	 * Call this with true to have {@link #createOrUpdate(Object)} and {@link #createIfNotExists(Object)} use a single
+	 * native upsert statement, such as "MERGE INTO" or "INSERT ... ON CONFLICT", if the database type supports it. This
+	 * avoids the extra round trip to see if the row exists and the race if another thread inserts it in between. It is
+	 * not used for objects whose generated id has not been set yet or for classes with version or foreign auto-create
+	 * fields. {@link #createOrUpdate(Object)} also needs the database to report whether the row was inserted or updated.
+	 */
+	public void setNativeUpsert(boolean enabled);
+
+	/**
+	 * Return true if native upsert statements are enabled for this DAO.
+	 */
+	public boolean isNativeUpsert();
+
+	/**
+	 * Call this with true to have the query-builders returned by {@link #queryBuilder()} share a cache of the SQL that
+	 * they generate, keyed by the shape of the query. Preparing a query with the same columns, clauses, ordering, and
+	 * limits as an earlier one then only binds the new values. With the cache enabled the where values are passed as
+	 * arguments (?) instead of being inlined into the SQL. Set to false to disable the cache. See
+	 * {@link SqlTemplateCache}.
+	 */
+	public void setSqlTemplateCaching(boolean enabled);
+
+	/**
+	 * Returns the SQL template cache being used by the DAO or null if none.
+	 */
+	public SqlTemplateCache getSqlTemplateCache();
+
+	/**
+	 * Call this with true to have the {@link #queryForId(Object)} calls that threads make at about the same time
+	 * combined into a single query with an <tt>IN</tt> clause. Each call waits a few microseconds for others to join
+	 * it which means far fewer queries and connections when many threads are looking up objects by id. Set to false to
+	 * disable it which is the default. See {@link QueryForIdCoalescer}.
+	 * 
+	 * <p>
+	 * <b>NOTE:</b> Threads that ask for the same id in the same batch are handed the same object. Because of this the
+	 * calls are only coalesced when an object cache is also enabled with {@link #setObjectCache(boolean)}, which already
+	 * hands out the same object for an id. Without an object cache each call runs its own query.
+	 * </p>
+	 */
+	public void setQueryForIdCoalescing(boolean enabled);
+
+	/**
+	 * Returns the coalescer of query-for-id calls being used by the DAO or null if none.
+	 */
+	public QueryForIdCoalescer<T, ID> getQueryForIdCoalescer();
+
 	/**
 	 * Return the latest row from the database results from a query to select * (star).
 	 */
@@ -676,6 +925,50 @@ public interface Dao<T, ID> extends CloseableIterable<T> {
 	 */
 	public boolean idExists(ID id) throws SQLException;
 
+	/**
+	 * Returns true if the prepared query returns any rows otherwise false. Unlike {@link #countOf(PreparedQuery)} the
+	 * database can stop at the first matching row. Only the first row is fetched and it is not mapped into an object.
+	 * The query is cheapest if it was prepared with {@link QueryBuilder#setExists(boolean)} which selects a constant
+	 * and limits the results to 1 row. See {@link QueryBuilder#exists()}.
+	 * 
+	 * @param preparedQuery
+	 *            Query used to match the objects in the database.
+	 * @throws SQLException
+	 *             on any SQL problems.
+	 */
+	public boolean exists(PreparedQuery<T> preparedQuery) throws SQLException;
+
+	/**
+	 * Same as {@link #exists(PreparedQuery)} but the arguments of the query are set from the bindings instead of from
+	 * its argument holders so the same prepared query can be used by many threads at once. See {@link QueryBindings}.
+	 */
+	public boolean exists(PreparedQuery<T> preparedQuery, QueryBindings bindings) throws SQLException;
+
+	/**
+	 * Returns the results of an aggregate query, such as the sums of a column for each group, as primitive values
+	 * instead of strings. The query must have been prepared with
+	 * {@link QueryBuilder#setAggregate(com.j256.ormlite.stmt.AggregateFunction, String)}. See
+	 * {@link QueryBuilder#queryAggregate(com.j256.ormlite.stmt.AggregateFunction, String)}.
+	 * 
+	 * @param preparedQuery
+	 *            Aggregate query to run.
+	 * @throws SQLException
+	 *             on any SQL problems.
+	 */
+	public AggregateResults queryForAggregate(PreparedQuery<T> preparedQuery) throws SQLException;
+
+	/**
+	 * Returns the columns of the results of a query as primitive arrays without creating any objects for the rows. The
+	 * prepared query must be built with {@link QueryBuilder#setColumnar(String...)}. See
+	 * {@link QueryBuilder#queryColumnar(String...)}.
+	 * 
+	 * @param preparedQuery
+	 *            Columnar query to run.
+	 * @throws SQLException
+	 *             If any of the columns is not numeric or boolean or on a database error.
+	 */
+	public ColumnarResults queryForColumnar(PreparedQuery<T> preparedQuery) throws SQLException;
+
 	/**
 	 * <p>
 	 * <b>WARNING:</b> This method is for advanced users only. It is only to support the
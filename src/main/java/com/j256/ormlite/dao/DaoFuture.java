@@ -0,0 +1,121 @@
+package com.j256.ormlite.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import com.j256.ormlite.logger.Logger;
+import com.j256.ormlite.logger.LoggerFactory;
+
+/**
+ * Future of an operation run by the {@link AsyncDao}. Along with blocking on {@link #get()}, callers can add a
+ * {@link Callback} which is called once the operation finishes so they don't have to block a thread at all.
+ *
+ * <pre>
+ * accountDao.queryForId(&quot;foo&quot;).addCallback(new DaoFuture.Callback&lt;Account&gt;() {
+ * 	public void onSuccess(Account account) {
+ * 		...
+ * 	}
+ * 	public void onFailure(Throwable throwable) {
+ * 		...
+ * 	}
+ * });
+ * </pre>
+ *
+ * <p>
+ * <b>NOTE:</b> The callbacks are called on the executor's thread that ran the operation or, if the operation is already
+ * done when the callback is added, on the thread that adds it. They should not block for long since they hold up the
+ * executor's thread.
+ * </p>
+ *
+ * @author graywatson
+ */
+public class DaoFuture<R> extends FutureTask<R> {
+
+	private static final Logger logger = LoggerFactory.getLogger(DaoFuture.class);
+
+	// callbacks waiting for the operation to finish or null once they have been called, guarded by this
+	private List<Callback<? super R>> callbacks = new ArrayList<Callback<? super R>>();
+
+	public DaoFuture(Callable<R> callable) {
+		super(callable);
+	}
+
+	/**
+	 * Add a callback which is called once the operation finishes. If it is already done then the callback is called
+	 * right away.
+	 */
+	public DaoFuture<R> addCallback(Callback<? super R> callback) {
+		synchronized (this) {
+			if (callbacks != null) {
+				callbacks.add(callback);
+				return this;
+			}
+		}
+		callCallback(callback);
+		return this;
+	}
+
+	@Override
+	protected void done() {
+		List<Callback<? super R>> toCall;
+		synchronized (this) {
+			toCall = callbacks;
+			callbacks = null;
+		}
+		for (Callback<? super R> callback : toCall) {
+			callCallback(callback);
+		}
+	}
+
+	private void callCallback(Callback<? super R> callback) {
+		R result;
+		try {
+			result = get();
+		} catch (ExecutionException e) {
+			notifyFailure(callback, e.getCause());
+			return;
+		} catch (CancellationException e) {
+			notifyFailure(callback, e);
+			return;
+		} catch (InterruptedException e) {
+			// can't happen since we are done but we restore the flag anyway
+			Thread.currentThread().interrupt();
+			notifyFailure(callback, e);
+			return;
+		}
+		try {
+			callback.onSuccess(result);
+		} catch (RuntimeException e) {
+			logger.warn(e, "callback {} threw on success", callback);
+		}
+	}
+
+	private void notifyFailure(Callback<? super R> callback, Throwable throwable) {
+		try {
+			callback.onFailure(throwable);
+		} catch (RuntimeException e) {
+			logger.warn(e, "callback {} threw on failure", callback);
+		}
+	}
+
+	/**
+	 * Called with the result of the operation once it finishes.
+	 */
+	public static interface Callback<R> {
+
+		/**
+		 * Called with the result of the operation if it finished without throwing.
+		 */
+		public void onSuccess(R result);
+
+		/**
+		 * Called with the exception that the operation threw, usually a {@link java.sql.SQLException}, or a
+		 * {@link CancellationException} if the future was cancelled.
+		 */
+		public void onFailure(Throwable throwable);
+	}
+}
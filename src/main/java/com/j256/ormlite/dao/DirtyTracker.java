@@ -0,0 +1,134 @@
+package com.j256.ormlite.dao;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.j256.ormlite.field.FieldType;
+
+/**
+ * Keeps a snapshot of the column values of the objects that were loaded, created, or updated through a DAO so that
+ * {@link Dao#update(Object)} can write only the columns that have changed or skip the update entirely if nothing has
+ * changed. It is enabled with {@link Dao#setDirtyTracking(boolean)}.
+ *
+ * <p>
+ * The objects are held with {@link WeakReference}s and by identity so objects which override equals() and hashCode()
+ * are tracked correctly and the snapshots go away once the objects are garbage collected.
+ * </p>
+ *
+ * @author graywatson
+ */
+public class DirtyTracker {
+
+	private final Map<IdentityKey, Object[]> snapshots = new HashMap<IdentityKey, Object[]>();
+	private final ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+
+	/**
+	 * Record the current column values of the data object. The values are extracted from the field-types as they
+	 * would be passed to the database.
+	 */
+	public void snapshot(Object data, FieldType[] fieldTypes) throws SQLException {
+		Object[] values = new Object[fieldTypes.length];
+		for (int i = 0; i < fieldTypes.length; i++) {
+			if (!fieldTypes[i].isForeignCollection()) {
+				values[i] = copyValue(fieldTypes[i].extractJavaFieldToSqlArgValue(data));
+			}
+		}
+		synchronized (snapshots) {
+			expungeStaleEntries();
+			snapshots.put(new IdentityKey(data, queue), values);
+		}
+	}
+
+	/**
+	 * Return the snapshot of the column values of the data object which are in the same order as the field-types
+	 * passed to {@link #snapshot(Object, FieldType[])} or null if we have no snapshot.
+	 */
+	public Object[] getSnapshot(Object data) {
+		synchronized (snapshots) {
+			expungeStaleEntries();
+			return snapshots.get(new IdentityKey(data, null));
+		}
+	}
+
+	/**
+	 * Forget about the data object so the next update will write all of its columns.
+	 */
+	public void remove(Object data) {
+		synchronized (snapshots) {
+			snapshots.remove(new IdentityKey(data, null));
+		}
+	}
+
+	/**
+	 * Return the number of objects being tracked.
+	 */
+	public int size() {
+		synchronized (snapshots) {
+			expungeStaleEntries();
+			return snapshots.size();
+		}
+	}
+
+	/**
+	 * Return true if the current column value is the same as the one in the snapshot.
+	 */
+	public static boolean isValueUnchanged(Object current, Object snapshot) {
+		if (current == null) {
+			return (snapshot == null);
+		} else if (current instanceof byte[] && snapshot instanceof byte[]) {
+			return Arrays.equals((byte[]) current, (byte[]) snapshot);
+		} else {
+			return current.equals(snapshot);
+		}
+	}
+
+	private Object copyValue(Object value) {
+		// byte arrays can be changed in place so we need our own copy
+		if (value instanceof byte[]) {
+			return ((byte[]) value).clone();
+		} else {
+			return value;
+		}
+	}
+
+	private void expungeStaleEntries() {
+		Object ref;
+		while ((ref = queue.poll()) != null) {
+			snapshots.remove(ref);
+		}
+	}
+
+	/**
+	 * Weak reference to an object which compares by identity.
+	 */
+	private static class IdentityKey extends WeakReference<Object> {
+
+		private final int hashCode;
+
+		public IdentityKey(Object referent, ReferenceQueue<Object> queue) {
+			super(referent, queue);
+			this.hashCode = System.identityHashCode(referent);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj == this) {
+				return true;
+			}
+			if (obj == null || obj.getClass() != getClass()) {
+				return false;
+			}
+			Object referent = get();
+			return referent != null && referent == ((IdentityKey) obj).get();
+		}
+	}
+}
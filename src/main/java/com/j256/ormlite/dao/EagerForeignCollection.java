@@ -8,6 +8,12 @@ import java.util.List;
 
 import com.j256.ormlite.field.FieldType;
 import com.j256.ormlite.field.ForeignCollectionField;
+import com.j256.ormlite.stmt.MappingContext;
+import com.j256.ormlite.stmt.PreparedQuery;
+import com.j256.ormlite.stmt.StatementBuilder.StatementType;
+import com.j256.ormlite.support.CompiledStatement;
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.support.DatabaseConnection;
 import com.j256.ormlite.support.DatabaseResults;
 
 /**
@@ -25,6 +31,15 @@ public class EagerForeignCollection<T, ID> extends BaseForeignCollection<T, ID>
 
 	public EagerForeignCollection(Dao<T, ID> dao, Object parent, Object parentId, FieldType foreignFieldType,
 			String orderColumn, boolean orderAscending) throws SQLException {
+		this(dao, parent, parentId, foreignFieldType, orderColumn, orderAscending, null);
+	}
+
+	/**
+	 * Eager collection which is built while mapping the results of another query. The mapping-context is shared with
+	 * that query so the eager recursion levels are honored. It may be null.
+	 */
+	public EagerForeignCollection(Dao<T, ID> dao, Object parent, Object parentId, FieldType foreignFieldType,
+			String orderColumn, boolean orderAscending, MappingContext mappingContext) throws SQLException {
 		super(dao, parent, parentId, foreignFieldType, orderColumn, orderAscending);
 		if (parentId == null) {
 			/*
@@ -34,7 +49,44 @@ public class EagerForeignCollection<T, ID> extends BaseForeignCollection<T, ID>
 			results = new ArrayList<T>();
 		} else {
 			// go ahead and do the query if eager
-			results = dao.query(getPreparedQuery());
+			if (mappingContext == null) {
+				results = dao.query(getPreparedQuery());
+			} else {
+				results = queryResults(mappingContext);
+			}
+		}
+	}
+
+	/**
+	 * Run our query and map the rows with the mapping-context of the query that is building us.
+	 */
+	private List<T> queryResults(MappingContext mappingContext) throws SQLException {
+		PreparedQuery<T> preparedQuery = getPreparedQuery();
+		ConnectionSource connectionSource = dao.getConnectionSource();
+		DatabaseConnection connection = mappingContext.getConnection();
+		boolean release = false;
+		if (connection == null) {
+			connection = connectionSource.getReadOnlyConnection();
+			release = true;
+		}
+		try {
+			CompiledStatement compiledStmt = preparedQuery.compile(connection, StatementType.SELECT);
+			try {
+				DatabaseResults databaseResults = compiledStmt.runQuery(dao.getObjectCache());
+				List<T> list = new ArrayList<T>();
+				if (databaseResults.first()) {
+					do {
+						list.add(mappingContext.mapRow(preparedQuery, databaseResults));
+					} while (databaseResults.next());
+				}
+				return list;
+			} finally {
+				compiledStmt.close();
+			}
+		} finally {
+			if (release) {
+				connectionSource.releaseConnection(connection);
+			}
 		}
 	}
 
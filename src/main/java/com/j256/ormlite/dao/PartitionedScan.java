@@ -0,0 +1,214 @@
+package com.j256.ormlite.dao;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.j256.ormlite.field.FieldType;
+import com.j256.ormlite.misc.SqlExceptionUtil;
+import com.j256.ormlite.stmt.AggregateFunction;
+import com.j256.ormlite.stmt.AggregateResults;
+import com.j256.ormlite.stmt.QueryBuilder;
+
+/**
+ * Scans all of the rows of a table in parallel. The table is split into a number of partitions by ranges of its
+ * numeric id, using the smallest and largest ids, and each partition is read with its own iterator, and so its own
+ * connection from the {@link com.j256.ormlite.support.ConnectionSource}, by a thread from the executor. Each object is
+ * passed to the {@link ScanHandler} on the thread that read it.
+ * 
+ * <pre>
+ * PartitionedScan&lt;Account, Long&gt; scan = new PartitionedScan&lt;Account, Long&gt;(accountDao, 4, handler);
+ * long numRows = scan.scan(executor);
+ * </pre>
+ * 
+ * <p>
+ * The number of rows read from each partition can be watched with {@link #getRowCount(int)} while the scan is running
+ * and the scan can be stopped from another thread with {@link #cancel()}.
+ * </p>
+ * 
+ * <p>
+ * <b>NOTE:</b> The connection source must be able to hand out a connection for each partition at the same time for
+ * the partitions to be read in parallel. The partitions are even ranges of ids so they only have about the same number
+ * of rows if the ids are spread evenly. A scan object should only be used to scan the table once.
+ * </p>
+ * 
+ * @author graywatson
+ */
+public class PartitionedScan<T, ID> {
+
+	private final BaseDaoImpl<T, ID> dao;
+	private final int numPartitions;
+	private final ScanHandler<T> handler;
+	private final FieldType idField;
+	private final AtomicLongArray rowCounts;
+	private final AtomicIntegerArray doneFlags;
+	private volatile boolean cancelled;
+
+	public PartitionedScan(BaseDaoImpl<T, ID> dao, int numPartitions, ScanHandler<T> handler) throws SQLException {
+		if (numPartitions < 1) {
+			throw new IllegalArgumentException("number of partitions " + numPartitions + " must be >= 1");
+		}
+		this.dao = dao;
+		this.numPartitions = numPartitions;
+		this.handler = handler;
+		this.idField = dao.getTableInfo().getIdField();
+		if (idField == null) {
+			throw new SQLException("Cannot partition " + dao.getDataClass() + " because it doesn't have an id field");
+		}
+		switch (idField.getSqlType()) {
+			case BYTE :
+			case SHORT :
+			case INTEGER :
+			case LONG :
+				break;
+			default :
+				throw new SQLException("Cannot partition " + dao.getDataClass() + " because its id field "
+						+ idField.getFieldName() + " is not an integer");
+		}
+		this.rowCounts = new AtomicLongArray(numPartitions);
+		this.doneFlags = new AtomicIntegerArray(numPartitions);
+	}
+
+	/**
+	 * Scan the table using threads from the executor and wait for all of the partitions to finish.
+	 * 
+	 * @return The number of rows that were read from all of the partitions.
+	 * @throws SQLException
+	 *             If any of the partitions, or the handler, threw an exception in which case the rest of the scan is
+	 *             cancelled. Also if the scan was cancelled or the waiting thread was interrupted.
+	 */
+	public long scan(ExecutorService executor) throws SQLException {
+		QueryBuilder<T, ID> qb = dao.queryBuilder();
+		AggregateResults minResults = qb.queryAggregate(AggregateFunction.MIN, idField.getColumnName());
+		if (minResults.isNull(0)) {
+			// no rows in the table
+			for (int i = 0; i < numPartitions; i++) {
+				doneFlags.set(i, 1);
+			}
+			return 0;
+		}
+		long minId = minResults.getLong(0);
+		long maxId = qb.aggregateLong(AggregateFunction.MAX, idField.getColumnName());
+		long step = (maxId - minId) / numPartitions + 1;
+
+		List<Future<Long>> futures = new ArrayList<Future<Long>>(numPartitions);
+		for (int i = 0; i < numPartitions; i++) {
+			final int partition = i;
+			final long lowId = minId + i * step;
+			// the last partition includes the max-id
+			final long highId = (i == numPartitions - 1 ? maxId : lowId + step - 1);
+			futures.add(executor.submit(new Callable<Long>() {
+				public Long call() throws Exception {
+					return scanPartition(partition, lowId, highId);
+				}
+			}));
+		}
+
+		long numRows = 0;
+		Throwable failure = null;
+		boolean interrupted = false;
+		for (Future<Long> future : futures) {
+			try {
+				numRows += future.get();
+			} catch (ExecutionException e) {
+				if (failure == null) {
+					failure = e.getCause();
+				}
+				// stop the other partitions
+				cancelled = true;
+			} catch (InterruptedException e) {
+				interrupted = true;
+				cancelled = true;
+				for (Future<Long> other : futures) {
+					other.cancel(true);
+				}
+				break;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for partitioned scan of " + dao.getDataClass());
+		}
+		if (failure instanceof SQLException) {
+			throw SqlExceptionUtil.create("Partitioned scan of " + dao.getDataClass() + " failed", failure);
+		} else if (failure != null) {
+			throw SqlExceptionUtil.create("Handler of partitioned scan of " + dao.getDataClass() + " threw", failure);
+		}
+		if (cancelled) {
+			throw new SQLException("Partitioned scan of " + dao.getDataClass() + " was cancelled after " + numRows
+					+ " rows");
+		}
+		return numRows;
+	}
+
+	/**
+	 * Stop the scan. The partitions stop after the object that they are currently handling and then the scan method
+	 * throws.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Return true if the scan was cancelled, also because one of the partitions failed.
+	 */
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Return the number of partitions that the table is split into.
+	 */
+	public int getNumPartitions() {
+		return numPartitions;
+	}
+
+	/**
+	 * Return the number of rows that have been read so far from the partition.
+	 */
+	public long getRowCount(int partition) {
+		return rowCounts.get(partition);
+	}
+
+	/**
+	 * Return true if all of the rows of the partition have been read.
+	 */
+	public boolean isPartitionDone(int partition) {
+		return doneFlags.get(partition) != 0;
+	}
+
+	private long scanPartition(int partition, long lowId, long highId) throws Exception {
+		QueryBuilder<T, ID> qb = dao.queryBuilder();
+		qb.where().between(idField.getColumnName(), lowId, highId);
+		// not dao.iterator() which would replace the DAO's last iterator with each of ours
+		CloseableIterator<T> iterator;
+		try {
+			iterator = dao.getWrappedIterable(qb.prepare()).closeableIterator();
+		} catch (IllegalStateException e) {
+			if (e.getCause() instanceof SQLException) {
+				throw (SQLException) e.getCause();
+			}
+			throw e;
+		}
+		try {
+			while (!cancelled) {
+				T data = iterator.nextThrow();
+				if (data == null) {
+					doneFlags.set(partition, 1);
+					break;
+				}
+				handler.handle(partition, data);
+				rowCounts.incrementAndGet(partition);
+			}
+		} finally {
+			iterator.closeQuietly();
+		}
+		return rowCounts.get(partition);
+	}
+}
@@ -0,0 +1,183 @@
+package com.j256.ormlite.dao;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+
+import com.j256.ormlite.misc.SqlExceptionUtil;
+
+/**
+ * Combines the {@link Dao#queryForId(Object)} calls that threads make at about the same time into a single
+ * {@link Dao#queryForIds(Collection)} call. The first thread to ask for an id waits for a short window, or until the
+ * batch is full, for other threads to add their ids and then runs the query for all of them on one connection. Each
+ * thread then gets its object out of the results. This trades a few microseconds of latency for far fewer queries
+ * and connections when many threads are looking up rows by id. It is enabled with
+ * {@link Dao#setQueryForIdCoalescing(boolean)}. When a caller is the only one looking up an id, and the last batch also
+ * only had one id, it does not wait for the window since there is no one to wait for.
+ *
+ * <p>
+ * <b>NOTE:</b> Threads that ask for the same id in the same batch get the same object. That is why the DAO only
+ * coalesces its calls when it has an {@link ObjectCache}, which hands out the same object for an id anyway.
+ * </p>
+ *
+ * <p>
+ * <b>NOTE:</b> Calls made while the thread has a special connection, such as inside of a transaction, are not
+ * coalesced since they need to see the thread's own changes.
+ * </p>
+ *
+ * @author graywatson
+ */
+public class QueryForIdCoalescer<T, ID> {
+
+	/**
+	 * Default number of microseconds that the first caller waits for others to join its batch.
+	 */
+	public static final long DEFAULT_WINDOW_MICROS = 200;
+	/**
+	 * Default number of ids in a batch after which it is run without waiting for the rest of the window.
+	 */
+	public static final int DEFAULT_MAX_BATCH_SIZE = 128;
+
+	private final Dao<T, ID> dao;
+	private volatile long windowMicros = DEFAULT_WINDOW_MICROS;
+	private volatile int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+	// batch that callers are currently joining, guarded by this
+	private Batch<T, ID> current;
+	// number of threads in queryForId and whether the last batch had only one id, guarded by this
+	private int callerCount;
+	private boolean lastBatchSingle;
+
+	public QueryForIdCoalescer(Dao<T, ID> dao) {
+		this.dao = dao;
+	}
+
+	/**
+	 * Set the number of microseconds that the first caller waits for others to join its batch.
+	 */
+	public void setWindowMicros(long windowMicros) {
+		this.windowMicros = windowMicros;
+	}
+
+	/**
+	 * Set the number of ids in a batch after which it is run without waiting for the rest of the window.
+	 */
+	public void setMaxBatchSize(int maxBatchSize) {
+		if (maxBatchSize < 1) {
+			throw new IllegalArgumentException("max batch size " + maxBatchSize + " must be >= 1");
+		}
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * Return the object with the id by adding it to the current batch, or starting one, and waiting for the batch to
+	 * be queried.
+	 */
+	public T queryForId(ID id) throws SQLException {
+		Batch<T, ID> batch;
+		boolean leader = false;
+		boolean alone = false;
+		synchronized (this) {
+			callerCount++;
+			batch = current;
+			if (batch == null) {
+				batch = new Batch<T, ID>();
+				current = batch;
+				leader = true;
+				alone = (callerCount == 1 && lastBatchSingle);
+			}
+			batch.ids.add(id);
+			if (alone || batch.ids.size() >= maxBatchSize) {
+				// no one else is around or the batch is full so the leader doesn't need to wait any longer
+				current = null;
+				notifyAll();
+			}
+		}
+		try {
+			if (leader) {
+				waitForWindow(batch);
+				synchronized (this) {
+					lastBatchSingle = (batch.ids.size() == 1);
+				}
+				batch.run(dao);
+			}
+			return batch.get(id);
+		} finally {
+			synchronized (this) {
+				callerCount--;
+			}
+		}
+	}
+
+	/**
+	 * Wait until the window is over or the batch is full and then stop others from joining the batch.
+	 */
+	private synchronized void waitForWindow(Batch<T, ID> batch) {
+		long deadline = System.nanoTime() + windowMicros * 1000;
+		boolean interrupted = false;
+		while (current == batch) {
+			long remaining = deadline - System.nanoTime();
+			if (remaining <= 0) {
+				current = null;
+				break;
+			}
+			try {
+				wait(remaining / 1000000, (int) (remaining % 1000000));
+			} catch (InterruptedException e) {
+				// the other callers are depending on us so we run the batch now
+				interrupted = true;
+				current = null;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Ids that are queried for together and their results.
+	 */
+	private static class Batch<T, ID> {
+
+		// only changed under the coalescer lock until the batch is detached from it
+		final Collection<ID> ids = new LinkedHashSet<ID>();
+		private boolean done;
+		private Map<ID, T> results;
+		private SQLException exception;
+
+		void run(Dao<T, ID> dao) {
+			Map<ID, T> results = null;
+			SQLException exception = null;
+			try {
+				results = dao.queryForIds(ids);
+			} catch (SQLException e) {
+				exception = e;
+			} catch (Throwable th) {
+				// errors too otherwise the other callers would get null results instead of the failure
+				exception = SqlExceptionUtil.create("query-for-ids threw an exception", th);
+			} finally {
+				synchronized (this) {
+					this.results = results;
+					this.exception = exception;
+					this.done = true;
+					notifyAll();
+				}
+			}
+		}
+
+		synchronized T get(ID id) throws SQLException {
+			while (!done) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw SqlExceptionUtil.create("Interrupted while waiting for query-for-id of " + id, e);
+				}
+			}
+			if (exception != null) {
+				throw SqlExceptionUtil.create("Coalesced query-for-id of " + id + " failed", exception);
+			}
+			return results.get(id);
+		}
+	}
+}
@@ -0,0 +1,203 @@
+package com.j256.ormlite.dao;
+
+import java.sql.SQLException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.j256.ormlite.stmt.PreparedQuery;
+
+/**
+ * Publishes the results of a query to {@link QuerySubscriber}s with back-pressure. Each subscriber gets its own
+ * iterator over the results which is only opened once results are requested. Rows are read and mapped only as the
+ * subscriber requests them with {@link QuerySubscription#request(long)} so a slow subscriber never causes the results
+ * to be buffered. The statement and connection are released when the results are complete, when the query fails, or
+ * when the subscription is cancelled.
+ * 
+ * <p>
+ * By default the results are sent on the thread that calls {@link QuerySubscription#request(long)}. If an executor is
+ * passed in then the results are read and sent on one of its threads instead so requesting does not block on the
+ * database.
+ * </p>
+ * 
+ * <p>
+ * The interfaces have the same methods as the Reactive Streams ones so they are simple to adapt to a reactive
+ * library.
+ * </p>
+ * 
+ * @author graywatson
+ */
+public class QueryPublisher<T> {
+
+	private final Dao<T, ?> dao;
+	private final PreparedQuery<T> preparedQuery;
+	private final Executor executor;
+
+	public QueryPublisher(Dao<T, ?> dao, PreparedQuery<T> preparedQuery) {
+		this(dao, preparedQuery, null);
+	}
+
+	public QueryPublisher(Dao<T, ?> dao, PreparedQuery<T> preparedQuery, Executor executor) {
+		this.dao = dao;
+		this.preparedQuery = preparedQuery;
+		this.executor = executor;
+	}
+
+	/**
+	 * Subscribe to the results of the query. The query is run again for each subscriber.
+	 */
+	public void subscribe(QuerySubscriber<? super T> subscriber) {
+		subscriber.onSubscribe(new Subscription<T>(dao, preparedQuery, executor, subscriber));
+	}
+
+	/**
+	 * Subscription of one subscriber. Only one thread at a time reads the results which is the one that incremented
+	 * the work count from 0.
+	 */
+	private static class Subscription<T> implements QuerySubscription, Runnable {
+
+		private final Dao<T, ?> dao;
+		private final PreparedQuery<T> preparedQuery;
+		private final Executor executor;
+		private final QuerySubscriber<? super T> subscriber;
+		private final AtomicLong demand = new AtomicLong();
+		private final AtomicInteger workCount = new AtomicInteger();
+		private volatile boolean cancelled;
+		private volatile IllegalArgumentException badRequest;
+		// only used by the thread that is draining
+		private CloseableIterator<T> iterator;
+		private boolean done;
+
+		public Subscription(Dao<T, ?> dao, PreparedQuery<T> preparedQuery, Executor executor,
+				QuerySubscriber<? super T> subscriber) {
+			this.dao = dao;
+			this.preparedQuery = preparedQuery;
+			this.executor = executor;
+			this.subscriber = subscriber;
+		}
+
+		public void request(long n) {
+			if (n <= 0) {
+				badRequest = new IllegalArgumentException("request of " + n + " results must be > 0");
+			} else {
+				long current;
+				long next;
+				do {
+					current = demand.get();
+					next = current + n;
+					if (next < 0) {
+						// overflow means that the demand is unbounded
+						next = Long.MAX_VALUE;
+					}
+				} while (!demand.compareAndSet(current, next));
+			}
+			schedule();
+		}
+
+		public void cancel() {
+			cancelled = true;
+			schedule();
+		}
+
+		public void run() {
+			drain();
+		}
+
+		private void schedule() {
+			if (workCount.getAndIncrement() != 0) {
+				// the thread that is draining will see our changes
+				return;
+			}
+			if (executor == null) {
+				drain();
+			} else {
+				executor.execute(this);
+			}
+		}
+
+		private void drain() {
+			int missed = 1;
+			boolean finished = false;
+			try {
+				do {
+					drainLoop();
+					missed = workCount.addAndGet(-missed);
+				} while (missed != 0);
+				finished = true;
+			} finally {
+				if (!finished) {
+					// a subscriber callback threw so no thread is draining anymore
+					finish();
+					workCount.set(0);
+				}
+			}
+		}
+
+		private void drainLoop() {
+			while (!done) {
+				if (cancelled) {
+					finish();
+					break;
+				}
+				if (badRequest != null) {
+					finish();
+					subscriber.onError(badRequest);
+					break;
+				}
+				if (demand.get() == 0) {
+					break;
+				}
+				T data;
+				try {
+					if (iterator == null) {
+						iterator = openIterator();
+					}
+					data = iterator.nextThrow();
+				} catch (SQLException e) {
+					finish();
+					subscriber.onError(e);
+					break;
+				}
+				if (data == null) {
+					finish();
+					subscriber.onComplete();
+					break;
+				}
+				if (demand.get() != Long.MAX_VALUE) {
+					demand.decrementAndGet();
+				}
+				try {
+					subscriber.onNext(data);
+				} catch (RuntimeException e) {
+					// the subscriber is broken so we stop and tell it why
+					finish();
+					subscriber.onError(e);
+					break;
+				}
+			}
+		}
+
+		/**
+		 * Open an iterator over the results without using {@link Dao#iterator(PreparedQuery)} which would replace the
+		 * DAO's last iterator that its other callers may be using.
+		 */
+		private CloseableIterator<T> openIterator() throws SQLException {
+			try {
+				return dao.getWrappedIterable(preparedQuery).closeableIterator();
+			} catch (IllegalStateException e) {
+				if (e.getCause() instanceof SQLException) {
+					throw (SQLException) e.getCause();
+				}
+				throw e;
+			}
+		}
+
+		private void finish() {
+			done = true;
+			if (iterator != null) {
+				iterator.closeQuietly();
+				iterator = null;
+			}
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package com.j256.ormlite.dao;
+
+/**
+ * Receives the results of a {@link QueryPublisher}. This has the same methods as the Reactive Streams
+ * <tt>Subscriber</tt> so it is simple to adapt to one.
+ * 
+ * @author graywatson
+ */
+public interface QuerySubscriber<T> {
+
+	/**
+	 * Called once before any of the other methods with the subscription that is used to request the results.
+	 */
+	public void onSubscribe(QuerySubscription subscription);
+
+	/**
+	 * Called with each result once it has been requested.
+	 */
+	public void onNext(T data);
+
+	/**
+	 * Called if the query failed. No other methods are called after this.
+	 */
+	public void onError(Throwable throwable);
+
+	/**
+	 * Called after the last result. No other methods are called after this.
+	 */
+	public void onComplete();
+}
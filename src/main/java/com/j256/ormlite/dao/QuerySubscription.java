@@ -0,0 +1,24 @@
+package com.j256.ormlite.dao;
+
+/**
+ * Subscription that a {@link QuerySubscriber} uses to ask a {@link QueryPublisher} for results. This has the same
+ * methods as the Reactive Streams <tt>Subscription</tt> so it is simple to adapt to one.
+ * 
+ * @author graywatson
+ */
+public interface QuerySubscription {
+
+	/**
+	 * Request n more results. The rows are only read from the database and mapped as they are requested.
+	 * 
+	 * @param n
+	 *            Number of results to add to the demand which must be > 0. Use {@link Long#MAX_VALUE} to get all of
+	 *            the results.
+	 */
+	public void request(long n);
+
+	/**
+	 * Stop sending results and release the statement and connection.
+	 */
+	public void cancel();
+}
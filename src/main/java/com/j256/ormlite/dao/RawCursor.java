@@ -0,0 +1,89 @@
+package com.j256.ormlite.dao;
+
+import java.sql.SQLException;
+
+/**
+ * Cursor returned by {@link Dao#queryRawCursor(String, String...)} which is a forward-only view of the current row of
+ * the results. Unlike {@link GenericRawResults}, no objects are created for each row. Instead the caller moves the
+ * cursor with {@link #next()} and pulls the columns out of the current row with the typed getters which are passed
+ * straight through to the database results. This makes it appropriate for large reporting queries where creating a
+ * String[] or Object[] for every row is too expensive.
+ * 
+ * <pre>
+ * RawCursor cursor = accountDao.queryRawCursor(&quot;select id, balance from account&quot;);
+ * try {
+ *     while (cursor.next()) {
+ *         total += cursor.getLong(1);
+ *     }
+ * } finally {
+ *     cursor.close();
+ * }
+ * </pre>
+ * 
+ * <p>
+ * <b>NOTE:</b> You must call {@link #close()} when you are done otherwise the underlying SQL statement and connection
+ * may be kept open. The cursor is closed automatically when {@link #next()} returns false.
+ * </p>
+ * 
+ * @author graywatson
+ */
+public interface RawCursor {
+
+	/**
+	 * Return the number of columns in each result row.
+	 */
+	public int getNumberColumns();
+
+	/**
+	 * Return the array of column names for each result row.
+	 */
+	public String[] getColumnNames();
+
+	/**
+	 * Move to the next row of the results which is the first row the first time it is called.
+	 * 
+	 * @return true if there is a current row or false if there are no more rows in which case the cursor is closed.
+	 */
+	public boolean next() throws SQLException;
+
+	/**
+	 * Return the string value of the column from the current row. Column indexes start at 0.
+	 */
+	public String getString(int columnIndex) throws SQLException;
+
+	/**
+	 * Return the boolean value of the column from the current row. Column indexes start at 0.
+	 */
+	public boolean getBoolean(int columnIndex) throws SQLException;
+
+	/**
+	 * Return the int value of the column from the current row. Column indexes start at 0.
+	 */
+	public int getInt(int columnIndex) throws SQLException;
+
+	/**
+	 * Return the long value of the column from the current row. Column indexes start at 0.
+	 */
+	public long getLong(int columnIndex) throws SQLException;
+
+	/**
+	 * Return the double value of the column from the current row. Column indexes start at 0.
+	 */
+	public double getDouble(int columnIndex) throws SQLException;
+
+	/**
+	 * Return true if the last value that was read from the column was null. This should be called after one of the
+	 * primitive getters since they return 0 or false for null columns.
+	 */
+	public boolean wasNull(int columnIndex) throws SQLException;
+
+	/**
+	 * Close any open database connections associated with the cursor.
+	 */
+	public void close() throws SQLException;
+
+	/**
+	 * Close the cursor and ignore any exceptions.
+	 */
+	public void closeQuietly();
+}
@@ -0,0 +1,28 @@
+package com.j256.ormlite.dao;
+
+import java.sql.SQLException;
+
+/**
+ * Handler of the rows of a query which is used by the
+ * {@link Dao#forEach(com.j256.ormlite.stmt.PreparedQuery, RowHandler)} method.
+ * 
+ * <p>
+ * <b>NOTE:</b> The same object is passed in for every row with its fields set from that row. It must not be kept after
+ * the method returns. Copy any values that you need.
+ * </p>
+ * 
+ * @param <T>
+ *            Type of the objects of the query.
+ * @author graywatson
+ */
+public interface RowHandler<T> {
+
+	/**
+	 * Called with the object holding the values of each row of the query.
+	 * 
+	 * @return True to continue with the next row or false to stop.
+	 * @throws SQLException
+	 *             If there is any critical error with the data and you want to stop the query.
+	 */
+	public boolean handleRow(T data) throws SQLException;
+}
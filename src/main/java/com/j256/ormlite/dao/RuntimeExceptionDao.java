@@ -1,10 +1,12 @@
 package com.j256.ormlite.dao;
 
 import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 
 import com.j256.ormlite.dao.Dao.CreateOrUpdateStatus;
 import com.j256.ormlite.field.DataType;
@@ -12,12 +14,17 @@ import com.j256.ormlite.field.FieldType;
 import com.j256.ormlite.logger.Log.Level;
 import com.j256.ormlite.logger.Logger;
 import com.j256.ormlite.logger.LoggerFactory;
+import com.j256.ormlite.stmt.AggregateResults;
+import com.j256.ormlite.stmt.ColumnarResults;
 import com.j256.ormlite.stmt.DeleteBuilder;
 import com.j256.ormlite.stmt.GenericRowMapper;
+import com.j256.ormlite.stmt.PrefetchIterator;
 import com.j256.ormlite.stmt.PreparedDelete;
 import com.j256.ormlite.stmt.PreparedQuery;
 import com.j256.ormlite.stmt.PreparedUpdate;
+import com.j256.ormlite.stmt.QueryBindings;
 import com.j256.ormlite.stmt.QueryBuilder;
+import com.j256.ormlite.stmt.SqlTemplateCache;
 import com.j256.ormlite.stmt.UpdateBuilder;
 import com.j256.ormlite.support.ConnectionSource;
 import com.j256.ormlite.support.DatabaseConnection;
@@ -88,6 +95,18 @@ public class RuntimeExceptionDao<T, ID> implements CloseableIterable<T> {
 		}
 	}
 
+	/**
+	 * @see Dao#queryForIds(Collection)
+	 */
+	public Map<ID, T> queryForIds(Collection<ID> ids) {
+		try {
+			return dao.queryForIds(ids);
+		} catch (SQLException e) {
+			logMessage(e, "queryForIds threw exception on: " + ids);
+			throw new RuntimeException(e);
+		}
+	}
+
 	/**
 	 * @see Dao#queryForFirst(PreparedQuery)
 	 */
@@ -100,6 +119,18 @@ public class RuntimeExceptionDao<T, ID> implements CloseableIterable<T> {
 		}
 	}
 
+	/**
+	 * @see Dao#queryForFirst(PreparedQuery, QueryBindings)
+	 */
+	public T queryForFirst(PreparedQuery<T> preparedQuery, QueryBindings bindings) {
+		try {
+			return dao.queryForFirst(preparedQuery, bindings);
+		} catch (SQLException e) {
+			logMessage(e, "queryForFirst threw exception on: " + preparedQuery);
+			throw new RuntimeException(e);
+		}
+	}
+
 	/**
 	 * @see Dao#queryForAll()
 	 */
@@ -217,6 +248,30 @@ public class RuntimeExceptionDao<T, ID> implements CloseableIterable<T> {
 		}
 	}
 
+	/**
+	 * @see Dao#query(PreparedQuery, QueryBindings)
+	 */
+	public List<T> query(PreparedQuery<T> preparedQuery, QueryBindings bindings) {
+		try {
+			return dao.query(preparedQuery, bindings);
+		} catch (SQLException e) {
+			logMessage(e, "query threw exception on: " + preparedQuery);
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * @see Dao#queryInto(PreparedQuery, Class)
+	 */
+	public <R> List<R> queryInto(PreparedQuery<T> preparedQuery, Class<R> resultClass) {
+		try {
+			return dao.queryInto(preparedQuery, resultClass);
+		} catch (SQLException e) {
+			logMessage(e, "queryInto threw exception on: " + preparedQuery);
+			throw new RuntimeException(e);
+		}
+	}
+
 	/**
 	 * @see Dao#create(Object)
 	 */
@@ -253,6 +308,18 @@ public class RuntimeExceptionDao<T, ID> implements CloseableIterable<T> {
 		}
 	}
 
+	/**
+	 * @see Dao#createOrUpdateAll(Collection)
+	 */
+	public int createOrUpdateAll(Collection<T> datas) {
+		try {
+			return dao.createOrUpdateAll(datas);
+		} catch (SQLException e) {
+			logMessage(e, "createOrUpdateAll threw exception on: " + datas);
+			throw new RuntimeException(e);
+		}
+	}
+
 	/**
 	 * @see Dao#update(Object)
 	 */
@@ -277,6 +344,18 @@ public class RuntimeExceptionDao<T, ID> implements CloseableIterable<T> {
 		}
 	}
 
+	/**
+	 * @see Dao#updateColumnValues(String[], Map)
+	 */
+	public int updateColumnValues(String[] columnNames, Map<ID, Object[]> idValues) {
+		try {
+			return dao.updateColumnValues(columnNames, idValues);
+		} catch (SQLException e) {
+			logMessage(e, "updateColumnValues threw exception on: " + Arrays.toString(columnNames));
+			throw new RuntimeException(e);
+		}
+	}
+
 	/**
 	 * @see Dao#update(PreparedUpdate)
 	 */
@@ -429,6 +508,54 @@ public class RuntimeExceptionDao<T, ID> implements CloseableIterable<T> {
 		}
 	}
 
+	/**
+	 * @see Dao#iterator(PreparedQuery, QueryBindings)
+	 */
+	public CloseableIterator<T> iterator(PreparedQuery<T> preparedQuery, QueryBindings bindings) {
+		try {
+			return dao.iterator(preparedQuery, bindings);
+		} catch (SQLException e) {
+			logMessage(e, "iterator threw exception on: " + preparedQuery);
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * @see Dao#batchIterator(PreparedQuery, int)
+	 */
+	public CloseableBatchIterator<T> batchIterator(PreparedQuery<T> preparedQuery, int batchSize) {
+		try {
+			return dao.batchIterator(preparedQuery, batchSize);
+		} catch (SQLException e) {
+			logMessage(e, "batchIterator threw exception on: " + preparedQuery);
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * @see Dao#forEach(PreparedQuery, RowHandler)
+	 */
+	public long forEach(PreparedQuery<T> preparedQuery, RowHandler<T> rowHandler) {
+		try {
+			return dao.forEach(preparedQuery, rowHandler);
+		} catch (SQLException e) {
+			logMessage(e, "forEach threw exception on: " + preparedQuery);
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * @see Dao#prefetchIterator(PreparedQuery, int, Executor)
+	 */
+	public PrefetchIterator<T> prefetchIterator(PreparedQuery<T> preparedQuery, int bufferSize, Executor executor) {
+		try {
+			return dao.prefetchIterator(preparedQuery, bufferSize, executor);
+		} catch (SQLException e) {
+			logMessage(e, "prefetchIterator threw exception on: " + preparedQuery);
+			throw new RuntimeException(e);
+		}
+	}
+
 	/**
 	 * @see Dao#queryRaw(String, String...)
 	 */
@@ -477,6 +604,18 @@ public class RuntimeExceptionDao<T, ID> implements CloseableIterable<T> {
 		}
 	}
 
+	/**
+	 * @see Dao#queryRawCursor(String, String...)
+	 */
+	public RawCursor queryRawCursor(String query, String... arguments) {
+		try {
+			return dao.queryRawCursor(query, arguments);
+		} catch (SQLException e) {
+			logMessage(e, "queryRawCursor threw exception on: " + query);
+			throw new RuntimeException(e);
+		}
+	}
+
 	/**
 	 * @see Dao#executeRaw(String, String...)
 	 */
@@ -613,6 +752,18 @@ public class RuntimeExceptionDao<T, ID> implements CloseableIterable<T> {
 		}
 	}
 
+	/**
+	 * @see Dao#countOf(PreparedQuery, QueryBindings)
+	 */
+	public long countOf(PreparedQuery<T> preparedQuery, QueryBindings bindings) {
+		try {
+			return dao.countOf(preparedQuery, bindings);
+		} catch (SQLException e) {
+			logMessage(e, "countOf threw exception on " + preparedQuery);
+			throw new RuntimeException(e);
+		}
+	}
+
 	/**
 	 * @see Dao#assignEmptyForeignCollection(Object, String)
 	 */
@@ -675,6 +826,67 @@ public class RuntimeExceptionDao<T, ID> implements CloseableIterable<T> {
 		dao.clearObjectCache();
 	}
 
+	/**
+	 * @see Dao#setDirtyTracking(boolean)
+	 */
+	public void setDirtyTracking(boolean enabled) {
+		try {
+			dao.setDirtyTracking(enabled);
+		} catch (SQLException e) {
+			logMessage(e, "setDirtyTracking(" + enabled + ") threw exception");
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * @see Dao#getDirtyTracker()
+	 */
+	public DirtyTracker getDirtyTracker() {
+		return dao.getDirtyTracker();
+	}
+
+	/**
+	 * @see Dao#setNativeUpsert(boolean)
+	 */
+	public void setNativeUpsert(boolean enabled) {
+		dao.setNativeUpsert(enabled);
+	}
+
+	/**
+	 * @see Dao#isNativeUpsert()
+	 */
+	public boolean isNativeUpsert() {
+		return dao.isNativeUpsert();
+	}
+
+	/**
+	 * @see Dao#setSqlTemplateCaching(boolean)
+	 */
+	public void setSqlTemplateCaching(boolean enabled) {
+		dao.setSqlTemplateCaching(enabled);
+	}
+
+	/**
+	 * @see Dao#getSqlTemplateCache()
+	 */
+	public SqlTemplateCache getSqlTemplateCache() {
+		return dao.getSqlTemplateCache();
+	}
+
+	/**
+	 * @see Dao#setQueryForIdCoalescing(boolean)
+	 */
+	public void setQueryForIdCoalescing(boolean enabled) {
+		dao.setQueryForIdCoalescing(enabled);
+	}
+
+	/**
+	 * @see Dao#getQueryForIdCoalescer()
+	 */
+	public QueryForIdCoalescer<T, ID> getQueryForIdCoalescer() {
+		return dao.getQueryForIdCoalescer();
+	}
+
 	/**
 	 * @see Dao#mapSelectStarRow(DatabaseResults)
 	 */
@@ -711,6 +923,54 @@ public class RuntimeExceptionDao<T, ID> implements CloseableIterable<T> {
 		}
 	}
 
+	/**
+	 * @see Dao#exists(PreparedQuery)
+	 */
+	public boolean exists(PreparedQuery<T> preparedQuery) {
+		try {
+			return dao.exists(preparedQuery);
+		} catch (SQLException e) {
+			logMessage(e, "exists threw exception on: " + preparedQuery);
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * @see Dao#exists(PreparedQuery, QueryBindings)
+	 */
+	public boolean exists(PreparedQuery<T> preparedQuery, QueryBindings bindings) {
+		try {
+			return dao.exists(preparedQuery, bindings);
+		} catch (SQLException e) {
+			logMessage(e, "exists threw exception on: " + preparedQuery);
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * @see Dao#queryForAggregate(PreparedQuery)
+	 */
+	public AggregateResults queryForAggregate(PreparedQuery<T> preparedQuery) {
+		try {
+			return dao.queryForAggregate(preparedQuery);
+		} catch (SQLException e) {
+			logMessage(e, "queryForAggregate threw exception on: " + preparedQuery);
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * @see Dao#queryForColumnar(PreparedQuery)
+	 */
+	public ColumnarResults queryForColumnar(PreparedQuery<T> preparedQuery) {
+		try {
+			return dao.queryForColumnar(preparedQuery);
+		} catch (SQLException e) {
+			logMessage(e, "queryForColumnar threw exception on: " + preparedQuery);
+			throw new RuntimeException(e);
+		}
+	}
+
 	/**
 	 * @see Dao#startThreadConnection()
 	 */
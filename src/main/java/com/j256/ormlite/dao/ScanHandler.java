@@ -0,0 +1,24 @@
+package com.j256.ormlite.dao;
+
+/**
+ * Handler that is called with each of the objects read by a {@link PartitionedScan}.
+ * 
+ * <p>
+ * <b>NOTE:</b> The partitions are read at the same time by different threads so this must be thread-safe.
+ * </p>
+ * 
+ * @author graywatson
+ */
+public interface ScanHandler<T> {
+
+	/**
+	 * Called with an object from one of the partitions. If this throws then the rest of the scan is cancelled and the
+	 * exception is passed back to the caller of {@link PartitionedScan#scan(java.util.concurrent.ExecutorService)}.
+	 * 
+	 * @param partition
+	 *            Number of the partition that the object came from, from 0 to the number of partitions - 1.
+	 * @param data
+	 *            Object read from the partition.
+	 */
+	public void handle(int partition, T data) throws Exception;
+}
@@ -2,6 +2,7 @@ package com.j256.ormlite.dao;
 
 import com.j256.ormlite.stmt.*;
 import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.support.DatabaseConnection;
 import com.j256.ormlite.support.DatabaseResults;
 import com.j256.ormlite.table.DatabaseTable;
 
@@ -153,6 +154,45 @@ public class SuperDaoImpl<T,ID> extends BaseDaoImpl<T,ID> {
         }
     }
 
+    /**
+     * Same as {@link #queryForId(Object, Class)} but the row is mapped with the mapping-context of the query that is
+     * being mapped, and on its connection if it has one, so the foreign auto-refresh levels carry on from there.
+     */
+    @SuppressWarnings("unchecked")
+    public T queryForId(ID id, Class<?> searchedClass, MappingContext mappingContext) throws SQLException {
+        Dao<? extends T, ID> dao = null;
+        if (searchedClass == this.dataClass) {
+            dao = this;
+        } else {
+            for (Dao<? extends T, ID> subDao : subDaos) {
+                if (subDao.getDataClass().isAssignableFrom(searchedClass)) {
+                    dao = subDao;
+                    break;
+                }
+            }
+        }
+        if (dao == null) {
+            return null;
+        }
+        if (!(dao instanceof BaseDaoImpl)) {
+            return dao.queryForId(id);
+        }
+        BaseDaoImpl<? extends T, ID> baseDao = (BaseDaoImpl<? extends T, ID>) dao;
+        DatabaseConnection connection = mappingContext.getConnection();
+        boolean release = false;
+        if (connection == null) {
+            connection = connectionSource.getReadOnlyConnection();
+            release = true;
+        }
+        try {
+            return baseDao.statementExecutor.queryForId(connection, id, baseDao.getObjectCache(), mappingContext);
+        } finally {
+            if (release) {
+                connectionSource.releaseConnection(connection);
+            }
+        }
+    }
+
     @Override
     public T queryForFirst(PreparedQuery<T> preparedQuery) throws SQLException {
         return super.queryForFirst(preparedQuery);    //To change body of overridden methods use File | Settings | File Templates.
@@ -511,6 +511,116 @@ public abstract class BaseDatabaseType implements DatabaseType {
 		return true;
 	}
 
+	public boolean isUpsertSupported() {
+		return false;
+	}
+
+	/**
+	 * By default this appends the "INSERT ... ON CONFLICT (id) DO UPDATE SET" form which is supported by Postgres and
+	 * newer Sqlite versions. Database types which support it just need to override {@link #isUpsertSupported()}.
+	 */
+	public void appendUpsert(StringBuilder sb, String tableName, FieldType[] fieldTypes, FieldType idField,
+			int numRows) {
+		appendInsertColumns(sb, "INSERT INTO ", tableName, fieldTypes, numRows);
+		sb.append("ON CONFLICT (");
+		appendEscapedEntityName(sb, idField.getColumnName());
+		sb.append(") DO ");
+		boolean first = true;
+		for (FieldType fieldType : fieldTypes) {
+			if (fieldType == idField) {
+				continue;
+			}
+			if (first) {
+				sb.append("UPDATE SET ");
+				first = false;
+			} else {
+				sb.append(',');
+			}
+			appendEscapedEntityName(sb, fieldType.getColumnName());
+			sb.append(" = EXCLUDED.");
+			appendEscapedEntityName(sb, fieldType.getColumnName());
+		}
+		if (first) {
+			// there are no other columns to update
+			sb.append("NOTHING");
+		}
+	}
+
+	/**
+	 * By default this returns false since the "INSERT ... ON CONFLICT" form changes 1 row either way.
+	 */
+	public boolean isUpsertResultReported() {
+		return false;
+	}
+
+	/**
+	 * By default this returns true if 1 row was changed which is how MySQL reports an insert.
+	 */
+	public boolean isUpsertInsert(int numRowsChanged) {
+		return numRowsChanged == 1;
+	}
+
+	public boolean isInsertIfNotExistsSupported() {
+		return false;
+	}
+
+	/**
+	 * By default this appends the "INSERT ... ON CONFLICT (id) DO NOTHING" form. See
+	 * {@link #appendUpsert(StringBuilder, String, FieldType[], FieldType, int)}.
+	 */
+	public void appendInsertIfNotExists(StringBuilder sb, String tableName, FieldType[] fieldTypes, FieldType idField) {
+		appendInsertColumns(sb, "INSERT INTO ", tableName, fieldTypes, 1);
+		sb.append("ON CONFLICT (");
+		appendEscapedEntityName(sb, idField.getColumnName());
+		sb.append(") DO NOTHING");
+	}
+
+	/**
+	 * By default this returns 999 which is the limit of Sqlite, the lowest of the databases that we know about.
+	 */
+	public int getMaxQueryParameters() {
+		return 999;
+	}
+
+	/**
+	 * Append the prefix, the table-name, the columns of the field-types, and a ? argument for each of them per row
+	 * like: "INSERT INTO table (col1,col2) VALUES (?,?),(?,?) ".
+	 */
+	protected void appendInsertColumns(StringBuilder sb, String prefix, String tableName, FieldType[] fieldTypes,
+			int numRows) {
+		sb.append(prefix);
+		appendEscapedEntityName(sb, tableName);
+		sb.append(" (");
+		for (int i = 0; i < fieldTypes.length; i++) {
+			if (i > 0) {
+				sb.append(',');
+			}
+			appendEscapedEntityName(sb, fieldTypes[i].getColumnName());
+		}
+		sb.append(") VALUES ");
+		appendRowArgs(sb, fieldTypes.length, numRows);
+	}
+
+	/**
+	 * Append a (?,?) list of numArgs arguments for each of the rows separated by commas and followed by a space.
+	 */
+	protected void appendRowArgs(StringBuilder sb, int numArgs, int numRows) {
+		for (int row = 0; row < numRows; row++) {
+			if (row > 0) {
+				sb.append(',');
+			}
+			sb.append('(');
+			for (int i = 0; i < numArgs; i++) {
+				if (i > 0) {
+					sb.append(',');
+				}
+				sb.append('?');
+			}
+			sb.append(')');
+		}
+		sb.append(' ');
+	}
+
 	/**
 	 * @throws SQLException
 	 *             for sub classes.
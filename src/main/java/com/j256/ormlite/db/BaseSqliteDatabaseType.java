@@ -19,6 +19,11 @@ import com.j256.ormlite.field.types.BigDecimalStringType;
 public abstract class BaseSqliteDatabaseType extends BaseDatabaseType implements DatabaseType {
 
 	private final static FieldConverter booleanConverter = new BooleanNumberFieldConverter();
+	// version 3.24.0 added the upsert clause
+	private final static int UPSERT_MAJOR_VERSION = 3;
+	private final static int UPSERT_MINOR_VERSION = 24;
+
+	private volatile boolean upsertClauseSupported;
 
 	@Override
 	protected void appendLongType(StringBuilder sb, FieldType fieldType, int fieldWidth) {
@@ -70,6 +75,32 @@ public abstract class BaseSqliteDatabaseType extends BaseDatabaseType implements
 		return true;
 	}
 
+	/**
+	 * Set the version of Sqlite, as returned by "SELECT sqlite_version()", that we are talking to. Native upserts are
+	 * only supported from version 3.24.0 which added the "INSERT ... ON CONFLICT (id) DO UPDATE" form. We don't use
+	 * "INSERT OR REPLACE" since it deletes the existing row, running any cascades, or "INSERT OR IGNORE" since it also
+	 * ignores the violations of other constraints.
+	 */
+	public void setSqliteVersion(String version) {
+		this.upsertClauseSupported = isVersionAtLeast(version, UPSERT_MAJOR_VERSION, UPSERT_MINOR_VERSION);
+	}
+
+	/**
+	 * Returns true if the version set by {@link #setSqliteVersion(String)} supports the upsert clause.
+	 */
+	@Override
+	public boolean isUpsertSupported() {
+		return upsertClauseSupported;
+	}
+
+	/**
+	 * Returns true if the version set by {@link #setSqliteVersion(String)} supports the upsert clause.
+	 */
+	@Override
+	public boolean isInsertIfNotExistsSupported() {
+		return upsertClauseSupported;
+	}
+
 	@Override
 	public FieldConverter getFieldConverter(DataPersister dataPersister) {
 		// we are only overriding certain types
@@ -82,4 +113,21 @@ public abstract class BaseSqliteDatabaseType extends BaseDatabaseType implements
 				return super.getFieldConverter(dataPersister);
 		}
 	}
+
+	private static boolean isVersionAtLeast(String version, int major, int minor) {
+		if (version == null) {
+			return false;
+		}
+		String[] parts = version.trim().split("\\.");
+		if (parts.length < 2) {
+			return false;
+		}
+		try {
+			int versionMajor = Integer.parseInt(parts[0]);
+			int versionMinor = Integer.parseInt(parts[1]);
+			return (versionMajor > major || (versionMajor == major && versionMinor >= minor));
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
 }
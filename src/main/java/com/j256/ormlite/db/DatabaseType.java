@@ -219,6 +219,58 @@ public interface DatabaseType {
 	 */
 	public boolean isAllowGeneratedIdInsertSupported();
 
+	/**
+	 * Does the database support a single statement which inserts a row or updates it if a row with the same id already
+	 * exists. See {@link #appendUpsert(StringBuilder, String, FieldType[], FieldType, int)}.
+	 */
+	public boolean isUpsertSupported();
+
+	/**
+	 * Append the SQL of a statement which inserts numRows rows with the columns of the field-types into the table or,
+	 * for those with the same value in the id column as a row that already exists, updates its other columns. The
+	 * values of the columns are passed as ? arguments in the order of the field-types, which include the id field, one
+	 * row after the other. This is something like "MERGE INTO" or "INSERT ... ON CONFLICT DO UPDATE" with multiple rows
+	 * of VALUES. An existing row must be updated in place, not deleted and inserted again, so that no ON DELETE cascades
+	 * are run. The rows of a statement never have the same id.
+	 */
+	public void appendUpsert(StringBuilder sb, String tableName, FieldType[] fieldTypes, FieldType idField,
+			int numRows);
+
+	/**
+	 * Returns true if the number of rows changed by the upsert statement tells whether the row was inserted or updated.
+	 * See {@link #isUpsertInsert(int)}.
+	 */
+	public boolean isUpsertResultReported();
+
+	/**
+	 * Return true if the upsert statement inserted the row, going by the number of rows that it changed, or false if it
+	 * updated an existing row. This is only called if {@link #isUpsertResultReported()} returns true. MySQL's
+	 * "INSERT ... ON DUPLICATE KEY UPDATE" for example changes 1 row for an insert and 2 for an update.
+	 */
+	public boolean isUpsertInsert(int numRowsChanged);
+
+	/**
+	 * Does the database support a single statement which inserts a row unless a row with the same id already exists.
+	 * See {@link #appendInsertIfNotExists(StringBuilder, String, FieldType[], FieldType)}.
+	 */
+	public boolean isInsertIfNotExistsSupported();
+
+	/**
+	 * Append the SQL of a statement which inserts a row with the columns of the field-types into the table unless a row
+	 * with the same value in the id column already exists in which case no rows are changed. The values of the columns
+	 * are passed as ? arguments in the order of the field-types. This is something like
+	 * "INSERT ... ON CONFLICT (id) DO NOTHING". Violations of other constraints, such as a unique column, must still
+	 * fail the statement.
+	 */
+	public void appendInsertIfNotExists(StringBuilder sb, String tableName, FieldType[] fieldTypes, FieldType idField);
+
+	/**
+	 * Return the maximum number of ? arguments that can be passed in a single statement. Longer lists of ids, such as
+	 * those passed to {@link com.j256.ormlite.dao.Dao#deleteIds(java.util.Collection)}, are split across multiple
+	 * statements.
+	 */
+	public int getMaxQueryParameters();
+
 	/**
 	 * Return the name of the database for logging purposes.
 	 */
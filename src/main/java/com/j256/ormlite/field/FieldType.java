@@ -7,14 +7,22 @@ import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 import com.j256.ormlite.dao.*;
 import com.j256.ormlite.db.DatabaseType;
 import com.j256.ormlite.field.types.VoidType;
 import com.j256.ormlite.misc.SqlExceptionUtil;
+import com.j256.ormlite.stmt.FetchPlan.FetchMode;
+import com.j256.ormlite.stmt.MappingContext;
+import com.j256.ormlite.stmt.PreparedQuery;
+import com.j256.ormlite.stmt.QueryBuilder;
+import com.j256.ormlite.stmt.StatementBuilder.StatementType;
 import com.j256.ormlite.stmt.mapped.MappedQueryForId;
+import com.j256.ormlite.support.CompiledStatement;
 import com.j256.ormlite.support.ConnectionSource;
 import com.j256.ormlite.support.DatabaseConnection;
 import com.j256.ormlite.support.DatabaseResults;
@@ -31,6 +39,8 @@ public class FieldType {
 
 	/** default suffix added to fields that are id fields of foreign objects */
 	public static final String FOREIGN_ID_FIELD_SUFFIX = "_id";
+	/** maximum number of ids in the IN clause when foreign objects are loaded in batches */
+	public static final int MAX_FOREIGN_BATCH_SIZE = 500;
 
 	/*
 	 * Default values.
@@ -69,13 +79,6 @@ public class FieldType {
 	private BaseDaoImpl<?, ?> foreignDao;
 	private MappedQueryForId<Object, Object> mappedQueryForId;
 
-	private static final ThreadLocal<LevelCounters> threadLevelCounters = new ThreadLocal<LevelCounters>() {
-		@Override
-		protected LevelCounters initialValue() {
-			return new LevelCounters();
-		}
-	};
-
 	/**
 	 * You should use {@link FieldType#createFieldType} to instantiate one of these field if you have a {@link Field}.
 	 */
@@ -495,6 +498,15 @@ public class FieldType {
 	 * Assign to the data object the val corresponding to the fieldType.
 	 */
 	public void assignField(Object data, Object val, Object fClass, boolean parentObject, ObjectCache objectCache) throws SQLException {
+		assignField(data, val, fClass, parentObject, objectCache, null);
+	}
+
+	/**
+	 * Assign to the data object the val corresponding to the fieldType. The mapping-context holds the foreign
+	 * auto-refresh recursion level of the query that is being mapped and may be null if there is no such query.
+	 */
+	public void assignField(Object data, Object val, Object fClass, boolean parentObject, ObjectCache objectCache,
+			MappingContext mappingContext) throws SQLException {
 		// if this is a foreign object then val is the foreign object's id val
         // TODO: Foreign id to object magic here.
 		if (foreignIdField != null && val != null) {
@@ -509,68 +521,27 @@ public class FieldType {
 				return;
 			}
 			if (!parentObject) {
-				Object foreignObject;
-				LevelCounters levelCounters = threadLevelCounters.get();
-				// we record the current auto-refresh level which will be used along the way
-				if (levelCounters.autoRefreshLevel == 0) {
-					levelCounters.autoRefreshLevelMax = fieldConfig.getMaxForeignAutoRefreshLevel();
+				if (mappingContext == null) {
+					// not called while mapping a query, such as from a refresh, so the recursion levels start here
+					mappingContext = new MappingContext();
 				}
-				// if we have recursed the proper number of times, return a shell with just the id set
-				if (levelCounters.autoRefreshLevel >= levelCounters.autoRefreshLevelMax) {
-					// create a shell and assign its id field
-					foreignObject = foreignTableInfo.createObject();
-					foreignIdField.assignField(foreignObject, val, false, objectCache);
-				} else {
-					/*
-					 * We may not have a mapped query for id because we aren't auto-refreshing ourselves. But a parent
-					 * class may be auto-refreshing us with a level > 1 so we may need to build out query-for-id
-					 * optimization on the fly here.
-					 */
-					if (mappedQueryForId == null) {
-						@SuppressWarnings("unchecked")
-						MappedQueryForId<Object, Object> castMappedQueryForId =
-								(MappedQueryForId<Object, Object>) MappedQueryForId.build(
-										connectionSource.getDatabaseType(),
-										((BaseDaoImpl<?, ?>) foreignDao).getTableInfo(), foreignIdField);
-						mappedQueryForId = castMappedQueryForId;
-					}
-					levelCounters.autoRefreshLevel++;
-                    if (this.additionalFieldType != null){
-                        if (fClass == null){
-                            levelCounters.autoRefreshLevel--;
-                            return;
-                        }
-                        @SuppressWarnings("unchecked")
-                        SuperDaoImpl<Object,Object> externalDao = (SuperDaoImpl<Object,Object>)this.foreignDao;
-                        Class<?> foreignExactClass;
-                        try {
-                            foreignExactClass = Class.forName((String)fClass);
-                        } catch (ClassNotFoundException e) {
-                            levelCounters.autoRefreshLevel--;
-                            e.printStackTrace();
-                            throw new SQLException("Error finding corresponding class for name"+fClass);
-                        }
-                        foreignObject = externalDao.queryForId(val,foreignExactClass);
-                        levelCounters.autoRefreshLevel--;
-                    }else{
-                        try {
-                            DatabaseConnection databaseConnection = connectionSource.getReadOnlyConnection();
-                            try {
-                                // recurse and get the sub-object
-                                foreignObject = mappedQueryForId.execute(databaseConnection, val, objectCache);
-                            } finally {
-                                connectionSource.releaseConnection(databaseConnection);
-                            }
-                        } finally {
-                            levelCounters.autoRefreshLevel--;
-                        }
-                    }
+				if (additionalFieldType != null && fClass == null
+						&& !mappingContext.isAutoRefreshLevelReached(fieldConfig.getMaxForeignAutoRefreshLevel())) {
+					// we don't know the exact class of the foreign object so we can't refresh it
+					return;
 				}
 				// the value we are to assign to our field is now the foreign object itself
-				val = foreignObject;
+				val = buildForeignObject(val, fClass, objectCache, mappingContext);
 			}
 		}
 
+		setFieldValue(data, val);
+	}
+
+	/**
+	 * Set the field of the data object to the value without any foreign object processing.
+	 */
+	private void setFieldValue(Object data, Object val) throws SQLException {
 		if (fieldSetMethod == null) {
 			try {
 				field.set(data, val);
@@ -589,6 +560,208 @@ public class FieldType {
 		}
 	}
 
+
+	/**
+	 * Return the foreign object that corresponds to the foreign id argument. Depending on the auto-refresh level of the
+	 * mapping-context, the object is either queried for or is a shell with just the id set. The fClass argument is the
+	 * name of the exact class of the foreign object if the field is polymorphic.
+	 */
+	public Object buildForeignObject(Object id, Object fClass, ObjectCache objectCache, MappingContext mappingContext)
+			throws SQLException {
+		int maxLevel = fieldConfig.getMaxForeignAutoRefreshLevel();
+		FetchMode fetchMode = mappingContext.getFetchMode(this);
+		if (fetchMode == FetchMode.SHELL) {
+			maxLevel = 0;
+		} else if (fetchMode != null) {
+			// objects created with a constructor can't be filled in later so they are selected now instead
+			if (fetchMode == FetchMode.BATCH && additionalFieldType == null
+					&& foreignTableInfo.getConstructorHydrator() == null) {
+				return buildBatchedForeignObject(id, objectCache, mappingContext);
+			}
+			// otherwise we refresh the object now, at least 1 level down
+			maxLevel = mappingContext.getFetchPlan().getMaxLevel(this, Math.max(maxLevel, 1));
+		}
+		boolean levelReached = mappingContext.isAutoRefreshLevelReached(maxLevel);
+		Class<?> foreignClass = foreignTableInfo.getDataClass();
+		// an earlier row of the same query may have already built this foreign object
+		Object foreignObject = mappingContext.getForeignObject(foreignClass, id, levelReached);
+		if (foreignObject == null) {
+			// if we have recursed the proper number of times, return a shell with just the id set
+			if (levelReached) {
+				// create a shell with just its id field set
+				foreignObject = foreignTableInfo.createShellObject(foreignIdField, id, objectCache);
+			} else {
+				/*
+				 * We may not have a mapped query for id because we aren't auto-refreshing ourselves. But a parent
+				 * class may be auto-refreshing us with a level > 1 so we may need to build out query-for-id
+				 * optimization on the fly here.
+				 */
+				if (mappedQueryForId == null) {
+					@SuppressWarnings("unchecked")
+					MappedQueryForId<Object, Object> castMappedQueryForId =
+							(MappedQueryForId<Object, Object>) MappedQueryForId.build(
+									connectionSource.getDatabaseType(),
+									((BaseDaoImpl<?, ?>) foreignDao).getTableInfo(), foreignIdField);
+					mappedQueryForId = castMappedQueryForId;
+				}
+				mappingContext.incrementAutoRefreshLevel();
+                if (this.additionalFieldType != null){
+                    if (fClass == null){
+                        mappingContext.decrementAutoRefreshLevel();
+                        return null;
+                    }
+                    @SuppressWarnings("unchecked")
+                    SuperDaoImpl<Object,Object> externalDao = (SuperDaoImpl<Object,Object>)this.foreignDao;
+                    Class<?> foreignExactClass;
+                    try {
+                        foreignExactClass = Class.forName((String)fClass);
+                    } catch (ClassNotFoundException e) {
+                        mappingContext.decrementAutoRefreshLevel();
+                        e.printStackTrace();
+                        throw new SQLException("Error finding corresponding class for name"+fClass);
+                    }
+                    try {
+                        foreignObject = externalDao.queryForId(id, foreignExactClass, mappingContext);
+                    } finally {
+                        mappingContext.decrementAutoRefreshLevel();
+                    }
+                }else{
+                    try {
+                        // use the connection of the query that we are mapping if there is one
+                        DatabaseConnection databaseConnection = mappingContext.getConnection();
+                        boolean release = false;
+                        if (databaseConnection == null) {
+                            databaseConnection = connectionSource.getReadOnlyConnection();
+                            release = true;
+                        }
+                        try {
+                            // recurse and get the sub-object
+                            foreignObject = mappedQueryForId.execute(databaseConnection, id, objectCache, mappingContext);
+                        } finally {
+                            if (release) {
+                                connectionSource.releaseConnection(databaseConnection);
+                            }
+                        }
+                    } finally {
+                        mappingContext.decrementAutoRefreshLevel();
+                    }
+                }
+			}
+			mappingContext.putForeignObject(foreignClass, id, levelReached, foreignObject);
+		}
+		return foreignObject;
+	}
+
+	/**
+	 * Return a shell of the foreign object with just its id set which is recorded in the mapping-context so it can be
+	 * filled in later with the other foreign objects of this field in a batch.
+	 */
+	private Object buildBatchedForeignObject(Object id, ObjectCache objectCache, MappingContext mappingContext)
+			throws SQLException {
+		Class<?> foreignClass = foreignTableInfo.getDataClass();
+		// the shell is recorded as a refreshed object since it will be filled in before the rows are handed out
+		Object foreignObject = mappingContext.getForeignObject(foreignClass, id, false);
+		if (foreignObject == null) {
+			foreignObject = foreignTableInfo.createShellObject(foreignIdField, id, objectCache);
+			mappingContext.addBatchedForeignObject(this, id, foreignObject);
+			mappingContext.putForeignObject(foreignClass, id, false, foreignObject);
+		}
+		return foreignObject;
+	}
+
+	/**
+	 * Query for the foreign objects of this field whose ids are the keys of the map, with an IN clause of up to
+	 * {@link #MAX_FOREIGN_BATCH_SIZE} ids at a time, and copy their fields into the shell objects which are the values
+	 * of the map. The objects are mapped one auto-refresh level down in the mapping-context, and on its connection if it
+	 * has one, since they are the foreign objects of the query that is being mapped.
+	 */
+	public void loadForeignShells(Map<Object, Object> shells, MappingContext mappingContext) throws SQLException {
+		@SuppressWarnings("unchecked")
+		Dao<Object, Object> castDao = (Dao<Object, Object>) foreignDao;
+		FieldType[] foreignFieldTypes = foreignTableInfo.getFieldTypes();
+		// we select the columns so the foreign collections are not loaded for the objects we throw away
+		List<String> columnNames = new ArrayList<String>(foreignFieldTypes.length);
+		for (FieldType fieldType : foreignFieldTypes) {
+			if (!fieldType.isForeignCollection()) {
+				columnNames.add(fieldType.getColumnName());
+			}
+		}
+		// record the level that the objects are refreshed to like buildForeignObject does
+		int maxLevel = fieldConfig.getMaxForeignAutoRefreshLevel();
+		if (mappingContext.getFetchPlan() != null) {
+			maxLevel = mappingContext.getFetchPlan().getMaxLevel(this, Math.max(maxLevel, 1));
+		}
+		mappingContext.isAutoRefreshLevelReached(maxLevel);
+		DatabaseConnection databaseConnection = mappingContext.getConnection();
+		boolean release = false;
+		if (databaseConnection == null) {
+			databaseConnection = connectionSource.getReadOnlyConnection();
+			release = true;
+		}
+		mappingContext.incrementAutoRefreshLevel();
+		try {
+			List<Object> ids = new ArrayList<Object>(shells.keySet());
+			for (int start = 0; start < ids.size(); start += MAX_FOREIGN_BATCH_SIZE) {
+				List<Object> batchIds = ids.subList(start, Math.min(start + MAX_FOREIGN_BATCH_SIZE, ids.size()));
+				QueryBuilder<Object, Object> qb = castDao.queryBuilder();
+				qb.selectColumns(columnNames).where().in(foreignIdField.getColumnName(), batchIds);
+				PreparedQuery<Object> preparedQuery = qb.prepare();
+				CompiledStatement compiledStmt = preparedQuery.compile(databaseConnection, StatementType.SELECT);
+				try {
+					DatabaseResults results = compiledStmt.runQuery(castDao.getObjectCache());
+					if (results.first()) {
+						do {
+							Object loaded = mappingContext.mapRow(preparedQuery, results);
+							Object shell = shells.get(foreignIdField.extractJavaFieldValue(loaded));
+							if (shell != null) {
+								fillForeignShell(shell, loaded, foreignFieldTypes, mappingContext);
+							}
+						} while (results.next());
+					}
+				} finally {
+					compiledStmt.close();
+				}
+			}
+		} finally {
+			mappingContext.decrementAutoRefreshLevel();
+			if (release) {
+				connectionSource.releaseConnection(databaseConnection);
+			}
+		}
+	}
+
+	/**
+	 * Copy the fields of the loaded foreign object into the shell and build the shell's foreign collections.
+	 */
+	private void fillForeignShell(Object shell, Object loaded, FieldType[] foreignFieldTypes,
+			MappingContext mappingContext) throws SQLException {
+		boolean foreignCollections = false;
+		for (FieldType fieldType : foreignFieldTypes) {
+			if (fieldType.isForeignCollection()) {
+				foreignCollections = true;
+			} else if (fieldType != foreignIdField && !(fieldType instanceof MockFieldType)) {
+				fieldType.setFieldValue(shell, fieldType.extractRawJavaFieldValue(loaded));
+			}
+		}
+		if (foreignCollections) {
+			// the collections need to have the shell as their parent
+			Object parentId = foreignTableInfo.getIdField().extractJavaFieldValue(shell);
+			for (FieldType fieldType : foreignFieldTypes) {
+				if (fieldType.isForeignCollection()) {
+					BaseForeignCollection<Object, Object> collection =
+							fieldType.buildForeignCollection(shell, parentId, mappingContext);
+					if (collection != null) {
+						fieldType.setFieldValue(shell, collection);
+					}
+				}
+			}
+		}
+		DirtyTracker dirtyTracker = foreignTableInfo.getDirtyTracker();
+		if (dirtyTracker != null) {
+			dirtyTracker.snapshot(shell, foreignFieldTypes);
+		}
+	}
+
 	/**
 	 * Assign an ID value to this field.
 	 */
@@ -775,6 +948,16 @@ public class FieldType {
 	 *            collection.
 	 */
 	public <FT, FID> BaseForeignCollection<FT, FID> buildForeignCollection(Object parent, FID id) throws SQLException {
+		return buildForeignCollection(parent, id, null);
+	}
+
+	/**
+	 * Build and return a foreign collection based on the field settings that matches the id argument. The
+	 * mapping-context holds the eager collection recursion level of the query that is being mapped and may be null if
+	 * there is no such query.
+	 */
+	public <FT, FID> BaseForeignCollection<FT, FID> buildForeignCollection(Object parent, FID id,
+			MappingContext mappingContext) throws SQLException {
         //TODO: I might need some changes here.
 		// this can happen if we have a foreign-auto-refresh scenario
 		if (foreignFieldType == null) {
@@ -782,28 +965,37 @@ public class FieldType {
 		}
 		@SuppressWarnings("unchecked")
 		Dao<FT, FID> castDao = (Dao<FT, FID>) foreignDao;
-		if (!fieldConfig.isForeignCollectionEager()) {
+		boolean eager = fieldConfig.isForeignCollectionEager();
+		int maxEagerLevel = fieldConfig.getForeignCollectionMaxEagerLevel();
+		FetchMode fetchMode = (mappingContext == null ? null : mappingContext.getFetchMode(this));
+		if (fetchMode != null) {
+			// the fetch-plan of the query overrides the field settings
+			eager = (fetchMode != FetchMode.SHELL);
+			maxEagerLevel = mappingContext.getFetchPlan().getMaxLevel(this, Math.max(maxEagerLevel, 1));
+		}
+		if (!eager) {
 			// we know this won't go recursive so no need for the counters
 			return new LazyForeignCollection<FT, FID>(castDao, parent, id, foreignFieldType,
 					fieldConfig.getForeignCollectionOrderColumnName(), fieldConfig.isForeignCollectionOrderAscending());
 		}
 
-		LevelCounters levelCounters = threadLevelCounters.get();
-		if (levelCounters.foreignCollectionLevel == 0) {
-			levelCounters.foreignCollectionLevelMax = fieldConfig.getForeignCollectionMaxEagerLevel();
+		if (mappingContext == null) {
+			// not called while mapping a query so the recursion levels start here
+			mappingContext = new MappingContext();
 		}
 		// are we over our level limit?
-		if (levelCounters.foreignCollectionLevel >= levelCounters.foreignCollectionLevelMax) {
+		if (mappingContext.isForeignCollectionLevelReached(maxEagerLevel)) {
 			// then return a lazy collection instead
 			return new LazyForeignCollection<FT, FID>(castDao, parent, id, foreignFieldType,
 					fieldConfig.getForeignCollectionOrderColumnName(), fieldConfig.isForeignCollectionOrderAscending());
 		}
-		levelCounters.foreignCollectionLevel++;
+		mappingContext.incrementForeignCollectionLevel();
 		try {
 			return new EagerForeignCollection<FT, FID>(castDao, parent, id, foreignFieldType,
-					fieldConfig.getForeignCollectionOrderColumnName(), fieldConfig.isForeignCollectionOrderAscending());
+					fieldConfig.getForeignCollectionOrderColumnName(), fieldConfig.isForeignCollectionOrderAscending(),
+					mappingContext);
 		} finally {
-			levelCounters.foreignCollectionLevel--;
+			mappingContext.decrementForeignCollectionLevel();
 		}
 	}
 
@@ -1080,18 +1272,6 @@ public class FieldType {
 		}
 	}
 
-	private static class LevelCounters {
-		// current auto-refresh recursion level
-		int autoRefreshLevel;
-		// maximum auto-refresh recursion level
-		int autoRefreshLevelMax;
-
-		// current foreign-collection recursion level
-		int foreignCollectionLevel;
-		// maximum foreign-collection recursion level
-		int foreignCollectionLevelMax;
-	}
-
     public MockFieldType getAdditionalFieldType() {
         return additionalFieldType;
     }
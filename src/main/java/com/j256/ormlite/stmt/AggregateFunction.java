@@ -0,0 +1,22 @@
+package com.j256.ormlite.stmt;
+
+/**
+ * SQL aggregate functions that can be run by {@link QueryBuilder#queryAggregate(AggregateFunction, String)}.
+ * 
+ * @author graywatson
+ */
+public enum AggregateFunction {
+
+	/** number of rows or, with a column, the number of non-null values of the column */
+	COUNT,
+	/** sum of the values of the column */
+	SUM,
+	/** smallest value of the column */
+	MIN,
+	/** largest value of the column */
+	MAX,
+	/** average of the values of the column */
+	AVG,
+	// end
+	;
+}
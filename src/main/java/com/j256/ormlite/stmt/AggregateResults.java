@@ -0,0 +1,125 @@
+package com.j256.ormlite.stmt;
+
+import java.sql.SQLException;
+import java.util.Map;
+
+import com.j256.ormlite.field.FieldType;
+import com.j256.ormlite.support.DatabaseResults;
+
+/**
+ * Results of an aggregate query from {@link QueryBuilder#queryAggregate(AggregateFunction, String)}. There is a row
+ * for each group if the query has group-by columns otherwise just the one row. The aggregate values are read with
+ * {@link DatabaseResults#getLong(int)} and {@link DatabaseResults#getDouble(int)} and held in primitive arrays so there
+ * is no converting to and from strings and no object per row. The group values are converted to the Java types of
+ * their fields.
+ * 
+ * @author graywatson
+ */
+public class AggregateResults {
+
+	private final int numGroupColumns;
+	private int size;
+	private long[] longValues = new long[16];
+	private double[] doubleValues = new double[16];
+	private boolean[] nullValues = new boolean[16];
+	private Object[] groupValues;
+
+	AggregateResults(int numGroupColumns) {
+		this.numGroupColumns = numGroupColumns;
+		if (numGroupColumns > 0) {
+			groupValues = new Object[16 * numGroupColumns];
+		}
+	}
+
+	/**
+	 * Return the number of rows in the results.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Return the number of group-by columns.
+	 */
+	public int getNumGroupColumns() {
+		return numGroupColumns;
+	}
+
+	/**
+	 * Return the aggregate value of the row as a long or 0 if it was null.
+	 */
+	public long getLong(int row) {
+		checkRow(row);
+		return longValues[row];
+	}
+
+	/**
+	 * Return the aggregate value of the row as a double or 0.0 if it was null.
+	 */
+	public double getDouble(int row) {
+		checkRow(row);
+		return doubleValues[row];
+	}
+
+	/**
+	 * Return true if the aggregate value of the row was null such as the sum of no rows.
+	 */
+	public boolean isNull(int row) {
+		checkRow(row);
+		return nullValues[row];
+	}
+
+	/**
+	 * Return the value of a group-by column of the row. The column index is the order that
+	 * {@link QueryBuilder#groupBy(String)} was called.
+	 */
+	public Object getGroupValue(int row, int columnIndex) {
+		checkRow(row);
+		if (columnIndex < 0 || columnIndex >= numGroupColumns) {
+			throw new IndexOutOfBoundsException("group column " + columnIndex + " not valid, there are "
+					+ numGroupColumns + " group columns");
+		}
+		return groupValues[row * numGroupColumns + columnIndex];
+	}
+
+	/**
+	 * Read the current row of the results. The group values are in the columns before the aggregate value.
+	 */
+	void addRow(DatabaseResults results, FieldType[] groupFieldTypes, Map<String, Integer> columnPositions)
+			throws SQLException {
+		if (size == longValues.length) {
+			grow();
+		}
+		for (int i = 0; i < numGroupColumns; i++) {
+			groupValues[size * numGroupColumns + i] = groupFieldTypes[i].resultToJava(results, columnPositions);
+		}
+		longValues[size] = results.getLong(numGroupColumns);
+		doubleValues[size] = results.getDouble(numGroupColumns);
+		nullValues[size] = results.wasNull(numGroupColumns);
+		size++;
+	}
+
+	private void grow() {
+		int newLength = longValues.length * 2;
+		long[] newLongs = new long[newLength];
+		System.arraycopy(longValues, 0, newLongs, 0, size);
+		longValues = newLongs;
+		double[] newDoubles = new double[newLength];
+		System.arraycopy(doubleValues, 0, newDoubles, 0, size);
+		doubleValues = newDoubles;
+		boolean[] newNulls = new boolean[newLength];
+		System.arraycopy(nullValues, 0, newNulls, 0, size);
+		nullValues = newNulls;
+		if (groupValues != null) {
+			Object[] newGroups = new Object[newLength * numGroupColumns];
+			System.arraycopy(groupValues, 0, newGroups, 0, size * numGroupColumns);
+			groupValues = newGroups;
+		}
+	}
+
+	private void checkRow(int row) {
+		if (row < 0 || row >= size) {
+			throw new IndexOutOfBoundsException("row " + row + " not valid, there are " + size + " rows");
+		}
+	}
+}
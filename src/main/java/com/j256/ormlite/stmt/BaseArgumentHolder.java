@@ -77,7 +77,21 @@ public abstract class BaseArgumentHolder implements ArgumentHolder {
 		if (!isValueSet()) {
 			throw new SQLException("Column value has not been set for " + columnName);
 		}
-		Object value = getValue();
+		return convertSqlArgValue(fieldType, getValue());
+	}
+
+	public FieldType getFieldType() {
+		return fieldType;
+	}
+
+	public SqlType getSqlType() {
+		return sqlType;
+	}
+
+	/**
+	 * Convert the value of an argument of the field-type, which may be null, to what is passed to the database.
+	 */
+	static Object convertSqlArgValue(FieldType fieldType, Object value) throws SQLException {
 		if (value == null) {
 			return null;
 		} else if (fieldType == null) {
@@ -90,14 +104,6 @@ public abstract class BaseArgumentHolder implements ArgumentHolder {
 		}
 	}
 
-	public FieldType getFieldType() {
-		return fieldType;
-	}
-
-	public SqlType getSqlType() {
-		return sqlType;
-	}
-
 	@Override
 	public String toString() {
 		if (!isValueSet()) {
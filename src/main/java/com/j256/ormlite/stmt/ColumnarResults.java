@@ -0,0 +1,220 @@
+package com.j256.ormlite.stmt;
+
+import java.sql.SQLException;
+
+import com.j256.ormlite.field.FieldType;
+import com.j256.ormlite.field.SqlType;
+import com.j256.ormlite.support.DatabaseResults;
+
+/**
+ * Results of a columnar query from {@link QueryBuilder#queryColumnar(String...)}. The values of each column are read
+ * straight out of the {@link DatabaseResults} into a growable primitive array, int[], long[], or double[] depending on
+ * the SQL type of the column's field, with a bitmap of which values were null. No objects are created for the rows so
+ * this is appropriate for loading a couple of numeric columns from a very large number of rows.
+ * 
+ * <p>
+ * <b>NOTE:</b> The arrays returned by {@link #getInts(int)}, {@link #getLongs(int)}, and {@link #getDoubles(int)} are
+ * the internal buffers so they are not copied. They may be longer than the number of rows and only the first
+ * {@link #size()} values are valid.
+ * </p>
+ * 
+ * @author graywatson
+ */
+public class ColumnarResults {
+
+	private static final int INITIAL_SIZE = 64;
+
+	private final String[] columnNames;
+	private final ColumnType[] columnTypes;
+	private final Object[] values;
+	private final long[][] nullBits;
+	private int capacity = INITIAL_SIZE;
+	private int size;
+
+	ColumnarResults(FieldType[] fieldTypes) throws SQLException {
+		int numColumns = fieldTypes.length;
+		this.columnNames = new String[numColumns];
+		this.columnTypes = new ColumnType[numColumns];
+		this.values = new Object[numColumns];
+		this.nullBits = new long[numColumns][];
+		for (int i = 0; i < numColumns; i++) {
+			columnNames[i] = fieldTypes[i].getColumnName();
+			columnTypes[i] = ColumnType.fromSqlType(fieldTypes[i]);
+			values[i] = columnTypes[i].newArray(capacity);
+			nullBits[i] = new long[capacity / 64];
+		}
+	}
+
+	/**
+	 * Return the number of rows in the results.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Return the number of columns in the results.
+	 */
+	public int getNumColumns() {
+		return columnNames.length;
+	}
+
+	/**
+	 * Return the name of the column which are in the order passed to {@link QueryBuilder#queryColumnar(String...)}.
+	 */
+	public String getColumnName(int columnIndex) {
+		return columnNames[checkColumn(columnIndex)];
+	}
+
+	/**
+	 * Return the type of primitive array which holds the values of the column.
+	 */
+	public ColumnType getColumnType(int columnIndex) {
+		return columnTypes[checkColumn(columnIndex)];
+	}
+
+	/**
+	 * Return the values of an {@link ColumnType#INT} column. Booleans are stored as 1 or 0 and null values as 0.
+	 */
+	public int[] getInts(int columnIndex) {
+		return (int[]) getValues(columnIndex, ColumnType.INT);
+	}
+
+	/**
+	 * Return the values of a {@link ColumnType#LONG} column. Null values are stored as 0.
+	 */
+	public long[] getLongs(int columnIndex) {
+		return (long[]) getValues(columnIndex, ColumnType.LONG);
+	}
+
+	/**
+	 * Return the values of a {@link ColumnType#DOUBLE} column. Null values are stored as 0.0.
+	 */
+	public double[] getDoubles(int columnIndex) {
+		return (double[]) getValues(columnIndex, ColumnType.DOUBLE);
+	}
+
+	/**
+	 * Return true if the value of the column in the row was null.
+	 */
+	public boolean isNull(int row, int columnIndex) {
+		checkColumn(columnIndex);
+		if (row < 0 || row >= size) {
+			throw new IndexOutOfBoundsException("row " + row + " not valid, there are " + size + " rows");
+		}
+		return (nullBits[columnIndex][row >> 6] & (1L << row)) != 0;
+	}
+
+	/**
+	 * Read the current row of the results whose columns are in the same order as ours.
+	 */
+	void addRow(DatabaseResults results) throws SQLException {
+		if (size == capacity) {
+			grow();
+		}
+		for (int i = 0; i < columnTypes.length; i++) {
+			switch (columnTypes[i]) {
+				case INT :
+					((int[]) values[i])[size] = results.getInt(i);
+					break;
+				case BOOLEAN_INT :
+					((int[]) values[i])[size] = (results.getBoolean(i) ? 1 : 0);
+					break;
+				case LONG :
+					((long[]) values[i])[size] = results.getLong(i);
+					break;
+				case DOUBLE :
+					((double[]) values[i])[size] = results.getDouble(i);
+					break;
+			}
+			if (results.wasNull(i)) {
+				nullBits[i][size >> 6] |= (1L << size);
+			}
+		}
+		size++;
+	}
+
+	private Object getValues(int columnIndex, ColumnType columnType) {
+		checkColumn(columnIndex);
+		if (columnTypes[columnIndex].arrayType != columnType) {
+			throw new IllegalArgumentException("column " + columnNames[columnIndex] + " is held as "
+					+ columnTypes[columnIndex].arrayType + " values not " + columnType);
+		}
+		return values[columnIndex];
+	}
+
+	private void grow() {
+		int newCapacity = capacity * 2;
+		for (int i = 0; i < values.length; i++) {
+			Object newValues = columnTypes[i].newArray(newCapacity);
+			System.arraycopy(values[i], 0, newValues, 0, size);
+			values[i] = newValues;
+			long[] newBits = new long[newCapacity / 64];
+			System.arraycopy(nullBits[i], 0, newBits, 0, nullBits[i].length);
+			nullBits[i] = newBits;
+		}
+		capacity = newCapacity;
+	}
+
+	private int checkColumn(int columnIndex) {
+		if (columnIndex < 0 || columnIndex >= columnNames.length) {
+			throw new IndexOutOfBoundsException("column " + columnIndex + " not valid, there are "
+					+ columnNames.length + " columns");
+		}
+		return columnIndex;
+	}
+
+	/**
+	 * Type of the primitive array that holds the values of a column.
+	 */
+	public enum ColumnType {
+		/** values are held in an int[] */
+		INT(null),
+		/** boolean values held in an int[] as 1 or 0 */
+		BOOLEAN_INT(INT),
+		/** values are held in a long[] */
+		LONG(null),
+		/** values are held in a double[] */
+		DOUBLE(null),
+		// end
+		;
+
+		private final ColumnType arrayType;
+
+		private ColumnType(ColumnType arrayType) {
+			this.arrayType = (arrayType == null ? this : arrayType);
+		}
+
+		Object newArray(int length) {
+			switch (arrayType) {
+				case LONG :
+					return new long[length];
+				case DOUBLE :
+					return new double[length];
+				default :
+					return new int[length];
+			}
+		}
+
+		static ColumnType fromSqlType(FieldType fieldType) throws SQLException {
+			SqlType sqlType = fieldType.getSqlType();
+			switch (sqlType) {
+				case BOOLEAN :
+					return BOOLEAN_INT;
+				case BYTE :
+				case SHORT :
+				case INTEGER :
+					return INT;
+				case LONG :
+					return LONG;
+				case FLOAT :
+				case DOUBLE :
+				case BIG_DECIMAL :
+					return DOUBLE;
+				default :
+					throw new SQLException("Column " + fieldType.getColumnName() + " of type " + sqlType
+							+ " cannot be loaded into a primitive column");
+			}
+		}
+	}
+}
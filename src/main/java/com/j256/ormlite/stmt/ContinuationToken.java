@@ -0,0 +1,163 @@
+package com.j256.ormlite.stmt;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.j256.ormlite.misc.SqlExceptionUtil;
+
+/**
+ * Encodes the values of the ordering columns of the last row of a {@link KeysetPage} into the continuation token and
+ * decodes them again. The values are the SQL argument values of the columns, each written as a type character, its
+ * length, and its string form so the token can be decoded exactly without depending on the date formats or other
+ * settings of the fields.
+ *
+ * @author graywatson
+ */
+class ContinuationToken {
+
+	private static final String PREFIX = "k1:";
+
+	private ContinuationToken() {
+		// only for static methods
+	}
+
+	/**
+	 * Encode the values into a token.
+	 *
+	 * @throws SQLException
+	 *             If one of the values is null or of a type that cannot be encoded.
+	 */
+	public static String encode(Object[] values) throws SQLException {
+		StringBuilder sb = new StringBuilder(64);
+		sb.append(PREFIX);
+		for (Object value : values) {
+			char type;
+			String str;
+			if (value == null) {
+				throw new SQLException("Columns used for keyset pagination cannot have null values");
+			} else if (value instanceof String) {
+				type = 'S';
+				str = (String) value;
+			} else if (value instanceof Integer) {
+				type = 'I';
+				str = value.toString();
+			} else if (value instanceof Long) {
+				type = 'J';
+				str = value.toString();
+			} else if (value instanceof Short) {
+				type = 'H';
+				str = value.toString();
+			} else if (value instanceof Byte) {
+				type = 'B';
+				str = value.toString();
+			} else if (value instanceof Double) {
+				type = 'D';
+				str = value.toString();
+			} else if (value instanceof Float) {
+				type = 'F';
+				str = value.toString();
+			} else if (value instanceof Boolean) {
+				type = 'Z';
+				str = value.toString();
+			} else if (value instanceof Character) {
+				type = 'C';
+				str = value.toString();
+			} else if (value instanceof BigDecimal) {
+				type = 'N';
+				str = value.toString();
+			} else if (value instanceof BigInteger) {
+				type = 'G';
+				str = value.toString();
+			} else if (value instanceof Timestamp) {
+				type = 'T';
+				Timestamp timestamp = (Timestamp) value;
+				str = timestamp.getTime() + "." + timestamp.getNanos();
+			} else if (value instanceof java.sql.Date) {
+				type = 'd';
+				str = Long.toString(((java.sql.Date) value).getTime());
+			} else {
+				throw new SQLException("Values of type " + value.getClass()
+						+ " cannot be used for keyset pagination columns");
+			}
+			sb.append(type).append(str.length()).append(':').append(str);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Decode the token into its values.
+	 *
+	 * @param numValues
+	 *            The number of values that the token must have.
+	 * @throws SQLException
+	 *             If the token is not valid.
+	 */
+	public static Object[] decode(String token, int numValues) throws SQLException {
+		if (!token.startsWith(PREFIX)) {
+			throw new SQLException("Invalid continuation token: " + token);
+		}
+		List<Object> values = new ArrayList<Object>(numValues);
+		int pos = PREFIX.length();
+		try {
+			while (pos < token.length()) {
+				char type = token.charAt(pos++);
+				int colon = token.indexOf(':', pos);
+				int length = Integer.parseInt(token.substring(pos, colon));
+				pos = colon + 1;
+				String str = token.substring(pos, pos + length);
+				pos += length;
+				values.add(decodeValue(type, str));
+			}
+		} catch (RuntimeException e) {
+			throw SqlExceptionUtil.create("Invalid continuation token: " + token, e);
+		}
+		if (values.size() != numValues) {
+			throw new SQLException("Continuation token has " + values.size() + " values but the query is ordered by "
+					+ numValues + " columns: " + token);
+		}
+		return values.toArray();
+	}
+
+	private static Object decodeValue(char type, String str) throws SQLException {
+		switch (type) {
+			case 'S' :
+				return str;
+			case 'I' :
+				return Integer.valueOf(str);
+			case 'J' :
+				return Long.valueOf(str);
+			case 'H' :
+				return Short.valueOf(str);
+			case 'B' :
+				return Byte.valueOf(str);
+			case 'D' :
+				return Double.valueOf(str);
+			case 'F' :
+				return Float.valueOf(str);
+			case 'Z' :
+				return Boolean.valueOf(str);
+			case 'C' :
+				if (str.length() != 1) {
+					throw new SQLException("Invalid character value in continuation token: " + str);
+				}
+				return Character.valueOf(str.charAt(0));
+			case 'N' :
+				return new BigDecimal(str);
+			case 'G' :
+				return new BigInteger(str);
+			case 'T' :
+				int dot = str.indexOf('.');
+				Timestamp timestamp = new Timestamp(Long.parseLong(str.substring(0, dot)));
+				timestamp.setNanos(Integer.parseInt(str.substring(dot + 1)));
+				return timestamp;
+			case 'd' :
+				return new java.sql.Date(Long.parseLong(str));
+			default :
+				throw new SQLException("Invalid value type '" + type + "' in continuation token");
+		}
+	}
+}
@@ -0,0 +1,159 @@
+package com.j256.ormlite.stmt;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.j256.ormlite.field.DatabaseField;
+import com.j256.ormlite.field.FieldType;
+import com.j256.ormlite.field.ForeignCollectionField;
+import com.j256.ormlite.table.TableInfo;
+
+/**
+ * Says how the foreign fields and foreign collections of the objects returned by a single query are to be loaded,
+ * overriding the {@link DatabaseField#foreignAutoRefresh()}, {@link DatabaseField#maxForeignAutoRefreshLevel()}, and
+ * {@link ForeignCollectionField#eager()} settings for that query only. A list screen that only needs the foreign ids can
+ * ask for shells while a detail screen asks for the full objects. It is attached with
+ * {@link QueryBuilder#setFetchPlan(FetchPlan)} or {@link PreparedQuery#setFetchPlan(FetchPlan)}.
+ *
+ * <p>
+ * The plan only applies to the fields of the objects that the query returns. The foreign objects that are loaded use
+ * their own field settings for their fields unless the plan gives a maximum level to refresh down to.
+ * </p>
+ *
+ * <p>
+ * Example:
+ * </p>
+ *
+ * <pre>
+ * FetchPlan plan = new FetchPlan().setDefaultMode(FetchMode.SHELL).fetch(&quot;account&quot;, FetchMode.BATCH);
+ * List&lt;Order&gt; orders = orderDao.queryBuilder().setFetchPlan(plan).query();
+ * </pre>
+ *
+ * @author graywatson
+ */
+public class FetchPlan {
+
+	private final Map<String, Fetch> fetches = new HashMap<String, Fetch>();
+	private FetchMode defaultMode;
+
+	/**
+	 * Load the foreign field or foreign collection with the field-name using the mode.
+	 */
+	public FetchPlan fetch(String fieldName, FetchMode mode) {
+		return fetch(fieldName, mode, 0);
+	}
+
+	/**
+	 * Load the foreign field or foreign collection with the field-name using the mode. For foreign fields loaded with
+	 * {@link FetchMode#SELECT}, the maxLevel is how many levels of foreign objects are refreshed. For eager foreign
+	 * collections it is how many levels of collections are loaded. Set to 0 to use the field's settings.
+	 */
+	public FetchPlan fetch(String fieldName, FetchMode mode, int maxLevel) {
+		if (mode == null) {
+			throw new IllegalArgumentException("Fetch mode for field " + fieldName + " cannot be null");
+		}
+		fetches.put(fieldName, new Fetch(mode, maxLevel));
+		return this;
+	}
+
+	/**
+	 * Set the mode to use for the foreign fields and foreign collections which are not named in this plan. If null,
+	 * the default, then they are loaded according to their field settings.
+	 */
+	public FetchPlan setDefaultMode(FetchMode defaultMode) {
+		this.defaultMode = defaultMode;
+		return this;
+	}
+
+	/**
+	 * Return the mode to use to load the field or null if it is to be loaded according to its field settings.
+	 */
+	public FetchMode getMode(FieldType fieldType) {
+		Fetch fetch = fetches.get(fieldType.getFieldName());
+		if (fetch == null) {
+			return defaultMode;
+		} else {
+			return fetch.mode;
+		}
+	}
+
+	/**
+	 * Return the maximum level to load the field down to or the defaultLevel argument if the plan does not give one.
+	 */
+	public int getMaxLevel(FieldType fieldType, int defaultLevel) {
+		Fetch fetch = fetches.get(fieldType.getFieldName());
+		if (fetch == null || fetch.maxLevel <= 0) {
+			return defaultLevel;
+		} else {
+			return fetch.maxLevel;
+		}
+	}
+
+	/**
+	 * Return the names of the fields that are in this plan.
+	 */
+	public Set<String> getFieldNames() {
+		return fetches.keySet();
+	}
+
+	/**
+	 * Verify that all of the fields in this plan are foreign fields or foreign collections of the table.
+	 *
+	 * @throws IllegalArgumentException
+	 *             If one of the fields is not found or cannot be fetched.
+	 */
+	public void verify(TableInfo<?, ?> tableInfo) {
+		for (String fieldName : fetches.keySet()) {
+			FieldType found = null;
+			for (FieldType fieldType : tableInfo.getFieldTypes()) {
+				if (fieldType.getFieldName().equals(fieldName)) {
+					found = fieldType;
+					break;
+				}
+			}
+			if (found == null) {
+				throw new IllegalArgumentException("Unknown field '" + fieldName + "' in fetch plan for table "
+						+ tableInfo.getTableName());
+			}
+			if (!found.isForeign() && !found.isForeignCollection()) {
+				throw new IllegalArgumentException("Field '" + fieldName + "' in fetch plan for table "
+						+ tableInfo.getTableName() + " is not a foreign field or foreign collection");
+			}
+		}
+	}
+
+	/**
+	 * How a foreign field or foreign collection is loaded.
+	 */
+	public enum FetchMode {
+		/**
+		 * Foreign fields are set to objects with just their id field set. Foreign collections are lazy.
+		 */
+		SHELL,
+		/**
+		 * Foreign objects are queried for one at a time as the rows are mapped, as with
+		 * {@link DatabaseField#foreignAutoRefresh()}. Foreign collections are eager.
+		 */
+		SELECT,
+		/**
+		 * Foreign fields are set to shells as the rows are mapped and then the foreign objects are queried for with an
+		 * IN clause in batches once all of the rows of a list query are mapped. Iterators, and other calls that hand
+		 * out the rows one at a time, have nothing to batch so they use {@link #SELECT} instead. Foreign collections
+		 * are eager.
+		 */
+		BATCH,
+		// end
+		;
+	}
+
+	private static class Fetch {
+		final FetchMode mode;
+		final int maxLevel;
+
+		public Fetch(FetchMode mode, int maxLevel) {
+			this.mode = mode;
+			this.maxLevel = maxLevel;
+		}
+	}
+}
@@ -0,0 +1,59 @@
+package com.j256.ormlite.stmt;
+
+import com.j256.ormlite.db.DatabaseType;
+
+/**
+ * Sizes of the IN (?,?,...) lists of arguments. The lists are padded, by repeating their last value, up to one of a
+ * small number of bucket sizes so that lists of different lengths generate the same SQL which the database, or the
+ * {@link SqlTemplateCache}, can then reuse. Lists longer than the largest bucket or than the database's
+ * {@link DatabaseType#getMaxQueryParameters()} are split into chunks which are run as separate statements.
+ *
+ * @author graywatson
+ */
+public class InListSizes {
+
+	private static final int[] BUCKET_SIZES = new int[] { 8, 32, 128, 512 };
+
+	/**
+	 * Largest number of values in a single IN list.
+	 */
+	public static final int MAX_BUCKET_SIZE = BUCKET_SIZES[BUCKET_SIZES.length - 1];
+
+	private InListSizes() {
+		// only for static methods
+	}
+
+	/**
+	 * Return the number of values that each IN list should have at most when there are otherArgs other arguments in the
+	 * statement.
+	 */
+	public static int chunkSize(DatabaseType databaseType, int otherArgs) {
+		return Math.max(1, Math.min(MAX_BUCKET_SIZE, databaseType.getMaxQueryParameters() - otherArgs));
+	}
+
+	/**
+	 * Return the size that an IN list of size values, which is no larger than the chunk-size, should be padded to. This
+	 * is the smallest bucket that holds the values, but no larger than the chunk-size.
+	 */
+	public static int bucketSize(int size, int chunkSize) {
+		for (int bucketSize : BUCKET_SIZES) {
+			if (size <= bucketSize) {
+				return Math.min(bucketSize, Math.max(size, chunkSize));
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Return an array of the bucket size with the values from the start index up to the end index and the rest of it
+	 * filled with the last value.
+	 */
+	public static Object[] pad(Object[] values, int start, int end, int bucketSize) {
+		Object[] padded = new Object[bucketSize];
+		System.arraycopy(values, start, padded, 0, end - start);
+		for (int i = end - start; i < bucketSize; i++) {
+			padded[i] = values[end - 1];
+		}
+		return padded;
+	}
+}
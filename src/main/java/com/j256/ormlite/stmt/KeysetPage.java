@@ -0,0 +1,42 @@
+package com.j256.ormlite.stmt;
+
+import java.util.List;
+
+/**
+ * A page of results returned by {@link QueryBuilder#queryPage(String, long)}. The continuation token is passed to the
+ * next call to get the page after this one.
+ *
+ * @author graywatson
+ */
+public class KeysetPage<T> {
+
+	private final List<T> results;
+	private final String continuationToken;
+
+	public KeysetPage(List<T> results, String continuationToken) {
+		this.results = results;
+		this.continuationToken = continuationToken;
+	}
+
+	/**
+	 * Return the results of the page.
+	 */
+	public List<T> getResults() {
+		return results;
+	}
+
+	/**
+	 * Return the opaque token to pass to {@link QueryBuilder#queryPage(String, long)} to get the next page or null if
+	 * this is the last page.
+	 */
+	public String getContinuationToken() {
+		return continuationToken;
+	}
+
+	/**
+	 * Return true if this is the last page of results.
+	 */
+	public boolean isLastPage() {
+		return continuationToken == null;
+	}
+}
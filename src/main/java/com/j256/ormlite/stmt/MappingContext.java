@@ -0,0 +1,350 @@
+package com.j256.ormlite.stmt;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.j256.ormlite.field.FieldType;
+import com.j256.ormlite.stmt.FetchPlan.FetchMode;
+import com.j256.ormlite.support.DatabaseConnection;
+import com.j256.ormlite.support.DatabaseResults;
+
+/**
+ * State that is shared while the rows of a single query or iterator are being mapped into objects. It is handed down
+ * through {@link MappingContextRowMapper#mapRow(DatabaseResults, MappingContext)} and
+ * {@link FieldType#assignField(Object, Object, Object, boolean, com.j256.ormlite.dao.ObjectCache, MappingContext)} so
+ * the foreign auto-refresh and eager foreign-collection recursion levels no longer have to be tracked in a thread-local.
+ *
+ * <p>
+ * The context also holds an identity map of the foreign objects that have been built while mapping the rows. If 10k
+ * rows reference the same 20 foreign objects then only 20 objects are created and, if they are auto-refreshed, only 20
+ * refresh queries are made. Unlike a DAO {@link com.j256.ormlite.dao.ObjectCache}, the map goes away with the query so
+ * it never returns stale objects to later queries.
+ * </p>
+ *
+ * <p>
+ * A context is not thread-safe and should only be used by the thread that is mapping the associated results. It also
+ * may hold the connection that the outer query is using so nested queries can be run on the same connection instead
+ * of getting another one from the connection source.
+ * </p>
+ *
+ * <p>
+ * If the query has a {@link FetchPlan} then the context hands out its modes for the fields of the objects returned by
+ * the query and holds the foreign objects that are to be loaded in batches.
+ * </p>
+ *
+ * @author graywatson
+ */
+public class MappingContext {
+
+	/**
+	 * Maximum number of foreign objects that are held in the identity map before the least recently used are removed.
+	 */
+	public static final int DEFAULT_MAX_FOREIGN_OBJECTS = 1024;
+
+	private final DatabaseConnection connection;
+	private final int maxForeignObjects;
+	private final FetchPlan fetchPlan;
+	private Map<ForeignKey, Object> foreignObjects;
+	private Map<FieldType, Map<Object, Object>> batchedForeignObjects;
+	private boolean deferBatches;
+	private Object[] argumentBuffer;
+
+	// current auto-refresh recursion level
+	private int autoRefreshLevel;
+	// maximum auto-refresh recursion level
+	private int autoRefreshLevelMax;
+
+	// current foreign-collection recursion level
+	private int foreignCollectionLevel;
+	// maximum foreign-collection recursion level
+	private int foreignCollectionLevelMax;
+
+	/**
+	 * Create a context that does not have a pinned connection. Nested queries will get their own connections from the
+	 * connection source.
+	 */
+	public MappingContext() {
+		this(null);
+	}
+
+	/**
+	 * Create a context which will run nested queries on the connection argument which may be null.
+	 */
+	public MappingContext(DatabaseConnection connection) {
+		this(connection, DEFAULT_MAX_FOREIGN_OBJECTS);
+	}
+
+	/**
+	 * Create a context which will run nested queries on the connection argument which may be null and which will hold
+	 * at most maxForeignObjects in its identity map. Set it to 0 to disable the identity map.
+	 */
+	public MappingContext(DatabaseConnection connection, int maxForeignObjects) {
+		this(connection, maxForeignObjects, null);
+	}
+
+	/**
+	 * Create a context which will run nested queries on the connection argument which may be null and which will load
+	 * the foreign fields according to the fetch-plan which may also be null.
+	 */
+	public MappingContext(DatabaseConnection connection, FetchPlan fetchPlan) {
+		this(connection, DEFAULT_MAX_FOREIGN_OBJECTS, fetchPlan);
+	}
+
+	/**
+	 * Create a context with a connection, identity map size, and fetch-plan as described by the other constructors.
+	 */
+	public MappingContext(DatabaseConnection connection, int maxForeignObjects, FetchPlan fetchPlan) {
+		this.connection = connection;
+		this.maxForeignObjects = maxForeignObjects;
+		this.fetchPlan = fetchPlan;
+	}
+
+	/**
+	 * Return the connection that nested queries should use or null if they should get their own from the connection
+	 * source.
+	 */
+	public DatabaseConnection getConnection() {
+		return connection;
+	}
+
+	/**
+	 * Map the current row of the results with the row-mapper. If the mapper is a {@link MappingContextRowMapper} then
+	 * it is handed this context, otherwise its {@link GenericRowMapper#mapRow(DatabaseResults)} is called.
+	 */
+	public <T> T mapRow(GenericRowMapper<T> rowMapper, DatabaseResults results) throws SQLException {
+		if (rowMapper instanceof MappingContextRowMapper) {
+			return ((MappingContextRowMapper<T>) rowMapper).mapRow(results, this);
+		} else {
+			return rowMapper.mapRow(results);
+		}
+	}
+
+	/**
+	 * Return the fetch-plan of the query or null if none.
+	 */
+	public FetchPlan getFetchPlan() {
+		return fetchPlan;
+	}
+
+	/**
+	 * Return the mode that the fetch-plan gives for the field or null if the field should be loaded according to its
+	 * settings. The plan only applies to the fields of the objects returned by the query so this returns null while
+	 * foreign objects or collections are being loaded. If the batches are not deferred then {@link FetchMode#BATCH} is
+	 * returned as {@link FetchMode#SELECT} since the rows are handed out one at a time.
+	 */
+	public FetchMode getFetchMode(FieldType fieldType) {
+		if (fetchPlan == null || autoRefreshLevel > 0 || foreignCollectionLevel > 0) {
+			return null;
+		}
+		FetchMode fetchMode = fetchPlan.getMode(fieldType);
+		if (fetchMode == FetchMode.BATCH && !deferBatches) {
+			// loading a batch for each row would be an IN query per row which is worse than a select
+			return FetchMode.SELECT;
+		} else {
+			return fetchMode;
+		}
+	}
+
+	/**
+	 * Record a shell object which has just its id set so it can be filled in with the other foreign objects of the
+	 * field in a batch by {@link #loadBatchedForeignObjects()}.
+	 */
+	public void addBatchedForeignObject(FieldType fieldType, Object id, Object shell) {
+		if (batchedForeignObjects == null) {
+			batchedForeignObjects = new LinkedHashMap<FieldType, Map<Object, Object>>();
+		}
+		Map<Object, Object> shells = batchedForeignObjects.get(fieldType);
+		if (shells == null) {
+			shells = new LinkedHashMap<Object, Object>();
+			batchedForeignObjects.put(fieldType, shells);
+		}
+		shells.put(id, shell);
+	}
+
+	/**
+	 * Query for the foreign objects that were recorded by
+	 * {@link #addBatchedForeignObject(FieldType, Object, Object)} and fill in their shells.
+	 */
+	public void loadBatchedForeignObjects() throws SQLException {
+		if (batchedForeignObjects == null) {
+			return;
+		}
+		Map<FieldType, Map<Object, Object>> batches = batchedForeignObjects;
+		batchedForeignObjects = null;
+		for (Map.Entry<FieldType, Map<Object, Object>> entry : batches.entrySet()) {
+			entry.getKey().loadForeignShells(entry.getValue(), this);
+		}
+	}
+
+	/**
+	 * Return true if the batched foreign objects are loaded once all of the rows are mapped. If false then
+	 * {@link FetchMode#BATCH} fields are selected as each row is mapped.
+	 */
+	public boolean isDeferBatches() {
+		return deferBatches;
+	}
+
+	/**
+	 * Set to true if the batched foreign objects should be loaded once all of the rows are mapped. Whoever is mapping
+	 * the rows must then call {@link #loadBatchedForeignObjects()} before handing them out.
+	 */
+	public void setDeferBatches(boolean deferBatches) {
+		this.deferBatches = deferBatches;
+	}
+
+	/**
+	 * Return true if the foreign auto-refresh has recursed up to the maximum level. If no refresh is in progress then
+	 * the maximum argument is recorded and used along the way.
+	 */
+	public boolean isAutoRefreshLevelReached(int maxLevel) {
+		if (autoRefreshLevel == 0) {
+			autoRefreshLevelMax = maxLevel;
+		}
+		return autoRefreshLevel >= autoRefreshLevelMax;
+	}
+
+	/**
+	 * Called when a foreign auto-refresh starts.
+	 */
+	public void incrementAutoRefreshLevel() {
+		autoRefreshLevel++;
+	}
+
+	/**
+	 * Called when a foreign auto-refresh finishes.
+	 */
+	public void decrementAutoRefreshLevel() {
+		autoRefreshLevel--;
+	}
+
+	/**
+	 * Return true if the eager foreign-collections have recursed up to the maximum level. If no collection is being
+	 * built then the maximum argument is recorded and used along the way.
+	 */
+	public boolean isForeignCollectionLevelReached(int maxLevel) {
+		if (foreignCollectionLevel == 0) {
+			foreignCollectionLevelMax = maxLevel;
+		}
+		return foreignCollectionLevel >= foreignCollectionLevelMax;
+	}
+
+	/**
+	 * Called when an eager foreign-collection starts to be built.
+	 */
+	public void incrementForeignCollectionLevel() {
+		foreignCollectionLevel++;
+	}
+
+	/**
+	 * Called when an eager foreign-collection has been built.
+	 */
+	public void decrementForeignCollectionLevel() {
+		foreignCollectionLevel--;
+	}
+
+	/**
+	 * Return the foreign object of class and id that was built earlier while mapping this query or null if none. If
+	 * shell is true then we are looking for an object that only needs its id set so a refreshed one will also do.
+	 * Otherwise we are looking for an object refreshed at the current auto-refresh level.
+	 */
+	public Object getForeignObject(Class<?> clazz, Object id, boolean shell) {
+		if (foreignObjects == null) {
+			return null;
+		}
+		Object obj = foreignObjects.get(new ForeignKey(clazz, id, autoRefreshLevel));
+		if (obj == null && shell) {
+			obj = foreignObjects.get(new ForeignKey(clazz, id, -1));
+		}
+		return obj;
+	}
+
+	/**
+	 * Record the foreign object of class and id so later rows of this query can reuse it. See
+	 * {@link #getForeignObject(Class, Object, boolean)}.
+	 */
+	public void putForeignObject(Class<?> clazz, Object id, boolean shell, Object obj) {
+		if (obj == null || maxForeignObjects <= 0) {
+			return;
+		}
+		if (foreignObjects == null) {
+			foreignObjects = new LruMap(maxForeignObjects);
+		}
+		foreignObjects.put(new ForeignKey(clazz, id, (shell ? -1 : autoRefreshLevel)), obj);
+	}
+
+	/**
+	 * Return a buffer of the size argument which is used to collect the constructor arguments of an object. The buffer
+	 * is reused across the rows of the query. If the buffer is already being used, because a nested query is building
+	 * a foreign object, then a new one is returned. It should be given back with {@link #returnArgumentBuffer(Object[])}
+	 * once the object has been constructed.
+	 */
+	public Object[] takeArgumentBuffer(int size) {
+		Object[] buffer = argumentBuffer;
+		if (buffer == null || buffer.length != size) {
+			return new Object[size];
+		}
+		argumentBuffer = null;
+		return buffer;
+	}
+
+	/**
+	 * Give back a buffer that was returned by {@link #takeArgumentBuffer(int)} so it can be reused.
+	 */
+	public void returnArgumentBuffer(Object[] buffer) {
+		// clear the arguments so we don't hold onto objects
+		for (int i = 0; i < buffer.length; i++) {
+			buffer[i] = null;
+		}
+		argumentBuffer = buffer;
+	}
+
+	/**
+	 * Key of the identity map. Objects that were refreshed are also keyed by the auto-refresh level they were refreshed
+	 * at since that determines how deep their own foreign fields were refreshed.
+	 */
+	private static class ForeignKey {
+		private final Class<?> clazz;
+		private final Object id;
+		private final int level;
+
+		public ForeignKey(Class<?> clazz, Object id, int level) {
+			this.clazz = clazz;
+			this.id = id;
+			this.level = level;
+		}
+
+		@Override
+		public int hashCode() {
+			return (clazz.hashCode() * 31 + id.hashCode()) * 31 + level;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj == null || obj.getClass() != getClass()) {
+				return false;
+			}
+			ForeignKey other = (ForeignKey) obj;
+			return clazz == other.clazz && level == other.level && id.equals(other.id);
+		}
+	}
+
+	/**
+	 * Identity map which removes the least recently used object when it gets too big.
+	 */
+	private static class LruMap extends LinkedHashMap<ForeignKey, Object> {
+
+		private static final long serialVersionUID = 2394731524018829014L;
+		private final int maxEntries;
+
+		public LruMap(int maxEntries) {
+			super(16, 0.75F, true);
+			this.maxEntries = maxEntries;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<ForeignKey, Object> eldest) {
+			return size() > maxEntries;
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package com.j256.ormlite.stmt;
+
+import java.sql.SQLException;
+
+import com.j256.ormlite.support.DatabaseResults;
+
+/**
+ * Internal row mapper which can share the {@link MappingContext} of the surrounding query. This is kept out of
+ * {@link GenericRowMapper} so that mappers outside of ORMLite don't have to implement it. Callers should go through
+ * {@link MappingContext#mapRow(GenericRowMapper, DatabaseResults)} which falls back to
+ * {@link GenericRowMapper#mapRow(DatabaseResults)} for other mappers.
+ * 
+ * @author graywatson
+ */
+public interface MappingContextRowMapper<T> extends GenericRowMapper<T> {
+
+	/**
+	 * Used to convert a results row to an object while sharing the mapping state of the surrounding query.
+	 * 
+	 * @return The created object with all of the fields set from the results;
+	 * @param results
+	 *            Results object we are mapping.
+	 * @param mappingContext
+	 *            State shared by all of the rows of the query such as the foreign recursion levels.
+	 * @throws SQLException
+	 *             If we could not get the SQL results or instantiate the object.
+	 */
+	public T mapRow(DatabaseResults results, MappingContext mappingContext) throws SQLException;
+}
@@ -0,0 +1,229 @@
+package com.j256.ormlite.stmt;
+
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.misc.SqlExceptionUtil;
+
+/**
+ * Iterator which reads and maps the rows of a {@link SelectIterator} on a background thread into a bounded buffer so
+ * that the database I/O and the mapping of the objects overlap with the caller's processing of the objects. This is
+ * returned by {@link Dao#prefetchIterator(PreparedQuery, int, Executor)}.
+ * 
+ * <p>
+ * The background thread owns the select iterator and closes it, releasing the statement and connection, once it has
+ * read all of the rows, if the query fails, or after {@link #close()} has been called. If the buffer is full then the
+ * background thread waits for the caller to catch up so only buffer-size objects are ever held.
+ * </p>
+ * 
+ * <p>
+ * <b>NOTE:</b> If you stop before reading all of the results then you must call {@link #close()} otherwise the
+ * background thread keeps waiting and the statement and connection are kept open.
+ * </p>
+ * 
+ * <p>
+ * <b>NOTE:</b> The connection of the select iterator is used by the background thread so it must not be a connection
+ * that the caller's thread is also using, such as the thread's connection in a transaction.
+ * </p>
+ * 
+ * @author graywatson
+ */
+public class PrefetchIterator<T> implements Iterator<T> {
+
+	// how often the background thread checks if we are closed while the buffer is full
+	private static final long OFFER_WAIT_MILLIS = 100;
+	private static final Object END_MARKER = new Object();
+
+	private final SelectIterator<T, ?> iterator;
+	private final BlockingQueue<Object> buffer;
+	private volatile boolean closed;
+	// only used by the caller's thread
+	private Object next;
+	private boolean ended;
+
+	public PrefetchIterator(SelectIterator<T, ?> iterator, int bufferSize, Executor executor) {
+		if (bufferSize < 1) {
+			throw new IllegalArgumentException("buffer size " + bufferSize + " must be >= 1");
+		}
+		this.iterator = iterator;
+		this.buffer = new ArrayBlockingQueue<Object>(bufferSize);
+		try {
+			executor.execute(new Runnable() {
+				public void run() {
+					fetch();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			iterator.closeQuietly();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns whether or not there are any remaining objects, waiting for the background thread if the buffer is
+	 * empty.
+	 * 
+	 * @throws SQLException
+	 *             If the background thread could not get more results via SQL.
+	 */
+	public boolean hasNextThrow() throws SQLException {
+		if (next == null && !ended) {
+			try {
+				next = buffer.take();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				close();
+				throw SqlExceptionUtil.create("Interrupted while waiting for prefetched results", e);
+			}
+			if (next == END_MARKER) {
+				next = null;
+				ended = true;
+			} else if (next instanceof PrefetchFailure) {
+				ended = true;
+				SQLException cause = ((PrefetchFailure) next).exception;
+				next = null;
+				throw SqlExceptionUtil.create("Prefetching results failed", cause);
+			}
+		}
+		return !ended;
+	}
+
+	/**
+	 * Returns whether or not there are any remaining objects.
+	 * 
+	 * @throws IllegalStateException
+	 *             If there was a problem getting more results via SQL.
+	 */
+	public boolean hasNext() {
+		try {
+			return hasNextThrow();
+		} catch (SQLException e) {
+			throw new IllegalStateException("Errors getting more prefetched results", e);
+		}
+	}
+
+	/**
+	 * Returns the next object or null if there are no more results.
+	 * 
+	 * @throws SQLException
+	 *             If the background thread could not get more results via SQL.
+	 */
+	public T nextThrow() throws SQLException {
+		if (!hasNextThrow()) {
+			return null;
+		}
+		@SuppressWarnings("unchecked")
+		T result = (T) next;
+		next = null;
+		return result;
+	}
+
+	/**
+	 * Returns the next object.
+	 * 
+	 * @throws IllegalStateException
+	 *             If there was a problem getting more results via SQL.
+	 * @throws NoSuchElementException
+	 *             If there are no more results.
+	 */
+	public T next() {
+		T result;
+		try {
+			result = nextThrow();
+		} catch (SQLException e) {
+			throw new IllegalStateException("Could not get next prefetched result", e);
+		}
+		if (result == null) {
+			throw new NoSuchElementException("No more results");
+		}
+		return result;
+	}
+
+	public void remove() {
+		throw new UnsupportedOperationException("Prefetched results cannot be removed");
+	}
+
+	/**
+	 * Stop the background thread which then closes the underlying statement and connection. The prefetched objects
+	 * that were not returned are dropped.
+	 */
+	public void close() {
+		closed = true;
+		ended = true;
+		next = null;
+		// make room so the background thread sees that we are closed
+		buffer.clear();
+	}
+
+	/**
+	 * Read and map the rows into the buffer. This runs on the background thread.
+	 */
+	private void fetch() {
+		try {
+			while (!closed) {
+				T data;
+				try {
+					data = iterator.nextThrow();
+				} catch (SQLException e) {
+					iterator.closeQuietly();
+					offer(new PrefetchFailure(e));
+					break;
+				}
+				if (data == null) {
+					// release the connection before the caller sees the end of the results
+					iterator.closeQuietly();
+					offer(END_MARKER);
+					break;
+				}
+				if (!offer(data)) {
+					break;
+				}
+			}
+		} catch (Throwable th) {
+			// errors too otherwise the caller would wait forever for the end of the results
+			iterator.closeQuietly();
+			offer(new PrefetchFailure(SqlExceptionUtil.create("Mapping prefetched row threw", th)));
+		} finally {
+			iterator.closeQuietly();
+		}
+	}
+
+	/**
+	 * Add the object to the buffer waiting while it is full unless we are closed.
+	 * 
+	 * @return true if the object was added.
+	 */
+	private boolean offer(Object object) {
+		try {
+			while (!closed) {
+				if (buffer.offer(object, OFFER_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+					return true;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			// we can't wait anymore so drop what is buffered to make sure the caller sees the failure
+			buffer.clear();
+			buffer.offer(new PrefetchFailure(SqlExceptionUtil.create("Prefetching thread was interrupted", e)));
+		}
+		return false;
+	}
+
+	/**
+	 * Holds the exception from the background thread in the buffer.
+	 */
+	private static class PrefetchFailure {
+		final SQLException exception;
+
+		public PrefetchFailure(SQLException exception) {
+			this.exception = exception;
+		}
+	}
+}
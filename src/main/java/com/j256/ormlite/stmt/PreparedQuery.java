@@ -11,4 +11,18 @@ import com.j256.ormlite.dao.Dao;
  * @author graywatson
  */
 public interface PreparedQuery<T> extends PreparedStmt<T> {
+
+	/**
+	 * Set the plan which says how the foreign fields and foreign collections of the returned objects are loaded. Set to
+	 * null to load them according to their field settings.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             If the plan refers to fields which are not foreign fields or foreign collections of the class.
+	 */
+	public void setFetchPlan(FetchPlan fetchPlan);
+
+	/**
+	 * Return the fetch plan of the query or null if none.
+	 */
+	public FetchPlan getFetchPlan();
 }
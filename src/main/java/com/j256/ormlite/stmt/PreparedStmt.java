@@ -26,6 +26,16 @@ public interface PreparedStmt<T> extends GenericRowMapper<T> {
 	public CompiledStatement compile(DatabaseConnection databaseConnection, StatementType type, int resultFlags)
 			throws SQLException;
 
+	/**
+	 * Like compile(DatabaseConnection, StatementType, int) but the arguments are set from the bindings instead of from
+	 * the argument holders of the statement so the statement can be shared by threads. See {@link QueryBindings}.
+	 * 
+	 * @param bindings
+	 *            Values of the arguments for this execution. If null then the argument holders are used.
+	 */
+	public CompiledStatement compile(DatabaseConnection databaseConnection, StatementType type, int resultFlags,
+			QueryBindings bindings) throws SQLException;
+
 	/**
 	 * Return the associated SQL statement string for logging purposes.
 	 */
@@ -0,0 +1,145 @@
+package com.j256.ormlite.stmt;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Values of the arguments (?) of a prepared statement for a single execution. Because the values are passed in with
+ * each call, such as {@link com.j256.ormlite.dao.Dao#query(PreparedQuery, QueryBindings)}, and are not stored in the
+ * statement's {@link ArgumentHolder}s, the same prepared query can be used by many threads at once without having to
+ * use {@link ThreadLocalSelectArg}.
+ *
+ * <p>
+ * Values are bound by position, the same index that {@link PreparedStmt#setArgumentHolderValue(int, Object)} uses, or
+ * by name which is the column-name of the argument. A name binds all of the arguments of that column. Arguments which
+ * are not bound use the value of their argument holder.
+ * </p>
+ *
+ * <p>
+ * Example:
+ * </p>
+ *
+ * <pre>
+ * // prepared once and shared by all threads
+ * PreparedQuery&lt;Account&gt; byName = accountDao.queryBuilder().where().eq(&quot;name&quot;, new SelectArg()).prepare();
+ * // for each request
+ * List&lt;Account&gt; accounts = accountDao.query(byName, new QueryBindings().set(&quot;name&quot;, name));
+ * </pre>
+ *
+ * <p>
+ * <b>NOTE:</b> A bindings object is not thread-safe. It is meant to be created for each call. Only the DAO methods
+ * which take bindings, such as query, queryForFirst, iterator, countOf, and exists, can share a prepared query between
+ * threads. The other methods use the values of the argument holders. The methods which change the prepared query, such
+ * as {@link PreparedStmt#setArgumentHolderValue(int, Object)} and {@link PreparedQuery#setFetchPlan(FetchPlan)}, must
+ * not be called while it is shared.
+ * </p>
+ *
+ * @author graywatson
+ */
+public class QueryBindings {
+
+	private static final Object UNSET = new Object();
+
+	private List<Object> positionalValues;
+	private Map<String, Object> namedValues;
+
+	/**
+	 * Return bindings with the values bound to the arguments in order.
+	 */
+	public static QueryBindings of(Object... values) {
+		QueryBindings bindings = new QueryBindings();
+		for (int i = 0; i < values.length; i++) {
+			bindings.set(i, values[i]);
+		}
+		return bindings;
+	}
+
+	/**
+	 * Bind the value to the argument at the index, 0 based.
+	 */
+	public QueryBindings set(int index, Object value) {
+		if (index < 0) {
+			throw new IllegalArgumentException("argument index " + index + " must be >= 0");
+		}
+		if (positionalValues == null) {
+			positionalValues = new ArrayList<Object>();
+		}
+		while (positionalValues.size() <= index) {
+			positionalValues.add(UNSET);
+		}
+		positionalValues.set(index, value);
+		return this;
+	}
+
+	/**
+	 * Bind the value to the arguments whose column-name is the name argument.
+	 */
+	public QueryBindings set(String name, Object value) {
+		if (namedValues == null) {
+			namedValues = new HashMap<String, Object>();
+		}
+		namedValues.put(name, value);
+		return this;
+	}
+
+	/**
+	 * Verify that the bindings fit the arguments of a statement.
+	 *
+	 * @throws SQLException
+	 *             If a value is bound to a position past the end of the arguments or to a name that none of them have.
+	 */
+	public void verify(ArgumentHolder[] argHolders) throws SQLException {
+		if (positionalValues != null && positionalValues.size() > argHolders.length) {
+			throw new SQLException("argument index " + (positionalValues.size() - 1) + " not valid, only "
+					+ argHolders.length + " in statement");
+		}
+		if (namedValues != null) {
+			for (String name : namedValues.keySet()) {
+				boolean found = false;
+				for (ArgumentHolder argHolder : argHolders) {
+					if (name.equals(argHolder.getColumnName())) {
+						found = true;
+						break;
+					}
+				}
+				if (!found) {
+					throw new SQLException("no argument in statement has the name '" + name + "'");
+				}
+			}
+		}
+	}
+
+	/**
+	 * Return the value of the argument holder at the index converted for the database. The positional binding is used
+	 * first, then the named one, and then the value of the argument holder itself.
+	 */
+	public Object getSqlArgValue(int index, ArgumentHolder argHolder) throws SQLException {
+		if (positionalValues != null && index < positionalValues.size()) {
+			Object value = positionalValues.get(index);
+			if (value != UNSET) {
+				return BaseArgumentHolder.convertSqlArgValue(argHolder.getFieldType(), value);
+			}
+		}
+		String name = argHolder.getColumnName();
+		if (namedValues != null && name != null && namedValues.containsKey(name)) {
+			return BaseArgumentHolder.convertSqlArgValue(argHolder.getFieldType(), namedValues.get(name));
+		}
+		return argHolder.getSqlArgValue();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("bindings ");
+		if (positionalValues != null) {
+			sb.append(positionalValues.size()).append(" positional ");
+		}
+		if (namedValues != null) {
+			sb.append(namedValues.keySet());
+		}
+		return sb.toString();
+	}
+}
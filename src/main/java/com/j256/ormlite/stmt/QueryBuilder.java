@@ -12,6 +12,7 @@ import com.j256.ormlite.dao.GenericRawResults;
 import com.j256.ormlite.db.DatabaseType;
 import com.j256.ormlite.field.FieldType;
 import com.j256.ormlite.field.ForeignCollectionField;
+import com.j256.ormlite.stmt.mapped.MappedPreparedStmt;
 import com.j256.ormlite.stmt.query.OrderBy;
 import com.j256.ormlite.table.TableInfo;
 
@@ -45,13 +46,30 @@ public class QueryBuilder<T, ID> extends StatementBuilder<T, ID> {
 	private String groupByRaw;
 	private boolean isInnerQuery;
 	private boolean isCountOfQuery;
+	private boolean isExistsQuery;
+	private AggregateFunction aggregateFunction;
+	private String aggregateColumnName;
+	private List<String> columnarColumnList;
 	private String having;
 	private Long limit;
 	private Long offset;
 	private List<JoinInfo> joinList;
+	private FetchPlan fetchPlan;
+	private Integer fetchSize;
 
 	// NOTE: anything added here should be added to the clear() method below
 
+	// this is not cleared since it comes from the DAO
+	private SqlTemplateCache templateCache;
+	// these are only set while queryPage() is running
+	private List<OrderBy> keysetOrderBys;
+	private List<ArgumentHolder> keysetArgs;
+	// where the last statement that was built has its limit and offset so the template cache can leave them out
+	private int limitSqlStart;
+	private int limitSqlLength;
+	private int offsetSqlStart;
+	private int offsetSqlLength;
+
 	public QueryBuilder(DatabaseType databaseType, TableInfo<T, ID> tableInfo, Dao<T, ID> dao) {
 		super(databaseType, tableInfo, dao, StatementType.SELECT);
 		this.idField = tableInfo.getIdField();
@@ -95,7 +113,17 @@ public class QueryBuilder<T, ID> extends StatementBuilder<T, ID> {
 	 * this method to re-prepare the statement for execution.
 	 */
 	public PreparedQuery<T> prepare() throws SQLException {
-		return super.prepareStatement(limit);
+		MappedPreparedStmt<T, ID> preparedQuery;
+		if (templateCache == null) {
+			preparedQuery = super.prepareStatement(limit);
+		} else {
+			preparedQuery = prepareFromTemplate();
+		}
+		if (fetchPlan != null) {
+			preparedQuery.setFetchPlan(fetchPlan);
+		}
+		preparedQuery.setFetchSize(fetchSize);
+		return preparedQuery;
 	}
 
 	/**
@@ -283,6 +311,105 @@ public class QueryBuilder<T, ID> extends StatementBuilder<T, ID> {
 	 */
 	public QueryBuilder<T, ID> setCountOf(boolean countOf) {
 		this.isCountOfQuery = countOf;
+		if (countOf) {
+			// the exists flag would override the count
+			isExistsQuery = false;
+		}
+		return this;
+	}
+
+	/**
+	 * Set whether or not we should only check if there are any results. The query then selects a constant instead of
+	 * the columns and is limited to 1 row so the database can stop at the first match. This query can then be used by
+	 * {@link Dao#exists(PreparedQuery)}.
+	 * 
+	 * To check for results directly, use {@link #exists()}. Setting the count-of, aggregate, or columnar results turns
+	 * this off.
+	 */
+	public QueryBuilder<T, ID> setExists(boolean exists) {
+		this.isExistsQuery = exists;
+		return this;
+	}
+
+	/**
+	 * Set the aggregate function that the query returns instead of the objects. The query selects the group-by
+	 * columns, if any, followed by the function of the column. This query can then be used by
+	 * {@link Dao#queryForAggregate(PreparedQuery)}. Set the function to null to turn this off.
+	 * 
+	 * To get the results directly, use {@link #queryAggregate(AggregateFunction, String)}.
+	 * 
+	 * @param columnName
+	 *            Column to aggregate. This can be null for {@link AggregateFunction#COUNT} to count the rows.
+	 */
+	public QueryBuilder<T, ID> setAggregate(AggregateFunction function, String columnName) {
+		if (columnName == null) {
+			if (function != null && function != AggregateFunction.COUNT) {
+				throw new IllegalArgumentException("Aggregate function " + function + " needs a column");
+			}
+		} else {
+			verifyColumnName(columnName);
+		}
+		this.aggregateFunction = function;
+		this.aggregateColumnName = columnName;
+		if (function != null) {
+			isExistsQuery = false;
+		}
+		return this;
+	}
+
+	/**
+	 * Set the columns that the query returns as primitive arrays instead of the objects. This query can then be used by
+	 * {@link Dao#queryForColumnar(PreparedQuery)}. The columns must be numeric or boolean, see {@link ColumnarResults}.
+	 * Call with no columns to turn this off.
+	 * 
+	 * To get the results directly, use {@link #queryColumnar(String...)}.
+	 */
+	public QueryBuilder<T, ID> setColumnar(String... columnNames) {
+		if (columnNames.length == 0) {
+			columnarColumnList = null;
+			return this;
+		}
+		List<String> columnList = new ArrayList<String>(columnNames.length);
+		for (String columnName : columnNames) {
+			FieldType fieldType = verifyColumnName(columnName);
+			if (fieldType.isForeignCollection()) {
+				throw new IllegalArgumentException("Column " + columnName + " is a foreign collection");
+			}
+			columnList.add(columnName);
+		}
+		columnarColumnList = columnList;
+		isExistsQuery = false;
+		return this;
+	}
+
+	/**
+	 * Set the plan which says how the foreign fields and foreign collections of the returned objects are loaded by this
+	 * query, overriding their field settings. See {@link FetchPlan}.
+	 */
+	public QueryBuilder<T, ID> setFetchPlan(FetchPlan fetchPlan) {
+		this.fetchPlan = fetchPlan;
+		return this;
+	}
+
+	/**
+	 * Set the number of rows that the database driver fetches at a time when the results of the query are iterated
+	 * through, or null for the driver default. Setting this when iterating through a large number of rows with
+	 * {@link #iterator()} or {@link Dao#iterator(PreparedQuery)} keeps the driver from buffering all of the results in
+	 * memory. See {@link com.j256.ormlite.support.CompiledStatement#setFetchSize(int)}.
+	 */
+	public QueryBuilder<T, ID> setFetchSize(Integer fetchSize) {
+		this.fetchSize = fetchSize;
+		return this;
+	}
+
+	/**
+	 * Set the cache of generated SQL that is used by {@link #prepare()} so queries with the same shape do not have to
+	 * build their SQL again. This must be called before {@link #where()} since, with the cache, the where values are
+	 * passed as arguments instead of being inlined into the SQL. Set to null, the default, to not use a cache. See
+	 * {@link SqlTemplateCache}.
+	 */
+	public QueryBuilder<T, ID> setSqlTemplateCache(SqlTemplateCache templateCache) {
+		this.templateCache = templateCache;
 		return this;
 	}
 
@@ -323,6 +450,100 @@ public class QueryBuilder<T, ID> extends StatementBuilder<T, ID> {
 		return dao.query(prepare());
 	}
 
+	/**
+	 * Return a page of results using keyset (or seek) pagination. Instead of an offset, which makes the database skip
+	 * over all of the earlier rows, the page starts after the last row of the previous page by adding something like
+	 * "WHERE (a > ? OR (a = ? AND b > ?))" to the query. This is fast even deep into the results if the order-by
+	 * columns are indexed.
+	 * 
+	 * <p>
+	 * The query must be ordered with {@link #orderBy(String, boolean)}. If the id column is not one of the order-by
+	 * columns then it is added at the end so the ordering is unique. The order-by columns may not have null values.
+	 * This cannot be used with {@link #orderByRaw(String)} or {@link #offset(Long)}.
+	 * </p>
+	 * 
+	 * @param continuationToken
+	 *            The token from {@link KeysetPage#getContinuationToken()} of the previous page or null for the first
+	 *            page.
+	 * @param pageSize
+	 *            Maximum number of results in the page.
+	 */
+	public KeysetPage<T> queryPage(String continuationToken, long pageSize) throws SQLException {
+		if (pageSize <= 0) {
+			throw new IllegalArgumentException("Page size " + pageSize + " must be > 0");
+		}
+		if (orderByRaw != null || offset != null) {
+			throw new SQLException("Keyset pagination cannot be used with a raw order-by or an offset");
+		}
+		boolean addedId = addIdOrderBy();
+		if (orderByList == null || orderByList.isEmpty()) {
+			throw new SQLException("Keyset pagination needs order-by columns or an id column");
+		}
+		List<OrderBy> orderBys = new ArrayList<OrderBy>(orderByList);
+		FieldType[] keyFieldTypes = buildKeyFieldTypes(orderBys);
+		Long savedLimit = limit;
+		try {
+			if (continuationToken != null) {
+				Object[] values = ContinuationToken.decode(continuationToken, keyFieldTypes.length);
+				ArgumentHolder[] valueArgs = new ArgumentHolder[values.length];
+				for (int i = 0; i < values.length; i++) {
+					valueArgs[i] = new SelectArg(keyFieldTypes[i].getSqlType(), values[i]);
+				}
+				// the arguments in the order that they appear in the SQL
+				keysetArgs = new ArrayList<ArgumentHolder>();
+				for (int i = 0; i < valueArgs.length; i++) {
+					for (int j = 0; j <= i; j++) {
+						keysetArgs.add(valueArgs[j]);
+					}
+				}
+				keysetOrderBys = orderBys;
+			}
+			// we get one more than the page size to see if there is another page
+			limit = pageSize + 1;
+			List<T> results = dao.query(prepare());
+			String nextToken = null;
+			if (results.size() > pageSize) {
+				results.remove(results.size() - 1);
+				nextToken = encodeContinuationToken(keyFieldTypes, results.get(results.size() - 1));
+			}
+			return new KeysetPage<T>(results, nextToken);
+		} finally {
+			limit = savedLimit;
+			keysetOrderBys = null;
+			keysetArgs = null;
+			removeIdOrderBy(addedId);
+		}
+	}
+
+	/**
+	 * Return a cursor which gives random access to the results of this query by index while only holding a few pages
+	 * of them in memory. See {@link WindowedCursor}. If the id column is not one of the order-by columns then the
+	 * cursor's queries are also ordered by it so that the ordering, and so the pages, are stable. This query builder is
+	 * left as it is. This cannot be used with {@link #orderByRaw(String)}, {@link #limit(Long)}, or
+	 * {@link #offset(Long)}.
+	 * 
+	 * @param pageSize
+	 *            Number of results in each page that is queried.
+	 * @param maxCachedPages
+	 *            Maximum number of pages that are kept in memory.
+	 */
+	public WindowedCursor<T> windowedCursor(int pageSize, int maxCachedPages) throws SQLException {
+		if (orderByRaw != null || limit != null || offset != null) {
+			throw new SQLException("Windowed cursor cannot be used with a raw order-by, a limit, or an offset");
+		}
+		if (idField == null && (orderByList == null || orderByList.isEmpty())) {
+			throw new SQLException("Windowed cursor needs order-by columns or an id column");
+		}
+		return new WindowedCursor<T>(this, pageSize, maxCachedPages);
+	}
+
+	/**
+	 * A short cut to {@link Dao#queryInto(PreparedQuery, Class)}.
+	 */
+	public <R> List<R> queryInto(Class<R> resultClass) throws SQLException {
+		return dao.queryInto(prepare(), resultClass);
+	}
+
 	/**
 	 * A short cut to {@link Dao#queryRaw(String, String...)}.
 	 */
@@ -360,6 +581,76 @@ public class QueryBuilder<T, ID> extends StatementBuilder<T, ID> {
 		return dao.countOf(prepare());
 	}
 
+	/**
+	 * Sets the exists query flag using {@link #setExists(boolean)} to true and then calls
+	 * {@link Dao#exists(PreparedQuery)}. The flag is put back afterwards so the builder can still be used for other
+	 * queries.
+	 */
+	public boolean exists() throws SQLException {
+		boolean wasExists = isExistsQuery;
+		setExists(true);
+		try {
+			return dao.exists(prepare());
+		} finally {
+			isExistsQuery = wasExists;
+		}
+	}
+
+	/**
+	 * Sets the aggregate function using {@link #setAggregate(AggregateFunction, String)} and then calls
+	 * {@link Dao#queryForAggregate(PreparedQuery)}. The function is put back afterwards so the builder can still be
+	 * used for other queries.
+	 */
+	public AggregateResults queryAggregate(AggregateFunction function, String columnName) throws SQLException {
+		AggregateFunction wasFunction = aggregateFunction;
+		String wasColumnName = aggregateColumnName;
+		boolean wasExists = isExistsQuery;
+		setAggregate(function, columnName);
+		try {
+			return dao.queryForAggregate(prepare());
+		} finally {
+			aggregateFunction = wasFunction;
+			aggregateColumnName = wasColumnName;
+			isExistsQuery = wasExists;
+		}
+	}
+
+	/**
+	 * A short-cut for the aggregate of a query without group-by columns which returns the value as a long. A null
+	 * value, such as the sum of no rows, is returned as 0.
+	 */
+	public long aggregateLong(AggregateFunction function, String columnName) throws SQLException {
+		return querySingleAggregate(function, columnName).getLong(0);
+	}
+
+	/**
+	 * A short-cut for the aggregate of a query without group-by columns which returns the value as a double. A null
+	 * value, such as the average of no rows, is returned as 0.0.
+	 */
+	public double aggregateDouble(AggregateFunction function, String columnName) throws SQLException {
+		return querySingleAggregate(function, columnName).getDouble(0);
+	}
+
+	/**
+	 * Sets the columns using {@link #setColumnar(String...)} and then calls
+	 * {@link Dao#queryForColumnar(PreparedQuery)}. The columns are put back afterwards so the builder can still be used
+	 * for other queries.
+	 */
+	public ColumnarResults queryColumnar(String... columnNames) throws SQLException {
+		if (columnNames.length == 0) {
+			throw new IllegalArgumentException("Columnar query needs at least one column");
+		}
+		List<String> wasColumnList = columnarColumnList;
+		boolean wasExists = isExistsQuery;
+		setColumnar(columnNames);
+		try {
+			return dao.queryForColumnar(prepare());
+		} finally {
+			columnarColumnList = wasColumnList;
+			isExistsQuery = wasExists;
+		}
+	}
+
 	@Override
 	public void clear() {
 		super.clear();
@@ -373,9 +664,15 @@ public class QueryBuilder<T, ID> extends StatementBuilder<T, ID> {
 		groupByRaw = null;
 		isInnerQuery = false;
 		isCountOfQuery = false;
+		isExistsQuery = false;
+		aggregateFunction = null;
+		aggregateColumnName = null;
+		columnarColumnList = null;
 		having = null;
 		limit = null;
 		offset = null;
+		fetchPlan = null;
+		fetchSize = null;
 		if (joinList != null) {
 			// help gc
 			joinList.clear();
@@ -392,13 +689,26 @@ public class QueryBuilder<T, ID> extends StatementBuilder<T, ID> {
 			setAddTableName(true);
 		}
 		sb.append("SELECT ");
+		limitSqlLength = 0;
+		offsetSqlLength = 0;
 		if (databaseType.isLimitAfterSelect()) {
+			limitSqlStart = sb.length();
 			appendLimit(sb);
+			limitSqlLength = sb.length() - limitSqlStart;
 		}
 		if (distinct) {
 			sb.append("DISTINCT ");
 		}
-		if (isCountOfQuery) {
+		if (isExistsQuery) {
+			type = StatementType.SELECT_RAW;
+			sb.append("1 ");
+		} else if (aggregateFunction != null) {
+			type = StatementType.SELECT_RAW;
+			appendAggregate(sb);
+		} else if (columnarColumnList != null) {
+			type = StatementType.SELECT_RAW;
+			appendColumnar(sb);
+		} else if (isCountOfQuery) {
 			type = StatementType.SELECT_LONG;
 			sb.append("COUNT(*) ");
 		} else if (selectRawList != null && !selectRawList.isEmpty()) {
@@ -416,6 +726,11 @@ public class QueryBuilder<T, ID> extends StatementBuilder<T, ID> {
 		}
 	}
 
+	@Override
+	boolean isValuesAsArguments() {
+		return templateCache != null;
+	}
+
 	@Override
 	protected FieldType[] getResultFieldTypes() {
 		return resultFieldTypes;
@@ -434,6 +749,9 @@ public class QueryBuilder<T, ID> extends StatementBuilder<T, ID> {
 				first = false;
 			}
 		}
+		if (keysetOrderBys != null) {
+			appendKeyset(sb, argList, first);
+		}
 	}
 
 	@Override
@@ -443,9 +761,13 @@ public class QueryBuilder<T, ID> extends StatementBuilder<T, ID> {
 		appendHaving(sb);
 		appendOrderBys(sb, argList);
 		if (!databaseType.isLimitAfterSelect()) {
+			limitSqlStart = sb.length();
 			appendLimit(sb);
+			limitSqlLength = sb.length() - limitSqlStart;
 		}
+		offsetSqlStart = sb.length();
 		appendOffset(sb);
+		offsetSqlLength = sb.length() - offsetSqlStart;
 		// clear the add-table name flag so we can reuse the builder
 		setAddTableName(false);
 	}
@@ -455,6 +777,173 @@ public class QueryBuilder<T, ID> extends StatementBuilder<T, ID> {
 		return joinList != null;
 	}
 
+	/**
+	 * Prepare the statement using the SQL from the template cache if a query of the same shape has been prepared before.
+	 */
+	private MappedPreparedStmt<T, ID> prepareFromTemplate() throws SQLException {
+		String key = buildTemplateKey();
+		if (key == null) {
+			return super.prepareStatement(limit);
+		}
+		List<ArgumentHolder> args = new ArrayList<ArgumentHolder>();
+		if (where != null) {
+			args.addAll(where.getShapeArgs());
+		}
+		if (keysetArgs != null) {
+			args.addAll(keysetArgs);
+		}
+		if (orderByRaw != null && orderByArgs != null) {
+			for (ArgumentHolder arg : orderByArgs) {
+				args.add(arg);
+			}
+		}
+		Long sqlLimit = (databaseType.isLimitSqlSupported() ? null : limit);
+
+		SqlTemplateCache.Template template = templateCache.get(key);
+		if (template != null && template.argFieldTypes.length == args.size()) {
+			ArgumentHolder[] argHolders = args.toArray(new ArgumentHolder[args.size()]);
+			for (int i = 0; i < argHolders.length; i++) {
+				if (template.argFieldTypes[i] != null) {
+					argHolders[i].setMetaInfo(template.argFieldTypes[i]);
+				}
+				if (template.argColumnNames[i] != null) {
+					argHolders[i].setMetaInfo(template.argColumnNames[i]);
+				}
+			}
+			type = template.type;
+			resultFieldTypes = template.resultFieldTypes;
+			return new MappedPreparedStmt<T, ID>(tableInfo, buildTemplateStatement(template),
+					template.argFieldTypes, template.resultFieldTypes, argHolders, sqlLimit, template.type);
+		}
+
+		List<ArgumentHolder> argList = new ArrayList<ArgumentHolder>();
+		MappedPreparedStmt<T, ID> preparedQuery = super.prepareStatement(limit, argList);
+		// only cache the SQL if its arguments are the ones that we recorded in the same order
+		if (argList.size() != args.size()) {
+			return preparedQuery;
+		}
+		String[] argColumnNames = new String[argList.size()];
+		FieldType[] argFieldTypes = new FieldType[argList.size()];
+		for (int i = 0; i < argList.size(); i++) {
+			ArgumentHolder arg = argList.get(i);
+			if (arg != args.get(i)) {
+				return preparedQuery;
+			}
+			argColumnNames[i] = arg.getColumnName();
+			argFieldTypes[i] = arg.getFieldType();
+		}
+		// the limit and offset values are cut out of the cached SQL and put back in for each query
+		String statement = preparedQuery.getStatement();
+		int limitPosition = -1;
+		int offsetPosition = -1;
+		if (offsetSqlLength > 0) {
+			statement = statement.substring(0, offsetSqlStart) + statement.substring(offsetSqlStart + offsetSqlLength);
+			offsetPosition = offsetSqlStart;
+		}
+		if (limitSqlLength > 0) {
+			statement = statement.substring(0, limitSqlStart) + statement.substring(limitSqlStart + limitSqlLength);
+			limitPosition = limitSqlStart;
+			if (offsetPosition > limitSqlStart) {
+				offsetPosition -= limitSqlLength;
+			}
+		}
+		templateCache.put(key, new SqlTemplateCache.Template(statement, type, resultFieldTypes, argColumnNames,
+				argFieldTypes, limitPosition, offsetPosition));
+		return preparedQuery;
+	}
+
+	/**
+	 * Return the SQL of the template with the limit and offset values of this query put back in.
+	 */
+	private String buildTemplateStatement(SqlTemplateCache.Template template) throws SQLException {
+		if (template.limitPosition < 0 && template.offsetPosition < 0) {
+			return template.statement;
+		}
+		StringBuilder sb = new StringBuilder(template.statement);
+		// the offset is never before the limit so we insert it first to not move the limit position
+		if (template.offsetPosition >= 0) {
+			StringBuilder offsetSb = new StringBuilder();
+			appendOffset(offsetSb);
+			sb.insert(template.offsetPosition, offsetSb);
+		}
+		if (template.limitPosition >= 0) {
+			StringBuilder limitSb = new StringBuilder();
+			appendLimit(limitSb);
+			sb.insert(template.limitPosition, limitSb);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Build the key of the template cache from the shape of the query or return null if it cannot be cached.
+	 */
+	private String buildTemplateKey() {
+		if (joinList != null || isInnerQuery) {
+			return null;
+		}
+		String whereShape = null;
+		if (where != null) {
+			whereShape = where.getShape();
+			if (whereShape == null) {
+				return null;
+			}
+		}
+		StringBuilder sb = new StringBuilder(128);
+		sb.append(distinct ? "DISTINCT " : "").append(isCountOfQuery ? "COUNT " : "");
+		sb.append(isExistsQuery ? "EXISTS " : "");
+		if (aggregateFunction != null) {
+			sb.append(aggregateFunction).append(' ');
+			appendKeyPart(sb, "OF", aggregateColumnName);
+		}
+		if (columnarColumnList != null) {
+			sb.append("COLUMNAR").append(columnarColumnList).append(' ');
+		}
+		sb.append(selectIdColumn ? "ID " : "");
+		if (selectColumnList != null) {
+			sb.append("COLUMNS").append(selectColumnList).append(' ');
+		}
+		if (selectRawList != null) {
+			for (String raw : selectRawList) {
+				appendKeyPart(sb, "RAW", raw);
+			}
+		}
+		if (whereShape != null) {
+			sb.append("WHERE ").append(whereShape);
+		}
+		if (groupByList != null) {
+			sb.append("GROUP").append(groupByList).append(' ');
+		}
+		appendKeyPart(sb, "GROUP-RAW", groupByRaw);
+		appendKeyPart(sb, "HAVING", having);
+		if (orderByList != null) {
+			sb.append("ORDER");
+			for (OrderBy orderBy : orderByList) {
+				sb.append('(').append(orderBy.getColumnName()).append(orderBy.isAscending() ? ")" : " DESC)");
+			}
+			sb.append(' ');
+		}
+		appendKeyPart(sb, "ORDER-RAW", orderByRaw);
+		if (keysetOrderBys != null) {
+			sb.append("KEYSET ");
+		}
+		if (orderByRaw != null && orderByArgs != null) {
+			sb.append("ORDER-ARGS(").append(orderByArgs.length).append(") ");
+		}
+		// only whether there is a limit or offset, the values are put into the SQL when it is taken from the cache
+		sb.append(limit != null ? "LIMIT " : "").append(offset != null ? "OFFSET " : "");
+		return sb.toString();
+	}
+
+	/**
+	 * Add a part to the key that may contain any characters so we prefix its length to avoid one key looking like
+	 * another.
+	 */
+	private void appendKeyPart(StringBuilder sb, String label, String value) {
+		if (value != null) {
+			sb.append(label).append('[').append(value.length()).append(':').append(value).append("] ");
+		}
+	}
+
 	private void setAddTableName(boolean addTableName) {
 		this.addTableName = addTableName;
 		if (joinList != null) {
@@ -540,6 +1029,58 @@ public class QueryBuilder<T, ID> extends StatementBuilder<T, ID> {
 		sb.append(' ');
 	}
 
+	private AggregateResults querySingleAggregate(AggregateFunction function, String columnName)
+			throws SQLException {
+		if (hasGroupStuff()) {
+			throw new SQLException("Query has group-by columns so it returns a row per group, use queryAggregate()");
+		}
+		AggregateResults results = queryAggregate(function, columnName);
+		if (results.size() != 1) {
+			throw new SQLException("Aggregate query returned " + results.size() + " rows instead of 1");
+		}
+		return results;
+	}
+
+	/**
+	 * Append the group-by columns and then the aggregate function. The result field-types are those of the group-by
+	 * columns so their values can be converted.
+	 */
+	private void appendAggregate(StringBuilder sb) {
+		List<FieldType> fieldTypeList = new ArrayList<FieldType>();
+		if (groupByList != null) {
+			for (String columnName : groupByList) {
+				appendFieldColumnName(sb, tableInfo.getFieldTypeByColumnName(columnName), fieldTypeList);
+				sb.append(", ");
+			}
+		}
+		sb.append(aggregateFunction).append('(');
+		if (aggregateColumnName == null) {
+			sb.append('*');
+		} else {
+			appendColumnName(sb, aggregateColumnName);
+		}
+		sb.append(") ");
+		resultFieldTypes = fieldTypeList.toArray(new FieldType[fieldTypeList.size()]);
+	}
+
+	/**
+	 * Append the columnar columns. The result field-types are those of the columns so their SQL types are known.
+	 */
+	private void appendColumnar(StringBuilder sb) {
+		List<FieldType> fieldTypeList = new ArrayList<FieldType>(columnarColumnList.size());
+		boolean first = true;
+		for (String columnName : columnarColumnList) {
+			if (first) {
+				first = false;
+			} else {
+				sb.append(", ");
+			}
+			appendFieldColumnName(sb, tableInfo.getFieldTypeByColumnName(columnName), fieldTypeList);
+		}
+		sb.append(' ');
+		resultFieldTypes = fieldTypeList.toArray(new FieldType[fieldTypeList.size()]);
+	}
+
 	private void appendColumns(StringBuilder sb) {
 		// if no columns were specified then * is the default
 		if (selectColumnList == null) {
@@ -593,6 +1134,137 @@ public class QueryBuilder<T, ID> extends StatementBuilder<T, ID> {
 		resultFieldTypes = fieldTypeList.toArray(new FieldType[fieldTypeList.size()]);
 	}
 
+	/**
+	 * Return the continuation token, as if from {@link #queryPage(String, long)}, of the page that starts after the
+	 * row. Like that method, the id column is added to the key columns if the query is not ordered by it.
+	 */
+	String buildContinuationToken(T data) throws SQLException {
+		boolean addedId = addIdOrderBy();
+		try {
+			if (orderByList == null || orderByList.isEmpty()) {
+				throw new SQLException("Continuation token needs order-by columns or an id column");
+			}
+			return encodeContinuationToken(buildKeyFieldTypes(orderByList), data);
+		} finally {
+			removeIdOrderBy(addedId);
+		}
+	}
+
+	/**
+	 * Add the id column to the end of the order-by columns, if it is not one of them already, so the ordering is unique.
+	 * 
+	 * @return True if it was added in which case it has to be removed with {@link #removeIdOrderBy(boolean)}.
+	 */
+	private boolean addIdOrderBy() {
+		if (idField == null || isOrderedBy(idField.getColumnName())) {
+			return false;
+		}
+		orderBy(idField.getColumnName(), true);
+		return true;
+	}
+
+	private void removeIdOrderBy(boolean addedId) {
+		if (addedId) {
+			orderByList.remove(orderByList.size() - 1);
+			if (orderByList.isEmpty()) {
+				// put it back the way it was
+				orderByList = null;
+			}
+		}
+	}
+
+	private FieldType[] buildKeyFieldTypes(List<OrderBy> orderBys) {
+		FieldType[] keyFieldTypes = new FieldType[orderBys.size()];
+		for (int i = 0; i < keyFieldTypes.length; i++) {
+			keyFieldTypes[i] = tableInfo.getFieldTypeByColumnName(orderBys.get(i).getColumnName());
+		}
+		return keyFieldTypes;
+	}
+
+	private String encodeContinuationToken(FieldType[] keyFieldTypes, T data) throws SQLException {
+		Object[] values = new Object[keyFieldTypes.length];
+		for (int i = 0; i < keyFieldTypes.length; i++) {
+			values[i] = keyFieldTypes[i].extractJavaFieldToSqlArgValue(data);
+		}
+		return ContinuationToken.encode(values);
+	}
+
+	/**
+	 * Return the results starting at the row and up to max-rows of them using an offset. They are ordered like the
+	 * pages of {@link #queryPage(String, long)}.
+	 */
+	List<T> queryWindow(long startRow, long maxRows) throws SQLException {
+		Long savedLimit = limit;
+		Long savedOffset = offset;
+		boolean addedId = addIdOrderBy();
+		try {
+			limit = maxRows;
+			offset(startRow);
+			return dao.query(prepare());
+		} finally {
+			limit = savedLimit;
+			offset = savedOffset;
+			removeIdOrderBy(addedId);
+		}
+	}
+
+	/**
+	 * Return the number of results of the query. The order-by columns are left out since they don't change the count.
+	 */
+	long countOfUnordered() throws SQLException {
+		List<OrderBy> savedOrderByList = orderByList;
+		try {
+			orderByList = null;
+			return countOf();
+		} finally {
+			orderByList = savedOrderByList;
+			isCountOfQuery = false;
+		}
+	}
+
+	private boolean isOrderedBy(String columnName) {
+		if (orderByList != null) {
+			for (OrderBy orderBy : orderByList) {
+				if (orderBy.getColumnName().equals(columnName)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Append the clause which makes the results start after the row whose order-by values are in the keyset arguments.
+	 */
+	private void appendKeyset(StringBuilder sb, List<ArgumentHolder> argList, boolean first) {
+		if (first) {
+			sb.append("WHERE ");
+		} else {
+			sb.append("AND ");
+		}
+		sb.append('(');
+		for (int i = 0; i < keysetOrderBys.size(); i++) {
+			if (i > 0) {
+				sb.append(" OR ");
+			}
+			sb.append('(');
+			for (int j = 0; j < i; j++) {
+				appendColumnName(sb, keysetOrderBys.get(j).getColumnName());
+				sb.append(" = ? AND ");
+			}
+			OrderBy orderBy = keysetOrderBys.get(i);
+			appendColumnName(sb, orderBy.getColumnName());
+			if (orderBy.isAscending()) {
+				sb.append(" > ?");
+			} else {
+				sb.append(" < ?");
+			}
+			sb.append(')');
+		}
+		sb.append(") ");
+		argList.addAll(keysetArgs);
+	}
+
 	private void appendFieldColumnName(StringBuilder sb, FieldType fieldType, List<FieldType> fieldTypeList) {
 		appendColumnName(sb, fieldType.getColumnName());
 		if (fieldTypeList != null) {
@@ -601,8 +1273,10 @@ public class QueryBuilder<T, ID> extends StatementBuilder<T, ID> {
 	}
 
 	private void appendLimit(StringBuilder sb) {
-		if (limit != null && databaseType.isLimitSqlSupported()) {
-			databaseType.appendLimitValue(sb, limit, offset);
+		// the exists query only needs the first row
+		Long sqlLimit = (isExistsQuery ? Long.valueOf(1L) : limit);
+		if (sqlLimit != null && databaseType.isLimitSqlSupported()) {
+			databaseType.appendLimitValue(sb, sqlLimit, offset);
 		}
 	}
 
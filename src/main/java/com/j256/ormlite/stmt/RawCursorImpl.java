@@ -0,0 +1,114 @@
+package com.j256.ormlite.stmt;
+
+import java.sql.SQLException;
+
+import com.j256.ormlite.dao.ObjectCache;
+import com.j256.ormlite.dao.RawCursor;
+import com.j256.ormlite.logger.Logger;
+import com.j256.ormlite.logger.LoggerFactory;
+import com.j256.ormlite.support.CompiledStatement;
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.support.DatabaseConnection;
+import com.j256.ormlite.support.DatabaseResults;
+
+/**
+ * Implementation of the {@link RawCursor} which passes the getters through to the {@link DatabaseResults} of the
+ * current row.
+ * 
+ * @author graywatson
+ */
+public class RawCursorImpl implements RawCursor {
+
+	private final static Logger logger = LoggerFactory.getLogger(RawCursorImpl.class);
+
+	private final ConnectionSource connectionSource;
+	private final DatabaseConnection connection;
+	private final CompiledStatement compiledStmt;
+	private final DatabaseResults results;
+	private final String[] columnNames;
+	private boolean first = true;
+	private boolean closed;
+	private int rowC;
+
+	public RawCursorImpl(ConnectionSource connectionSource, DatabaseConnection connection, String query,
+			CompiledStatement compiledStmt, ObjectCache objectCache) throws SQLException {
+		this.connectionSource = connectionSource;
+		this.connection = connection;
+		this.compiledStmt = compiledStmt;
+		this.results = compiledStmt.runQuery(objectCache);
+		// we _have_ to get these here before the results object is closed if there are no results
+		this.columnNames = results.getColumnNames();
+		logger.debug("starting raw cursor @{} for '{}'", hashCode(), query);
+	}
+
+	public int getNumberColumns() {
+		return columnNames.length;
+	}
+
+	public String[] getColumnNames() {
+		return columnNames;
+	}
+
+	public boolean next() throws SQLException {
+		if (closed) {
+			return false;
+		}
+		boolean result;
+		if (first) {
+			first = false;
+			result = results.first();
+		} else {
+			result = results.next();
+		}
+		if (result) {
+			rowC++;
+		} else {
+			close();
+		}
+		return result;
+	}
+
+	public String getString(int columnIndex) throws SQLException {
+		return results.getString(columnIndex);
+	}
+
+	public boolean getBoolean(int columnIndex) throws SQLException {
+		return results.getBoolean(columnIndex);
+	}
+
+	public int getInt(int columnIndex) throws SQLException {
+		return results.getInt(columnIndex);
+	}
+
+	public long getLong(int columnIndex) throws SQLException {
+		return results.getLong(columnIndex);
+	}
+
+	public double getDouble(int columnIndex) throws SQLException {
+		return results.getDouble(columnIndex);
+	}
+
+	public boolean wasNull(int columnIndex) throws SQLException {
+		return results.wasNull(columnIndex);
+	}
+
+	public void close() throws SQLException {
+		if (!closed) {
+			closed = true;
+			try {
+				compiledStmt.close();
+			} finally {
+				logger.debug("closed raw cursor @{} after {} rows", hashCode(), rowC);
+				connectionSource.releaseConnection(connection);
+			}
+		}
+	}
+
+	public void closeQuietly() {
+		try {
+			close();
+		} catch (SQLException e) {
+			// ignore it
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package com.j256.ormlite.stmt;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import com.j256.ormlite.dao.CloseableBatchIterator;
+import com.j256.ormlite.dao.Dao;
+
+/**
+ * Batch iterator which reads the objects from a {@link SelectIterator}. This is used by the
+ * {@link Dao#batchIterator(PreparedQuery, int)} method.
+ * 
+ * @author graywatson
+ */
+public class SelectBatchIterator<T, ID> implements CloseableBatchIterator<T> {
+
+	private final SelectIterator<T, ID> iterator;
+	private final int batchSize;
+	private long objectCount;
+
+	public SelectBatchIterator(SelectIterator<T, ID> iterator, int batchSize) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("batch size " + batchSize + " must be >= 1");
+		}
+		this.iterator = iterator;
+		this.batchSize = batchSize;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	public long getObjectCount() {
+		return objectCount;
+	}
+
+	/**
+	 * Returns whether or not there is another batch. The underlying iterator closes itself when it runs out of results.
+	 * 
+	 * @throws IllegalStateException
+	 *             If there was a problem getting more results via SQL.
+	 */
+	public boolean hasNext() {
+		return iterator.hasNext();
+	}
+
+	public List<T> nextThrow() throws SQLException {
+		List<T> batch = null;
+		while (iterator.hasNextThrow()) {
+			if (batch == null) {
+				batch = new ArrayList<T>(batchSize);
+			}
+			batch.add(iterator.nextThrow());
+			if (batch.size() >= batchSize) {
+				break;
+			}
+		}
+		if (batch != null) {
+			objectCount += batch.size();
+		}
+		return batch;
+	}
+
+	/**
+	 * Returns the next batch of objects.
+	 * 
+	 * @throws IllegalStateException
+	 *             If there was a problem extracting the objects from SQL.
+	 * @throws NoSuchElementException
+	 *             If there are no more results.
+	 */
+	public List<T> next() {
+		List<T> batch;
+		try {
+			batch = nextThrow();
+		} catch (SQLException e) {
+			iterator.closeQuietly();
+			// unfortunately, can't propagate back the SQLException
+			throw new IllegalStateException("Could not get next batch of results", e);
+		}
+		if (batch == null) {
+			throw new NoSuchElementException("No more results");
+		}
+		return batch;
+	}
+
+	public void remove() {
+		throw new UnsupportedOperationException("Batches cannot be removed from the iterator");
+	}
+
+	public void close() throws SQLException {
+		iterator.close();
+	}
+
+	public void closeQuietly() {
+		iterator.closeQuietly();
+	}
+}
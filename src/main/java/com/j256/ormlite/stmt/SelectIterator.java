@@ -34,6 +34,7 @@ public class SelectIterator<T, ID> implements CloseableIterator<T> {
 	private final DatabaseResults results;
 	private final GenericRowMapper<T> rowMapper;
 	private final String statement;
+	private final MappingContext mappingContext;
 	private boolean first = true;
 	private boolean closed = false;
 	private boolean alreadyMoved = false;
@@ -46,6 +47,17 @@ public class SelectIterator<T, ID> implements CloseableIterator<T> {
 	public SelectIterator(Class<?> dataClass, Dao<T, ID> classDao, GenericRowMapper<T> rowMapper,
 			ConnectionSource connectionSource, DatabaseConnection connection, CompiledStatement compiledStmt,
 			String statement, ObjectCache objectCache) throws SQLException {
+		// nested queries while mapping our rows are run on our connection
+		this(dataClass, classDao, rowMapper, connectionSource, connection, compiledStmt, statement, objectCache,
+				new MappingContext(connection));
+	}
+
+	/**
+	 * Like the other constructor but the rows are mapped with the mapping-context argument.
+	 */
+	public SelectIterator(Class<?> dataClass, Dao<T, ID> classDao, GenericRowMapper<T> rowMapper,
+			ConnectionSource connectionSource, DatabaseConnection connection, CompiledStatement compiledStmt,
+			String statement, ObjectCache objectCache, MappingContext mappingContext) throws SQLException {
 		this.dataClass = dataClass;
 		this.classDao = classDao;
 		this.rowMapper = rowMapper;
@@ -54,6 +66,7 @@ public class SelectIterator<T, ID> implements CloseableIterator<T> {
 		this.compiledStmt = compiledStmt;
 		this.results = compiledStmt.runQuery(objectCache);
 		this.statement = statement;
+		this.mappingContext = mappingContext;
 		if (statement != null) {
 			logger.debug("starting iterator @{} for '{}'", hashCode(), statement);
 		}
@@ -256,6 +269,13 @@ public class SelectIterator<T, ID> implements CloseableIterator<T> {
 		}
 	}
 
+	/**
+	 * Return the context that the rows are mapped with.
+	 */
+	public MappingContext getMappingContext() {
+		return mappingContext;
+	}
+
 	public DatabaseResults getRawResults() {
 		return results;
 	}
@@ -267,7 +287,7 @@ public class SelectIterator<T, ID> implements CloseableIterator<T> {
 	}
 
 	private T getCurrent() throws SQLException {
-		last = rowMapper.mapRow(results);
+		last = mappingContext.mapRow(rowMapper, results);
 		alreadyMoved = false;
 		rowC++;
 		return last;
@@ -0,0 +1,107 @@
+package com.j256.ormlite.stmt;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.j256.ormlite.field.FieldType;
+import com.j256.ormlite.stmt.StatementBuilder.StatementType;
+
+/**
+ * Cache of the SQL that the {@link QueryBuilder} generates, keyed by the shape of the query: the selected columns, the
+ * where clauses and the columns they compare, the ordering, whether there is a limit or offset, etc.. When a query with
+ * the same shape is prepared again, only with different values, then the SQL and argument field-types are taken from
+ * the cache and the new values are bound as arguments instead of walking the where clauses and building the SQL again.
+ * The limit and offset values are left out of the cached SQL and written back into it for each query.
+ *
+ * <p>
+ * For this to work, the query-builders which use the cache pass all of their where values as arguments (?) instead of
+ * inlining them into the SQL. Queries with sub-queries, joins, or null values are not cached. The cache is thread-safe
+ * and is usually shared by all of the query-builders of a DAO. See
+ * {@link com.j256.ormlite.dao.Dao#setSqlTemplateCaching(boolean)}.
+ * </p>
+ *
+ * @author graywatson
+ */
+public class SqlTemplateCache {
+
+	/**
+	 * Maximum number of query shapes that are held before the least recently used are removed.
+	 */
+	public static final int DEFAULT_MAX_TEMPLATES = 256;
+
+	private final Map<String, Template> templates;
+
+	public SqlTemplateCache() {
+		this(DEFAULT_MAX_TEMPLATES);
+	}
+
+	public SqlTemplateCache(int maxTemplates) {
+		this.templates = new LruMap(maxTemplates);
+	}
+
+	/**
+	 * Return the number of query shapes in the cache.
+	 */
+	public synchronized int size() {
+		return templates.size();
+	}
+
+	/**
+	 * Remove all of the query shapes from the cache.
+	 */
+	public synchronized void clear() {
+		templates.clear();
+	}
+
+	synchronized Template get(String key) {
+		return templates.get(key);
+	}
+
+	synchronized void put(String key, Template template) {
+		templates.put(key, template);
+	}
+
+	/**
+	 * Generated SQL of a query shape with the information needed to bind a new set of arguments to it.
+	 */
+	static class Template {
+		final String statement;
+		final StatementType type;
+		final FieldType[] resultFieldTypes;
+		final String[] argColumnNames;
+		final FieldType[] argFieldTypes;
+		// where the limit and offset are inserted into the statement or -1 if none
+		final int limitPosition;
+		final int offsetPosition;
+
+		public Template(String statement, StatementType type, FieldType[] resultFieldTypes, String[] argColumnNames,
+				FieldType[] argFieldTypes, int limitPosition, int offsetPosition) {
+			this.statement = statement;
+			this.type = type;
+			this.resultFieldTypes = resultFieldTypes;
+			this.argColumnNames = argColumnNames;
+			this.argFieldTypes = argFieldTypes;
+			this.limitPosition = limitPosition;
+			this.offsetPosition = offsetPosition;
+		}
+	}
+
+	/**
+	 * Map which removes the least recently used template when it gets too big.
+	 */
+	private static class LruMap extends LinkedHashMap<String, Template> {
+
+		private static final long serialVersionUID = -3472850291460347752L;
+		private final int maxEntries;
+
+		public LruMap(int maxEntries) {
+			super(16, 0.75F, true);
+			this.maxEntries = maxEntries;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Template> eldest) {
+			return size() > maxEntries;
+		}
+	}
+}
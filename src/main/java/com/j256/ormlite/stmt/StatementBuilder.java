@@ -70,7 +70,13 @@ public abstract class StatementBuilder<T, ID> {
 	 *            Limit for queries. Can be null if none.
 	 */
 	protected MappedPreparedStmt<T, ID> prepareStatement(Long limit) throws SQLException {
-		List<ArgumentHolder> argList = new ArrayList<ArgumentHolder>();
+		return prepareStatement(limit, new ArrayList<ArgumentHolder>());
+	}
+
+	/**
+	 * Same as {@link #prepareStatement(Long)} but the arguments of the statement are added to the argList.
+	 */
+	protected MappedPreparedStmt<T, ID> prepareStatement(Long limit, List<ArgumentHolder> argList) throws SQLException {
 		String statement = buildStatementString(argList);
 		ArgumentHolder[] selectArgs = argList.toArray(new ArgumentHolder[argList.size()]);
 		FieldType[] resultFieldTypes = getResultFieldTypes();
@@ -178,6 +184,14 @@ public abstract class StatementBuilder<T, ID> {
 		return tableInfo.getFieldTypeByColumnName(columnName);
 	}
 
+	/**
+	 * Return true if the where values should all be passed as arguments (?) instead of being inlined into the SQL
+	 * statement so the statement can be reused with other values.
+	 */
+	boolean isValuesAsArguments() {
+		return false;
+	}
+
 	/**
 	 * Return the type of the statement.
 	 */
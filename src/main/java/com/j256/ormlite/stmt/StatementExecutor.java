@@ -3,14 +3,23 @@ package com.j256.ormlite.stmt;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.j256.ormlite.dao.BaseDaoImpl;
 import com.j256.ormlite.dao.Dao;
 import com.j256.ormlite.dao.GenericRawResults;
 import com.j256.ormlite.dao.ObjectCache;
+import com.j256.ormlite.dao.RawCursor;
 import com.j256.ormlite.dao.RawRowMapper;
+import com.j256.ormlite.dao.RowHandler;
 import com.j256.ormlite.db.DatabaseType;
 import com.j256.ormlite.field.DataType;
 import com.j256.ormlite.field.FieldType;
@@ -20,17 +29,22 @@ import com.j256.ormlite.logger.LoggerFactory;
 import com.j256.ormlite.misc.SqlExceptionUtil;
 import com.j256.ormlite.misc.TransactionManager;
 import com.j256.ormlite.stmt.StatementBuilder.StatementType;
+import com.j256.ormlite.stmt.mapped.BaseMappedQuery;
 import com.j256.ormlite.stmt.mapped.MappedCreate;
 import com.j256.ormlite.stmt.mapped.MappedDelete;
 import com.j256.ormlite.stmt.mapped.MappedDeleteCollection;
 import com.j256.ormlite.stmt.mapped.MappedQueryForId;
+import com.j256.ormlite.stmt.mapped.MappedQueryForIds;
 import com.j256.ormlite.stmt.mapped.MappedRefresh;
 import com.j256.ormlite.stmt.mapped.MappedUpdate;
 import com.j256.ormlite.stmt.mapped.MappedUpdateId;
+import com.j256.ormlite.stmt.mapped.MappedUpdateValues;
+import com.j256.ormlite.stmt.mapped.MappedUpsert;
 import com.j256.ormlite.support.CompiledStatement;
 import com.j256.ormlite.support.ConnectionSource;
 import com.j256.ormlite.support.DatabaseConnection;
 import com.j256.ormlite.support.DatabaseResults;
+import com.j256.ormlite.table.ConstructorHydrator;
 import com.j256.ormlite.table.TableInfo;
 
 /**
@@ -53,15 +67,23 @@ public class StatementExecutor<T, ID> implements GenericRowMapper<String[]> {
 	private final TableInfo<T, ID> tableInfo;
 	private final Dao<T, ID> dao;
 	private MappedQueryForId<T, ID> mappedQueryForId;
+	// query-for-ids statements by their number of ids which are few because of the IN list sizes
+	private final Map<Integer, MappedQueryForIds<T, ID>> mappedQueryForIds =
+			new ConcurrentHashMap<Integer, MappedQueryForIds<T, ID>>();
+	// update-values statements by their columns and number of rows
+	private final Map<List<Object>, MappedUpdateValues<T, ID>> mappedUpdateValues =
+			new ConcurrentHashMap<List<Object>, MappedUpdateValues<T, ID>>();
 	private PreparedQuery<T> preparedQueryForAll;
 	private MappedCreate<T, ID> mappedInsert;
 	private MappedUpdate<T, ID> mappedUpdate;
 	private MappedUpdateId<T, ID> mappedUpdateId;
 	private MappedDelete<T, ID> mappedDelete;
 	private MappedRefresh<T, ID> mappedRefresh;
+	private MappedUpsert<T, ID> mappedUpsert;
+	private MappedUpsert<T, ID> mappedInsertIfNotExists;
+	private MappedUpsert<T, ID> mappedUpsertBatch;
 	private String countStarQuery;
-	private String ifExistsQuery;
-	private FieldType[] ifExistsFieldTypes;
+	private PreparedQuery<T> ifExistsQuery;
 	private RawRowMapper<T> rawRowMapper;
 
 	/**
@@ -84,17 +106,89 @@ public class StatementExecutor<T, ID> implements GenericRowMapper<String[]> {
 		return mappedQueryForId.execute(databaseConnection, id, objectCache);
 	}
 
+	/**
+	 * Same as {@link #queryForId(DatabaseConnection, Object, ObjectCache)} but the row is mapped with the
+	 * mapping-context of the query that caused this one so the foreign recursion levels are continued.
+	 */
+	public T queryForId(DatabaseConnection databaseConnection, ID id, ObjectCache objectCache,
+			MappingContext mappingContext) throws SQLException {
+		if (mappedQueryForId == null) {
+			mappedQueryForId = MappedQueryForId.build(databaseType, tableInfo, null);
+		}
+		return mappedQueryForId.execute(databaseConnection, id, objectCache, mappingContext);
+	}
+
+	/**
+	 * Return a map of the ids to the objects that have them. Ids that are in the object-cache are returned from there
+	 * and the rest are queried for with IN queries in chunks. Ids without an object are not in the map.
+	 */
+	public Map<ID, T> queryForIds(DatabaseConnection databaseConnection, Collection<ID> ids, ObjectCache objectCache)
+			throws SQLException {
+		FieldType idField = tableInfo.getIdField();
+		if (idField == null) {
+			throw new SQLException("Cannot query-for-ids with " + tableInfo.getDataClass()
+					+ " because it doesn't have an id field");
+		}
+		Map<ID, T> results = new LinkedHashMap<ID, T>();
+		// the set removes any duplicate ids
+		Collection<ID> misses = new LinkedHashSet<ID>();
+		for (ID id : ids) {
+			T cached = null;
+			if (objectCache != null) {
+				cached = objectCache.get(tableInfo.getDataClass(), id);
+			}
+			if (cached == null) {
+				misses.add(id);
+			} else {
+				results.put(id, cached);
+			}
+		}
+		if (misses.isEmpty()) {
+			return results;
+		}
+		Object[] args = new Object[misses.size()];
+		int argC = 0;
+		for (ID id : misses) {
+			args[argC++] = idField.convertJavaFieldToSqlArgValue(id);
+		}
+		int chunkSize = InListSizes.chunkSize(databaseType, 0);
+		for (int start = 0; start < args.length; start += chunkSize) {
+			int end = Math.min(start + chunkSize, args.length);
+			int bucketSize = InListSizes.bucketSize(end - start, chunkSize);
+			MappedQueryForIds<T, ID> mappedQuery = mappedQueryForIds.get(bucketSize);
+			if (mappedQuery == null) {
+				mappedQuery = MappedQueryForIds.build(databaseType, tableInfo, bucketSize);
+				mappedQueryForIds.put(bucketSize, mappedQuery);
+			}
+			mappedQuery.execute(databaseConnection, InListSizes.pad(args, start, end, bucketSize), objectCache,
+					results);
+		}
+		return results;
+	}
+
 	/**
 	 * Return the first object that matches the {@link PreparedStmt} or null if none.
 	 */
 	public T queryForFirst(DatabaseConnection databaseConnection, PreparedStmt<T> preparedStmt, ObjectCache objectCache)
 			throws SQLException {
-		CompiledStatement stmt = preparedStmt.compile(databaseConnection, StatementType.SELECT);
+		return queryForFirst(databaseConnection, preparedStmt, null, objectCache);
+	}
+
+	/**
+	 * Same as {@link #queryForFirst(DatabaseConnection, PreparedStmt, ObjectCache)} but the arguments of the statement
+	 * are set from the bindings which may be null.
+	 */
+	public T queryForFirst(DatabaseConnection databaseConnection, PreparedStmt<T> preparedStmt,
+			QueryBindings bindings, ObjectCache objectCache) throws SQLException {
+		CompiledStatement stmt =
+				preparedStmt.compile(databaseConnection, StatementType.SELECT, DatabaseConnection.DEFAULT_RESULT_FLAGS,
+						bindings);
 		try {
 			DatabaseResults results = stmt.runQuery(objectCache);
 			if (results.first()) {
 				logger.debug("query-for-first of '{}' returned at least 1 result", preparedStmt.getStatement());
-				return preparedStmt.mapRow(results);
+				MappingContext mappingContext = buildMappingContext(databaseConnection, preparedStmt);
+				return mappingContext.mapRow(preparedStmt, results);
 			} else {
 				logger.debug("query-for-first of '{}' returned at 0 results", preparedStmt.getStatement());
 				return null;
@@ -132,7 +226,18 @@ public class StatementExecutor<T, ID> implements GenericRowMapper<String[]> {
 	 * Return a long value from a prepared query.
 	 */
 	public long queryForLong(DatabaseConnection databaseConnection, PreparedStmt<T> preparedStmt) throws SQLException {
-		CompiledStatement stmt = preparedStmt.compile(databaseConnection, StatementType.SELECT_LONG);
+		return queryForLong(databaseConnection, preparedStmt, null);
+	}
+
+	/**
+	 * Same as {@link #queryForLong(DatabaseConnection, PreparedStmt)} but the arguments of the statement are set from
+	 * the bindings which may be null.
+	 */
+	public long queryForLong(DatabaseConnection databaseConnection, PreparedStmt<T> preparedStmt,
+			QueryBindings bindings) throws SQLException {
+		CompiledStatement stmt =
+				preparedStmt.compile(databaseConnection, StatementType.SELECT_LONG,
+						DatabaseConnection.DEFAULT_RESULT_FLAGS, bindings);
 		try {
 			DatabaseResults results = stmt.runQuery(null);
 			if (results.first()) {
@@ -178,14 +283,25 @@ public class StatementExecutor<T, ID> implements GenericRowMapper<String[]> {
 	 */
 	public List<T> query(ConnectionSource connectionSource, PreparedStmt<T> preparedStmt, ObjectCache objectCache)
 			throws SQLException {
+		return query(connectionSource, preparedStmt, null, objectCache);
+	}
+
+	/**
+	 * Same as {@link #query(ConnectionSource, PreparedStmt, ObjectCache)} but the arguments of the statement are set
+	 * from the bindings which may be null.
+	 */
+	public List<T> query(ConnectionSource connectionSource, PreparedStmt<T> preparedStmt, QueryBindings bindings,
+			ObjectCache objectCache) throws SQLException {
 		SelectIterator<T, ID> iterator =
-				buildIterator(/* no dao specified because no removes */null, connectionSource, preparedStmt, objectCache,
-						DatabaseConnection.DEFAULT_RESULT_FLAGS);
+				buildIterator(/* no dao specified because no removes */null, connectionSource, preparedStmt, bindings,
+						objectCache, DatabaseConnection.DEFAULT_RESULT_FLAGS, true);
 		try {
 			List<T> results = new ArrayList<T>();
 			while (iterator.hasNextThrow()) {
 				results.add(iterator.nextThrow());
 			}
+			// load any foreign objects of the fetch-plan in batches now that we have all of the rows
+			iterator.getMappingContext().loadBatchedForeignObjects();
 			logger.debug("query of '{}' returned {} results", preparedStmt.getStatement(), results.size());
 			return results;
 		} finally {
@@ -193,6 +309,154 @@ public class StatementExecutor<T, ID> implements GenericRowMapper<String[]> {
 		}
 	}
 
+	/**
+	 * Pass each of the rows of the prepared statement to the row-handler. The rows are all mapped into the same object
+	 * and the object cache is bypassed so the rows don't each create an object.
+	 * 
+	 * @return The number of rows that were passed to the handler.
+	 */
+	public long forEach(ConnectionSource connectionSource, PreparedStmt<T> preparedStmt, RowHandler<T> rowHandler)
+			throws SQLException {
+		if (!(preparedStmt instanceof BaseMappedQuery)) {
+			throw new SQLException("Cannot run for-each with prepared statement " + preparedStmt);
+		}
+		@SuppressWarnings("unchecked")
+		BaseMappedQuery<T, ?> mappedQuery = (BaseMappedQuery<T, ?>) preparedStmt;
+		T instance = null;
+		if (tableInfo.getConstructorHydrator() == null) {
+			instance = tableInfo.createObject();
+		}
+		long rowC = 0;
+		DatabaseConnection connection = connectionSource.getReadOnlyConnection();
+		CompiledStatement compiledStatement = null;
+		try {
+			compiledStatement = preparedStmt.compile(connection, StatementType.SELECT);
+			// no object cache since the instance changes with every row
+			DatabaseResults results = compiledStatement.runQuery(null);
+			MappingContext mappingContext = buildMappingContext(connection, preparedStmt);
+			if (results.first()) {
+				do {
+					T data = mappedQuery.mapRow(results, mappingContext, instance);
+					rowC++;
+					if (!rowHandler.handleRow(data)) {
+						break;
+					}
+				} while (results.next());
+			}
+		} finally {
+			if (compiledStatement != null) {
+				compiledStatement.close();
+			}
+			connectionSource.releaseConnection(connection);
+		}
+		logger.debug("for-each of '{}' handled {} rows", preparedStmt.getStatement(), rowC);
+		return rowC;
+	}
+
+	/**
+	 * Return a list of objects of the result class, which need not be persisted, created from the results of the
+	 * {@link PreparedStmt} by passing the selected columns to one of its constructors. See {@link ConstructorHydrator}.
+	 */
+	public <R> List<R> queryInto(ConnectionSource connectionSource, PreparedStmt<T> preparedStmt, Class<R> resultClass,
+			ObjectCache objectCache) throws SQLException {
+		if (!(preparedStmt instanceof BaseMappedQuery)) {
+			throw new SQLException("Cannot query into " + resultClass + " with prepared statement " + preparedStmt);
+		}
+		FieldType[] resultsFieldTypes = ((BaseMappedQuery<?, ?>) preparedStmt).getResultsFieldTypes();
+		ConstructorHydrator<R> hydrator = ConstructorHydrator.find(resultClass, resultsFieldTypes);
+		GenericRowMapper<R> rowMapper = new ConstructorRowMapper<R>(hydrator, resultsFieldTypes);
+		DatabaseConnection connection = connectionSource.getReadOnlyConnection();
+		CompiledStatement compiledStatement = null;
+		try {
+			compiledStatement = preparedStmt.compile(connection, StatementType.SELECT);
+			SelectIterator<R, Void> iterator =
+					new SelectIterator<R, Void>(resultClass, null, rowMapper, connectionSource, connection,
+							compiledStatement, preparedStmt.getStatement(), objectCache);
+			connection = null;
+			compiledStatement = null;
+			try {
+				List<R> results = new ArrayList<R>();
+				while (iterator.hasNextThrow()) {
+					results.add(iterator.nextThrow());
+				}
+				logger.debug("query of '{}' returned {} results", preparedStmt.getStatement(), results.size());
+				return results;
+			} finally {
+				iterator.close();
+			}
+		} finally {
+			if (compiledStatement != null) {
+				compiledStatement.close();
+			}
+			if (connection != null) {
+				connectionSource.releaseConnection(connection);
+			}
+		}
+	}
+
+	/**
+	 * Return the results of an aggregate query built with {@link QueryBuilder#setAggregate(AggregateFunction, String)}.
+	 * The group-by columns are converted with their field-types and the aggregate value, which is the last column, is
+	 * read as a long and a double.
+	 */
+	public AggregateResults queryForAggregate(DatabaseConnection databaseConnection, PreparedStmt<T> preparedStmt)
+			throws SQLException {
+		if (!(preparedStmt instanceof BaseMappedQuery)) {
+			throw new SQLException("Cannot query for aggregate with prepared statement " + preparedStmt);
+		}
+		FieldType[] groupFieldTypes = ((BaseMappedQuery<?, ?>) preparedStmt).getResultsFieldTypes();
+		// the group-by columns come first in the order of their field-types
+		Map<String, Integer> columnPositions = new HashMap<String, Integer>();
+		for (int i = 0; i < groupFieldTypes.length; i++) {
+			columnPositions.put(groupFieldTypes[i].getColumnName(), i);
+		}
+		CompiledStatement stmt = preparedStmt.compile(databaseConnection, StatementType.SELECT_RAW);
+		try {
+			DatabaseResults results = stmt.runQuery(null);
+			AggregateResults aggregateResults = new AggregateResults(groupFieldTypes.length);
+			if (results.first()) {
+				do {
+					aggregateResults.addRow(results, groupFieldTypes, columnPositions);
+				} while (results.next());
+			}
+			logger.debug("aggregate query of '{}' returned {} results", preparedStmt.getStatement(),
+					aggregateResults.size());
+			return aggregateResults;
+		} finally {
+			stmt.close();
+		}
+	}
+
+	/**
+	 * Return the columns of the results of a query that was built with {@link QueryBuilder#setColumnar(String...)} as
+	 * primitive arrays. The rows are read straight out of the database results without mapping any objects.
+	 */
+	public ColumnarResults queryForColumnar(DatabaseConnection databaseConnection, PreparedStmt<T> preparedStmt)
+			throws SQLException {
+		if (!(preparedStmt instanceof BaseMappedQuery)) {
+			throw new SQLException("Cannot query for columns with prepared statement " + preparedStmt);
+		}
+		FieldType[] fieldTypes = ((BaseMappedQuery<?, ?>) preparedStmt).getResultsFieldTypes();
+		if (fieldTypes == null || fieldTypes.length == 0) {
+			throw new SQLException("Prepared statement has no columns, did you call QueryBuilder.setColumnar(...)?");
+		}
+		ColumnarResults columnarResults = new ColumnarResults(fieldTypes);
+		CompiledStatement stmt = preparedStmt.compile(databaseConnection, StatementType.SELECT_RAW);
+		try {
+			DatabaseResults results = stmt.runQuery(null);
+			if (results.first()) {
+				do {
+					columnarResults.addRow(results);
+				} while (results.next());
+			}
+			logger.debug("columnar query of '{}' returned {} results", preparedStmt.getStatement(),
+					columnarResults.size());
+			return columnarResults;
+		} finally {
+			stmt.close();
+		}
+	}
+
 	/**
 	 * Create and return a SelectIterator for the class using the default mapped query for all statement.
 	 */
@@ -225,13 +489,31 @@ public class StatementExecutor<T, ID> implements GenericRowMapper<String[]> {
 	 */
 	public SelectIterator<T, ID> buildIterator(BaseDaoImpl<T, ID> classDao, ConnectionSource connectionSource,
 			PreparedStmt<T> preparedStmt, ObjectCache objectCache, int resultFlags) throws SQLException {
+		return buildIterator(classDao, connectionSource, preparedStmt, null, objectCache, resultFlags, false);
+	}
+
+	/**
+	 * Same as {@link #buildIterator(BaseDaoImpl, ConnectionSource, PreparedStmt, ObjectCache, int)} but the arguments
+	 * of the statement are set from the bindings which may be null.
+	 */
+	public SelectIterator<T, ID> buildIterator(BaseDaoImpl<T, ID> classDao, ConnectionSource connectionSource,
+			PreparedStmt<T> preparedStmt, QueryBindings bindings, ObjectCache objectCache, int resultFlags)
+			throws SQLException {
+		return buildIterator(classDao, connectionSource, preparedStmt, bindings, objectCache, resultFlags, false);
+	}
+
+	private SelectIterator<T, ID> buildIterator(BaseDaoImpl<T, ID> classDao, ConnectionSource connectionSource,
+			PreparedStmt<T> preparedStmt, QueryBindings bindings, ObjectCache objectCache, int resultFlags,
+			boolean deferBatches) throws SQLException {
 		DatabaseConnection connection = connectionSource.getReadOnlyConnection();
 		CompiledStatement compiledStatement = null;
 		try {
-			compiledStatement = preparedStmt.compile(connection, StatementType.SELECT, resultFlags);
+			compiledStatement = preparedStmt.compile(connection, StatementType.SELECT, resultFlags, bindings);
+			MappingContext mappingContext = buildMappingContext(connection, preparedStmt);
+			mappingContext.setDeferBatches(deferBatches);
 			SelectIterator<T, ID> iterator =
 					new SelectIterator<T, ID>(tableInfo.getDataClass(), classDao, preparedStmt, connectionSource,
-							connection, compiledStatement, preparedStmt.getStatement(), objectCache);
+							connection, compiledStatement, preparedStmt.getStatement(), objectCache, mappingContext);
 			connection = null;
 			compiledStatement = null;
 			return iterator;
@@ -245,6 +527,18 @@ public class StatementExecutor<T, ID> implements GenericRowMapper<String[]> {
 		}
 	}
 
+	/**
+	 * Return a context for mapping the rows of the prepared statement which runs nested queries on the connection and
+	 * follows the fetch-plan of the statement if it has one.
+	 */
+	private MappingContext buildMappingContext(DatabaseConnection connection, PreparedStmt<T> preparedStmt) {
+		FetchPlan fetchPlan = null;
+		if (preparedStmt instanceof PreparedQuery) {
+			fetchPlan = ((PreparedQuery<T>) preparedStmt).getFetchPlan();
+		}
+		return new MappingContext(connection, fetchPlan);
+	}
+
 	/**
 	 * Return a results object associated with an internal iterator that returns String[] results.
 	 */
@@ -338,6 +632,35 @@ public class StatementExecutor<T, ID> implements GenericRowMapper<String[]> {
 		}
 	}
 
+	/**
+	 * Return a cursor which is a view of the current row of the raw query results.
+	 */
+	public RawCursor queryRawCursor(ConnectionSource connectionSource, String query, String[] arguments,
+			ObjectCache objectCache) throws SQLException {
+		logger.debug("executing raw cursor query for: {}", query);
+		if (arguments.length > 0) {
+			// need to do the (Object) cast to force args to be a single object
+			logger.trace("query arguments: {}", (Object) arguments);
+		}
+		DatabaseConnection connection = connectionSource.getReadOnlyConnection();
+		CompiledStatement compiledStatement = null;
+		try {
+			compiledStatement = connection.compileStatement(query, StatementType.SELECT, noFieldTypes);
+			assignStatementArguments(compiledStatement, arguments);
+			RawCursor cursor = new RawCursorImpl(connectionSource, connection, query, compiledStatement, objectCache);
+			compiledStatement = null;
+			connection = null;
+			return cursor;
+		} finally {
+			if (compiledStatement != null) {
+				compiledStatement.close();
+			}
+			if (connection != null) {
+				connectionSource.releaseConnection(connection);
+			}
+		}
+	}
+
 	/**
 	 * Return the number of rows affected.
 	 */
@@ -415,6 +738,15 @@ public class StatementExecutor<T, ID> implements GenericRowMapper<String[]> {
 		return mappedUpdateId.execute(databaseConnection, data, newId, objectCache);
 	}
 
+	/**
+	 * Update the columns of the rows with the ids to their own values.
+	 */
+	public int updateColumnValues(DatabaseConnection databaseConnection, String[] columnNames,
+			Map<ID, Object[]> idValues, ObjectCache objectCache) throws SQLException {
+		return MappedUpdateValues.updateValues(databaseType, tableInfo, databaseConnection, columnNames, idValues,
+				mappedUpdateValues, objectCache);
+	}
+
 	/**
 	 * Update rows in the database.
 	 */
@@ -438,6 +770,104 @@ public class StatementExecutor<T, ID> implements GenericRowMapper<String[]> {
 		return mappedRefresh.executeRefresh(databaseConnection, data, objectCache);
 	}
 
+	/**
+	 * Return true if the object can be written with a single upsert or insert-if-not-exists statement. The database
+	 * type needs to support it and the object needs to have its id set.
+	 * 
+	 * @param updateExisting
+	 *            True for {@link #upsert(DatabaseConnection, Object, ObjectCache)} or false for
+	 *            {@link #insertIfNotExists(DatabaseConnection, Object, ObjectCache)}.
+	 */
+	public boolean isUpsertSupported(T data, boolean updateExisting) throws SQLException {
+		if (updateExisting) {
+			if (!databaseType.isUpsertSupported()) {
+				return false;
+			}
+		} else if (!databaseType.isInsertIfNotExistsSupported()) {
+			return false;
+		}
+		if (!MappedUpsert.isSupported(tableInfo)) {
+			return false;
+		}
+		FieldType idField = tableInfo.getIdField();
+		if (idField.isGeneratedId() || idField.isGeneratedIdSequence()) {
+			// objects without an id have to be created so the id is generated
+			return !idField.isObjectsFieldValueDefault(data);
+		} else {
+			return idField.extractJavaFieldValue(data) != null;
+		}
+	}
+
+	/**
+	 * Insert the object into the database or update it if a row with the same id exists with a single statement.
+	 */
+	public int upsert(DatabaseConnection databaseConnection, T data, ObjectCache objectCache) throws SQLException {
+		if (mappedUpsert == null) {
+			mappedUpsert = MappedUpsert.build(databaseType, tableInfo, true);
+		}
+		return mappedUpsert.execute(databaseConnection, data, objectCache);
+	}
+
+	/**
+	 * Insert the objects into the database or update those whose id already exists with multi-row upsert statements,
+	 * each of which has as many rows as the database's max query parameters allow. The ids of the objects must be set.
+	 * An object with the same id as an earlier one starts a new statement so that the later one wins.
+	 * 
+	 * @return The number of rows changed.
+	 */
+	public int upsertAll(DatabaseConnection databaseConnection, Collection<T> datas, ObjectCache objectCache)
+			throws SQLException {
+		int batchSize = MappedUpsert.batchSize(databaseType, tableInfo);
+		if (mappedUpsertBatch == null) {
+			mappedUpsertBatch = MappedUpsert.buildBatch(databaseType, tableInfo, batchSize);
+		}
+		FieldType idField = tableInfo.getIdField();
+		List<T> batch = new ArrayList<T>(Math.min(batchSize, datas.size()));
+		Set<Object> batchIds = new HashSet<Object>();
+		int numRows = 0;
+		for (T data : datas) {
+			Object id = idField.extractJavaFieldValue(data);
+			if (batch.size() >= batchSize || !batchIds.add(id)) {
+				numRows += upsertBatch(databaseConnection, batch, batchSize, objectCache);
+				batch.clear();
+				batchIds.clear();
+				batchIds.add(id);
+			}
+			batch.add(data);
+		}
+		if (!batch.isEmpty()) {
+			numRows += upsertBatch(databaseConnection, batch, batchSize, objectCache);
+		}
+		return numRows;
+	}
+
+	/**
+	 * Insert the object into the database unless a row with the same id exists with a single statement.
+	 * 
+	 * @return 1 if the object was inserted or 0 if the row already existed.
+	 */
+	public int insertIfNotExists(DatabaseConnection databaseConnection, T data, ObjectCache objectCache)
+			throws SQLException {
+		if (mappedInsertIfNotExists == null) {
+			mappedInsertIfNotExists = MappedUpsert.build(databaseType, tableInfo, false);
+		}
+		return mappedInsertIfNotExists.execute(databaseConnection, data, objectCache);
+	}
+
+	private int upsertBatch(DatabaseConnection databaseConnection, List<T> batch, int batchSize,
+			ObjectCache objectCache) throws SQLException {
+		if (batch.size() == 1) {
+			return upsert(databaseConnection, batch.get(0), objectCache);
+		}
+		MappedUpsert<T, ID> mappedBatch;
+		if (batch.size() == batchSize) {
+			mappedBatch = mappedUpsertBatch;
+		} else {
+			mappedBatch = MappedUpsert.buildBatch(databaseType, tableInfo, batch.size());
+		}
+		return mappedBatch.executeBatch(databaseConnection, batch, objectCache);
+	}
+
 	/**
 	 * Delete an object from the database.
 	 */
@@ -539,14 +969,33 @@ public class StatementExecutor<T, ID> implements GenericRowMapper<String[]> {
 	public boolean ifExists(DatabaseConnection connection, ID id) throws SQLException {
 		if (ifExistsQuery == null) {
 			QueryBuilder<T, ID> qb = new QueryBuilder<T, ID>(databaseType, tableInfo, dao);
-			qb.selectRaw("COUNT(*)");
+			qb.setExists(true);
 			qb.where().eq(tableInfo.getIdField().getColumnName(), new SelectArg());
-			ifExistsQuery = qb.prepareStatementString();
-			ifExistsFieldTypes = new FieldType[] { tableInfo.getIdField() };
+			ifExistsQuery = qb.prepare();
+		}
+		// the id is bound per call so the query can be shared by threads
+		return exists(connection, ifExistsQuery, QueryBindings.of(id));
+	}
+
+	/**
+	 * Return true if the prepared statement returns any rows. Only the first row is fetched and it is not mapped. The
+	 * statement is cheapest if it was built with {@link QueryBuilder#setExists(boolean)}.
+	 */
+	public boolean exists(DatabaseConnection databaseConnection, PreparedStmt<T> preparedStmt, QueryBindings bindings)
+			throws SQLException {
+		CompiledStatement stmt =
+				preparedStmt.compile(databaseConnection, preparedStmt.getType(),
+						DatabaseConnection.DEFAULT_RESULT_FLAGS, bindings);
+		try {
+			// we only need to know if there is a first row
+			stmt.setMaxRows(1);
+			DatabaseResults results = stmt.runQuery(null);
+			boolean exists = results.first();
+			logger.debug("exists query of '{}' returned {}", preparedStmt.getStatement(), exists);
+			return exists;
+		} finally {
+			stmt.close();
 		}
-		long count = connection.queryForLong(ifExistsQuery, new Object[] { id }, ifExistsFieldTypes);
-		logger.debug("query of '{}' returned {}", ifExistsQuery, count);
-		return (count != 0);
 	}
 
 	private void assignStatementArguments(CompiledStatement compiledStatement, String[] arguments) throws SQLException {
@@ -589,6 +1038,30 @@ public class StatementExecutor<T, ID> implements GenericRowMapper<String[]> {
 		}
 	}
 
+	/**
+	 * Map results to objects which are created with one of their constructors.
+	 */
+	private static class ConstructorRowMapper<R> implements MappingContextRowMapper<R> {
+
+		private final ConstructorHydrator<R> hydrator;
+		private final FieldType[] resultsFieldTypes;
+		private final Map<String, Integer> columnPositions = new HashMap<String, Integer>();
+
+		public ConstructorRowMapper(ConstructorHydrator<R> hydrator, FieldType[] resultsFieldTypes) {
+			this.hydrator = hydrator;
+			this.resultsFieldTypes = resultsFieldTypes;
+		}
+
+		public R mapRow(DatabaseResults results) throws SQLException {
+			return mapRow(results, new MappingContext());
+		}
+
+		public R mapRow(DatabaseResults results, MappingContext mappingContext) throws SQLException {
+			return hydrator.createObject(results, resultsFieldTypes, columnPositions, null, null,
+					results.getObjectCache(), mappingContext);
+		}
+	}
+
 	/**
 	 * Map raw results to return Object[].
 	 */
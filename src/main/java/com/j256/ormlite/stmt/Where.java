@@ -132,6 +132,10 @@ public class Where<T, ID> {
 	private Clause[] clauseStack = new Clause[START_CLAUSE_SIZE];
 	private int clauseStackLevel = 0;
 	private NeedsFutureClause needsFuture = null;
+	// shape of the clauses and their arguments in order which are used as the key of the SQL template cache
+	private StringBuilder shape;
+	private List<ArgumentHolder> shapeArgs;
+	private boolean shapeCacheable;
 
 	Where(TableInfo<T, ID> tableInfo, StatementBuilder<T, ID> statementBuilder, DatabaseType databaseType) {
 		// limit the constructor scope
@@ -144,12 +148,18 @@ public class Where<T, ID> {
 			this.idColumnName = idFieldType.getColumnName();
 		}
 		this.databaseType = databaseType;
+		if (statementBuilder != null && statementBuilder.isValuesAsArguments()) {
+			this.shape = new StringBuilder();
+			this.shapeArgs = new ArrayList<ArgumentHolder>();
+			this.shapeCacheable = true;
+		}
 	}
 
 	/**
 	 * AND operation which takes the previous clause and the next clause and AND's them together.
 	 */
 	public Where<T, ID> and() {
+		addShape("AND");
 		addNeedsFuture(new ManyClause(pop("AND"), ManyClause.AND_OPERATION));
 		return this;
 	}
@@ -166,6 +176,7 @@ public class Where<T, ID> {
 	 * </p>
 	 */
 	public Where<T, ID> and(Where<T, ID> first, Where<T, ID> second, Where<T, ID>... others) {
+		addShape("AND(" + (others.length + 2) + ")");
 		Clause[] clauses = buildClauseArray(others, "AND");
 		Clause secondClause = pop("AND");
 		Clause firstClause = pop("AND");
@@ -186,6 +197,7 @@ public class Where<T, ID> {
 		if (numClauses == 0) {
 			throw new IllegalArgumentException("Must have at least one clause in and(numClauses)");
 		}
+		addShape("AND(" + numClauses + ")");
 		Clause[] clauses = new Clause[numClauses];
 		for (int i = numClauses - 1; i >= 0; i--) {
 			clauses[i] = pop("AND");
@@ -198,7 +210,11 @@ public class Where<T, ID> {
 	 * Add a BETWEEN clause so the column must be between the low and high parameters.
 	 */
 	public Where<T, ID> between(String columnName, Object low, Object high) throws SQLException {
-		addClause(new Between(columnName, findColumnFieldType(columnName), low, high));
+		FieldType fieldType = findColumnFieldType(columnName);
+		addShape("BETWEEN", columnName);
+		low = shapeValue(low);
+		high = shapeValue(high);
+		addClause(new Between(columnName, fieldType, low, high));
 		return this;
 	}
 
@@ -206,8 +222,7 @@ public class Where<T, ID> {
 	 * Add a '=' clause so the column must be equal to the value.
 	 */
 	public Where<T, ID> eq(String columnName, Object value) throws SQLException {
-		addClause(new SimpleComparison(columnName, findColumnFieldType(columnName), value,
-				SimpleComparison.EQUAL_TO_OPERATION));
+		addComparison(columnName, value, SimpleComparison.EQUAL_TO_OPERATION);
 		return this;
 	}
 
@@ -215,8 +230,7 @@ public class Where<T, ID> {
 	 * Add a '&gt;=' clause so the column must be greater-than or equals-to the value.
 	 */
 	public Where<T, ID> ge(String columnName, Object value) throws SQLException {
-		addClause(new SimpleComparison(columnName, findColumnFieldType(columnName), value,
-				SimpleComparison.GREATER_THAN_EQUAL_TO_OPERATION));
+		addComparison(columnName, value, SimpleComparison.GREATER_THAN_EQUAL_TO_OPERATION);
 		return this;
 	}
 
@@ -224,8 +238,7 @@ public class Where<T, ID> {
 	 * Add a '&gt;' clause so the column must be greater-than the value.
 	 */
 	public Where<T, ID> gt(String columnName, Object value) throws SQLException {
-		addClause(new SimpleComparison(columnName, findColumnFieldType(columnName), value,
-				SimpleComparison.GREATER_THAN_OPERATION));
+		addComparison(columnName, value, SimpleComparison.GREATER_THAN_OPERATION);
 		return this;
 	}
 
@@ -233,7 +246,7 @@ public class Where<T, ID> {
 	 * Add a IN clause so the column must be equal-to one of the objects from the list passed in.
 	 */
 	public Where<T, ID> in(String columnName, Iterable<?> objects) throws SQLException {
-		addClause(new In(columnName, findColumnFieldType(columnName), objects, true));
+		addIn(columnName, objects, true);
 		return this;
 	}
 
@@ -241,7 +254,7 @@ public class Where<T, ID> {
 	 * Same as {@link #in(String, Iterable)} except with a NOT IN clause.
 	 */
 	public Where<T, ID> notIn(String columnName, Iterable<?> objects) throws SQLException {
-		addClause(new In(columnName, findColumnFieldType(columnName), objects, false));
+		addIn(columnName, objects, false);
 		return this;
 	}
 
@@ -290,6 +303,8 @@ public class Where<T, ID> {
 	public Where<T, ID> exists(QueryBuilder<?, ?> subQueryBuilder) {
 		// we do this to turn off the automatic addition of the ID column in the select column list
 		subQueryBuilder.enableInnerQuery();
+		// the sub-query is not part of the shape
+		shapeCacheable = false;
 		addClause(new Exists(new InternalQueryBuilderWrapper(subQueryBuilder)));
 		return this;
 	}
@@ -298,7 +313,9 @@ public class Where<T, ID> {
 	 * Add a 'IS NULL' clause so the column must be null. '=' NULL does not work.
 	 */
 	public Where<T, ID> isNull(String columnName) throws SQLException {
-		addClause(new IsNull(columnName, findColumnFieldType(columnName)));
+		FieldType fieldType = findColumnFieldType(columnName);
+		addShape("IS NULL", columnName);
+		addClause(new IsNull(columnName, fieldType));
 		return this;
 	}
 
@@ -306,7 +323,9 @@ public class Where<T, ID> {
 	 * Add a 'IS NOT NULL' clause so the column must not be null. '<>' NULL does not work.
 	 */
 	public Where<T, ID> isNotNull(String columnName) throws SQLException {
-		addClause(new IsNotNull(columnName, findColumnFieldType(columnName)));
+		FieldType fieldType = findColumnFieldType(columnName);
+		addShape("IS NOT NULL", columnName);
+		addClause(new IsNotNull(columnName, fieldType));
 		return this;
 	}
 
@@ -314,8 +333,7 @@ public class Where<T, ID> {
 	 * Add a '&lt;=' clause so the column must be less-than or equals-to the value.
 	 */
 	public Where<T, ID> le(String columnName, Object value) throws SQLException {
-		addClause(new SimpleComparison(columnName, findColumnFieldType(columnName), value,
-				SimpleComparison.LESS_THAN_EQUAL_TO_OPERATION));
+		addComparison(columnName, value, SimpleComparison.LESS_THAN_EQUAL_TO_OPERATION);
 		return this;
 	}
 
@@ -323,8 +341,7 @@ public class Where<T, ID> {
 	 * Add a '&lt;' clause so the column must be less-than the value.
 	 */
 	public Where<T, ID> lt(String columnName, Object value) throws SQLException {
-		addClause(new SimpleComparison(columnName, findColumnFieldType(columnName), value,
-				SimpleComparison.LESS_THAN_OPERATION));
+		addComparison(columnName, value, SimpleComparison.LESS_THAN_OPERATION);
 		return this;
 	}
 
@@ -332,8 +349,7 @@ public class Where<T, ID> {
 	 * Add a LIKE clause so the column must mach the value using '%' patterns.
 	 */
 	public Where<T, ID> like(String columnName, Object value) throws SQLException {
-		addClause(new SimpleComparison(columnName, findColumnFieldType(columnName), value,
-				SimpleComparison.LIKE_OPERATION));
+		addComparison(columnName, value, SimpleComparison.LIKE_OPERATION);
 		return this;
 	}
 
@@ -341,8 +357,7 @@ public class Where<T, ID> {
 	 * Add a '&lt;&gt;' clause so the column must be not-equal-to the value.
 	 */
 	public Where<T, ID> ne(String columnName, Object value) throws SQLException {
-		addClause(new SimpleComparison(columnName, findColumnFieldType(columnName), value,
-				SimpleComparison.NOT_EQUAL_TO_OPERATION));
+		addComparison(columnName, value, SimpleComparison.NOT_EQUAL_TO_OPERATION);
 		return this;
 	}
 
@@ -350,6 +365,7 @@ public class Where<T, ID> {
 	 * Used to NOT the next clause specified.
 	 */
 	public Where<T, ID> not() {
+		addShape("NOT");
 		addNeedsFuture(new Not());
 		return this;
 	}
@@ -358,6 +374,7 @@ public class Where<T, ID> {
 	 * Used to NOT the argument clause specified.
 	 */
 	public Where<T, ID> not(Where<T, ID> comparison) {
+		addShape("NOT()");
 		addClause(new Not(pop("NOT")));
 		return this;
 	}
@@ -366,6 +383,7 @@ public class Where<T, ID> {
 	 * OR operation which takes the previous clause and the next clause and OR's them together.
 	 */
 	public Where<T, ID> or() {
+		addShape("OR");
 		addNeedsFuture(new ManyClause(pop("OR"), ManyClause.OR_OPERATION));
 		return this;
 	}
@@ -382,6 +400,7 @@ public class Where<T, ID> {
 	 * </p>
 	 */
 	public Where<T, ID> or(Where<T, ID> left, Where<T, ID> right, Where<T, ID>... others) {
+		addShape("OR(" + (others.length + 2) + ")");
 		Clause[] clauses = buildClauseArray(others, "OR");
 		Clause secondClause = pop("OR");
 		Clause firstClause = pop("OR");
@@ -402,6 +421,7 @@ public class Where<T, ID> {
 		if (numClauses == 0) {
 			throw new IllegalArgumentException("Must have at least one clause in or(numClauses)");
 		}
+		addShape("OR(" + numClauses + ")");
 		Clause[] clauses = new Clause[numClauses];
 		for (int i = numClauses - 1; i >= 0; i--) {
 			clauses[i] = pop("OR");
@@ -417,7 +437,7 @@ public class Where<T, ID> {
 		if (idColumnName == null) {
 			throw new SQLException("Object has no id column specified");
 		}
-		addClause(new SimpleComparison(idColumnName, idFieldType, id, SimpleComparison.EQUAL_TO_OPERATION));
+		addComparison(idColumnName, id, SimpleComparison.EQUAL_TO_OPERATION);
 		return this;
 	}
 
@@ -428,8 +448,7 @@ public class Where<T, ID> {
 		if (idColumnName == null) {
 			throw new SQLException("Object has no id column specified");
 		}
-		addClause(new SimpleComparison(idColumnName, idFieldType, dataDao.extractId(data),
-				SimpleComparison.EQUAL_TO_OPERATION));
+		addComparison(idColumnName, dataDao.extractId(data), SimpleComparison.EQUAL_TO_OPERATION);
 		return this;
 	}
 
@@ -458,6 +477,10 @@ public class Where<T, ID> {
 				arg.setMetaInfo(findColumnFieldType(columnName));
 			}
 		}
+		addRawShape("RAW", rawStatement, null);
+		for (ArgumentHolder arg : args) {
+			shapeValue(arg);
+		}
 		addClause(new Raw(rawStatement, args));
 		return this;
 	}
@@ -467,7 +490,7 @@ public class Where<T, ID> {
 	 * operator for the database and that it be formatted correctly.
 	 */
 	public Where<T, ID> rawComparison(String columnName, String rawOperator, Object value) throws SQLException {
-		addClause(new SimpleComparison(columnName, findColumnFieldType(columnName), value, rawOperator));
+		addComparison(columnName, value, rawOperator);
 		return this;
 	}
 
@@ -475,6 +498,10 @@ public class Where<T, ID> {
 	 * A short-cut for calling {@link QueryBuilder#prepare()}.
 	 */
 	public PreparedQuery<T> prepare() throws SQLException {
+		if (statementBuilder instanceof QueryBuilder) {
+			// so the fetch-plan and template cache are used
+			return ((QueryBuilder<T, ID>) statementBuilder).prepare();
+		}
 		return statementBuilder.prepareStatement(null);
 	}
 
@@ -485,6 +512,13 @@ public class Where<T, ID> {
 		return checkQueryBuilderMethod("query()").query();
 	}
 
+	/**
+	 * A short-cut for calling {@link QueryBuilder#queryPage(String, long)}.
+	 */
+	public KeysetPage<T> queryPage(String continuationToken, long pageSize) throws SQLException {
+		return checkQueryBuilderMethod("queryPage()").queryPage(continuationToken, pageSize);
+	}
+
 	/**
 	 * A short-cut for calling {@link QueryBuilder#queryRaw()}.
 	 */
@@ -513,6 +547,27 @@ public class Where<T, ID> {
 		return checkQueryBuilderMethod("countOf()").countOf();
 	}
 
+	/**
+	 * A short-cut for calling {@link QueryBuilder#exists()}.
+	 */
+	public boolean exists() throws SQLException {
+		return checkQueryBuilderMethod("exists()").exists();
+	}
+
+	/**
+	 * A short-cut for calling {@link QueryBuilder#queryAggregate(AggregateFunction, String)}.
+	 */
+	public AggregateResults queryAggregate(AggregateFunction function, String columnName) throws SQLException {
+		return checkQueryBuilderMethod("queryAggregate()").queryAggregate(function, columnName);
+	}
+
+	/**
+	 * A short-cut for calling {@link QueryBuilder#queryColumnar(String...)}.
+	 */
+	public ColumnarResults queryColumnar(String... columnNames) throws SQLException {
+		return checkQueryBuilderMethod("queryColumnar()").queryColumnar(columnNames);
+	}
+
 	/**
 	 * A short-cut for calling {@link QueryBuilder#iterator()}.
 	 */
@@ -529,6 +584,11 @@ public class Where<T, ID> {
 			clauseStack[i] = null;
 		}
 		clauseStackLevel = 0;
+		if (shape != null) {
+			shape.setLength(0);
+			shapeArgs.clear();
+			shapeCacheable = true;
+		}
 		return this;
 	}
 
@@ -560,6 +620,25 @@ public class Where<T, ID> {
 		peek().appendSql(databaseType, tableName, sb, columnArgList);
 	}
 
+	/**
+	 * Return the shape of the clauses which is used as part of the key of the SQL template cache or null if the where
+	 * cannot be cached because it has values that are inlined into the SQL or sub-queries.
+	 */
+	String getShape() {
+		if (shape == null || !shapeCacheable) {
+			return null;
+		} else {
+			return shape.toString();
+		}
+	}
+
+	/**
+	 * Return the arguments of the clauses in the order that they were added. See {@link #getShape()}.
+	 */
+	List<ArgumentHolder> getShapeArgs() {
+		return shapeArgs;
+	}
+
 	@Override
 	public String toString() {
 		if (clauseStackLevel == 0) {
@@ -594,7 +673,7 @@ public class Where<T, ID> {
 						+ " seems to be a prepared statement, did you mean the QueryBuilder?");
 			}
 		}
-		addClause(new In(columnName, findColumnFieldType(columnName), objects, in));
+		addIn(columnName, Arrays.asList(objects), in);
 		return this;
 	}
 
@@ -606,6 +685,8 @@ public class Where<T, ID> {
 		}
 		// we do this to turn off the automatic addition of the ID column in the select column list
 		subQueryBuilder.enableInnerQuery();
+		// the sub-query is not part of the shape
+		shapeCacheable = false;
 		addClause(new InSubQuery(columnName, findColumnFieldType(columnName), new InternalQueryBuilderWrapper(
 				subQueryBuilder), in));
 		return this;
@@ -644,6 +725,98 @@ public class Where<T, ID> {
 		}
 	}
 
+	private void addComparison(String columnName, Object value, String operation) throws SQLException {
+		FieldType fieldType = findColumnFieldType(columnName);
+		if (shape != null) {
+			addRawShape("OP", operation, "(" + columnName + ")");
+		}
+		addClause(new SimpleComparison(columnName, fieldType, shapeValue(value), operation));
+	}
+
+	private void addIn(String columnName, Iterable<?> objects, boolean in) throws SQLException {
+		FieldType fieldType = findColumnFieldType(columnName);
+		if (shape != null) {
+			List<Object> values = new ArrayList<Object>();
+			for (Object value : objects) {
+				values.add(value);
+			}
+			int chunkSize = InListSizes.chunkSize(databaseType, shapeArgs.size());
+			if (values.size() > chunkSize) {
+				// too many values to pass as arguments so they are put in the SQL which is then not worth caching
+				shapeCacheable = false;
+			} else {
+				for (int i = 0; i < values.size(); i++) {
+					values.set(i, shapeValue(values.get(i)));
+				}
+				// pad with the last value so lists of different lengths share the same SQL, see InListSizes
+				int bucketSize = InListSizes.bucketSize(values.size(), chunkSize);
+				while (!values.isEmpty() && values.size() < bucketSize) {
+					Object last = values.get(values.size() - 1);
+					if (last instanceof ArgumentHolder) {
+						shapeArgs.add((ArgumentHolder) last);
+					}
+					values.add(last);
+				}
+				// the number of values is part of the shape since each gets its own argument
+				addRawShape((in ? "IN" : "NOT IN"), columnName, Integer.toString(values.size()));
+			}
+			objects = values;
+		}
+		addClause(new In(columnName, fieldType, objects, in));
+	}
+
+	private void addShape(String token) {
+		if (shape != null) {
+			shape.append(token).append(' ');
+		}
+	}
+
+	private void addShape(String operation, String columnName) {
+		if (shape != null) {
+			shape.append(operation).append('(').append(columnName).append(") ");
+		}
+	}
+
+	/**
+	 * Add a token that may contain any characters so we prefix its length to avoid one shape looking like another.
+	 */
+	private void addRawShape(String operation, String raw, String suffix) {
+		if (shape != null) {
+			shape.append(operation).append('[').append(raw.length()).append(':').append(raw).append(']');
+			if (suffix != null) {
+				shape.append(suffix);
+			}
+			shape.append(' ');
+		}
+	}
+
+	/**
+	 * Record the value of a clause in the shape and return what should be put into the clause. If the values are being
+	 * passed as arguments then the value is wrapped in a {@link SelectArg}.
+	 */
+	private Object shapeValue(Object value) {
+		if (shape == null) {
+			return value;
+		}
+		if (value instanceof ArgumentHolder) {
+			shapeArgs.add((ArgumentHolder) value);
+			return value;
+		} else if (value instanceof ColumnArg) {
+			ColumnArg columnArg = (ColumnArg) value;
+			shape.append("COLUMN(").append(columnArg.getTableName()).append('.').append(columnArg.getColumnName());
+			shape.append(") ");
+			return value;
+		} else if (value == null) {
+			// this will throw when the SQL is built but it isn't our job to do it here
+			shapeCacheable = false;
+			return value;
+		} else {
+			SelectArg arg = new SelectArg(value);
+			shapeArgs.add(arg);
+			return arg;
+		}
+	}
+
 	private FieldType findColumnFieldType(String columnName) {
 		return tableInfo.getFieldTypeByColumnName(columnName);
 	}
@@ -0,0 +1,204 @@
+package com.j256.ormlite.stmt;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cursor over the results of a query, returned by {@link QueryBuilder#windowedCursor(int, int)}, which allows random
+ * access by index without holding a scrollable cursor, or a connection, open on the database. The results are queried
+ * a page at a time, as they are needed, and the most recently used pages are kept in a small cache so moving around
+ * the current position does not query the database again.
+ * 
+ * <p>
+ * A page that directly follows one that has already been read, by keyset or by offset, is queried with keyset
+ * pagination, see {@link QueryBuilder#queryPage(String, long)}, which is fast even deep into the results. Other pages
+ * are queried with an offset which needs the database to support it.
+ * </p>
+ * 
+ * <p>
+ * <b>NOTE:</b> Each page is a separate query so changes to the table while the cursor is being used may cause rows to
+ * be skipped or seen twice. Call {@link #clearCache()} to start over.
+ * </p>
+ * 
+ * @author graywatson
+ */
+public class WindowedCursor<T> {
+
+	private final QueryBuilder<T, ?> queryBuilder;
+	private final int pageSize;
+	private final Map<Long, List<T>> pageCache;
+	// continuation tokens of the pages which follow pages that have been read
+	private final Map<Long, String> pageTokens = new HashMap<Long, String>();
+	private long position = -1;
+	private Long size;
+	private int pageQueryCount;
+
+	WindowedCursor(QueryBuilder<T, ?> queryBuilder, int pageSize, final int maxCachedPages) {
+		if (pageSize < 1) {
+			throw new IllegalArgumentException("page size " + pageSize + " must be >= 1");
+		}
+		if (maxCachedPages < 1) {
+			throw new IllegalArgumentException("max cached pages " + maxCachedPages + " must be >= 1");
+		}
+		this.queryBuilder = queryBuilder;
+		this.pageSize = pageSize;
+		// access ordered so the least recently used page is removed
+		this.pageCache = new LinkedHashMap<Long, List<T>>(maxCachedPages + 1, 0.75F, true) {
+			private static final long serialVersionUID = -2937484510282372470L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, List<T>> eldest) {
+				return size() > maxCachedPages;
+			}
+		};
+	}
+
+	/**
+	 * Return the result at the index, starting at 0, or null if the index is past the end of the results. This does
+	 * not change the current position.
+	 */
+	public T get(long index) throws SQLException {
+		if (index < 0) {
+			throw new IndexOutOfBoundsException("index " + index + " must be >= 0");
+		}
+		if (size != null && index >= size) {
+			return null;
+		}
+		List<T> page = getPage(index / pageSize);
+		int pageIndex = (int) (index % pageSize);
+		if (pageIndex < page.size()) {
+			return page.get(pageIndex);
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * Return the number of results. This runs a count query the first time unless the end of the results has already
+	 * been read.
+	 */
+	public long size() throws SQLException {
+		if (size == null) {
+			size = queryBuilder.countOfUnordered();
+		}
+		return size;
+	}
+
+	/**
+	 * Move to the first result and return it or null if there are no results.
+	 */
+	public T first() throws SQLException {
+		return moveAbsolute(0);
+	}
+
+	/**
+	 * Move to the next result and return it or null if there are no more results.
+	 */
+	public T next() throws SQLException {
+		return moveAbsolute(position + 1);
+	}
+
+	/**
+	 * Move to the previous result and return it or null if the cursor was at the first result.
+	 */
+	public T previous() throws SQLException {
+		if (position <= 0) {
+			position = -1;
+			return null;
+		}
+		return moveAbsolute(position - 1);
+	}
+
+	/**
+	 * Move forward (positive offset) or backward (negative offset) from the current position and return the result
+	 * there or null if it is outside of the results.
+	 */
+	public T moveRelative(long offset) throws SQLException {
+		long newPosition = position + offset;
+		if (newPosition < 0) {
+			position = -1;
+			return null;
+		}
+		return moveAbsolute(newPosition);
+	}
+
+	/**
+	 * Move to the index and return the result there or null if it is past the end of the results.
+	 */
+	public T moveAbsolute(long index) throws SQLException {
+		T result = get(index);
+		position = index;
+		return result;
+	}
+
+	/**
+	 * Return the result at the current position or null if the cursor is not on a result.
+	 */
+	public T current() throws SQLException {
+		if (position < 0) {
+			return null;
+		}
+		return get(position);
+	}
+
+	/**
+	 * Return the current position which is -1 before the first result.
+	 */
+	public long getPosition() {
+		return position;
+	}
+
+	/**
+	 * Return the number of results in each page.
+	 */
+	public int getPageSize() {
+		return pageSize;
+	}
+
+	/**
+	 * Return the number of page queries that have been run so far.
+	 */
+	public int getPageQueryCount() {
+		return pageQueryCount;
+	}
+
+	/**
+	 * Forget the cached pages and the size so they are queried again.
+	 */
+	public void clearCache() {
+		pageCache.clear();
+		pageTokens.clear();
+		size = null;
+	}
+
+	private List<T> getPage(long pageNum) throws SQLException {
+		List<T> page = pageCache.get(pageNum);
+		if (page != null) {
+			return page;
+		}
+		pageQueryCount++;
+		if (pageNum == 0 || pageTokens.containsKey(pageNum)) {
+			KeysetPage<T> keysetPage = queryBuilder.queryPage(pageTokens.get(pageNum), pageSize);
+			page = keysetPage.getResults();
+			if (keysetPage.isLastPage()) {
+				size = pageNum * pageSize + page.size();
+			} else {
+				pageTokens.put(pageNum + 1, keysetPage.getContinuationToken());
+			}
+		} else {
+			// we get one more than the page size to see if this is the last page
+			page = queryBuilder.queryWindow(pageNum * pageSize, pageSize + 1);
+			if (page.size() > pageSize) {
+				page.remove(page.size() - 1);
+				// so reading on from here goes back to keyset pagination
+				pageTokens.put(pageNum + 1, queryBuilder.buildContinuationToken(page.get(pageSize - 1)));
+			} else {
+				size = pageNum * pageSize + page.size();
+			}
+		}
+		pageCache.put(pageNum, page);
+		return page;
+	}
+}
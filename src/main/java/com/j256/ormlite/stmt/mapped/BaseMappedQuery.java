@@ -5,10 +5,12 @@ import java.util.HashMap;
 import java.util.Map;
 
 import com.j256.ormlite.dao.BaseForeignCollection;
+import com.j256.ormlite.dao.DirtyTracker;
 import com.j256.ormlite.dao.ObjectCache;
 import com.j256.ormlite.field.FieldType;
 import com.j256.ormlite.field.MockFieldType;
-import com.j256.ormlite.stmt.GenericRowMapper;
+import com.j256.ormlite.stmt.MappingContext;
+import com.j256.ormlite.stmt.MappingContextRowMapper;
 import com.j256.ormlite.support.DatabaseResults;
 import com.j256.ormlite.table.TableInfo;
 
@@ -17,11 +19,12 @@ import com.j256.ormlite.table.TableInfo;
  * 
  * @author graywatson
  */
-public abstract class BaseMappedQuery<T, ID> extends BaseMappedStatement<T, ID> implements GenericRowMapper<T> {
+public abstract class BaseMappedQuery<T, ID> extends BaseMappedStatement<T, ID> implements
+		MappingContextRowMapper<T> {
 
 	protected final FieldType[] resultsFieldTypes;
-	// cache of column names to results position
-	private Map<String, Integer> columnPositions = null;
+	// cache of column names to results position, volatile since the query may be shared by threads
+	private volatile Map<String, Integer> columnPositions = null;
 	private Object parent = null;
 	private Object parentId = null;
 
@@ -31,7 +34,29 @@ public abstract class BaseMappedQuery<T, ID> extends BaseMappedStatement<T, ID>
 		this.resultsFieldTypes = resultsFieldTypes;
 	}
 
+	/**
+	 * Return the field-types of the columns that are returned by the query.
+	 */
+	public FieldType[] getResultsFieldTypes() {
+		return resultsFieldTypes;
+	}
+
 	public T mapRow(DatabaseResults results) throws SQLException {
+		// called from outside of a query that we are mapping so the recursion levels start here
+		return mapRow(results, new MappingContext());
+	}
+
+	public T mapRow(DatabaseResults results, MappingContext mappingContext) throws SQLException {
+		return mapRow(results, mappingContext, null);
+	}
+
+	/**
+	 * Like {@link #mapRow(DatabaseResults, MappingContext)} but if the reuse-instance is not null then the fields of
+	 * the row are assigned to it instead of to a new object. The object cache and dirty-tracking are bypassed since the
+	 * instance is changed by every row. Classes that are created with a constructor still get a new object for each
+	 * row.
+	 */
+	public T mapRow(DatabaseResults results, MappingContext mappingContext, T reuseInstance) throws SQLException {
 		Map<String, Integer> colPosMap;
 		if (columnPositions == null) {
 			colPosMap = new HashMap<String, Integer>();
@@ -39,7 +64,7 @@ public abstract class BaseMappedQuery<T, ID> extends BaseMappedStatement<T, ID>
 			colPosMap = columnPositions;
 		}
 
-		ObjectCache objectCache = results.getObjectCache();
+		ObjectCache objectCache = (reuseInstance == null ? results.getObjectCache() : null);
 		if (objectCache != null) {
 			Object id = idField.resultToJava(results, colPosMap);
 			T cachedInstance = objectCache.get(clazz, id);
@@ -49,56 +74,74 @@ public abstract class BaseMappedQuery<T, ID> extends BaseMappedStatement<T, ID>
 			}
 		}
 
-		// create our instance
-		T instance = tableInfo.createObject();
-		// populate its fields
+		T instance;
 		Object id = null;
 		boolean foreignCollections = false;
-        FieldType previousFieldType = null;
-        Object previousVal = null;
-		for (FieldType fieldType : resultsFieldTypes) {
-			if (fieldType.isForeignCollection()) {
-				foreignCollections = true;
-			} else if(fieldType instanceof MockFieldType){
-                /* When a mockFieldType is found the previous one should be used to complete the information */
-                if (previousFieldType == null || previousFieldType.getAdditionalFieldType()!=fieldType){
-                    /* Shouldn't happen because of the order fieldTypes are added*/
-                    throw new SQLException("Fatal error: corrupt fieldType list in "+fieldType.getTableName());
-                }
-                Object val = fieldType.resultToJava(results, colPosMap);
-                if (previousVal != null && parent != null && previousFieldType.getField().getType() == parent.getClass()
-                        && previousVal.equals(parentId)) {
-                    previousFieldType.assignField(instance, parent, val,true, objectCache);
-                } else {
-                    previousFieldType.assignField(instance, previousVal, val, false, objectCache);
-                }
-            } else {
-                // TODO: Here is the iterator mapping
-				Object val = fieldType.resultToJava(results, colPosMap);
-				/*
-				 * This is pretty subtle. We introduced multiple foreign fields to the same type which use the {@link
-				 * ForeignCollectionField} foreignColumnName field. The bug that was created was that all the fields
-				 * were then set with the parent class. Only the fields that have a matching id value should be set to
-				 * the parent. We had to add the val.equals logic.
-				 */
-				if (val != null && parent != null && fieldType.getField().getType() == parent.getClass()
-						&& val.equals(parentId)) {
-					fieldType.assignField(instance, parent, true, objectCache);
-				} else {
-					fieldType.assignField(instance, val, false, objectCache);
+		if (tableInfo.getConstructorHydrator() != null) {
+			// create our instance with all of its fields at once
+			instance = tableInfo.createObject(results, resultsFieldTypes, colPosMap, parent, parentId, objectCache,
+					mappingContext);
+			for (FieldType fieldType : resultsFieldTypes) {
+				if (fieldType.isForeignCollection()) {
+					foreignCollections = true;
+				} else if (fieldType == idField) {
+					id = idField.extractJavaFieldValue(instance);
 				}
-				if (fieldType == idField) {
-					id = val;
+			}
+		} else {
+			// create our instance unless we are reusing one
+			if (reuseInstance == null) {
+				instance = tableInfo.createObject();
+			} else {
+				instance = reuseInstance;
+			}
+			// populate its fields
+            FieldType previousFieldType = null;
+            Object previousVal = null;
+			for (FieldType fieldType : resultsFieldTypes) {
+				if (fieldType.isForeignCollection()) {
+					foreignCollections = true;
+				} else if(fieldType instanceof MockFieldType){
+                    /* When a mockFieldType is found the previous one should be used to complete the information */
+                    if (previousFieldType == null || previousFieldType.getAdditionalFieldType()!=fieldType){
+                        /* Shouldn't happen because of the order fieldTypes are added*/
+                        throw new SQLException("Fatal error: corrupt fieldType list in "+fieldType.getTableName());
+                    }
+                    Object val = fieldType.resultToJava(results, colPosMap);
+                    if (previousVal != null && parent != null && previousFieldType.getField().getType() == parent.getClass()
+                            && previousVal.equals(parentId)) {
+                        previousFieldType.assignField(instance, parent, val, true, objectCache, mappingContext);
+                    } else {
+                        previousFieldType.assignField(instance, previousVal, val, false, objectCache, mappingContext);
+                    }
+                } else {
+                    // TODO: Here is the iterator mapping
+					Object val = fieldType.resultToJava(results, colPosMap);
+					/*
+					 * This is pretty subtle. We introduced multiple foreign fields to the same type which use the
+					 * {@link ForeignCollectionField} foreignColumnName field. The bug that was created was that all the
+					 * fields were then set with the parent class. Only the fields that have a matching id value should
+					 * be set to the parent. We had to add the val.equals logic.
+					 */
+					if (val != null && parent != null && fieldType.getField().getType() == parent.getClass()
+							&& val.equals(parentId)) {
+						fieldType.assignField(instance, parent, null, true, objectCache, mappingContext);
+					} else {
+						fieldType.assignField(instance, val, null, false, objectCache, mappingContext);
+					}
+					if (fieldType == idField) {
+						id = val;
+					}
+                    previousVal = val;
 				}
-                previousVal = val;
+                previousFieldType = fieldType;
 			}
-            previousFieldType = fieldType;
 		}
 		if (foreignCollections) {
 			// go back and initialize any foreign collections
 			for (FieldType fieldType : resultsFieldTypes) {
 				if (fieldType.isForeignCollection()) {
-					BaseForeignCollection<?, ?> collection = fieldType.buildForeignCollection(instance, id);
+					BaseForeignCollection<?, ?> collection = fieldType.buildForeignCollection(instance, id, mappingContext);
 					if (collection != null) {
 						fieldType.assignField(instance, collection, false, objectCache);
 					}
@@ -109,6 +152,10 @@ public abstract class BaseMappedQuery<T, ID> extends BaseMappedStatement<T, ID>
 		if (objectCache != null && id != null) {
 			objectCache.put(clazz, id, instance);
 		}
+		DirtyTracker dirtyTracker = tableInfo.getDirtyTracker();
+		if (dirtyTracker != null && reuseInstance == null) {
+			dirtyTracker.snapshot(instance, tableInfo.getFieldTypes());
+		}
 		if (columnPositions == null) {
 			columnPositions = colPosMap;
 		}
@@ -37,18 +37,28 @@ public abstract class BaseMappedStatement<T, ID> {
 	 */
 	protected Object[] getFieldObjects(Object data) throws SQLException {
 		Object[] objects = new Object[argFieldTypes.length];
-		for (int i = 0; i < argFieldTypes.length; i++) {
-			FieldType fieldType = argFieldTypes[i];
+		assignFieldObjects(data, argFieldTypes, objects, 0);
+		return objects;
+	}
+
+	/**
+	 * Assign the field objects of the field-types pulled from the data object into the array starting at the offset.
+	 */
+	protected static void assignFieldObjects(Object data, FieldType[] fieldTypes, Object[] objects, int offset)
+			throws SQLException {
+		for (int i = 0; i < fieldTypes.length; i++) {
+			FieldType fieldType = fieldTypes[i];
+			Object object;
 			if (fieldType.isAllowGeneratedIdInsert()) {
-				objects[i] = fieldType.getFieldValueIfNotDefault(data);
+				object = fieldType.getFieldValueIfNotDefault(data);
 			} else {
-				objects[i] = fieldType.extractJavaFieldToSqlArgValue(data);
+				object = fieldType.extractJavaFieldToSqlArgValue(data);
 			}
-			if (objects[i] == null && fieldType.getDefaultValue() != null) {
-				objects[i] = fieldType.getDefaultValue();
+			if (object == null && fieldType.getDefaultValue() != null) {
+				object = fieldType.getDefaultValue();
 			}
+			objects[offset + i] = object;
 		}
-		return objects;
 	}
 
 	/**
@@ -65,6 +75,26 @@ public abstract class BaseMappedStatement<T, ID> {
 		sb.append("= ?");
 	}
 
+	static void appendWhereIds(DatabaseType databaseType, FieldType idField, StringBuilder sb, int numDatas,
+			FieldType[] fieldTypes) {
+		sb.append("WHERE ");
+		databaseType.appendEscapedEntityName(sb, idField.getColumnName());
+		sb.append(" IN (");
+		boolean first = true;
+		for (int i = 0; i < numDatas; i++) {
+			if (first) {
+				first = false;
+			} else {
+				sb.append(',');
+			}
+			sb.append('?');
+			if (fieldTypes != null) {
+				fieldTypes[i] = idField;
+			}
+		}
+		sb.append(") ");
+	}
+
 	static void appendTableName(DatabaseType databaseType, StringBuilder sb, String prefix, String tableName) {
 		if (prefix != null) {
 			sb.append(prefix);
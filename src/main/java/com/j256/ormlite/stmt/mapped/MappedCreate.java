@@ -2,6 +2,7 @@ package com.j256.ormlite.stmt.mapped;
 
 import java.sql.SQLException;
 
+import com.j256.ormlite.dao.DirtyTracker;
 import com.j256.ormlite.dao.ObjectCache;
 import com.j256.ormlite.db.DatabaseType;
 import com.j256.ormlite.field.FieldType;
@@ -117,6 +118,10 @@ public class MappedCreate<T, ID> extends BaseMappedStatement<T, ID> {
 					Object id = idField.extractJavaFieldValue(data);
 					objectCache.put(clazz, id, data);
 				}
+				DirtyTracker dirtyTracker = tableInfo.getDirtyTracker();
+				if (dirtyTracker != null) {
+					dirtyTracker.snapshot(data, tableInfo.getFieldTypes());
+				}
 			}
 
 			return rowC;
@@ -7,6 +7,7 @@ import com.j256.ormlite.dao.ObjectCache;
 import com.j256.ormlite.db.DatabaseType;
 import com.j256.ormlite.field.FieldType;
 import com.j256.ormlite.misc.SqlExceptionUtil;
+import com.j256.ormlite.stmt.InListSizes;
 import com.j256.ormlite.support.DatabaseConnection;
 import com.j256.ormlite.table.TableInfo;
 
@@ -22,39 +23,55 @@ public class MappedDeleteCollection<T, ID> extends BaseMappedStatement<T, ID> {
 	}
 
 	/**
-	 * Delete all of the objects in the collection. This builds a {@link MappedDeleteCollection} on the fly because the
-	 * datas could be variable sized.
+	 * Delete all of the objects in the collection. This builds {@link MappedDeleteCollection}s on the fly because the
+	 * datas could be variable sized. See {@link InListSizes}.
 	 */
 	public static <T, ID> int deleteObjects(DatabaseType databaseType, TableInfo<T, ID> tableInfo,
 			DatabaseConnection databaseConnection, Collection<T> datas, ObjectCache objectCache) throws SQLException {
-		MappedDeleteCollection<T, ID> deleteCollection =
-				MappedDeleteCollection.build(databaseType, tableInfo, datas.size());
 		Object[] fieldObjects = new Object[datas.size()];
-		FieldType idField = tableInfo.getIdField();
+		FieldType idField = getIdField(tableInfo);
 		int objC = 0;
 		for (T data : datas) {
 			fieldObjects[objC] = idField.extractJavaFieldToSqlArgValue(data);
 			objC++;
 		}
-		return updateRows(databaseConnection, tableInfo.getDataClass(), deleteCollection, fieldObjects, objectCache);
+		return deleteChunks(databaseType, tableInfo, databaseConnection, fieldObjects, objectCache);
 	}
 
 	/**
-	 * Delete all of the objects in the collection. This builds a {@link MappedDeleteCollection} on the fly because the
-	 * ids could be variable sized.
+	 * Delete all of the objects in the collection. This builds {@link MappedDeleteCollection}s on the fly because the
+	 * ids could be variable sized. See {@link InListSizes}.
 	 */
 	public static <T, ID> int deleteIds(DatabaseType databaseType, TableInfo<T, ID> tableInfo,
 			DatabaseConnection databaseConnection, Collection<ID> ids, ObjectCache objectCache) throws SQLException {
-		MappedDeleteCollection<T, ID> deleteCollection =
-				MappedDeleteCollection.build(databaseType, tableInfo, ids.size());
 		Object[] fieldObjects = new Object[ids.size()];
-		FieldType idField = tableInfo.getIdField();
+		FieldType idField = getIdField(tableInfo);
 		int objC = 0;
 		for (ID id : ids) {
 			fieldObjects[objC] = idField.convertJavaFieldToSqlArgValue(id);
 			objC++;
 		}
-		return updateRows(databaseConnection, tableInfo.getDataClass(), deleteCollection, fieldObjects, objectCache);
+		return deleteChunks(databaseType, tableInfo, databaseConnection, fieldObjects, objectCache);
+	}
+
+	/**
+	 * Delete the rows with the ids in chunks that fit in the database's maximum number of arguments, each padded to one
+	 * of the IN list sizes so the statements can be reused. This does not start a transaction, the DAO runs more than
+	 * one chunk inside of its batch tasks.
+	 */
+	private static <T, ID> int deleteChunks(DatabaseType databaseType, TableInfo<T, ID> tableInfo,
+			DatabaseConnection databaseConnection, Object[] ids, ObjectCache objectCache) throws SQLException {
+		int chunkSize = InListSizes.chunkSize(databaseType, 0);
+		int rowC = 0;
+		for (int start = 0; start < ids.length; start += chunkSize) {
+			int end = Math.min(start + chunkSize, ids.length);
+			int bucketSize = InListSizes.bucketSize(end - start, chunkSize);
+			MappedDeleteCollection<T, ID> deleteCollection = build(databaseType, tableInfo, bucketSize);
+			rowC +=
+					updateRows(databaseConnection, tableInfo.getDataClass(), deleteCollection,
+							InListSizes.pad(ids, start, end, bucketSize), objectCache);
+		}
+		return rowC;
 	}
 
 	/**
@@ -62,11 +79,7 @@ public class MappedDeleteCollection<T, ID> extends BaseMappedStatement<T, ID> {
 	 */
 	private static <T, ID> MappedDeleteCollection<T, ID> build(DatabaseType databaseType, TableInfo<T, ID> tableInfo,
 			int dataSize) throws SQLException {
-		FieldType idField = tableInfo.getIdField();
-		if (idField == null) {
-			throw new SQLException("Cannot delete " + tableInfo.getDataClass()
-					+ " because it doesn't have an id field defined");
-		}
+		FieldType idField = getIdField(tableInfo);
 		StringBuilder sb = new StringBuilder(128);
 		appendTableName(databaseType, sb, "DELETE FROM ", tableInfo.getTableName());
 		FieldType[] argFieldTypes = new FieldType[dataSize];
@@ -74,6 +87,15 @@ public class MappedDeleteCollection<T, ID> extends BaseMappedStatement<T, ID> {
 		return new MappedDeleteCollection<T, ID>(tableInfo, sb.toString(), argFieldTypes);
 	}
 
+	private static <T, ID> FieldType getIdField(TableInfo<T, ID> tableInfo) throws SQLException {
+		FieldType idField = tableInfo.getIdField();
+		if (idField == null) {
+			throw new SQLException("Cannot delete " + tableInfo.getDataClass()
+					+ " because it doesn't have an id field defined");
+		}
+		return idField;
+	}
+
 	private static <T, ID> int updateRows(DatabaseConnection databaseConnection, Class<T> clazz,
 			MappedDeleteCollection<T, ID> deleteCollection, Object[] args, ObjectCache objectCache) throws SQLException {
 		try {
@@ -94,24 +116,4 @@ public class MappedDeleteCollection<T, ID> extends BaseMappedStatement<T, ID> {
 			throw SqlExceptionUtil.create("Unable to run delete collection stmt: " + deleteCollection.statement, e);
 		}
 	}
-
-	private static void appendWhereIds(DatabaseType databaseType, FieldType idField, StringBuilder sb, int numDatas,
-			FieldType[] fieldTypes) {
-		sb.append("WHERE ");
-		databaseType.appendEscapedEntityName(sb, idField.getColumnName());
-		sb.append(" IN (");
-		boolean first = true;
-		for (int i = 0; i < numDatas; i++) {
-			if (first) {
-				first = false;
-			} else {
-				sb.append(',');
-			}
-			sb.append('?');
-			if (fieldTypes != null) {
-				fieldTypes[i] = idField;
-			}
-		}
-		sb.append(") ");
-	}
 }
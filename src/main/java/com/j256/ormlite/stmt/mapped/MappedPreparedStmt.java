@@ -6,9 +6,11 @@ import com.j256.ormlite.field.FieldType;
 import com.j256.ormlite.field.SqlType;
 import com.j256.ormlite.logger.Log.Level;
 import com.j256.ormlite.stmt.ArgumentHolder;
+import com.j256.ormlite.stmt.FetchPlan;
 import com.j256.ormlite.stmt.PreparedDelete;
 import com.j256.ormlite.stmt.PreparedQuery;
 import com.j256.ormlite.stmt.PreparedUpdate;
+import com.j256.ormlite.stmt.QueryBindings;
 import com.j256.ormlite.stmt.StatementBuilder;
 import com.j256.ormlite.stmt.StatementBuilder.StatementType;
 import com.j256.ormlite.support.CompiledStatement;
@@ -26,6 +28,8 @@ public class MappedPreparedStmt<T, ID> extends BaseMappedQuery<T, ID> implements
 	private final ArgumentHolder[] argHolders;
 	private final Long limit;
 	private final StatementType type;
+	private FetchPlan fetchPlan;
+	private Integer fetchSize;
 
 	public MappedPreparedStmt(TableInfo<T, ID> tableInfo, String statement, FieldType[] argFieldTypes,
 			FieldType[] resultFieldTypes, ArgumentHolder[] argHolders, Long limit, StatementType type) {
@@ -42,14 +46,22 @@ public class MappedPreparedStmt<T, ID> extends BaseMappedQuery<T, ID> implements
 
 	public CompiledStatement compile(DatabaseConnection databaseConnection, StatementType type, int resultFlags)
 			throws SQLException {
+		return compile(databaseConnection, type, resultFlags, null);
+	}
+
+	public CompiledStatement compile(DatabaseConnection databaseConnection, StatementType type, int resultFlags,
+			QueryBindings bindings) throws SQLException {
 		if (this.type != type) {
 			throw new SQLException("Could not compile this " + this.type
 					+ " statement since the caller is expecting a " + type
 					+ " statement.  Check your QueryBuilder methods.");
 		}
+		if (bindings != null) {
+			bindings.verify(argHolders);
+		}
 		CompiledStatement stmt = databaseConnection.compileStatement(statement, type, argFieldTypes, resultFlags);
 		// this may return null if the stmt had to be closed
-		return assignStatementArguments(stmt);
+		return assignStatementArguments(stmt, bindings);
 	}
 
 	public String getStatement() {
@@ -60,6 +72,29 @@ public class MappedPreparedStmt<T, ID> extends BaseMappedQuery<T, ID> implements
 		return type;
 	}
 
+	public void setFetchPlan(FetchPlan fetchPlan) {
+		if (fetchPlan != null) {
+			fetchPlan.verify(tableInfo);
+		}
+		this.fetchPlan = fetchPlan;
+	}
+
+	public FetchPlan getFetchPlan() {
+		return fetchPlan;
+	}
+
+	/**
+	 * Set the number of rows that the driver fetches at a time or null for the driver default. See
+	 * {@link CompiledStatement#setFetchSize(int)}.
+	 */
+	public void setFetchSize(Integer fetchSize) {
+		this.fetchSize = fetchSize;
+	}
+
+	public Integer getFetchSize() {
+		return fetchSize;
+	}
+
 	public void setArgumentHolderValue(int index, Object value) throws SQLException {
 		if (index < 0) {
 			throw new SQLException("argument holder index " + index + " must be >= 0");
@@ -76,20 +111,29 @@ public class MappedPreparedStmt<T, ID> extends BaseMappedQuery<T, ID> implements
 	 * 
 	 * @return The statement passed in or null if it had to be closed on error.
 	 */
-	private CompiledStatement assignStatementArguments(CompiledStatement stmt) throws SQLException {
+	private CompiledStatement assignStatementArguments(CompiledStatement stmt, QueryBindings bindings)
+			throws SQLException {
 		boolean ok = false;
 		try {
 			if (limit != null) {
 				// we use this if SQL statement LIMITs are not supported by this database type
 				stmt.setMaxRows(limit.intValue());
 			}
+			if (fetchSize != null) {
+				stmt.setFetchSize(fetchSize.intValue());
+			}
 			// set any arguments if we are logging our object
 			Object[] argValues = null;
 			if (logger.isLevelEnabled(Level.TRACE) && argHolders.length > 0) {
 				argValues = new Object[argHolders.length];
 			}
 			for (int i = 0; i < argHolders.length; i++) {
-				Object argValue = argHolders[i].getSqlArgValue();
+				Object argValue;
+				if (bindings == null) {
+					argValue = argHolders[i].getSqlArgValue();
+				} else {
+					argValue = bindings.getSqlArgValue(i, argHolders[i]);
+				}
 				FieldType fieldType = argFieldTypes[i];
 				SqlType sqlType;
 				if (fieldType == null) {
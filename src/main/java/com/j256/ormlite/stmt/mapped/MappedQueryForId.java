@@ -5,7 +5,10 @@ import java.sql.SQLException;
 import com.j256.ormlite.dao.ObjectCache;
 import com.j256.ormlite.db.DatabaseType;
 import com.j256.ormlite.field.FieldType;
+import com.j256.ormlite.stmt.GenericRowMapper;
+import com.j256.ormlite.stmt.MappingContext;
 import com.j256.ormlite.support.DatabaseConnection;
+import com.j256.ormlite.support.DatabaseResults;
 import com.j256.ormlite.table.TableInfo;
 
 /**
@@ -27,6 +30,15 @@ public class MappedQueryForId<T, ID> extends BaseMappedQuery<T, ID> {
 	 * Query for an object in the database which matches the id argument.
 	 */
 	public T execute(DatabaseConnection databaseConnection, ID id, ObjectCache objectCache) throws SQLException {
+		return execute(databaseConnection, id, objectCache, new MappingContext(databaseConnection));
+	}
+
+	/**
+	 * Query for an object in the database which matches the id argument. The mapping-context is shared with the query
+	 * that caused this one so the foreign recursion levels are honored.
+	 */
+	public T execute(DatabaseConnection databaseConnection, ID id, ObjectCache objectCache,
+			MappingContext mappingContext) throws SQLException {
 		if (objectCache != null) {
 			T result = objectCache.get(clazz, id);
 			if (result != null) {
@@ -35,7 +47,8 @@ public class MappedQueryForId<T, ID> extends BaseMappedQuery<T, ID> {
 		}
 		Object[] args = new Object[] { convertIdToFieldObject(id) };
 		// @SuppressWarnings("unchecked")
-		Object result = databaseConnection.queryForOne(statement, args, argFieldTypes, this, objectCache);
+		GenericRowMapper<T> rowMapper = new ContextRowMapper<T>(this, mappingContext);
+		Object result = databaseConnection.queryForOne(statement, args, argFieldTypes, rowMapper, objectCache);
 		if (result == null) {
 			logger.debug("{} using '{}' and {} args, got no results", label, statement, args.length);
 		} else if (result == DatabaseConnection.MORE_THAN_ONE) {
@@ -80,4 +93,22 @@ public class MappedQueryForId<T, ID> extends BaseMappedQuery<T, ID> {
 			logger.trace("{} arguments: {}", label, (Object) args);
 		}
 	}
+
+	/**
+	 * Row mapper which passes our mapping-context down to the query when the connection maps the row.
+	 */
+	private static class ContextRowMapper<T> implements GenericRowMapper<T> {
+
+		private final GenericRowMapper<T> rowMapper;
+		private final MappingContext mappingContext;
+
+		public ContextRowMapper(GenericRowMapper<T> rowMapper, MappingContext mappingContext) {
+			this.rowMapper = rowMapper;
+			this.mappingContext = mappingContext;
+		}
+
+		public T mapRow(DatabaseResults results) throws SQLException {
+			return mappingContext.mapRow(rowMapper, results);
+		}
+	}
 }
@@ -0,0 +1,92 @@
+package com.j256.ormlite.stmt.mapped;
+
+import java.sql.SQLException;
+import java.util.Map;
+
+import com.j256.ormlite.dao.ObjectCache;
+import com.j256.ormlite.db.DatabaseType;
+import com.j256.ormlite.field.FieldType;
+import com.j256.ormlite.misc.SqlExceptionUtil;
+import com.j256.ormlite.stmt.MappingContext;
+import com.j256.ormlite.stmt.StatementBuilder.StatementType;
+import com.j256.ormlite.support.CompiledStatement;
+import com.j256.ormlite.support.DatabaseConnection;
+import com.j256.ormlite.support.DatabaseResults;
+import com.j256.ormlite.table.TableInfo;
+
+/**
+ * Mapped statement for querying for the objects with a fixed number of ids using an IN clause. The number of ids is
+ * one of the sizes from {@link com.j256.ormlite.stmt.InListSizes} so a handful of these statements can be reused for
+ * any number of ids.
+ *
+ * @author graywatson
+ */
+public class MappedQueryForIds<T, ID> extends BaseMappedQuery<T, ID> {
+
+	private MappedQueryForIds(TableInfo<T, ID> tableInfo, String statement, FieldType[] argFieldTypes,
+			FieldType[] resultsFieldTypes) {
+		super(tableInfo, statement, argFieldTypes, resultsFieldTypes);
+	}
+
+	/**
+	 * Query for the objects in the database which match the id arguments, which have already been converted to their
+	 * SQL values, and put them in the results map by their id.
+	 *
+	 * @return The number of rows that were returned.
+	 */
+	public int execute(DatabaseConnection databaseConnection, Object[] args, ObjectCache objectCache,
+			Map<ID, T> results) throws SQLException {
+		if (args.length != argFieldTypes.length) {
+			throw new SQLException("query-for-ids statement has " + argFieldTypes.length + " arguments but got "
+					+ args.length);
+		}
+		CompiledStatement stmt =
+				databaseConnection.compileStatement(statement, StatementType.SELECT, argFieldTypes,
+						DatabaseConnection.DEFAULT_RESULT_FLAGS);
+		int rowC = 0;
+		try {
+			for (int i = 0; i < args.length; i++) {
+				stmt.setObject(i, args[i], argFieldTypes[i].getSqlType());
+			}
+			DatabaseResults databaseResults = stmt.runQuery(objectCache);
+			MappingContext mappingContext = new MappingContext(databaseConnection);
+			if (databaseResults.first()) {
+				do {
+					T result = mapRow(databaseResults, mappingContext);
+					@SuppressWarnings("unchecked")
+					ID id = (ID) idField.extractJavaFieldValue(result);
+					results.put(id, result);
+					rowC++;
+				} while (databaseResults.next());
+			}
+			mappingContext.loadBatchedForeignObjects();
+		} catch (SQLException e) {
+			throw SqlExceptionUtil.create("Unable to run query-for-ids stmt: " + statement, e);
+		} finally {
+			stmt.close();
+		}
+		logger.debug("query-for-ids using '{}' and {} args, got {} results", statement, args.length, rowC);
+		if (args.length > 0) {
+			// need to do the (Object) cast to force args to be a single object
+			logger.trace("query-for-ids arguments: {}", (Object) args);
+		}
+		return rowC;
+	}
+
+	/**
+	 * Build a statement which queries for numIds ids.
+	 */
+	public static <T, ID> MappedQueryForIds<T, ID> build(DatabaseType databaseType, TableInfo<T, ID> tableInfo,
+			int numIds) throws SQLException {
+		FieldType idField = tableInfo.getIdField();
+		if (idField == null) {
+			throw new SQLException("Cannot query-for-ids with " + tableInfo.getDataClass()
+					+ " because it doesn't have an id field");
+		}
+		StringBuilder sb = new StringBuilder(64 + numIds * 2);
+		appendTableName(databaseType, sb, "SELECT * FROM ", tableInfo.getTableName());
+		FieldType[] argFieldTypes = new FieldType[numIds];
+		appendWhereIds(databaseType, idField, sb, numIds, argFieldTypes);
+		return new MappedQueryForIds<T, ID>(tableInfo, sb.toString(), argFieldTypes, tableInfo.getFieldTypes());
+	}
+}
@@ -2,6 +2,7 @@ package com.j256.ormlite.stmt.mapped;
 
 import java.sql.SQLException;
 
+import com.j256.ormlite.dao.DirtyTracker;
 import com.j256.ormlite.dao.ObjectCache;
 import com.j256.ormlite.db.DatabaseType;
 import com.j256.ormlite.field.FieldType;
@@ -40,6 +41,10 @@ public class MappedRefresh<T, ID> extends MappedQueryForId<T, ID> {
 				fieldType.assignField(data, fieldType.extractJavaFieldValue(result), false, objectCache);
 			}
 		}
+		DirtyTracker dirtyTracker = tableInfo.getDirtyTracker();
+		if (dirtyTracker != null) {
+			dirtyTracker.snapshot(data, tableInfo.getFieldTypes());
+		}
 		return 1;
 	}
 
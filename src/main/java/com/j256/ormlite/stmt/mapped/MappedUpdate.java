@@ -1,7 +1,13 @@
 package com.j256.ormlite.stmt.mapped;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import com.j256.ormlite.dao.DirtyTracker;
 import com.j256.ormlite.dao.ObjectCache;
 import com.j256.ormlite.db.DatabaseType;
 import com.j256.ormlite.field.FieldType;
@@ -16,12 +22,19 @@ import com.j256.ormlite.table.TableInfo;
  */
 public class MappedUpdate<T, ID> extends BaseMappedStatement<T, ID> {
 
+	/** maximum number of sets of changed fields whose update statements are cached */
+	private static final int MAX_CHANGED_UPDATES = 64;
+
+	private final DatabaseType databaseType;
 	private final FieldType versionFieldType;
 	private final int versionFieldTypeIndex;
+	// statements for the sets of changed fields of the dirty-tracked objects, the query may be shared by threads
+	private final ConcurrentMap<BitSet, ChangedUpdate> changedUpdates = new ConcurrentHashMap<BitSet, ChangedUpdate>();
 
-	private MappedUpdate(TableInfo<T, ID> tableInfo, String statement, FieldType[] argFieldTypes,
-			FieldType versionFieldType, int versionFieldTypeIndex) {
+	private MappedUpdate(DatabaseType databaseType, TableInfo<T, ID> tableInfo, String statement,
+			FieldType[] argFieldTypes, FieldType versionFieldType, int versionFieldTypeIndex) {
 		super(tableInfo, statement, argFieldTypes);
+		this.databaseType = databaseType;
 		this.versionFieldType = versionFieldType;
 		this.versionFieldTypeIndex = versionFieldTypeIndex;
 	}
@@ -79,19 +92,131 @@ public class MappedUpdate<T, ID> extends BaseMappedStatement<T, ID> {
 			sb.append("= ?");
 			argFieldTypes[argFieldC++] = versionFieldType;
 		}
-		return new MappedUpdate<T, ID>(tableInfo, sb.toString(), argFieldTypes, versionFieldType, versionFieldTypeIndex);
+		return new MappedUpdate<T, ID>(databaseType, tableInfo, sb.toString(), argFieldTypes, versionFieldType,
+				versionFieldTypeIndex);
 	}
 
 	/**
 	 * Update the object in the database.
 	 */
 	public int update(DatabaseConnection databaseConnection, T data, ObjectCache objectCache) throws SQLException {
-		try {
-			// there is always and id field as an argument so just return 0 lines updated
-			if (argFieldTypes.length <= 1) {
-				return 0;
+		// there is always and id field as an argument so just return 0 lines updated
+		if (argFieldTypes.length <= 1) {
+			return 0;
+		}
+		DirtyTracker dirtyTracker = tableInfo.getDirtyTracker();
+		if (dirtyTracker != null) {
+			Object[] snapshot = dirtyTracker.getSnapshot(data);
+			if (snapshot != null) {
+				return updateChanged(databaseConnection, data, objectCache, snapshot);
+			}
+		}
+		Object[] args = getFieldObjects(data);
+		return update(databaseConnection, data, objectCache, statement, argFieldTypes, args, versionFieldTypeIndex);
+	}
+
+	/**
+	 * Update only the columns of the object that are different from the dirty-tracker snapshot. If nothing has changed
+	 * then 0 is returned without a round trip unless there is a version field, in which case the version is still
+	 * checked and moved to its next value.
+	 */
+	private int updateChanged(DatabaseConnection databaseConnection, T data, ObjectCache objectCache,
+			Object[] snapshot) throws SQLException {
+		FieldType[] fieldTypes = tableInfo.getFieldTypes();
+		BitSet changedFields = new BitSet(fieldTypes.length);
+		List<Object> changedArgs = new ArrayList<Object>();
+		for (int i = 0; i < fieldTypes.length; i++) {
+			FieldType fieldType = fieldTypes[i];
+			if (!isFieldUpdatable(fieldType, idField) || fieldType.isVersion()) {
+				continue;
+			}
+			Object arg = fieldType.extractJavaFieldToSqlArgValue(data);
+			if (DirtyTracker.isValueUnchanged(arg, snapshot[i])) {
+				continue;
+			}
+			if (arg == null && fieldType.getDefaultValue() != null) {
+				arg = fieldType.getDefaultValue();
+			}
+			changedFields.set(i);
+			changedArgs.add(arg);
+		}
+		if (changedFields.isEmpty() && versionFieldType == null) {
+			logger.debug("update of {} skipped because no fields have changed", clazz);
+			return 0;
+		}
+
+		ChangedUpdate changedUpdate = changedUpdates.get(changedFields);
+		if (changedUpdate == null) {
+			changedUpdate = buildChangedUpdate(changedFields);
+			// there can be a lot of combinations of changed fields so we only hold onto so many
+			if (changedUpdates.size() < MAX_CHANGED_UPDATES) {
+				changedUpdates.putIfAbsent(changedFields, changedUpdate);
+			}
+		}
+		Object[] args = new Object[changedUpdate.argFieldTypes.length];
+		int argC = 0;
+		for (Object arg : changedArgs) {
+			args[argC++] = arg;
+		}
+		if (versionFieldType != null) {
+			// the new version is set by update()
+			argC++;
+		}
+		args[argC++] = idField.extractJavaFieldToSqlArgValue(data);
+		if (versionFieldType != null) {
+			args[argC++] = versionFieldType.extractJavaFieldToSqlArgValue(data);
+		}
+		return update(databaseConnection, data, objectCache, changedUpdate.statement, changedUpdate.argFieldTypes,
+				args, changedUpdate.versionFieldTypeIndex);
+	}
+
+	/**
+	 * Build the statement which updates the fields whose indexes are set in changed-fields and the version field if
+	 * there is one.
+	 */
+	private ChangedUpdate buildChangedUpdate(BitSet changedFields) {
+		FieldType[] fieldTypes = tableInfo.getFieldTypes();
+		List<FieldType> argFieldTypes = new ArrayList<FieldType>();
+		StringBuilder sb = new StringBuilder(64);
+		appendTableName(databaseType, sb, "UPDATE ", tableInfo.getTableName());
+		sb.append("SET ");
+		boolean first = true;
+		for (int i = changedFields.nextSetBit(0); i >= 0; i = changedFields.nextSetBit(i + 1)) {
+			if (first) {
+				first = false;
+			} else {
+				sb.append(", ");
 			}
-			Object[] args = getFieldObjects(data);
+			appendFieldColumnName(databaseType, sb, fieldTypes[i], null);
+			sb.append("= ?");
+			argFieldTypes.add(fieldTypes[i]);
+		}
+		int versionIndex = -1;
+		if (versionFieldType != null) {
+			if (!first) {
+				sb.append(", ");
+			}
+			appendFieldColumnName(databaseType, sb, versionFieldType, null);
+			sb.append("= ?");
+			versionIndex = argFieldTypes.size();
+			argFieldTypes.add(versionFieldType);
+		}
+		sb.append(' ');
+		appendWhereFieldEq(databaseType, idField, sb, null);
+		argFieldTypes.add(idField);
+		if (versionFieldType != null) {
+			sb.append(" AND ");
+			appendFieldColumnName(databaseType, sb, versionFieldType, null);
+			sb.append("= ?");
+			argFieldTypes.add(versionFieldType);
+		}
+		return new ChangedUpdate(sb.toString(), argFieldTypes.toArray(new FieldType[argFieldTypes.size()]),
+				versionIndex);
+	}
+
+	private int update(DatabaseConnection databaseConnection, T data, ObjectCache objectCache, String statement,
+			FieldType[] argFieldTypes, Object[] args, int versionFieldTypeIndex) throws SQLException {
+		try {
 			Object newVersion = null;
 			if (versionFieldType != null) {
 				newVersion = versionFieldType.extractJavaFieldValue(data);
@@ -118,6 +243,11 @@ public class MappedUpdate<T, ID> extends BaseMappedStatement<T, ID> {
 						}
 					}
 				}
+				DirtyTracker dirtyTracker = tableInfo.getDirtyTracker();
+				if (dirtyTracker != null) {
+					// the database now has the current values
+					dirtyTracker.snapshot(data, tableInfo.getFieldTypes());
+				}
 			}
 			logger.debug("update data with statement '{}' and {} args, changed {} rows", statement, args.length, rowC);
 			if (args.length > 0) {
@@ -137,4 +267,19 @@ public class MappedUpdate<T, ID> extends BaseMappedStatement<T, ID> {
 			return true;
 		}
 	}
+
+	/**
+	 * Statement which updates a particular set of changed fields.
+	 */
+	private static class ChangedUpdate {
+		final String statement;
+		final FieldType[] argFieldTypes;
+		final int versionFieldTypeIndex;
+
+		public ChangedUpdate(String statement, FieldType[] argFieldTypes, int versionFieldTypeIndex) {
+			this.statement = statement;
+			this.argFieldTypes = argFieldTypes;
+			this.versionFieldTypeIndex = versionFieldTypeIndex;
+		}
+	}
 }
@@ -0,0 +1,186 @@
+package com.j256.ormlite.stmt.mapped;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.j256.ormlite.dao.ObjectCache;
+import com.j256.ormlite.db.DatabaseType;
+import com.j256.ormlite.field.FieldType;
+import com.j256.ormlite.misc.SqlExceptionUtil;
+import com.j256.ormlite.stmt.InListSizes;
+import com.j256.ormlite.support.DatabaseConnection;
+import com.j256.ormlite.table.TableInfo;
+
+/**
+ * Mapped statement for setting columns of a number of rows each to their own values in one statement. It is of the
+ * form:
+ *
+ * <pre>
+ * UPDATE table SET col = CASE id WHEN ? THEN ? WHEN ? THEN ? ... ELSE col END, ... WHERE id IN (?,?,...)
+ * </pre>
+ *
+ * <p>
+ * The rows are split into chunks that fit in the database's maximum number of arguments and each chunk is padded, by
+ * repeating its last row, to one of the sizes from {@link InListSizes} so the statements can be reused. The caller
+ * passes in a map which holds the statements by their columns and size.
+ * </p>
+ *
+ * @author graywatson
+ */
+public class MappedUpdateValues<T, ID> extends BaseMappedStatement<T, ID> {
+
+	/**
+	 * Number of statements, by their columns and size, that are held in the map passed to
+	 * {@link #updateValues(DatabaseType, TableInfo, DatabaseConnection, String[], Map, Map, ObjectCache)}.
+	 */
+	public static final int MAX_CACHED_STATEMENTS = 64;
+
+	private MappedUpdateValues(TableInfo<T, ID> tableInfo, String statement, FieldType[] argFieldTypes) {
+		super(tableInfo, statement, argFieldTypes);
+	}
+
+	/**
+	 * Update the columns of the rows with the ids, which are the keys of the map, to the values in the map. The values
+	 * are in the same order as the column names.
+	 *
+	 * @param statements
+	 *            Statements that have already been built, by their columns and size, which this adds to.
+	 * @return The number of rows updated.
+	 */
+	public static <T, ID> int updateValues(DatabaseType databaseType, TableInfo<T, ID> tableInfo,
+			DatabaseConnection databaseConnection, String[] columnNames, Map<ID, Object[]> idValues,
+			Map<List<Object>, MappedUpdateValues<T, ID>> statements, ObjectCache objectCache) throws SQLException {
+		FieldType idField = tableInfo.getIdField();
+		if (idField == null) {
+			throw new SQLException("Cannot update " + tableInfo.getDataClass() + " because it doesn't have an id field");
+		}
+		if (columnNames == null || columnNames.length == 0) {
+			throw new SQLException("Cannot update " + tableInfo.getDataClass() + " without any columns");
+		}
+		FieldType[] columnFieldTypes = new FieldType[columnNames.length];
+		for (int i = 0; i < columnNames.length; i++) {
+			FieldType fieldType = tableInfo.getFieldTypeByColumnName(columnNames[i]);
+			if (fieldType == idField || fieldType.isForeignCollection()) {
+				throw new SQLException("Cannot bulk update column " + columnNames[i]);
+			}
+			columnFieldTypes[i] = fieldType;
+		}
+
+		// convert the ids and values for the database once
+		Object[] ids = new Object[idValues.size()];
+		Object[][] values = new Object[idValues.size()][];
+		int rowC = 0;
+		for (Map.Entry<ID, Object[]> entry : idValues.entrySet()) {
+			Object[] rowValues = entry.getValue();
+			if (rowValues == null || rowValues.length != columnNames.length) {
+				throw new SQLException("Id " + entry.getKey() + " needs " + columnNames.length
+						+ " values, one for each column");
+			}
+			ids[rowC] = idField.convertJavaFieldToSqlArgValue(entry.getKey());
+			Object[] sqlValues = new Object[rowValues.length];
+			for (int i = 0; i < rowValues.length; i++) {
+				sqlValues[i] = columnFieldTypes[i].convertJavaFieldToSqlArgValue(rowValues[i]);
+			}
+			values[rowC] = sqlValues;
+			rowC++;
+		}
+
+		// each row has an id and a value for each column plus its id in the IN list
+		int chunkSize = Math.max(1, InListSizes.chunkSize(databaseType, 0) / (columnNames.length * 2 + 1));
+		int numRows = 0;
+		for (int start = 0; start < ids.length; start += chunkSize) {
+			int end = Math.min(start + chunkSize, ids.length);
+			int bucketSize = InListSizes.bucketSize(end - start, chunkSize);
+			List<Object> key = new ArrayList<Object>(columnNames.length + 1);
+			for (String columnName : columnNames) {
+				key.add(columnName);
+			}
+			key.add(bucketSize);
+			MappedUpdateValues<T, ID> mappedUpdate = statements.get(key);
+			if (mappedUpdate == null) {
+				mappedUpdate = build(databaseType, tableInfo, idField, columnFieldTypes, bucketSize);
+				if (statements.size() < MAX_CACHED_STATEMENTS) {
+					statements.put(key, mappedUpdate);
+				}
+			}
+			Object[] args = buildArgs(ids, values, start, end, bucketSize, columnNames.length);
+			numRows += mappedUpdate.execute(databaseConnection, args, ids, start, end, objectCache);
+		}
+		return numRows;
+	}
+
+	private int execute(DatabaseConnection databaseConnection, Object[] args, Object[] ids, int start, int end,
+			ObjectCache objectCache) throws SQLException {
+		try {
+			int rowC = databaseConnection.update(statement, args, argFieldTypes);
+			if (rowC > 0 && objectCache != null) {
+				// the cached objects no longer match their rows
+				for (int i = start; i < end; i++) {
+					objectCache.remove(clazz, ids[i]);
+				}
+			}
+			logger.debug("update-values with statement '{}' and {} args, changed {} rows", statement, args.length,
+					rowC);
+			if (args.length > 0) {
+				// need to do the (Object) cast to force args to be a single object
+				logger.trace("update-values arguments: {}", (Object) args);
+			}
+			return rowC;
+		} catch (SQLException e) {
+			throw SqlExceptionUtil.create("Unable to run update-values stmt: " + statement, e);
+		}
+	}
+
+	private static Object[] buildArgs(Object[] ids, Object[][] values, int start, int end, int bucketSize,
+			int numColumns) {
+		Object[] args = new Object[bucketSize * (numColumns * 2 + 1)];
+		int argC = 0;
+		for (int col = 0; col < numColumns; col++) {
+			for (int i = 0; i < bucketSize; i++) {
+				// the padding repeats the last row which is harmless since the first WHEN to match wins
+				int row = Math.min(start + i, end - 1);
+				args[argC++] = ids[row];
+				args[argC++] = values[row][col];
+			}
+		}
+		for (int i = 0; i < bucketSize; i++) {
+			args[argC++] = ids[Math.min(start + i, end - 1)];
+		}
+		return args;
+	}
+
+	private static <T, ID> MappedUpdateValues<T, ID> build(DatabaseType databaseType, TableInfo<T, ID> tableInfo,
+			FieldType idField, FieldType[] columnFieldTypes, int numRows) {
+		StringBuilder sb = new StringBuilder(64 + numRows * columnFieldTypes.length * 16);
+		appendTableName(databaseType, sb, "UPDATE ", tableInfo.getTableName());
+		FieldType[] argFieldTypes = new FieldType[numRows * (columnFieldTypes.length * 2 + 1)];
+		int argFieldC = 0;
+		boolean first = true;
+		for (FieldType fieldType : columnFieldTypes) {
+			if (first) {
+				sb.append("SET ");
+				first = false;
+			} else {
+				sb.append(", ");
+			}
+			appendFieldColumnName(databaseType, sb, fieldType, null);
+			sb.append("= CASE ");
+			appendFieldColumnName(databaseType, sb, idField, null);
+			for (int i = 0; i < numRows; i++) {
+				sb.append("WHEN ? THEN ? ");
+				argFieldTypes[argFieldC++] = idField;
+				argFieldTypes[argFieldC++] = fieldType;
+			}
+			sb.append("ELSE ");
+			appendFieldColumnName(databaseType, sb, fieldType, null);
+			sb.append("END");
+		}
+		sb.append(' ');
+		FieldType[] idFieldTypes = new FieldType[numRows];
+		appendWhereIds(databaseType, idField, sb, numRows, idFieldTypes);
+		System.arraycopy(idFieldTypes, 0, argFieldTypes, argFieldC, numRows);
+		return new MappedUpdateValues<T, ID>(tableInfo, sb.toString(), argFieldTypes);
+	}
+}
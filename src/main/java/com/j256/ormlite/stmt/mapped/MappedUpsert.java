@@ -0,0 +1,196 @@
+package com.j256.ormlite.stmt.mapped;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.j256.ormlite.dao.DirtyTracker;
+import com.j256.ormlite.dao.ObjectCache;
+import com.j256.ormlite.db.DatabaseType;
+import com.j256.ormlite.field.FieldType;
+import com.j256.ormlite.misc.SqlExceptionUtil;
+import com.j256.ormlite.support.DatabaseConnection;
+import com.j256.ormlite.table.TableInfo;
+
+/**
+ * Mapped statement which inserts an object or, if a row with the same id already exists, either updates it or leaves
+ * it alone in a single round trip to the database. The SQL comes from
+ * {@link DatabaseType#appendUpsert(StringBuilder, String, FieldType[], FieldType, int)} or
+ * {@link DatabaseType#appendInsertIfNotExists(StringBuilder, String, FieldType[], FieldType)}. Upsert statements can
+ * also write a number of objects at once with multiple rows of values, see
+ * {@link #buildBatch(DatabaseType, TableInfo, int)}.
+ *
+ * @author graywatson
+ */
+public class MappedUpsert<T, ID> extends BaseMappedStatement<T, ID> {
+
+	/**
+	 * Largest number of rows in a batch statement.
+	 */
+	public static final int MAX_BATCH_ROWS = 128;
+
+	// field-types of a single row of the arguments
+	private final FieldType[] rowFieldTypes;
+	private final int numRows;
+
+	private MappedUpsert(TableInfo<T, ID> tableInfo, String statement, FieldType[] rowFieldTypes, int numRows) {
+		super(tableInfo, statement, repeatFieldTypes(rowFieldTypes, numRows));
+		this.rowFieldTypes = rowFieldTypes;
+		this.numRows = numRows;
+	}
+
+	/**
+	 * Insert or update the object in the database. The id of the object must already be set.
+	 *
+	 * @return The number of rows changed which is 0 if the row existed and we are not updating existing rows.
+	 */
+	public int execute(DatabaseConnection databaseConnection, T data, ObjectCache objectCache) throws SQLException {
+		try {
+			Object[] args = getFieldObjects(data);
+			int rowC = databaseConnection.insert(statement, args, argFieldTypes, null);
+			logger.debug("upsert data with statement '{}' and {} args, changed {} rows", statement, args.length, rowC);
+			if (args.length > 0) {
+				// need to do the (Object) cast to force args to be a single object
+				logger.trace("upsert arguments: {}", (Object) args);
+			}
+			if (rowC > 0) {
+				if (objectCache != null) {
+					Object id = idField.extractJavaFieldValue(data);
+					objectCache.put(clazz, id, data);
+				}
+				DirtyTracker dirtyTracker = tableInfo.getDirtyTracker();
+				if (dirtyTracker != null) {
+					dirtyTracker.snapshot(data, tableInfo.getFieldTypes());
+				}
+			}
+			return rowC;
+		} catch (SQLException e) {
+			throw SqlExceptionUtil.create("Unable to run upsert stmt on object " + data + ": " + statement, e);
+		}
+	}
+
+	/**
+	 * Insert or update the objects in the database with one statement. There must be as many as the rows of the
+	 * statement, their ids must be set, and no two can have the same id.
+	 *
+	 * @return The number of rows changed.
+	 */
+	public int executeBatch(DatabaseConnection databaseConnection, List<T> datas, ObjectCache objectCache)
+			throws SQLException {
+		if (datas.size() != numRows) {
+			throw new SQLException("Upsert statement has " + numRows + " rows but was given " + datas.size()
+					+ " objects");
+		}
+		try {
+			Object[] args = new Object[argFieldTypes.length];
+			for (int i = 0; i < numRows; i++) {
+				assignFieldObjects(datas.get(i), rowFieldTypes, args, i * rowFieldTypes.length);
+			}
+			int rowC = databaseConnection.insert(statement, args, argFieldTypes, null);
+			logger.debug("upsert {} objects with statement '{}', changed {} rows", numRows, statement, rowC);
+			if (args.length > 0) {
+				// need to do the (Object) cast to force args to be a single object
+				logger.trace("upsert arguments: {}", (Object) args);
+			}
+			if (rowC > 0) {
+				DirtyTracker dirtyTracker = tableInfo.getDirtyTracker();
+				for (T data : datas) {
+					if (objectCache != null) {
+						Object id = idField.extractJavaFieldValue(data);
+						objectCache.put(clazz, id, data);
+					}
+					if (dirtyTracker != null) {
+						dirtyTracker.snapshot(data, tableInfo.getFieldTypes());
+					}
+				}
+			}
+			return rowC;
+		} catch (SQLException e) {
+			throw SqlExceptionUtil.create("Unable to run upsert stmt on " + numRows + " objects: " + statement, e);
+		}
+	}
+
+	/**
+	 * Return the number of rows in a batch statement so that its arguments fit in the database's
+	 * {@link DatabaseType#getMaxQueryParameters()}.
+	 */
+	public static int batchSize(DatabaseType databaseType, TableInfo<?, ?> tableInfo) {
+		int numColumns = buildArgFieldTypes(tableInfo).length;
+		return Math.max(1, Math.min(MAX_BATCH_ROWS, databaseType.getMaxQueryParameters() / numColumns));
+	}
+
+	/**
+	 * Return true if the native upsert can be used for the table. Tables with version fields or foreign auto-create
+	 * fields need the separate create and update statements.
+	 */
+	public static boolean isSupported(TableInfo<?, ?> tableInfo) {
+		if (tableInfo.getIdField() == null || tableInfo.isForeignAutoCreate()) {
+			return false;
+		}
+		for (FieldType fieldType : tableInfo.getFieldTypes()) {
+			if (fieldType.isVersion()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Build the statement.
+	 *
+	 * @param updateExisting
+	 *            If true then existing rows are updated otherwise they are left alone.
+	 */
+	public static <T, ID> MappedUpsert<T, ID> build(DatabaseType databaseType, TableInfo<T, ID> tableInfo,
+			boolean updateExisting) throws SQLException {
+		FieldType idField = tableInfo.getIdField();
+		if (idField == null) {
+			throw new SQLException("Cannot upsert " + tableInfo.getDataClass() + " because it doesn't have an id field");
+		}
+		FieldType[] argFieldTypes = buildArgFieldTypes(tableInfo);
+		StringBuilder sb = new StringBuilder(128);
+		if (updateExisting) {
+			databaseType.appendUpsert(sb, tableInfo.getTableName(), argFieldTypes, idField, 1);
+		} else {
+			databaseType.appendInsertIfNotExists(sb, tableInfo.getTableName(), argFieldTypes, idField);
+		}
+		return new MappedUpsert<T, ID>(tableInfo, sb.toString(), argFieldTypes, 1);
+	}
+
+	/**
+	 * Build an upsert statement which writes numRows objects at once.
+	 */
+	public static <T, ID> MappedUpsert<T, ID> buildBatch(DatabaseType databaseType, TableInfo<T, ID> tableInfo,
+			int numRows) throws SQLException {
+		FieldType idField = tableInfo.getIdField();
+		if (idField == null) {
+			throw new SQLException("Cannot upsert " + tableInfo.getDataClass() + " because it doesn't have an id field");
+		}
+		FieldType[] argFieldTypes = buildArgFieldTypes(tableInfo);
+		StringBuilder sb = new StringBuilder(128 + numRows * argFieldTypes.length * 2);
+		databaseType.appendUpsert(sb, tableInfo.getTableName(), argFieldTypes, idField, numRows);
+		return new MappedUpsert<T, ID>(tableInfo, sb.toString(), argFieldTypes, numRows);
+	}
+
+	private static FieldType[] buildArgFieldTypes(TableInfo<?, ?> tableInfo) {
+		List<FieldType> argFieldTypeList = new ArrayList<FieldType>();
+		for (FieldType fieldType : tableInfo.getFieldTypes()) {
+			// we always include the id even if it is generated
+			if (!fieldType.isForeignCollection() && !fieldType.isReadOnly()) {
+				argFieldTypeList.add(fieldType);
+			}
+		}
+		return argFieldTypeList.toArray(new FieldType[argFieldTypeList.size()]);
+	}
+
+	private static FieldType[] repeatFieldTypes(FieldType[] rowFieldTypes, int numRows) {
+		if (numRows == 1) {
+			return rowFieldTypes;
+		}
+		FieldType[] fieldTypes = new FieldType[rowFieldTypes.length * numRows];
+		for (int i = 0; i < numRows; i++) {
+			System.arraycopy(rowFieldTypes, 0, fieldTypes, i * rowFieldTypes.length, rowFieldTypes.length);
+		}
+		return fieldTypes;
+	}
+}
@@ -64,6 +64,14 @@ public interface CompiledStatement {
 	 */
 	public void setMaxRows(int max) throws SQLException;
 
+	/**
+	 * Set the number of rows that the driver should fetch from the database at a time when more are needed. Without
+	 * this many drivers use their own default which may be to load all of the results into memory. Set to 0 to use the
+	 * driver default. This is only a hint and what values are honored, and whether anything else is needed for the
+	 * results to be streamed such as turning off auto-commit, depends on the driver.
+	 */
+	public void setFetchSize(int fetchSize) throws SQLException;
+
 	/**
 	 * Set the query timeout in milliseconds. This may or may not be supported by all database types. Although this is
 	 * in milliseconds, the underlying timeout resolution may be in seconds.
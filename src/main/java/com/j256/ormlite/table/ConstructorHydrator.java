@@ -0,0 +1,373 @@
+package com.j256.ormlite.table;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.j256.ormlite.dao.ObjectCache;
+import com.j256.ormlite.field.FieldType;
+import com.j256.ormlite.field.MockFieldType;
+import com.j256.ormlite.misc.SqlExceptionUtil;
+import com.j256.ormlite.stmt.MappingContext;
+import com.j256.ormlite.support.DatabaseResults;
+
+/**
+ * Creates objects from the results of a query by passing all of the column values to a constructor or static factory
+ * method at once instead of calling a no-argument constructor and then setting each of the fields. The constructor is
+ * resolved once per class and the arguments are collected in a buffer that is reused across the rows of the query.
+ *
+ * @author graywatson
+ */
+public class ConstructorHydrator<T> {
+
+	private static final int MAX_RESULTS_ARRAYS = 64;
+
+	private final Class<T> dataClass;
+	private final Constructor<T> constructor;
+	private final Method factoryMethod;
+	private final FieldType[] argFieldTypes;
+	// which of our arguments are in each of the results field-type arrays that we have been handed
+	private final ConcurrentMap<FieldType[], boolean[]> inResultsMap = new ConcurrentHashMap<FieldType[], boolean[]>();
+
+	private ConstructorHydrator(Class<T> dataClass, Constructor<T> constructor, Method factoryMethod,
+			FieldType[] argFieldTypes) {
+		this.dataClass = dataClass;
+		this.constructor = constructor;
+		this.factoryMethod = factoryMethod;
+		this.argFieldTypes = argFieldTypes;
+	}
+
+	/**
+	 * Return a hydrator for the class if it has a constructor or static factory method marked with
+	 * {@link DatabaseConstructor} or null if it does not. The arguments must match the field-types in order, not
+	 * counting the foreign collections.
+	 *
+	 * @throws SQLException
+	 *             If the marked constructor does not match the field-types.
+	 */
+	public static <T> ConstructorHydrator<T> findAnnotated(Class<T> dataClass, FieldType[] fieldTypes)
+			throws SQLException {
+		List<Member> members = findAnnotatedMembers(dataClass);
+		if (members.isEmpty()) {
+			return null;
+		} else if (members.size() > 1) {
+			throw new SQLException("Only one constructor or method can be marked with @DatabaseConstructor in "
+					+ dataClass);
+		}
+		FieldType[] argFieldTypes = extractArgFieldTypes(fieldTypes);
+		ConstructorHydrator<T> hydrator = fromMember(dataClass, members.get(0), argFieldTypes);
+		if (hydrator == null) {
+			throw new SQLException("The @DatabaseConstructor of " + dataClass
+					+ " does not take the values of the fields " + fieldNames(argFieldTypes) + " in order");
+		}
+		return hydrator;
+	}
+
+	/**
+	 * Return a hydrator for the class whose constructor takes the values of the field-types. If a constructor or static
+	 * factory method is marked with {@link DatabaseConstructor} then it is used otherwise the constructor that matches.
+	 * If the field-types end with an id field that the class does not take then it is ignored since the id field is
+	 * added by the query-builder even if it was not selected.
+	 *
+	 * @throws SQLException
+	 *             If no constructor or more than one constructor matches the field-types.
+	 */
+	public static <T> ConstructorHydrator<T> find(Class<T> dataClass, FieldType[] fieldTypes) throws SQLException {
+		List<Member> members = findAnnotatedMembers(dataClass);
+		if (members.isEmpty()) {
+			for (Constructor<?> con : dataClass.getDeclaredConstructors()) {
+				members.add(con);
+			}
+		}
+		FieldType[] argFieldTypes = extractArgFieldTypes(fieldTypes);
+		FieldType[] withoutId = null;
+		int last = argFieldTypes.length - 1;
+		if (last > 0 && isIdField(argFieldTypes[last])) {
+			withoutId = new FieldType[last];
+			System.arraycopy(argFieldTypes, 0, withoutId, 0, last);
+		}
+		ConstructorHydrator<T> hydrator = findMatching(dataClass, members, argFieldTypes);
+		if (hydrator == null && withoutId != null) {
+			hydrator = findMatching(dataClass, members, withoutId);
+		}
+		if (hydrator == null) {
+			throw new SQLException("Could not find a constructor of " + dataClass + " which takes the values of "
+					+ fieldNames(argFieldTypes) + " in order");
+		}
+		return hydrator;
+	}
+
+	/**
+	 * Return the field-types whose values are passed to the constructor in order.
+	 */
+	public FieldType[] getArgFieldTypes() {
+		return argFieldTypes;
+	}
+
+	/**
+	 * Create an object with the value passed for the argument of the field-type and null, or 0 for primitives, for the
+	 * others. This is used to build the foreign objects which only have their id set.
+	 *
+	 * @throws SQLException
+	 *             If the field-type is not one of our arguments.
+	 */
+	public T createObject(FieldType fieldType, Object value) throws SQLException {
+		Object[] args = new Object[argFieldTypes.length];
+		boolean found = false;
+		for (int i = 0; i < argFieldTypes.length; i++) {
+			if (argFieldTypes[i] == fieldType) {
+				args[i] = value;
+				found = true;
+			} else {
+				args[i] = defaultValue(argFieldTypes[i].getType());
+			}
+		}
+		if (!found) {
+			throw new SQLException("Field " + fieldType.getFieldName() + " is not an argument of the constructor of "
+					+ dataClass);
+		}
+		return invoke(args);
+	}
+
+	/**
+	 * Create an object from the current row of the results. Any argument field-types that are not in the
+	 * resultsFieldTypes are passed as null, or 0 for primitives.
+	 *
+	 * @param parent
+	 *            If not null then foreign fields of the parent's class which have the parentId are set to the parent
+	 *            object.
+	 */
+	public T createObject(DatabaseResults results, FieldType[] resultsFieldTypes, Map<String, Integer> columnPositions,
+			Object parent, Object parentId, ObjectCache objectCache, MappingContext mappingContext)
+			throws SQLException {
+		boolean[] inResults = getInResults(resultsFieldTypes);
+		Object[] args = mappingContext.takeArgumentBuffer(argFieldTypes.length);
+		try {
+			for (int i = 0; i < argFieldTypes.length; i++) {
+				FieldType fieldType = argFieldTypes[i];
+				Object val;
+				if (!inResults[i]) {
+					val = defaultValue(fieldType.getType());
+				} else {
+					val = fieldType.resultToJava(results, columnPositions);
+					if (val != null && fieldType.isForeign()) {
+						if (parent != null && fieldType.getType() == parent.getClass() && val.equals(parentId)) {
+							val = parent;
+						} else {
+							val = fieldType.buildForeignObject(val, null, objectCache, mappingContext);
+						}
+					}
+				}
+				args[i] = val;
+			}
+			return invoke(args);
+		} finally {
+			mappingContext.returnArgumentBuffer(args);
+		}
+	}
+
+	private T invoke(Object[] args) throws SQLException {
+		try {
+			if (constructor == null) {
+				@SuppressWarnings("unchecked")
+				T result = (T) factoryMethod.invoke(null, args);
+				return result;
+			} else {
+				return constructor.newInstance(args);
+			}
+		} catch (InvocationTargetException e) {
+			throw SqlExceptionUtil.create("Could not create object for " + dataClass, e.getCause());
+		} catch (Exception e) {
+			throw SqlExceptionUtil.create("Could not create object for " + dataClass, e);
+		}
+	}
+
+	private static List<Member> findAnnotatedMembers(Class<?> dataClass) {
+		List<Member> members = new ArrayList<Member>();
+		for (Constructor<?> con : dataClass.getDeclaredConstructors()) {
+			if (con.isAnnotationPresent(DatabaseConstructor.class)) {
+				members.add(con);
+			}
+		}
+		for (Method method : dataClass.getDeclaredMethods()) {
+			if (method.isAnnotationPresent(DatabaseConstructor.class)) {
+				members.add(method);
+			}
+		}
+		return members;
+	}
+
+	private static <T> ConstructorHydrator<T> fromMember(Class<T> dataClass, Member member, FieldType[] argFieldTypes)
+			throws SQLException {
+		Class<?>[] paramTypes;
+		if (member instanceof Constructor) {
+			paramTypes = ((Constructor<?>) member).getParameterTypes();
+		} else {
+			Method method = (Method) member;
+			if (!Modifier.isStatic(method.getModifiers()) || !dataClass.isAssignableFrom(method.getReturnType())) {
+				throw new SQLException("@DatabaseConstructor method " + method + " must be static and return "
+						+ dataClass);
+			}
+			paramTypes = method.getParameterTypes();
+		}
+		if (paramTypes.length != argFieldTypes.length) {
+			return null;
+		}
+		for (int i = 0; i < paramTypes.length; i++) {
+			if (!boxedType(paramTypes[i]).isAssignableFrom(boxedType(argFieldTypes[i].getType()))) {
+				return null;
+			}
+		}
+		try {
+			if (member instanceof Constructor) {
+				@SuppressWarnings("unchecked")
+				Constructor<T> con = (Constructor<T>) member;
+				con.setAccessible(true);
+				return new ConstructorHydrator<T>(dataClass, con, null, argFieldTypes);
+			} else {
+				Method method = (Method) member;
+				method.setAccessible(true);
+				return new ConstructorHydrator<T>(dataClass, null, method, argFieldTypes);
+			}
+		} catch (SecurityException e) {
+			throw SqlExceptionUtil.create("Could not open access to " + member + " of " + dataClass, e);
+		}
+	}
+
+	private static FieldType[] extractArgFieldTypes(FieldType[] fieldTypes) throws SQLException {
+		List<FieldType> argFieldTypes = new ArrayList<FieldType>(fieldTypes.length);
+		for (FieldType fieldType : fieldTypes) {
+			if (fieldType.isForeignCollection()) {
+				// these are set after the object is created
+				continue;
+			}
+			if (fieldType instanceof MockFieldType || fieldType.getAdditionalFieldType() != null) {
+				throw new SQLException("Polymorphic foreign field " + fieldType.getFieldName()
+						+ " is not supported when creating objects with a constructor");
+			}
+			argFieldTypes.add(fieldType);
+		}
+		return argFieldTypes.toArray(new FieldType[argFieldTypes.size()]);
+	}
+
+	/**
+	 * Return which of our arguments are in the results field-types. This is worked out once for each array since the
+	 * queries hold onto theirs.
+	 */
+	private boolean[] getInResults(FieldType[] resultsFieldTypes) {
+		boolean[] inResults = inResultsMap.get(resultsFieldTypes);
+		if (inResults != null) {
+			return inResults;
+		}
+		inResults = new boolean[argFieldTypes.length];
+		for (int i = 0; i < argFieldTypes.length; i++) {
+			for (FieldType resultsFieldType : resultsFieldTypes) {
+				if (resultsFieldType == argFieldTypes[i]) {
+					inResults[i] = true;
+					break;
+				}
+			}
+		}
+		// every prepared query has its own array so we don't hold onto them forever
+		if (inResultsMap.size() >= MAX_RESULTS_ARRAYS) {
+			inResultsMap.clear();
+		}
+		inResultsMap.put(resultsFieldTypes, inResults);
+		return inResults;
+	}
+
+	/**
+	 * Return the hydrator of the one member that takes the field-types or null if none.
+	 *
+	 * @throws SQLException
+	 *             If more than one member takes the field-types.
+	 */
+	private static <T> ConstructorHydrator<T> findMatching(Class<T> dataClass, List<Member> members,
+			FieldType[] argFieldTypes) throws SQLException {
+		ConstructorHydrator<T> found = null;
+		for (Member member : members) {
+			ConstructorHydrator<T> hydrator = fromMember(dataClass, member, argFieldTypes);
+			if (hydrator == null) {
+				continue;
+			}
+			if (found != null) {
+				// the order of the constructors is not specified so we can't pick one
+				throw new SQLException("More than one constructor of " + dataClass + " takes the values of "
+						+ fieldNames(argFieldTypes) + ", mark one of them with @DatabaseConstructor");
+			}
+			found = hydrator;
+		}
+		return found;
+	}
+
+	private static boolean isIdField(FieldType fieldType) {
+		return fieldType.isId() || fieldType.isGeneratedId() || fieldType.isGeneratedIdSequence();
+	}
+
+	private static String fieldNames(FieldType[] fieldTypes) {
+		StringBuilder sb = new StringBuilder();
+		sb.append('[');
+		for (int i = 0; i < fieldTypes.length; i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(fieldTypes[i].getFieldName());
+		}
+		sb.append(']');
+		return sb.toString();
+	}
+
+	private static Object defaultValue(Class<?> clazz) {
+		if (clazz == boolean.class) {
+			return Boolean.FALSE;
+		} else if (clazz == char.class) {
+			return Character.valueOf((char) 0);
+		} else if (clazz == byte.class) {
+			return Byte.valueOf((byte) 0);
+		} else if (clazz == short.class) {
+			return Short.valueOf((short) 0);
+		} else if (clazz == int.class) {
+			return Integer.valueOf(0);
+		} else if (clazz == long.class) {
+			return Long.valueOf(0);
+		} else if (clazz == float.class) {
+			return Float.valueOf(0);
+		} else if (clazz == double.class) {
+			return Double.valueOf(0);
+		} else {
+			return null;
+		}
+	}
+
+	private static Class<?> boxedType(Class<?> clazz) {
+		if (!clazz.isPrimitive()) {
+			return clazz;
+		} else if (clazz == boolean.class) {
+			return Boolean.class;
+		} else if (clazz == char.class) {
+			return Character.class;
+		} else if (clazz == byte.class) {
+			return Byte.class;
+		} else if (clazz == short.class) {
+			return Short.class;
+		} else if (clazz == int.class) {
+			return Integer.class;
+		} else if (clazz == long.class) {
+			return Long.class;
+		} else if (clazz == float.class) {
+			return Float.class;
+		} else if (clazz == double.class) {
+			return Double.class;
+		} else {
+			return clazz;
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package com.j256.ormlite.table;
+
+import static java.lang.annotation.ElementType.CONSTRUCTOR;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.field.ForeignCollectionField;
+
+/**
+ * Annotation that marks the constructor, or static factory method, that should be used to create objects of a class
+ * from the query results instead of calling the no-argument constructor and then setting each of the fields. This allows
+ * immutable objects to be persisted.
+ * 
+ * <p>
+ * The arguments must be in the same order as the persisted fields of the class, leaving out any
+ * {@link ForeignCollectionField} fields which are set after the object is constructed. For example:
+ * </p>
+ * 
+ * <p>
+ * <blockquote>
+ * 
+ * <pre>
+ * public class Account {
+ *   &#64;DatabaseField(id = true)
+ *   private final String name;
+ *   &#64;DatabaseField
+ *   private final String password;
+ *   &#64;DatabaseConstructor
+ *   public Account(String name, String password) {
+ *     ...
+ * </pre>
+ * 
+ * </blockquote>
+ * </p>
+ * 
+ * <p>
+ * It can also be used to pick the constructor of a class which is not persisted but which is hydrated with the selected
+ * columns of a query using {@link Dao#queryInto}. In that case the arguments must be in the order of the selected
+ * columns.
+ * </p>
+ * 
+ * @author graywatson
+ */
+@Target({ CONSTRUCTOR, METHOD })
+@Retention(RUNTIME)
+public @interface DatabaseConstructor {
+}
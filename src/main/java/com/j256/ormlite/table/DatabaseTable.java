@@ -27,7 +27,8 @@ import com.j256.ormlite.dao.DaoManager;
  * 
  * <p>
  * <b>NOTE:</b> Classes that are persisted using this package <i>must</i> have a no-argument constructor with at least
- * package visibility so objects can be created when you do a query, etc..
+ * package visibility so objects can be created when you do a query, etc.. The exception is classes which mark an
+ * all-arguments constructor with {@link DatabaseConstructor}.
  * </p>
  * 
  * @author graywatson
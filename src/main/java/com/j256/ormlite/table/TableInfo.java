@@ -6,13 +6,17 @@ import java.util.HashMap;
 import java.util.Map;
 
 import com.j256.ormlite.dao.BaseDaoImpl;
+import com.j256.ormlite.dao.DirtyTracker;
 import com.j256.ormlite.dao.ForeignCollection;
+import com.j256.ormlite.dao.ObjectCache;
 import com.j256.ormlite.db.DatabaseType;
 import com.j256.ormlite.field.DatabaseField;
 import com.j256.ormlite.field.FieldType;
 import com.j256.ormlite.misc.BaseDaoEnabled;
 import com.j256.ormlite.misc.SqlExceptionUtil;
+import com.j256.ormlite.stmt.MappingContext;
 import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.support.DatabaseResults;
 
 /**
  * Information about a database table including the associated tableName, class, constructor, and the included fields.
@@ -35,6 +39,7 @@ public class TableInfo<T, ID> {
 	private final FieldType[] foreignCollections;
 	private final FieldType idField;
 	private final Constructor<T> constructor;
+	private final ConstructorHydrator<T> constructorHydrator;
 	private final boolean foreignAutoCreate;
 	private Map<String, FieldType> fieldNameMap;
 
@@ -91,7 +96,19 @@ public class TableInfo<T, ID> {
 		}
 		// can be null if there is no id field
 		this.idField = findIdFieldType;
-		this.constructor = tableConfig.getConstructor();
+		this.constructorHydrator = ConstructorHydrator.findAnnotated(dataClass, fieldTypes);
+		if (constructorHydrator == null) {
+			this.constructor = tableConfig.getConstructor();
+		} else {
+			// the no-arg constructor is optional if the objects are created with the marked constructor
+			Constructor<T> noArgConstructor;
+			try {
+				noArgConstructor = tableConfig.getConstructor();
+			} catch (IllegalArgumentException e) {
+				noArgConstructor = null;
+			}
+			this.constructor = noArgConstructor;
+		}
 		this.foreignAutoCreate = foreignAutoCreate;
 		if (foreignCollectionCount == 0) {
 			this.foreignCollections = NO_FOREIGN_COLLECTIONS;
@@ -166,6 +183,25 @@ public class TableInfo<T, ID> {
 		return constructor;
 	}
 
+	/**
+	 * Return the hydrator which creates objects of the class from query results using its {@link DatabaseConstructor}
+	 * or null if the class doesn't have one.
+	 */
+	public ConstructorHydrator<T> getConstructorHydrator() {
+		return constructorHydrator;
+	}
+
+	/**
+	 * Return the dirty-tracker of our DAO or null if dirty tracking is not enabled.
+	 */
+	public DirtyTracker getDirtyTracker() {
+		if (baseDaoImpl == null) {
+			return null;
+		} else {
+			return baseDaoImpl.getDirtyTracker();
+		}
+	}
+
 	/**
 	 * Return a string representation of the object.
 	 */
@@ -187,6 +223,10 @@ public class TableInfo<T, ID> {
 	 * Create and return an object of this type using our reflection constructor.
 	 */
 	public T createObject() throws SQLException {
+		if (constructor == null) {
+			throw new SQLException(dataClass + " has no no-arg constructor so its objects can only be created from"
+					+ " query results using its @DatabaseConstructor");
+		}
 		try {
 			T instance;
 			ObjectFactory<T> factory = null;
@@ -205,6 +245,23 @@ public class TableInfo<T, ID> {
 		}
 	}
 
+	/**
+	 * Create and return an object of this type which only has the field set to the value. This is used for foreign
+	 * objects that are not refreshed. If the class has a {@link DatabaseConstructor} then the object is created with
+	 * it, passing null or 0 for the other fields, otherwise it is created with the no-arg constructor and the field is
+	 * assigned.
+	 */
+	public T createShellObject(FieldType fieldType, Object value, ObjectCache objectCache) throws SQLException {
+		if (constructorHydrator == null) {
+			T instance = createObject();
+			fieldType.assignField(instance, value, false, objectCache);
+			return instance;
+		}
+		T instance = constructorHydrator.createObject(fieldType, value);
+		wireNewInstance(baseDaoImpl, instance);
+		return instance;
+	}
+
 	/**
 	 * Return true if we can update this object via its ID.
 	 */
@@ -220,6 +277,20 @@ public class TableInfo<T, ID> {
 		return foreignAutoCreate;
 	}
 
+	/**
+	 * Create and return an object of this type from the current row of the results using our
+	 * {@link ConstructorHydrator}. See {@link ConstructorHydrator#createObject}.
+	 */
+	public T createObject(DatabaseResults results, FieldType[] resultsFieldTypes, Map<String, Integer> columnPositions,
+			Object parent, Object parentId, ObjectCache objectCache, MappingContext mappingContext)
+			throws SQLException {
+		T instance =
+				constructorHydrator.createObject(results, resultsFieldTypes, columnPositions, parent, parentId,
+						objectCache, mappingContext);
+		wireNewInstance(baseDaoImpl, instance);
+		return instance;
+	}
+
 	/**
 	 * Return an array with the fields that are {@link ForeignCollection}s or a blank array if none.
 	 */
@@ -1,5 +1,7 @@
 package com.j256.ormlite;
 
+import static org.junit.Assert.assertEquals;
+
 import java.sql.SQLException;
 
 import org.junit.After;
@@ -126,6 +128,21 @@ public abstract class BaseCoreTest {
 		TableUtils.dropTable(connectionSource, tableConfig, ignoreErrors);
 	}
 
+	/**
+	 * Create the foo table with numFoos rows whose values count up from firstVal. Each string field is "foo" and the
+	 * value.
+	 */
+	protected Dao<Foo, Integer> createFoos(int firstVal, int numFoos) throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		for (int i = firstVal; i < firstVal + numFoos; i++) {
+			Foo foo = new Foo();
+			foo.val = i;
+			foo.stringField = "foo" + i;
+			assertEquals(1, dao.create(foo));
+		}
+		return dao;
+	}
+
 	private <T, ID> Dao<T, ID> configDao(BaseDaoImpl<T, ID> dao, boolean createTable) throws Exception {
 		if (connectionSource == null) {
 			throw new SQLException("Connection source is null");
@@ -2,8 +2,8 @@ package com.j256.ormlite;
 
 import java.lang.reflect.Method;
 import java.sql.SQLException;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import com.j256.ormlite.db.DatabaseType;
@@ -20,8 +20,9 @@ public class WrappedConnectionSource implements ConnectionSource {
 	private AtomicInteger getReleaseCount = new AtomicInteger(0);
 	protected boolean nextForceOkay = false;
 	protected ConnectionSource cs;
+	// connections are got and released by more than one thread in some tests
 	private final Map<DatabaseConnection, WrappedConnection> wrappedConnections =
-			new HashMap<DatabaseConnection, WrappedConnection>();
+			new ConcurrentHashMap<DatabaseConnection, WrappedConnection>();
 
 	public WrappedConnectionSource(ConnectionSource cs) {
 		this.cs = cs;
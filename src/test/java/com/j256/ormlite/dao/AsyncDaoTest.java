@@ -0,0 +1,143 @@
+package com.j256.ormlite.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.j256.ormlite.BaseCoreTest;
+
+public class AsyncDaoTest extends BaseCoreTest {
+
+	private ExecutorService executor;
+
+	@Before
+	public void startExecutor() {
+		executor = Executors.newSingleThreadExecutor();
+	}
+
+	@After
+	public void stopExecutor() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testOperations() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		AsyncDao<Foo, Integer> asyncDao = new AsyncDao<Foo, Integer>(dao, executor);
+		assertSame(dao, asyncDao.getDao());
+		assertSame(executor, asyncDao.getExecutor());
+
+		final Foo foo = new Foo();
+		foo.val = 12;
+		assertEquals(1, (int) asyncDao.create(foo).get());
+		assertEquals(foo.val, asyncDao.queryForId(foo.id).get().val);
+		assertEquals(1L, (long) asyncDao.countOf().get());
+		assertTrue(asyncDao.idExists(foo.id).get());
+		assertEquals(1, asyncDao.queryForAll().get().size());
+
+		foo.val = 13;
+		assertEquals(1, (int) asyncDao.update(foo).get());
+		assertEquals(1, asyncDao.queryForEq(Foo.VAL_COLUMN_NAME, 13).get().size());
+		int numCreated = asyncDao.callBatchTasks(new Callable<Integer>() {
+			public Integer call() throws Exception {
+				return asyncDaoCreate(foo.val);
+			}
+		}).get();
+		assertEquals(2, numCreated);
+
+		assertEquals(1, (int) asyncDao.deleteById(foo.id).get());
+		assertNull(asyncDao.queryForId(foo.id).get());
+		assertFalse(asyncDao.idExists(foo.id).get());
+		assertEquals(2L, (long) asyncDao.countOf(dao.queryBuilder().setCountOf(true).prepare()).get());
+	}
+
+	@Test
+	public void testException() throws Exception {
+		AsyncDao<Foo, Integer> asyncDao = AsyncDao.createDao(connectionSource, Foo.class, executor);
+		// the table was not created
+		try {
+			asyncDao.queryForAll().get();
+			fail("should have thrown");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof SQLException);
+		}
+	}
+
+	@Test
+	public void testCallback() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		AsyncDao<Foo, Integer> asyncDao = new AsyncDao<Foo, Integer>(dao, executor);
+		Foo foo = new Foo();
+		foo.val = 12;
+		assertEquals(1, dao.create(foo));
+
+		RecordingCallback<Foo> callback = new RecordingCallback<Foo>();
+		asyncDao.queryForId(foo.id).addCallback(callback);
+		assertTrue(callback.latch.await(10, TimeUnit.SECONDS));
+		assertEquals(foo.val, callback.result.val);
+		assertNull(callback.throwable);
+
+		// a callback added after the operation finished is still called
+		DaoFuture<Long> future = asyncDao.countOf();
+		future.get();
+		RecordingCallback<Long> countCallback = new RecordingCallback<Long>();
+		future.addCallback(countCallback);
+		assertTrue(countCallback.latch.await(10, TimeUnit.SECONDS));
+		assertEquals(1L, (long) countCallback.result);
+	}
+
+	@Test
+	public void testCallbackFailure() throws Exception {
+		AsyncDao<Foo, Integer> asyncDao = AsyncDao.createDao(connectionSource, Foo.class, executor);
+		RecordingCallback<List<Foo>> callback = new RecordingCallback<List<Foo>>();
+		// the table was not created
+		asyncDao.queryForAll().addCallback(callback);
+		assertTrue(callback.latch.await(10, TimeUnit.SECONDS));
+		assertNull(callback.result);
+		assertTrue(callback.throwable instanceof SQLException);
+	}
+
+	private int asyncDaoCreate(int val) throws SQLException {
+		Dao<Foo, Integer> dao = DaoManager.createDao(connectionSource, Foo.class);
+		int numCreated = 0;
+		for (int i = 0; i < 2; i++) {
+			Foo foo = new Foo();
+			foo.val = val;
+			numCreated += dao.create(foo);
+		}
+		return numCreated;
+	}
+
+	private static class RecordingCallback<R> implements DaoFuture.Callback<R> {
+
+		final CountDownLatch latch = new CountDownLatch(1);
+		volatile R result;
+		volatile Throwable throwable;
+
+		public void onSuccess(R result) {
+			this.result = result;
+			latch.countDown();
+		}
+
+		public void onFailure(Throwable throwable) {
+			this.throwable = throwable;
+			latch.countDown();
+		}
+	}
+}
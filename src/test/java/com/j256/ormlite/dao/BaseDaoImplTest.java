@@ -28,16 +28,21 @@ import org.junit.Test;
 
 import com.j256.ormlite.BaseCoreTest;
 import com.j256.ormlite.dao.Dao.CreateOrUpdateStatus;
+import com.j256.ormlite.db.DatabaseType;
 import com.j256.ormlite.field.DataType;
 import com.j256.ormlite.field.DatabaseField;
 import com.j256.ormlite.field.FieldType;
 import com.j256.ormlite.field.ForeignCollectionField;
+import com.j256.ormlite.h2.H2ConnectionSource;
+import com.j256.ormlite.h2.H2DatabaseType;
 import com.j256.ormlite.stmt.DeleteBuilder;
+import com.j256.ormlite.stmt.InListSizes;
 import com.j256.ormlite.stmt.PreparedQuery;
 import com.j256.ormlite.stmt.QueryBuilder;
 import com.j256.ormlite.stmt.SelectArg;
 import com.j256.ormlite.stmt.UpdateBuilder;
 import com.j256.ormlite.stmt.Where;
+import com.j256.ormlite.stmt.mapped.MappedUpsert;
 import com.j256.ormlite.support.ConnectionSource;
 import com.j256.ormlite.support.DatabaseConnection;
 import com.j256.ormlite.support.DatabaseResults;
@@ -93,6 +98,133 @@ public class BaseDaoImplTest extends BaseCoreTest {
 		}
 	}
 
+	@Test
+	public void testQueryForIds() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		Foo foo1 = new Foo();
+		foo1.equal = 1;
+		assertEquals(1, dao.create(foo1));
+		Foo foo2 = new Foo();
+		foo2.equal = 2;
+		assertEquals(1, dao.create(foo2));
+		assertEquals(1, dao.create(new Foo()));
+
+		List<Integer> ids = new ArrayList<Integer>();
+		ids.add(foo1.id);
+		ids.add(foo2.id);
+		ids.add(foo2.id);
+		ids.add(-1);
+		Map<Integer, Foo> results = dao.queryForIds(ids);
+		assertEquals(2, results.size());
+		assertEquals(1, results.get(foo1.id).equal);
+		assertEquals(2, results.get(foo2.id).equal);
+		assertNull(results.get(-1));
+		assertEquals(0, dao.queryForIds(new ArrayList<Integer>()).size());
+	}
+
+	@Test
+	public void testQueryForIdsCache() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		dao.setObjectCache(true);
+		Foo foo1 = new Foo();
+		assertEquals(1, dao.create(foo1));
+		Foo foo2 = new Foo();
+		assertEquals(1, dao.create(foo2));
+		dao.clearObjectCache();
+
+		Foo cached = dao.queryForId(foo1.id);
+		List<Integer> ids = new ArrayList<Integer>();
+		ids.add(foo1.id);
+		ids.add(foo2.id);
+		Map<Integer, Foo> results = dao.queryForIds(ids);
+		assertEquals(2, results.size());
+		assertSame(cached, results.get(foo1.id));
+		// the queried object was added to the cache
+		assertSame(results.get(foo2.id), dao.queryForId(foo2.id));
+	}
+
+	@Test
+	public void testQueryForIdsChunked() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		List<Integer> ids = new ArrayList<Integer>();
+		for (int i = 0; i < InListSizes.MAX_BUCKET_SIZE + 10; i++) {
+			Foo foo = new Foo();
+			foo.equal = i;
+			assertEquals(1, dao.create(foo));
+			ids.add(foo.id);
+		}
+		Map<Integer, Foo> results = dao.queryForIds(ids);
+		assertEquals(ids.size(), results.size());
+		for (int i = 0; i < ids.size(); i++) {
+			assertEquals(i, results.get(ids.get(i)).equal);
+		}
+	}
+
+	@Test
+	public void testUpdateColumnValues() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		Foo foo1 = new Foo();
+		assertEquals(1, dao.create(foo1));
+		Foo foo2 = new Foo();
+		assertEquals(1, dao.create(foo2));
+		Foo foo3 = new Foo();
+		foo3.val = 3;
+		foo3.equal = 33;
+		assertEquals(1, dao.create(foo3));
+
+		Map<Integer, Object[]> idValues = new HashMap<Integer, Object[]>();
+		idValues.put(foo1.id, new Object[] { 10, 100 });
+		idValues.put(foo2.id, new Object[] { 20, 200 });
+		assertEquals(2,
+				dao.updateColumnValues(new String[] { Foo.VAL_COLUMN_NAME, Foo.EQUAL_COLUMN_NAME }, idValues));
+
+		Foo result = dao.queryForId(foo1.id);
+		assertEquals(10, result.val);
+		assertEquals(100, result.equal);
+		result = dao.queryForId(foo2.id);
+		assertEquals(20, result.val);
+		assertEquals(200, result.equal);
+		// other rows are untouched
+		result = dao.queryForId(foo3.id);
+		assertEquals(3, result.val);
+		assertEquals(33, result.equal);
+	}
+
+	@Test
+	public void testUpdateColumnValuesChunked() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		dao.setObjectCache(true);
+		Map<Integer, Object[]> idValues = new HashMap<Integer, Object[]>();
+		for (int i = 0; i < InListSizes.MAX_BUCKET_SIZE + 10; i++) {
+			Foo foo = new Foo();
+			assertEquals(1, dao.create(foo));
+			idValues.put(foo.id, new Object[] { foo.id * 2 });
+		}
+		assertEquals(idValues.size(), dao.updateColumnValues(new String[] { Foo.VAL_COLUMN_NAME }, idValues));
+		// the cached objects were removed so these come from the database
+		for (Foo foo : dao.queryForAll()) {
+			assertEquals(foo.id * 2, foo.val);
+		}
+	}
+
+	@Test(expected = SQLException.class)
+	public void testUpdateColumnValuesWrongNumber() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		Map<Integer, Object[]> idValues = new HashMap<Integer, Object[]>();
+		idValues.put(1, new Object[] { 1, 2 });
+		dao.updateColumnValues(new String[] { Foo.VAL_COLUMN_NAME }, idValues);
+	}
+
+	@Test(expected = SQLException.class)
+	public void testUpdateColumnValuesNoColumns() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		Foo foo = new Foo();
+		assertEquals(1, dao.create(foo));
+		Map<Integer, Object[]> idValues = new HashMap<Integer, Object[]>();
+		idValues.put(foo.id, new Object[0]);
+		dao.updateColumnValues(new String[0], idValues);
+	}
+
 	@Test
 	public void testQueryPrepared() throws Exception {
 		Dao<Foo, Integer> dao = createDao(Foo.class, true);
@@ -411,6 +543,24 @@ public class BaseDaoImplTest extends BaseCoreTest {
 		assertNull(dao.queryForId(foo2.id));
 	}
 
+	@Test
+	public void testDeleteIdsChunked() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		List<Integer> ids = new ArrayList<Integer>();
+		for (int i = 0; i < InListSizes.MAX_BUCKET_SIZE + 10; i++) {
+			Foo foo = new Foo();
+			assertEquals(1, dao.create(foo));
+			ids.add(foo.id);
+		}
+		Foo other = new Foo();
+		assertEquals(1, dao.create(other));
+
+		assertEquals(ids.size(), dao.deleteIds(ids));
+		List<Foo> results = dao.queryForAll();
+		assertEquals(1, results.size());
+		assertEquals(other.id, results.get(0).id);
+	}
+
 	@Test(expected = SQLException.class)
 	public void testDeleteIdsThrow() throws Exception {
 		Dao<Foo, Integer> dao = createDao(Foo.class, true);
@@ -835,6 +985,90 @@ public class BaseDaoImplTest extends BaseCoreTest {
 		assertFalse(iterator.hasNext());
 	}
 
+	@Test
+	public void testBatchIterator() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		int numFoos = 7;
+		for (int i = 0; i < numFoos; i++) {
+			Foo foo = new Foo();
+			foo.val = i;
+			assertEquals(1, dao.create(foo));
+		}
+
+		QueryBuilder<Foo, Integer> queryBuilder = dao.queryBuilder();
+		queryBuilder.orderBy(Foo.ID_COLUMN_NAME, true);
+		CloseableBatchIterator<Foo> iterator = dao.batchIterator(queryBuilder.prepare(), 3);
+		try {
+			assertEquals(3, iterator.getBatchSize());
+			int val = 0;
+			int[] batchSizes = new int[] { 3, 3, 1 };
+			for (int batchSize : batchSizes) {
+				assertTrue(iterator.hasNext());
+				List<Foo> batch = iterator.next();
+				assertEquals(batchSize, batch.size());
+				for (Foo foo : batch) {
+					assertEquals(val++, foo.val);
+				}
+			}
+			assertEquals(numFoos, iterator.getObjectCount());
+			assertFalse(iterator.hasNext());
+			assertNull(iterator.nextThrow());
+		} finally {
+			iterator.close();
+		}
+
+		queryBuilder.where().lt(Foo.ID_COLUMN_NAME, 0);
+		iterator = dao.batchIterator(queryBuilder.prepare(), 3);
+		assertFalse(iterator.hasNext());
+		iterator.close();
+	}
+
+	@Test
+	public void testForEach() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		dao.setObjectCache(true);
+		int numFoos = 5;
+		for (int i = 0; i < numFoos; i++) {
+			Foo foo = new Foo();
+			foo.val = i;
+			assertEquals(1, dao.create(foo));
+		}
+		dao.clearObjectCache();
+
+		final List<Foo> instances = new ArrayList<Foo>();
+		final List<Integer> vals = new ArrayList<Integer>();
+		QueryBuilder<Foo, Integer> queryBuilder = dao.queryBuilder();
+		queryBuilder.orderBy(Foo.VAL_COLUMN_NAME, true);
+		long rowCount = dao.forEach(queryBuilder.prepare(), new RowHandler<Foo>() {
+			public boolean handleRow(Foo data) {
+				instances.add(data);
+				vals.add(data.val);
+				return true;
+			}
+		});
+		assertEquals(numFoos, rowCount);
+		for (int i = 0; i < numFoos; i++) {
+			assertSame(instances.get(0), instances.get(i));
+			assertEquals(i, (int) vals.get(i));
+		}
+		// the reused instance must not have been put in the cache
+		Foo cached = dao.queryForId(instances.get(0).id);
+		assertNotSame(instances.get(0), cached);
+
+		rowCount = dao.forEach(queryBuilder.prepare(), new RowHandler<Foo>() {
+			public boolean handleRow(Foo data) {
+				return data.val < 2;
+			}
+		});
+		assertEquals(3, rowCount);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBatchIteratorBadSize() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		dao.batchIterator(dao.queryBuilder().prepare(), 0);
+	}
+
 	@Test(expected = SQLException.class)
 	public void testIteratorPreparedThrow() throws Exception {
 		Dao<Foo, Integer> dao = createDao(Foo.class, true);
@@ -949,6 +1183,41 @@ public class BaseDaoImplTest extends BaseCoreTest {
 		results.close();
 	}
 
+	@Test
+	public void testQueryRawCursor() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		Foo foo1 = new Foo();
+		foo1.equal = 1231231232;
+		foo1.stringField = "hello";
+		assertEquals(1, dao.create(foo1));
+		Foo foo2 = new Foo();
+		foo2.equal = 1231232;
+		assertEquals(1, dao.create(foo2));
+
+		RawCursor cursor =
+				dao.queryRawCursor("SELECT * FROM FOO WHERE " + Foo.ID_COLUMN_NAME + " >= ? ORDER BY "
+						+ Foo.ID_COLUMN_NAME, Integer.toString(foo1.id));
+		try {
+			assertEquals(4, cursor.getNumberColumns());
+			assertEquals(Foo.EQUAL_COLUMN_NAME.toUpperCase(), cursor.getColumnNames()[2]);
+			assertTrue(cursor.next());
+			assertEquals(foo1.id, cursor.getInt(0));
+			assertEquals(foo1.equal, cursor.getLong(2));
+			assertEquals(foo1.equal, cursor.getDouble(2), 0.0);
+			assertEquals(foo1.stringField, cursor.getString(3));
+			assertFalse(cursor.wasNull(3));
+			assertTrue(cursor.next());
+			assertEquals(foo2.id, cursor.getLong(0));
+			assertEquals(foo2.equal, cursor.getInt(2));
+			assertNull(cursor.getString(3));
+			assertTrue(cursor.wasNull(3));
+			assertFalse(cursor.next());
+			assertFalse(cursor.next());
+		} finally {
+			cursor.close();
+		}
+	}
+
 	@Test
 	public void testQueryRawObjects() throws Exception {
 		Dao<Foo, Integer> dao = createDao(Foo.class, true);
@@ -2486,6 +2755,222 @@ public class BaseDaoImplTest extends BaseCoreTest {
 		}
 	}
 
+	@Test
+	public void testDirtyTracking() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		assertNull(dao.getDirtyTracker());
+		dao.setDirtyTracking(true);
+		assertNotNull(dao.getDirtyTracker());
+
+		Foo foo = new Foo();
+		foo.val = 1;
+		foo.equal = 2;
+		assertEquals(1, dao.create(foo));
+
+		Foo foo1 = dao.queryForId(foo.id);
+		Foo foo2 = dao.queryForId(foo.id);
+		assertNotSame(foo1, foo2);
+		// nothing changed so nothing is written
+		assertEquals(0, dao.update(foo1));
+
+		foo1.val = 10;
+		assertEquals(1, dao.update(foo1));
+		foo2.equal = 20;
+		// only the equal column is written so the val change from foo1 is not overwritten
+		assertEquals(1, dao.update(foo2));
+
+		Foo result = dao.queryForId(foo.id);
+		assertEquals(10, result.val);
+		assertEquals(20, result.equal);
+
+		dao.setDirtyTracking(false);
+		assertNull(dao.getDirtyTracker());
+	}
+
+	@Test
+	public void testDirtyTrackingNotLoaded() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		Foo foo = new Foo();
+		foo.val = 1;
+		assertEquals(1, dao.create(foo));
+		dao.setDirtyTracking(true);
+
+		// this object was not loaded by the dao so it is updated in full
+		Foo other = new Foo();
+		other.id = foo.id;
+		other.stringField = "pwoejfpwef";
+		assertEquals(1, dao.update(other));
+		Foo result = dao.queryForId(foo.id);
+		assertEquals(0, result.val);
+		assertEquals(other.stringField, result.stringField);
+
+		// the deleted row is not found if something changed
+		assertEquals(1, dao.delete(result));
+		result.val = 12;
+		assertEquals(0, dao.update(result));
+	}
+
+	@Test
+	public void testDirtyTrackingVersion() throws Exception {
+		Dao<VersionField, Integer> dao = createDao(VersionField.class, true);
+		dao.setDirtyTracking(true);
+		VersionField field = new VersionField();
+		field.stuff1 = "stuff";
+		assertEquals(1, dao.create(field));
+		VersionField result1 = dao.queryForId(field.id);
+		VersionField result2 = dao.queryForId(field.id);
+		int version = result1.version;
+
+		// nothing changed but the version is still checked and moved along
+		assertEquals(1, dao.update(result1));
+		assertEquals(version + 1, result1.version);
+		// the other object has the old version so it is not written
+		result2.stuff2 = "other";
+		assertEquals(0, dao.update(result2));
+		assertEquals(0, dao.update(result2));
+		assertNull(dao.queryForId(field.id).stuff2);
+
+		// a deleted row is not found even if nothing changed
+		assertEquals(1, dao.delete(result1));
+		assertEquals(0, dao.update(result1));
+	}
+
+	@Test(expected = SQLException.class)
+	public void testDirtyTrackingNoId() throws Exception {
+		Dao<NoId, Void> dao = createDao(NoId.class, true);
+		dao.setDirtyTracking(true);
+	}
+
+	@Test
+	public void testCreateOrUpdateNativeUpsert() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		dao.setNativeUpsert(true);
+		assertTrue(dao.isNativeUpsert());
+		Foo foo1 = new Foo();
+		foo1.equal = 21313;
+		// the id has not been generated yet so it is created as usual
+		CreateOrUpdateStatus status = dao.createOrUpdate(foo1);
+		assertTrue(status.isCreated());
+		assertEquals(1, status.getNumLinesChanged());
+
+		int equal2 = 4134132;
+		foo1.equal = equal2;
+		status = dao.createOrUpdate(foo1);
+		// h2's merge doesn't say which one it did so we use the separate statements to return the status
+		assertFalse(status.isCreated());
+		assertTrue(status.isUpdated());
+		assertEquals(1, status.getNumLinesChanged());
+		assertEquals(equal2, dao.queryForId(foo1.id).equal);
+
+		Foo foo2 = new Foo();
+		foo2.id = foo1.id + 10;
+		foo2.equal = 12;
+		assertEquals(1, dao.createOrUpdate(foo2).getNumLinesChanged());
+		assertEquals(foo2.equal, dao.queryForId(foo2.id).equal);
+		assertEquals(2, dao.countOf());
+	}
+
+	@Test
+	public void testCreateOrUpdateNativeUpsertReported() throws Exception {
+		createTable(Foo.class, true);
+		DatabaseType databaseType = new H2DatabaseType() {
+			@Override
+			public boolean isUpsertResultReported() {
+				return true;
+			}
+			@Override
+			public boolean isUpsertInsert(int numRowsChanged) {
+				// merge changes 1 row either way so we pretend that it told us about the update
+				return false;
+			}
+		};
+		H2ConnectionSource cs = new H2ConnectionSource();
+		cs.setDatabaseType(databaseType);
+		try {
+			Dao<Foo, Integer> dao = new BaseDaoImpl<Foo, Integer>(cs, Foo.class) {
+			};
+			dao.setNativeUpsert(true);
+			Foo foo = new Foo();
+			assertEquals(1, dao.create(foo));
+			foo.equal = 1312;
+			CreateOrUpdateStatus status = dao.createOrUpdate(foo);
+			assertFalse(status.isCreated());
+			assertTrue(status.isUpdated());
+			assertEquals(1, status.getNumLinesChanged());
+			assertEquals(foo.equal, dao.queryForId(foo.id).equal);
+		} finally {
+			cs.close();
+		}
+	}
+
+	@Test
+	public void testCreateIfNotExistsNativeUpsert() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		dao.setNativeUpsert(true);
+		Foo foo1 = new Foo();
+		foo1.equal = 143;
+		assertSame(foo1, dao.createIfNotExists(foo1));
+		Foo foo2 = new Foo();
+		foo2.id = foo1.id;
+		foo2.equal = 3442;
+		Foo result = dao.createIfNotExists(foo2);
+		assertNotSame(foo2, result);
+		assertEquals(foo1.equal, result.equal);
+	}
+
+	@Test
+	public void testCreateOrUpdateAll() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		Foo foo1 = new Foo();
+		assertEquals(1, dao.create(foo1));
+		foo1.equal = 1231;
+		Foo foo2 = new Foo();
+		foo2.equal = 3254;
+		List<Foo> foos = new ArrayList<Foo>();
+		foos.add(foo1);
+		foos.add(foo2);
+		assertEquals(2, dao.createOrUpdateAll(foos));
+		assertEquals(2, dao.countOf());
+		assertEquals(foo1.equal, dao.queryForId(foo1.id).equal);
+		assertEquals(foo2.equal, dao.queryForId(foo2.id).equal);
+		assertEquals(0, dao.createOrUpdateAll(new ArrayList<Foo>()));
+	}
+
+	@Test
+	public void testCreateOrUpdateAllNativeUpsert() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		dao.setNativeUpsert(true);
+		// more than fit in one statement
+		int numFoos = MappedUpsert.batchSize(databaseType, ((BaseDaoImpl<Foo, Integer>) dao).getTableInfo()) + 10;
+		// half of them exist already
+		for (int i = 0; i < numFoos / 2; i++) {
+			assertEquals(1, dao.create(new Foo()));
+		}
+		List<Foo> foos = new ArrayList<Foo>();
+		for (int i = 1; i <= numFoos; i++) {
+			Foo foo = new Foo();
+			foo.id = i;
+			foo.equal = i + 1000;
+			foos.add(foo);
+		}
+		// the same id again wins over the earlier one
+		Foo dup = new Foo();
+		dup.id = 1;
+		dup.equal = 123123;
+		foos.add(dup);
+		// and one without an id is created
+		Foo noId = new Foo();
+		noId.equal = 4242;
+		foos.add(noId);
+		assertEquals(numFoos + 2, dao.createOrUpdateAll(foos));
+		assertEquals(numFoos + 1, dao.countOf());
+		for (int i = 2; i <= numFoos; i++) {
+			assertEquals(i + 1000, dao.queryForId(i).equal);
+		}
+		assertEquals(dup.equal, dao.queryForId(1).equal);
+		assertEquals(noId.equal, dao.queryForId(noId.id).equal);
+	}
+
 	/* ============================================================================================== */
 
 	private String buildFooQueryAllString(Dao<Foo, Object> fooDao) throws SQLException {
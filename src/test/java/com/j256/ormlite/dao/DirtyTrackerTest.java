@@ -0,0 +1,50 @@
+package com.j256.ormlite.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.j256.ormlite.BaseCoreTest;
+import com.j256.ormlite.field.FieldType;
+
+public class DirtyTrackerTest extends BaseCoreTest {
+
+	@Test
+	public void testSnapshot() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, false);
+		FieldType[] fieldTypes = ((BaseDaoImpl<Foo, Integer>) dao).getTableInfo().getFieldTypes();
+		DirtyTracker tracker = new DirtyTracker();
+		Foo foo = new Foo();
+		foo.val = 12;
+		assertNull(tracker.getSnapshot(foo));
+		tracker.snapshot(foo, fieldTypes);
+		Object[] snapshot = tracker.getSnapshot(foo);
+		assertNotNull(snapshot);
+		assertEquals(fieldTypes.length, snapshot.length);
+		assertEquals(1, tracker.size());
+
+		// equal objects are tracked by identity
+		Foo other = new Foo();
+		assertTrue(foo.equals(other));
+		assertNull(tracker.getSnapshot(other));
+
+		tracker.remove(foo);
+		assertNull(tracker.getSnapshot(foo));
+		assertEquals(0, tracker.size());
+	}
+
+	@Test
+	public void testIsValueUnchanged() {
+		assertTrue(DirtyTracker.isValueUnchanged(null, null));
+		assertFalse(DirtyTracker.isValueUnchanged(null, 1));
+		assertFalse(DirtyTracker.isValueUnchanged(1, null));
+		assertTrue(DirtyTracker.isValueUnchanged("foo", "foo"));
+		assertFalse(DirtyTracker.isValueUnchanged("foo", "bar"));
+		assertTrue(DirtyTracker.isValueUnchanged(new byte[] { 1, 2 }, new byte[] { 1, 2 }));
+		assertFalse(DirtyTracker.isValueUnchanged(new byte[] { 1, 2 }, new byte[] { 1, 3 }));
+	}
+}
@@ -2,7 +2,11 @@ package com.j256.ormlite.dao;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.List;
 
 import org.junit.Test;
 
@@ -58,6 +62,37 @@ public class ForeignObjectTest extends BaseCoreTest {
 		assertEquals(0, questionResult.bestAnswer.question.bestAnswer.val);
 	}
 
+	@Test
+	public void testForeignObjectsSharedInQuery() throws Exception {
+		createDao(Order.class, true);
+		Dao<Question, Object> questionDao = createDao(Question.class, true);
+		Dao<Answer, Object> answerDao = createDao(Answer.class, true);
+
+		Question question = new Question();
+		question.name = "some question";
+		assertEquals(1, questionDao.create(question));
+
+		for (int i = 0; i < 3; i++) {
+			Answer answer = new Answer();
+			answer.val = i;
+			answer.question = question;
+			assertEquals(1, answerDao.create(answer));
+		}
+
+		List<Answer> results = answerDao.queryForAll();
+		assertEquals(3, results.size());
+		Question first = results.get(0).question;
+		assertEquals(question.name, first.name);
+		// rows of the same query share the foreign instance
+		assertSame(first, results.get(1).question);
+		assertSame(first, results.get(2).question);
+
+		// but another query builds its own
+		results = answerDao.queryForAll();
+		assertNotSame(first, results.get(0).question);
+		assertEquals(question.name, results.get(0).question.name);
+	}
+
 	protected static class Question {
 		@DatabaseField(generatedId = true)
 		int id;
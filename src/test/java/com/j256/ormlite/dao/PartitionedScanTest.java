@@ -0,0 +1,146 @@
+package com.j256.ormlite.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.j256.ormlite.BaseCoreTest;
+import com.j256.ormlite.field.DatabaseField;
+
+public class PartitionedScanTest extends BaseCoreTest {
+
+	private ExecutorService executor;
+
+	@Before
+	public void startExecutor() {
+		executor = Executors.newFixedThreadPool(4);
+	}
+
+	@After
+	public void stopExecutor() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testScan() throws Exception {
+		BaseDaoImpl<Foo, Integer> dao = createBaseDao(Foo.class);
+		int numFoos = 101;
+		for (int i = 0; i < numFoos; i++) {
+			Foo foo = new Foo();
+			foo.val = i;
+			assertEquals(1, dao.create(foo));
+		}
+		final ConcurrentHashMap<Integer, Integer> seen = new ConcurrentHashMap<Integer, Integer>();
+		PartitionedScan<Foo, Integer> scan = new PartitionedScan<Foo, Integer>(dao, 4, new ScanHandler<Foo>() {
+			public void handle(int partition, Foo data) {
+				assertEquals(null, seen.put(data.id, partition));
+			}
+		});
+		assertEquals(numFoos, scan.scan(executor));
+		assertEquals(numFoos, seen.size());
+		long total = 0;
+		for (int i = 0; i < scan.getNumPartitions(); i++) {
+			assertTrue(scan.isPartitionDone(i));
+			assertTrue(scan.getRowCount(i) > 0);
+			total += scan.getRowCount(i);
+		}
+		assertEquals(numFoos, total);
+		assertFalse(scan.isCancelled());
+	}
+
+	@Test
+	public void testScanEmpty() throws Exception {
+		BaseDaoImpl<Foo, Integer> dao = createBaseDao(Foo.class);
+		PartitionedScan<Foo, Integer> scan = new PartitionedScan<Foo, Integer>(dao, 3, new ScanHandler<Foo>() {
+			public void handle(int partition, Foo data) {
+				fail("should not be called");
+			}
+		});
+		assertEquals(0, scan.scan(executor));
+		assertTrue(scan.isPartitionDone(2));
+	}
+
+	@Test
+	public void testMorePartitionsThanRows() throws Exception {
+		BaseDaoImpl<Foo, Integer> dao = createBaseDao(Foo.class);
+		assertEquals(1, dao.create(new Foo()));
+		assertEquals(1, dao.create(new Foo()));
+		PartitionedScan<Foo, Integer> scan = new PartitionedScan<Foo, Integer>(dao, 4, new ScanHandler<Foo>() {
+			public void handle(int partition, Foo data) {
+			}
+		});
+		assertEquals(2, scan.scan(executor));
+	}
+
+	@Test
+	public void testHandlerThrows() throws Exception {
+		BaseDaoImpl<Foo, Integer> dao = createBaseDao(Foo.class);
+		for (int i = 0; i < 10; i++) {
+			assertEquals(1, dao.create(new Foo()));
+		}
+		final RuntimeException exception = new RuntimeException("boom");
+		PartitionedScan<Foo, Integer> scan = new PartitionedScan<Foo, Integer>(dao, 2, new ScanHandler<Foo>() {
+			public void handle(int partition, Foo data) {
+				throw exception;
+			}
+		});
+		try {
+			scan.scan(executor);
+			fail("should have thrown");
+		} catch (SQLException e) {
+			assertEquals(exception, e.getCause());
+		}
+		assertTrue(scan.isCancelled());
+	}
+
+	@Test
+	public void testCancel() throws Exception {
+		BaseDaoImpl<Foo, Integer> dao = createBaseDao(Foo.class);
+		for (int i = 0; i < 10; i++) {
+			assertEquals(1, dao.create(new Foo()));
+		}
+		final PartitionedScan<?, ?>[] scanHolder = new PartitionedScan<?, ?>[1];
+		PartitionedScan<Foo, Integer> scan = new PartitionedScan<Foo, Integer>(dao, 1, new ScanHandler<Foo>() {
+			public void handle(int partition, Foo data) {
+				scanHolder[0].cancel();
+			}
+		});
+		scanHolder[0] = scan;
+		try {
+			scan.scan(executor);
+			fail("should have thrown");
+		} catch (SQLException e) {
+			// expected
+		}
+		assertEquals(1, scan.getRowCount(0));
+		assertFalse(scan.isPartitionDone(0));
+	}
+
+	@Test(expected = SQLException.class)
+	public void testStringId() throws Exception {
+		BaseDaoImpl<StringId, String> dao = createBaseDao(StringId.class);
+		new PartitionedScan<StringId, String>(dao, 2, null);
+	}
+
+	private <T, ID> BaseDaoImpl<T, ID> createBaseDao(Class<T> clazz) throws Exception {
+		Dao<T, ID> dao = createDao(clazz, true);
+		return (BaseDaoImpl<T, ID>) dao;
+	}
+
+	protected static class StringId {
+		@DatabaseField(id = true)
+		String id;
+		public StringId() {
+		}
+	}
+}
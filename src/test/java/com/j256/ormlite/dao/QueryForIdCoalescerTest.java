@@ -0,0 +1,208 @@
+package com.j256.ormlite.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.j256.ormlite.BaseCoreTest;
+import com.j256.ormlite.support.ConnectionSource;
+
+public class QueryForIdCoalescerTest extends BaseCoreTest {
+
+	@Test
+	public void testCoalesced() throws Exception {
+		createDao(Foo.class, true);
+		final CountingDao dao = new CountingDao(connectionSource);
+		final Foo[] foos = new Foo[4];
+		for (int i = 0; i < foos.length; i++) {
+			foos[i] = new Foo();
+			foos[i].val = i;
+			assertEquals(1, dao.create(foos[i]));
+		}
+		dao.setObjectCache(new LruObjectCache(16));
+		dao.setQueryForIdCoalescing(true);
+		// the window is long enough that the batch is only run once it is full
+		dao.getQueryForIdCoalescer().setWindowMicros(10000000);
+		dao.getQueryForIdCoalescer().setMaxBatchSize(foos.length);
+
+		ExecutorService pool = Executors.newFixedThreadPool(foos.length);
+		try {
+			Future<?>[] futures = new Future<?>[foos.length];
+			for (int i = 0; i < futures.length; i++) {
+				final Foo foo = foos[i];
+				futures[i] = pool.submit(new Callable<Void>() {
+					public Void call() throws Exception {
+						Foo result = dao.queryForId(foo.id);
+						assertNotNull(result);
+						assertEquals(foo.val, result.val);
+						return null;
+					}
+				});
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+		assertEquals(1, dao.queryForIdsCount.get());
+	}
+
+	@Test
+	public void testWindowExpires() throws Exception {
+		createDao(Foo.class, true);
+		CountingDao dao = new CountingDao(connectionSource);
+		Foo foo = new Foo();
+		assertEquals(1, dao.create(foo));
+		dao.setObjectCache(new LruObjectCache(16));
+		dao.setQueryForIdCoalescing(true);
+		assertEquals(foo.id, dao.queryForId(foo.id).id);
+		assertNull(dao.queryForId(foo.id + 1));
+		assertEquals(2, dao.queryForIdsCount.get());
+	}
+
+	@Test
+	public void testAloneSkipsWindow() throws Exception {
+		createDao(Foo.class, true);
+		CountingDao dao = new CountingDao(connectionSource);
+		Foo foo = new Foo();
+		assertEquals(1, dao.create(foo));
+		dao.setObjectCache(new LruObjectCache(16));
+		dao.setQueryForIdCoalescing(true);
+		// the first batch waits for the window and only gets our id
+		assertEquals(foo.id, dao.queryForId(foo.id).id);
+		dao.getQueryForIdCoalescer().setWindowMicros(100000000);
+		long before = System.currentTimeMillis();
+		assertEquals(foo.id, dao.queryForId(foo.id).id);
+		// no one else is asking so we don't wait the 100 seconds
+		assertTrue(System.currentTimeMillis() - before < 10000);
+		assertEquals(2, dao.queryForIdsCount.get());
+	}
+
+	@Test
+	public void testSameIdShared() throws Exception {
+		createDao(Foo.class, true);
+		final CountingDao dao = new CountingDao(connectionSource);
+		final Foo foo = new Foo();
+		assertEquals(1, dao.create(foo));
+		dao.setObjectCache(new LruObjectCache(16));
+		dao.setQueryForIdCoalescing(true);
+		// the same id doesn't fill the batch so it runs when the window is over
+		dao.getQueryForIdCoalescer().setWindowMicros(500000);
+
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			List<Future<Foo>> futures = new ArrayList<Future<Foo>>();
+			for (int i = 0; i < 2; i++) {
+				futures.add(pool.submit(new Callable<Foo>() {
+					public Foo call() throws Exception {
+						return dao.queryForId(foo.id);
+					}
+				}));
+			}
+			// both callers get the object from the cache
+			assertSame(futures.get(0).get(), futures.get(1).get());
+		} finally {
+			pool.shutdown();
+		}
+		assertEquals(1, dao.queryForIdsCount.get());
+	}
+
+	@Test
+	public void testQueryError() throws Exception {
+		createDao(Foo.class, true);
+		final CountingDao dao = new CountingDao(connectionSource);
+		dao.setObjectCache(new LruObjectCache(16));
+		dao.setQueryForIdCoalescing(true);
+		dao.getQueryForIdCoalescer().setWindowMicros(10000000);
+		dao.getQueryForIdCoalescer().setMaxBatchSize(2);
+		dao.queryForIdsError = new AssertionError("query failed");
+
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			List<Future<Foo>> futures = new ArrayList<Future<Foo>>();
+			for (int i = 0; i < 2; i++) {
+				final int id = i;
+				futures.add(pool.submit(new Callable<Foo>() {
+					public Foo call() throws Exception {
+						return dao.queryForId(id);
+					}
+				}));
+			}
+			// every caller sees the failure, not just the one that ran the batch
+			for (Future<Foo> future : futures) {
+				try {
+					future.get();
+					fail("should have thrown");
+				} catch (ExecutionException e) {
+					assertTrue(e.getCause() instanceof SQLException);
+					assertSame(dao.queryForIdsError, e.getCause().getCause().getCause());
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testNoObjectCache() throws Exception {
+		createDao(Foo.class, true);
+		CountingDao dao = new CountingDao(connectionSource);
+		Foo foo = new Foo();
+		assertEquals(1, dao.create(foo));
+		dao.setQueryForIdCoalescing(true);
+		// without an object cache the callers would share objects so each runs its own query
+		Foo result1 = dao.queryForId(foo.id);
+		Foo result2 = dao.queryForId(foo.id);
+		assertNotSame(result1, result2);
+		assertEquals(0, dao.queryForIdsCount.get());
+	}
+
+	@Test
+	public void testDisabled() throws Exception {
+		CountingDao dao = new CountingDao(connectionSource);
+		assertNull(dao.getQueryForIdCoalescer());
+		dao.setQueryForIdCoalescing(true);
+		assertNotNull(dao.getQueryForIdCoalescer());
+		dao.setQueryForIdCoalescing(false);
+		assertNull(dao.getQueryForIdCoalescer());
+	}
+
+	private static class CountingDao extends BaseDaoImpl<Foo, Integer> {
+
+		final AtomicInteger queryForIdsCount = new AtomicInteger();
+		volatile Error queryForIdsError;
+
+		public CountingDao(ConnectionSource connectionSource) throws SQLException {
+			super(connectionSource, Foo.class);
+			initialize();
+		}
+
+		@Override
+		public Map<Integer, Foo> queryForIds(Collection<Integer> ids) throws SQLException {
+			queryForIdsCount.incrementAndGet();
+			if (queryForIdsError != null) {
+				throw queryForIdsError;
+			}
+			return super.queryForIds(ids);
+		}
+	}
+}
@@ -0,0 +1,172 @@
+package com.j256.ormlite.dao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.j256.ormlite.BaseCoreTest;
+
+public class QueryPublisherTest extends BaseCoreTest {
+
+	@Test
+	public void testRequest() throws Exception {
+		Dao<Foo, Integer> dao = createFoos(0, 5);
+		QueryPublisher<Foo> publisher =
+				new QueryPublisher<Foo>(dao, dao.queryBuilder().orderBy(Foo.VAL_COLUMN_NAME, true).prepare());
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		publisher.subscribe(subscriber);
+		assertEquals(0, subscriber.vals.size());
+
+		subscriber.subscription.request(2);
+		assertEquals(2, subscriber.vals.size());
+		assertFalse(subscriber.completed);
+
+		subscriber.subscription.request(3);
+		assertEquals(5, subscriber.vals.size());
+		// the end of the results is only seen once more is requested
+		assertFalse(subscriber.completed);
+		subscriber.subscription.request(1);
+		assertTrue(subscriber.completed);
+		assertNull(subscriber.error);
+		for (int i = 0; i < 5; i++) {
+			assertEquals(i, (int) subscriber.vals.get(i));
+		}
+	}
+
+	@Test
+	public void testRequestFromOnNext() throws Exception {
+		Dao<Foo, Integer> dao = createFoos(0, 4);
+		QueryPublisher<Foo> publisher = new QueryPublisher<Foo>(dao, dao.queryBuilder().prepare());
+		RecordingSubscriber subscriber = new RecordingSubscriber() {
+			@Override
+			public void onNext(Foo data) {
+				super.onNext(data);
+				// one at a time which must not recurse
+				subscription.request(1);
+			}
+		};
+		publisher.subscribe(subscriber);
+		subscriber.subscription.request(1);
+		assertEquals(4, subscriber.vals.size());
+		assertTrue(subscriber.completed);
+	}
+
+	@Test
+	public void testCancel() throws Exception {
+		Dao<Foo, Integer> dao = createFoos(0, 5);
+		QueryPublisher<Foo> publisher = new QueryPublisher<Foo>(dao, dao.queryBuilder().prepare());
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		publisher.subscribe(subscriber);
+		subscriber.subscription.request(2);
+		subscriber.subscription.cancel();
+		subscriber.subscription.request(2);
+		assertEquals(2, subscriber.vals.size());
+		assertFalse(subscriber.completed);
+		assertNull(subscriber.error);
+	}
+
+	@Test
+	public void testOnNextThrows() throws Exception {
+		Dao<Foo, Integer> dao = createFoos(0, 3);
+		QueryPublisher<Foo> publisher = new QueryPublisher<Foo>(dao, dao.queryBuilder().prepare());
+		final RuntimeException thrown = new RuntimeException("broken");
+		RecordingSubscriber subscriber = new RecordingSubscriber() {
+			@Override
+			public void onNext(Foo data) {
+				super.onNext(data);
+				throw thrown;
+			}
+		};
+		publisher.subscribe(subscriber);
+		subscriber.subscription.request(3);
+		// the exception goes to the subscriber and the results are closed
+		assertEquals(1, subscriber.vals.size());
+		assertEquals(thrown, subscriber.error);
+		subscriber.subscription.request(1);
+		assertEquals(1, subscriber.vals.size());
+	}
+
+	@Test
+	public void testLastIteratorUntouched() throws Exception {
+		Dao<Foo, Integer> dao = createFoos(0, 3);
+		CloseableIterator<Foo> iterator = dao.iterator();
+		try {
+			QueryPublisher<Foo> publisher = new QueryPublisher<Foo>(dao, dao.queryBuilder().prepare());
+			RecordingSubscriber subscriber = new RecordingSubscriber();
+			publisher.subscribe(subscriber);
+			subscriber.subscription.request(1);
+			// the DAO's last iterator is still ours
+			dao.closeLastIterator();
+			assertFalse(iterator.hasNext());
+			subscriber.subscription.request(3);
+			assertEquals(3, subscriber.vals.size());
+			assertTrue(subscriber.completed);
+		} finally {
+			iterator.closeQuietly();
+		}
+	}
+
+	@Test
+	public void testBadRequest() throws Exception {
+		Dao<Foo, Integer> dao = createFoos(0, 1);
+		QueryPublisher<Foo> publisher = new QueryPublisher<Foo>(dao, dao.queryBuilder().prepare());
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		publisher.subscribe(subscriber);
+		subscriber.subscription.request(0);
+		assertTrue(subscriber.error instanceof IllegalArgumentException);
+		subscriber.subscription.request(1);
+		assertEquals(0, subscriber.vals.size());
+	}
+
+	@Test
+	public void testExecutor() throws Exception {
+		Dao<Foo, Integer> dao = createFoos(0, 10);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			QueryPublisher<Foo> publisher = new QueryPublisher<Foo>(dao, dao.queryBuilder().prepare(), executor);
+			final CountDownLatch latch = new CountDownLatch(1);
+			RecordingSubscriber subscriber = new RecordingSubscriber() {
+				@Override
+				public void onComplete() {
+					super.onComplete();
+					latch.countDown();
+				}
+			};
+			publisher.subscribe(subscriber);
+			subscriber.subscription.request(Long.MAX_VALUE);
+			assertTrue(latch.await(10, TimeUnit.SECONDS));
+			assertEquals(10, subscriber.vals.size());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static class RecordingSubscriber implements QuerySubscriber<Foo> {
+		QuerySubscription subscription;
+		final List<Integer> vals = new ArrayList<Integer>();
+		volatile boolean completed;
+		volatile Throwable error;
+		public void onSubscribe(QuerySubscription subscription) {
+			this.subscription = subscription;
+		}
+		public void onNext(Foo data) {
+			vals.add(data.val);
+		}
+		public void onError(Throwable throwable) {
+			this.error = throwable;
+		}
+		public void onComplete() {
+			completed = true;
+		}
+	}
+}
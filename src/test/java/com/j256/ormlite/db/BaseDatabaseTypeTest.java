@@ -1,6 +1,7 @@
 package com.j256.ormlite.db;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
@@ -12,6 +13,7 @@ import org.junit.Test;
 
 import com.j256.ormlite.BaseCoreTest;
 import com.j256.ormlite.field.DataPersisterManager;
+import com.j256.ormlite.field.FieldType;
 
 public class BaseDatabaseTypeTest extends BaseCoreTest {
 
@@ -33,6 +35,38 @@ public class BaseDatabaseTypeTest extends BaseCoreTest {
 		assertEquals("SELECT 1", databaseType.getPingStatement());
 	}
 
+	@Test
+	public void testUpsert() throws Exception {
+		DatabaseType databaseType = new TestDatabaseType();
+		assertFalse(databaseType.isUpsertSupported());
+		assertFalse(databaseType.isInsertIfNotExistsSupported());
+		assertFalse(databaseType.isUpsertResultReported());
+		assertTrue(databaseType.isUpsertInsert(1));
+		assertFalse(databaseType.isUpsertInsert(2));
+		FieldType[] fieldTypes =
+				new FieldType[] {
+						FieldType.createFieldType(connectionSource, "foo", Foo.class.getField("id"), Foo.class),
+						FieldType.createFieldType(connectionSource, "foo", Foo.class.getField("val"), Foo.class),
+						FieldType.createFieldType(connectionSource, "foo", Foo.class.getField("equal"), Foo.class) };
+		StringBuilder sb = new StringBuilder();
+		databaseType.appendUpsert(sb, "foo", fieldTypes, fieldTypes[0], 1);
+		assertEquals("INSERT INTO `foo` (`id`,`val`,`equal`) VALUES (?,?,?) "
+				+ "ON CONFLICT (`id`) DO UPDATE SET `val` = EXCLUDED.`val`,`equal` = EXCLUDED.`equal`", sb.toString());
+		sb.setLength(0);
+		databaseType.appendUpsert(sb, "foo", fieldTypes, fieldTypes[0], 2);
+		assertEquals("INSERT INTO `foo` (`id`,`val`,`equal`) VALUES (?,?,?),(?,?,?) "
+				+ "ON CONFLICT (`id`) DO UPDATE SET `val` = EXCLUDED.`val`,`equal` = EXCLUDED.`equal`", sb.toString());
+		sb.setLength(0);
+		databaseType.appendInsertIfNotExists(sb, "foo", fieldTypes, fieldTypes[0]);
+		assertEquals("INSERT INTO `foo` (`id`,`val`,`equal`) VALUES (?,?,?) ON CONFLICT (`id`) DO NOTHING",
+				sb.toString());
+	}
+
+	@Test
+	public void testMaxQueryParameters() {
+		assertEquals(999, new TestDatabaseType().getMaxQueryParameters());
+	}
+
 	@Test
 	public void testUnknownClass() throws Exception {
 		assertNull(DataPersisterManager.lookupForField(SomeFields.class.getDeclaredField("someFields")));
@@ -70,6 +70,53 @@ public class BaseSqliteDatabaseTypeTest extends BaseCoreTest {
 		assertSame(DataType.STRING.getDataPersister(), dbType.getFieldConverter(DataType.STRING.getDataPersister()));
 	}
 
+	@Test
+	public void testUpsert() throws Exception {
+		OurSqliteDatabaseType dbType = new OurSqliteDatabaseType();
+		// we don't know the version yet
+		assertFalse(dbType.isUpsertSupported());
+		dbType.setSqliteVersion("3.24.0");
+		assertTrue(dbType.isUpsertSupported());
+		FieldType[] fieldTypes = buildFooFieldTypes();
+		StringBuilder sb = new StringBuilder();
+		dbType.appendUpsert(sb, "foo", fieldTypes, fieldTypes[0], 1);
+		assertEquals("INSERT INTO `foo` (`id`,`val`) VALUES (?,?) ON CONFLICT (`id`) DO UPDATE SET `val` = EXCLUDED.`val`",
+				sb.toString());
+	}
+
+	@Test
+	public void testInsertIfNotExists() throws Exception {
+		OurSqliteDatabaseType dbType = new OurSqliteDatabaseType();
+		assertFalse(dbType.isInsertIfNotExistsSupported());
+		dbType.setSqliteVersion("3.31.1");
+		assertTrue(dbType.isInsertIfNotExistsSupported());
+		FieldType[] fieldTypes = buildFooFieldTypes();
+		StringBuilder sb = new StringBuilder();
+		dbType.appendInsertIfNotExists(sb, "foo", fieldTypes, fieldTypes[0]);
+		assertEquals("INSERT INTO `foo` (`id`,`val`) VALUES (?,?) ON CONFLICT (`id`) DO NOTHING", sb.toString());
+	}
+
+	@Test
+	public void testSqliteVersion() {
+		OurSqliteDatabaseType dbType = new OurSqliteDatabaseType();
+		dbType.setSqliteVersion("3.23.1");
+		assertFalse(dbType.isUpsertSupported());
+		dbType.setSqliteVersion("4.0");
+		assertTrue(dbType.isUpsertSupported());
+		dbType.setSqliteVersion("3");
+		assertFalse(dbType.isUpsertSupported());
+		dbType.setSqliteVersion("unknown");
+		assertFalse(dbType.isUpsertSupported());
+		dbType.setSqliteVersion(null);
+		assertFalse(dbType.isUpsertSupported());
+	}
+
+	private FieldType[] buildFooFieldTypes() throws Exception {
+		return new FieldType[] {
+				FieldType.createFieldType(connectionSource, "foo", Foo.class.getField("id"), Foo.class),
+				FieldType.createFieldType(connectionSource, "foo", Foo.class.getField("val"), Foo.class) };
+	}
+
 	private static class OurSqliteDatabaseType extends BaseSqliteDatabaseType {
 		public boolean isDatabaseUrlThisType(String url, String dbTypePart) {
 			return false;
@@ -67,6 +67,10 @@ public class H2CompiledStatement implements CompiledStatement {
 		preparedStatement.setMaxRows(max);
 	}
 
+	public void setFetchSize(int fetchSize) throws SQLException {
+		preparedStatement.setFetchSize(fetchSize);
+	}
+
 	public void setQueryTimeout(long millis) throws SQLException {
 		preparedStatement.setQueryTimeout(Long.valueOf(millis).intValue() / 1000);
 	}
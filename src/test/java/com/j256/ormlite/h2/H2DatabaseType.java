@@ -65,4 +65,27 @@ public class H2DatabaseType extends BaseDatabaseType implements DatabaseType {
 	public boolean isCreateIfNotExistsSupported() {
 		return true;
 	}
+
+	@Override
+	public boolean isUpsertSupported() {
+		return true;
+	}
+
+	@Override
+	public void appendUpsert(StringBuilder sb, String tableName, FieldType[] fieldTypes, FieldType idField,
+			int numRows) {
+		sb.append("MERGE INTO ");
+		appendEscapedEntityName(sb, tableName);
+		sb.append(" (");
+		for (int i = 0; i < fieldTypes.length; i++) {
+			if (i > 0) {
+				sb.append(',');
+			}
+			appendEscapedEntityName(sb, fieldTypes[i].getColumnName());
+		}
+		sb.append(") KEY (");
+		appendEscapedEntityName(sb, idField.getColumnName());
+		sb.append(") VALUES ");
+		appendRowArgs(sb, fieldTypes.length, numRows);
+	}
 }
@@ -0,0 +1,198 @@
+package com.j256.ormlite.stmt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.j256.ormlite.BaseCoreTest;
+import com.j256.ormlite.dao.CloseableIterator;
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.dao.EagerForeignCollection;
+import com.j256.ormlite.dao.ForeignCollection;
+import com.j256.ormlite.dao.LazyForeignCollection;
+import com.j256.ormlite.field.DatabaseField;
+import com.j256.ormlite.field.ForeignCollectionField;
+import com.j256.ormlite.stmt.FetchPlan.FetchMode;
+
+public class FetchPlanTest extends BaseCoreTest {
+
+	@Test
+	public void testNoPlan() throws Exception {
+		Dao<Purchase, Integer> purchaseDao = createPurchases();
+		Purchase result = purchaseDao.queryForAll().get(0);
+		// per the field settings
+		assertEquals("customer1", result.customer.name);
+		assertNull(result.referrer.name);
+	}
+
+	@Test
+	public void testShell() throws Exception {
+		Dao<Purchase, Integer> purchaseDao = createPurchases();
+		FetchPlan plan = new FetchPlan().fetch("customer", FetchMode.SHELL);
+		List<Purchase> results = purchaseDao.queryBuilder().setFetchPlan(plan).query();
+		assertEquals(3, results.size());
+		Purchase result = results.get(0);
+		assertEquals(1, result.customer.id);
+		// the auto-refresh was turned off for this query
+		assertNull(result.customer.name);
+	}
+
+	@Test
+	public void testSelect() throws Exception {
+		Dao<Purchase, Integer> purchaseDao = createPurchases();
+		FetchPlan plan = new FetchPlan().fetch("referrer", FetchMode.SELECT);
+		List<Purchase> results = purchaseDao.queryBuilder().setFetchPlan(plan).query();
+		assertEquals("customer2", results.get(0).referrer.name);
+		assertEquals("customer1", results.get(0).customer.name);
+	}
+
+	@Test
+	public void testBatch() throws Exception {
+		Dao<Purchase, Integer> purchaseDao = createPurchases();
+		FetchPlan plan = new FetchPlan().setDefaultMode(FetchMode.BATCH);
+		List<Purchase> results = purchaseDao.queryBuilder().orderBy("id", true).setFetchPlan(plan).query();
+		assertEquals(3, results.size());
+		assertEquals("customer1", results.get(0).customer.name);
+		assertEquals("customer2", results.get(0).referrer.name);
+		assertEquals("customer2", results.get(2).customer.name);
+		// all rows share the foreign objects
+		assertSame(results.get(0).customer, results.get(1).customer);
+		assertSame(results.get(0).referrer, results.get(2).customer);
+		// the shell's collection was built with it as the parent
+		assertTrue(results.get(0).customer.purchases instanceof LazyForeignCollection);
+		assertEquals(2, results.get(0).customer.purchases.size());
+	}
+
+	@Test
+	public void testBatchIterator() throws Exception {
+		Dao<Purchase, Integer> purchaseDao = createPurchases();
+		FetchPlan plan = new FetchPlan().fetch("referrer", FetchMode.BATCH);
+		CloseableIterator<Purchase> iterator = purchaseDao.queryBuilder().setFetchPlan(plan).iterator();
+		try {
+			assertTrue(iterator.hasNext());
+			Purchase first = iterator.next();
+			assertEquals("customer2", first.referrer.name);
+			// the rows are handed out one at a time so the referrer is selected, and only once
+			assertTrue(iterator.hasNext());
+			assertSame(first.referrer, iterator.next().referrer);
+		} finally {
+			iterator.close();
+		}
+	}
+
+	@Test
+	public void testBatchFirst() throws Exception {
+		Dao<Purchase, Integer> purchaseDao = createPurchases();
+		FetchPlan plan = new FetchPlan().fetch("referrer", FetchMode.BATCH);
+		Purchase result = purchaseDao.queryBuilder().setFetchPlan(plan).queryForFirst();
+		assertEquals("customer2", result.referrer.name);
+	}
+
+	@Test
+	public void testBatchLevelContinues() throws Exception {
+		Dao<Node, Integer> dao = createDao(Node.class, true);
+		Node parent = null;
+		for (int i = 1; i <= 3; i++) {
+			Node node = new Node();
+			node.name = "node" + i;
+			node.parent = parent;
+			assertEquals(1, dao.create(node));
+			parent = node;
+		}
+		FetchPlan plan = new FetchPlan().fetch("parent", FetchMode.BATCH);
+		Node result = dao.queryBuilder().setFetchPlan(plan).where().eq("id", 3).queryForFirst();
+		assertEquals("node2", result.parent.name);
+		// the batch loaded parent is at level 1 so its own parent is not refreshed
+		assertEquals(1, result.parent.parent.id);
+		assertNull(result.parent.parent.name);
+	}
+
+	@Test
+	public void testCollection() throws Exception {
+		Dao<Customer, Integer> customerDao = createDao(Customer.class, true);
+		createPurchases(customerDao);
+		Customer result = customerDao.queryForId(1);
+		assertTrue(result.purchases instanceof LazyForeignCollection);
+
+		PreparedQuery<Customer> preparedQuery = customerDao.queryBuilder().prepare();
+		preparedQuery.setFetchPlan(new FetchPlan().fetch("purchases", FetchMode.SELECT));
+		result = customerDao.queryForFirst(preparedQuery);
+		assertTrue(result.purchases instanceof EagerForeignCollection);
+		assertEquals(2, result.purchases.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownField() throws Exception {
+		Dao<Purchase, Integer> purchaseDao = createDao(Purchase.class, true);
+		purchaseDao.queryBuilder().setFetchPlan(new FetchPlan().fetch("unknown", FetchMode.SHELL)).prepare();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNotForeign() throws Exception {
+		Dao<Purchase, Integer> purchaseDao = createDao(Purchase.class, true);
+		purchaseDao.queryBuilder().setFetchPlan(new FetchPlan().fetch("id", FetchMode.SHELL)).prepare();
+	}
+
+	private Dao<Purchase, Integer> createPurchases() throws Exception {
+		Dao<Customer, Integer> customerDao = createDao(Customer.class, true);
+		return createPurchases(customerDao);
+	}
+
+	private Dao<Purchase, Integer> createPurchases(Dao<Customer, Integer> customerDao) throws Exception {
+		Dao<Purchase, Integer> purchaseDao = createDao(Purchase.class, true);
+		Customer customer1 = new Customer();
+		customer1.name = "customer1";
+		assertEquals(1, customerDao.create(customer1));
+		Customer customer2 = new Customer();
+		customer2.name = "customer2";
+		assertEquals(1, customerDao.create(customer2));
+		for (int i = 0; i < 3; i++) {
+			Purchase purchase = new Purchase();
+			purchase.customer = (i < 2 ? customer1 : customer2);
+			purchase.referrer = customer2;
+			assertEquals(1, purchaseDao.create(purchase));
+		}
+		return purchaseDao;
+	}
+
+	protected static class Customer {
+		@DatabaseField(generatedId = true)
+		int id;
+		@DatabaseField
+		String name;
+		@ForeignCollectionField(foreignFieldName = "customer")
+		ForeignCollection<Purchase> purchases;
+
+		public Customer() {
+		}
+	}
+
+	protected static class Node {
+		@DatabaseField(generatedId = true)
+		int id;
+		@DatabaseField
+		String name;
+		@DatabaseField(foreign = true, foreignAutoRefresh = true, maxForeignAutoRefreshLevel = 1)
+		Node parent;
+
+		public Node() {
+		}
+	}
+
+	protected static class Purchase {
+		@DatabaseField(generatedId = true)
+		int id;
+		@DatabaseField(foreign = true, foreignAutoRefresh = true)
+		Customer customer;
+		@DatabaseField(foreign = true)
+		Customer referrer;
+
+		public Purchase() {
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package com.j256.ormlite.stmt;
+
+import static org.easymock.EasyMock.createMock;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.j256.ormlite.support.DatabaseConnection;
+
+public class MappingContextTest {
+
+	@Test
+	public void testConnection() {
+		assertNull(new MappingContext().getConnection());
+		DatabaseConnection conn = createMock(DatabaseConnection.class);
+		assertSame(conn, new MappingContext(conn).getConnection());
+	}
+
+	@Test
+	public void testAutoRefreshLevel() {
+		MappingContext context = new MappingContext();
+		assertFalse(context.isAutoRefreshLevelReached(2));
+		context.incrementAutoRefreshLevel();
+		// the max is only recorded at level 0
+		assertFalse(context.isAutoRefreshLevelReached(1));
+		context.incrementAutoRefreshLevel();
+		assertTrue(context.isAutoRefreshLevelReached(10));
+		context.decrementAutoRefreshLevel();
+		context.decrementAutoRefreshLevel();
+		assertTrue(context.isAutoRefreshLevelReached(0));
+	}
+
+	@Test
+	public void testForeignCollectionLevel() {
+		MappingContext context = new MappingContext();
+		assertFalse(context.isForeignCollectionLevelReached(1));
+		context.incrementForeignCollectionLevel();
+		assertTrue(context.isForeignCollectionLevelReached(5));
+		context.decrementForeignCollectionLevel();
+		assertFalse(context.isForeignCollectionLevelReached(5));
+	}
+
+	@Test
+	public void testForeignObjects() {
+		MappingContext context = new MappingContext();
+		Object shell = new Object();
+		assertNull(context.getForeignObject(Object.class, 1, true));
+		context.putForeignObject(Object.class, 1, true, shell);
+		assertSame(shell, context.getForeignObject(Object.class, 1, true));
+		// a shell won't do if we need a refreshed object
+		assertNull(context.getForeignObject(Object.class, 1, false));
+		assertNull(context.getForeignObject(Object.class, 2, true));
+
+		Object refreshed = new Object();
+		context.putForeignObject(Object.class, 2, false, refreshed);
+		assertSame(refreshed, context.getForeignObject(Object.class, 2, false));
+		// but a refreshed object will do for a shell
+		assertSame(refreshed, context.getForeignObject(Object.class, 2, true));
+		// not if it was refreshed at another level
+		context.incrementAutoRefreshLevel();
+		assertNull(context.getForeignObject(Object.class, 2, false));
+	}
+
+	@Test
+	public void testForeignObjectsMax() {
+		MappingContext context = new MappingContext(null, 2);
+		context.putForeignObject(Object.class, 1, true, new Object());
+		context.putForeignObject(Object.class, 2, true, new Object());
+		context.putForeignObject(Object.class, 3, true, new Object());
+		assertNull(context.getForeignObject(Object.class, 1, true));
+		assertNotNull(context.getForeignObject(Object.class, 3, true));
+
+		context = new MappingContext(null, 0);
+		context.putForeignObject(Object.class, 1, true, new Object());
+		assertNull(context.getForeignObject(Object.class, 1, true));
+	}
+}
@@ -0,0 +1,173 @@
+package com.j256.ormlite.stmt;
+
+import static org.easymock.EasyMock.createMock;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.sql.SQLException;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.j256.ormlite.WrappedConnectionSource;
+import com.j256.ormlite.dao.BaseDaoImpl;
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.field.DatabaseField;
+import com.j256.ormlite.field.FieldType;
+import com.j256.ormlite.field.SqlType;
+import com.j256.ormlite.field.types.StringType;
+import com.j256.ormlite.support.ConnectionSource;
+import com.j256.ormlite.support.DatabaseConnection;
+import com.j256.ormlite.support.DatabaseResults;
+
+public class PrefetchIteratorTest extends BaseCoreStmtTest {
+
+	private ExecutorService executor;
+
+	@Before
+	public void startExecutor() {
+		executor = Executors.newSingleThreadExecutor();
+	}
+
+	@After
+	public void stopExecutor() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testIterator() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		int numFoos = 50;
+		for (int i = 0; i < numFoos; i++) {
+			Foo foo = new Foo();
+			foo.val = i;
+			assertEquals(1, dao.create(foo));
+		}
+		// buffer smaller than the results so the background thread has to wait for us
+		PrefetchIterator<Foo> iterator =
+				dao.prefetchIterator(dao.queryBuilder().orderBy(Foo.VAL_COLUMN_NAME, true).prepare(), 4, executor);
+		for (int i = 0; i < numFoos; i++) {
+			assertTrue(iterator.hasNext());
+			assertEquals(i, iterator.next().val);
+		}
+		assertFalse(iterator.hasNext());
+		assertNull(iterator.nextThrow());
+		try {
+			iterator.next();
+			fail("should have thrown");
+		} catch (NoSuchElementException e) {
+			// expected
+		}
+		iterator.close();
+	}
+
+	@Test
+	public void testEmpty() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		PrefetchIterator<Foo> iterator = dao.prefetchIterator(dao.queryBuilder().prepare(), 2, executor);
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void testCloseEarly() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		for (int i = 0; i < 10; i++) {
+			assertEquals(1, dao.create(new Foo()));
+		}
+		PrefetchIterator<Foo> iterator = dao.prefetchIterator(dao.queryBuilder().prepare(), 1, executor);
+		assertTrue(iterator.hasNext());
+		iterator.next();
+		iterator.close();
+		assertFalse(iterator.hasNext());
+		// the background thread stops once it sees that we are closed
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testQueryFails() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		PreparedQuery<Foo> preparedQuery = dao.queryBuilder().prepare();
+		dropTable(Foo.class, true);
+		try {
+			PrefetchIterator<Foo> iterator = dao.prefetchIterator(preparedQuery, 2, executor);
+			iterator.hasNextThrow();
+			fail("should have thrown");
+		} catch (SQLException e) {
+			// expected
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void testMappingError() throws Exception {
+		Dao<ErrorMapping, Integer> dao = createDao(ErrorMapping.class, true);
+		assertEquals(1, dao.create(new ErrorMapping()));
+		PrefetchIterator<ErrorMapping> iterator = dao.prefetchIterator(dao.queryBuilder().prepare(), 2, executor);
+		try {
+			iterator.hasNextThrow();
+			fail("should have thrown");
+		} catch (SQLException e) {
+			// expected
+			assertTrue(e.getCause().getCause() instanceof AssertionError);
+		}
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test(expected = SQLException.class)
+	public void testSpecialConnection() throws Exception {
+		createDao(Foo.class, true);
+		final DatabaseConnection special = createMock(DatabaseConnection.class);
+		// as if the thread was in a transaction
+		ConnectionSource cs = new WrappedConnectionSource(connectionSource) {
+			@Override
+			public DatabaseConnection getSpecialConnection() {
+				return special;
+			}
+		};
+		Dao<Foo, Integer> dao = new BaseDaoImpl<Foo, Integer>(cs, Foo.class) {
+		};
+		dao.prefetchIterator(dao.queryBuilder().prepare(), 2, executor);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBadBufferSize() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		dao.prefetchIterator(dao.queryBuilder().prepare(), 0, executor);
+	}
+
+	protected static class ErrorMapping {
+		@DatabaseField(generatedId = true)
+		int id;
+		@DatabaseField(persisterClass = ErrorStringType.class)
+		String stuff;
+
+		public ErrorMapping() {
+		}
+	}
+
+	protected static class ErrorStringType extends StringType {
+
+		private static final ErrorStringType singleton = new ErrorStringType();
+
+		public static ErrorStringType getSingleton() {
+			return singleton;
+		}
+
+		private ErrorStringType() {
+			super(SqlType.STRING, new Class<?>[0]);
+		}
+
+		@Override
+		public Object resultToSqlArg(FieldType fieldType, DatabaseResults results, int columnPos) {
+			throw new AssertionError("mapping the row failed");
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package com.j256.ormlite.stmt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.j256.ormlite.BaseCoreTest;
+import com.j256.ormlite.dao.CloseableIterator;
+import com.j256.ormlite.dao.Dao;
+
+public class QueryBindingsTest extends BaseCoreTest {
+
+	@Test
+	public void testPositional() throws Exception {
+		Dao<Foo, Integer> dao = createFoos(1, 4);
+		PreparedQuery<Foo> query =
+				dao.queryBuilder().where().ge(Foo.VAL_COLUMN_NAME, new SelectArg()).and()
+						.le(Foo.VAL_COLUMN_NAME, new SelectArg()).prepare();
+		assertEquals(2, dao.query(query, QueryBindings.of(2, 3)).size());
+		assertEquals(4, dao.query(query, QueryBindings.of(1, 4)).size());
+		assertEquals(3, dao.queryForFirst(query, new QueryBindings().set(0, 3).set(1, 10)).val);
+	}
+
+	@Test
+	public void testIteratorCountExists() throws Exception {
+		Dao<Foo, Integer> dao = createFoos(1, 4);
+		PreparedQuery<Foo> query = dao.queryBuilder().where().ge(Foo.VAL_COLUMN_NAME, new SelectArg()).prepare();
+		CloseableIterator<Foo> iterator = dao.iterator(query, QueryBindings.of(3));
+		try {
+			assertTrue(iterator.hasNext());
+			assertEquals(3, iterator.next().val);
+			assertTrue(iterator.hasNext());
+			assertEquals(4, iterator.next().val);
+			assertFalse(iterator.hasNext());
+		} finally {
+			iterator.close();
+		}
+
+		PreparedQuery<Foo> countQuery =
+				dao.queryBuilder().setCountOf(true).where().ge(Foo.VAL_COLUMN_NAME, new SelectArg()).prepare();
+		assertEquals(2, dao.countOf(countQuery, QueryBindings.of(3)));
+		assertEquals(4, dao.countOf(countQuery, QueryBindings.of(1)));
+
+		assertTrue(dao.exists(query, QueryBindings.of(4)));
+		assertFalse(dao.exists(query, QueryBindings.of(5)));
+	}
+
+	@Test
+	public void testNamed() throws Exception {
+		Dao<Foo, Integer> dao = createFoos(1, 4);
+		PreparedQuery<Foo> query = dao.queryBuilder().where().eq(Foo.STRING_COLUMN_NAME, new SelectArg()).prepare();
+		assertEquals(2, dao.queryForFirst(query, new QueryBindings().set(Foo.STRING_COLUMN_NAME, "foo2")).val);
+		assertNull(dao.queryForFirst(query, new QueryBindings().set(Foo.STRING_COLUMN_NAME, "unknown")));
+	}
+
+	@Test
+	public void testArgumentHolderValue() throws Exception {
+		Dao<Foo, Integer> dao = createFoos(1, 4);
+		PreparedQuery<Foo> query =
+				dao.queryBuilder().where().ge(Foo.VAL_COLUMN_NAME, new SelectArg(2)).and()
+						.le(Foo.VAL_COLUMN_NAME, new SelectArg()).prepare();
+		// the first argument is not bound so it uses the value in its holder
+		assertEquals(2, dao.query(query, new QueryBindings().set(1, 3)).size());
+	}
+
+	@Test(expected = SQLException.class)
+	public void testNotSet() throws Exception {
+		Dao<Foo, Integer> dao = createFoos(1, 4);
+		PreparedQuery<Foo> query = dao.queryBuilder().where().eq(Foo.VAL_COLUMN_NAME, new SelectArg()).prepare();
+		dao.query(query, new QueryBindings());
+	}
+
+	@Test(expected = SQLException.class)
+	public void testTooManyValues() throws Exception {
+		Dao<Foo, Integer> dao = createFoos(1, 4);
+		PreparedQuery<Foo> query = dao.queryBuilder().where().eq(Foo.VAL_COLUMN_NAME, new SelectArg()).prepare();
+		dao.query(query, QueryBindings.of(1, 2));
+	}
+
+	@Test(expected = SQLException.class)
+	public void testUnknownName() throws Exception {
+		Dao<Foo, Integer> dao = createFoos(1, 4);
+		PreparedQuery<Foo> query = dao.queryBuilder().where().eq(Foo.VAL_COLUMN_NAME, new SelectArg()).prepare();
+		dao.query(query, new QueryBindings().set(Foo.STRING_COLUMN_NAME, "foo1"));
+	}
+
+	@Test
+	public void testSharedByThreads() throws Exception {
+		final Dao<Foo, Integer> dao = createFoos(1, 4);
+		final PreparedQuery<Foo> query =
+				dao.queryBuilder().where().eq(Foo.VAL_COLUMN_NAME, new SelectArg()).prepare();
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			Future<?>[] futures = new Future<?>[4];
+			for (int i = 0; i < futures.length; i++) {
+				final int val = i + 1;
+				futures[i] = pool.submit(new Callable<Void>() {
+					public Void call() throws Exception {
+						for (int j = 0; j < 100; j++) {
+							List<Foo> results = dao.query(query, QueryBindings.of(val));
+							assertEquals(1, results.size());
+							assertEquals(val, results.get(0).val);
+						}
+						return null;
+					}
+				});
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
@@ -1,8 +1,17 @@
 package com.j256.ormlite.stmt;
 
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.eq;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.isA;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.reset;
+import static org.easymock.EasyMock.verify;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -13,10 +22,15 @@ import java.util.List;
 
 import org.junit.Test;
 
+import com.j256.ormlite.dao.CloseableIterator;
 import com.j256.ormlite.dao.Dao;
 import com.j256.ormlite.db.BaseDatabaseType;
 import com.j256.ormlite.field.DatabaseField;
+import com.j256.ormlite.field.FieldType;
 import com.j256.ormlite.field.SqlType;
+import com.j256.ormlite.stmt.StatementBuilder.StatementType;
+import com.j256.ormlite.support.CompiledStatement;
+import com.j256.ormlite.support.DatabaseConnection;
 
 public class QueryBuilderTest extends BaseCoreStmtTest {
 
@@ -437,6 +451,265 @@ public class QueryBuilderTest extends BaseCoreStmtTest {
 		assertEquals(2, fooDao.countOf(fooQb.prepare()));
 	}
 
+	@Test
+	public void testExistsStatement() throws Exception {
+		QueryBuilder<Foo, Integer> qb = new QueryBuilder<Foo, Integer>(databaseType, baseFooTableInfo, null);
+		qb.setExists(true);
+		StringBuilder sb = new StringBuilder();
+		sb.append("SELECT 1 FROM ");
+		databaseType.appendEscapedEntityName(sb, baseFooTableInfo.getTableName());
+		sb.append(" LIMIT 1 ");
+		assertEquals(sb.toString(), qb.prepareStatementString());
+	}
+
+	@Test
+	public void testExists() throws Exception {
+		Dao<Foo, String> dao = createDao(Foo.class, true);
+		assertFalse(dao.queryBuilder().exists());
+		Foo foo1 = new Foo();
+		foo1.val = 1;
+		assertEquals(1, dao.create(foo1));
+		Foo foo2 = new Foo();
+		foo2.val = 2;
+		assertEquals(1, dao.create(foo2));
+
+		assertTrue(dao.queryBuilder().exists());
+		assertTrue(dao.queryBuilder().where().eq(Foo.VAL_COLUMN_NAME, 2).exists());
+		assertFalse(dao.queryBuilder().where().gt(Foo.VAL_COLUMN_NAME, 2).exists());
+		// any prepared query can be checked
+		assertTrue(dao.exists(dao.queryBuilder().where().ge(Foo.VAL_COLUMN_NAME, 1).prepare()));
+		assertFalse(dao.exists(dao.queryBuilder().where().ge(Foo.VAL_COLUMN_NAME, 3).prepare()));
+	}
+
+	@Test
+	public void testExistsThenOtherQueries() throws Exception {
+		Dao<Foo, String> dao = createDao(Foo.class, true);
+		Foo foo1 = new Foo();
+		foo1.val = 1;
+		assertEquals(1, dao.create(foo1));
+		Foo foo2 = new Foo();
+		foo2.val = 2;
+		assertEquals(1, dao.create(foo2));
+
+		QueryBuilder<Foo, String> qb = dao.queryBuilder();
+		assertTrue(qb.exists());
+		// the exists flag doesn't stick to the builder
+		assertEquals(2, qb.query().size());
+		assertEquals(2, qb.countOf());
+		assertEquals(3, qb.aggregateLong(AggregateFunction.SUM, Foo.VAL_COLUMN_NAME));
+
+		// setting another kind of result turns off the exists flag
+		qb = dao.queryBuilder();
+		qb.setExists(true);
+		assertEquals(2, qb.countOf());
+	}
+
+	@Test
+	public void testAggregateStatement() throws Exception {
+		QueryBuilder<Foo, Integer> qb = new QueryBuilder<Foo, Integer>(databaseType, baseFooTableInfo, null);
+		qb.groupBy(Foo.EQUAL_COLUMN_NAME);
+		qb.setAggregate(AggregateFunction.SUM, Foo.VAL_COLUMN_NAME);
+		StringBuilder sb = new StringBuilder();
+		sb.append("SELECT ");
+		databaseType.appendEscapedEntityName(sb, Foo.EQUAL_COLUMN_NAME);
+		sb.append(", SUM(");
+		databaseType.appendEscapedEntityName(sb, Foo.VAL_COLUMN_NAME);
+		sb.append(") FROM ");
+		databaseType.appendEscapedEntityName(sb, baseFooTableInfo.getTableName());
+		sb.append(" GROUP BY ");
+		databaseType.appendEscapedEntityName(sb, Foo.EQUAL_COLUMN_NAME);
+		sb.append(' ');
+		assertEquals(sb.toString(), qb.prepareStatementString());
+	}
+
+	@Test
+	public void testAggregate() throws Exception {
+		Dao<Foo, String> dao = createDao(Foo.class, true);
+		assertEquals(0, dao.queryBuilder().aggregateLong(AggregateFunction.COUNT, null));
+		AggregateResults results = dao.queryBuilder().queryAggregate(AggregateFunction.SUM, Foo.VAL_COLUMN_NAME);
+		assertEquals(1, results.size());
+		assertTrue(results.isNull(0));
+
+		for (int i = 1; i <= 5; i++) {
+			Foo foo = new Foo();
+			foo.val = i;
+			foo.equal = i % 2;
+			assertEquals(1, dao.create(foo));
+		}
+		assertEquals(5, dao.queryBuilder().aggregateLong(AggregateFunction.COUNT, null));
+		assertEquals(15, dao.queryBuilder().aggregateLong(AggregateFunction.SUM, Foo.VAL_COLUMN_NAME));
+		assertEquals(1, dao.queryBuilder().aggregateLong(AggregateFunction.MIN, Foo.VAL_COLUMN_NAME));
+		assertEquals(5, dao.queryBuilder().aggregateLong(AggregateFunction.MAX, Foo.VAL_COLUMN_NAME));
+		QueryBuilder<Foo, String> qb = dao.queryBuilder();
+		qb.where().gt(Foo.VAL_COLUMN_NAME, 2);
+		assertEquals(4.0, qb.aggregateDouble(AggregateFunction.AVG, Foo.VAL_COLUMN_NAME), 0.0);
+
+		qb = dao.queryBuilder();
+		qb.groupBy(Foo.EQUAL_COLUMN_NAME).orderBy(Foo.EQUAL_COLUMN_NAME, true);
+		results = qb.queryAggregate(AggregateFunction.SUM, Foo.VAL_COLUMN_NAME);
+		assertEquals(2, results.size());
+		assertEquals(1, results.getNumGroupColumns());
+		assertEquals(0, results.getGroupValue(0, 0));
+		assertEquals(6, results.getLong(0));
+		assertEquals(1, results.getGroupValue(1, 0));
+		assertEquals(9, results.getLong(1));
+		assertFalse(results.isNull(1));
+	}
+
+	@Test(expected = SQLException.class)
+	public void testAggregateLongWithGroupBy() throws Exception {
+		Dao<Foo, String> dao = createDao(Foo.class, true);
+		dao.queryBuilder().groupBy(Foo.EQUAL_COLUMN_NAME).aggregateLong(AggregateFunction.COUNT, null);
+	}
+
+	@Test
+	public void testAggregateThenOtherQueries() throws Exception {
+		Dao<Foo, String> dao = createDao(Foo.class, true);
+		Foo foo1 = new Foo();
+		foo1.val = 1;
+		assertEquals(1, dao.create(foo1));
+		Foo foo2 = new Foo();
+		foo2.val = 2;
+		assertEquals(1, dao.create(foo2));
+
+		QueryBuilder<Foo, String> qb = dao.queryBuilder();
+		assertEquals(3, qb.aggregateLong(AggregateFunction.SUM, Foo.VAL_COLUMN_NAME));
+		// the aggregate function doesn't stick to the builder
+		assertEquals(2, qb.query().size());
+		assertEquals(2, qb.countOf());
+
+		// one set by the caller is put back
+		qb = dao.queryBuilder();
+		qb.setAggregate(AggregateFunction.MAX, Foo.VAL_COLUMN_NAME);
+		assertEquals(1, qb.aggregateLong(AggregateFunction.MIN, Foo.VAL_COLUMN_NAME));
+		assertEquals(2, dao.queryForAggregate(qb.prepare()).getLong(0));
+	}
+
+	@Test
+	public void testColumnarStatement() throws Exception {
+		QueryBuilder<Foo, Integer> qb = new QueryBuilder<Foo, Integer>(databaseType, baseFooTableInfo, null);
+		qb.setColumnar(Foo.VAL_COLUMN_NAME, Foo.EQUAL_COLUMN_NAME);
+		StringBuilder sb = new StringBuilder();
+		sb.append("SELECT ");
+		databaseType.appendEscapedEntityName(sb, Foo.VAL_COLUMN_NAME);
+		sb.append(", ");
+		databaseType.appendEscapedEntityName(sb, Foo.EQUAL_COLUMN_NAME);
+		sb.append(" FROM ");
+		databaseType.appendEscapedEntityName(sb, baseFooTableInfo.getTableName());
+		sb.append(' ');
+		assertEquals(sb.toString(), qb.prepareStatementString());
+	}
+
+	@Test
+	public void testColumnar() throws Exception {
+		Dao<Sample, Integer> dao = createDao(Sample.class, true);
+		// enough rows to grow the buffers past their initial size
+		int numRows = 200;
+		for (int i = 0; i < numRows; i++) {
+			Sample sample = new Sample();
+			sample.count = i * 1000000000L;
+			if (i % 3 != 0) {
+				sample.weight = i / 2.0;
+			}
+			sample.flag = (i % 2 == 0);
+			assertEquals(1, dao.create(sample));
+		}
+		QueryBuilder<Sample, Integer> qb = dao.queryBuilder();
+		qb.orderBy(Sample.ID_FIELD, true);
+		ColumnarResults results = qb.queryColumnar(Sample.COUNT_FIELD, Sample.WEIGHT_FIELD, Sample.FLAG_FIELD);
+		assertEquals(numRows, results.size());
+		assertEquals(3, results.getNumColumns());
+		assertEquals(Sample.WEIGHT_FIELD, results.getColumnName(1));
+		assertEquals(ColumnarResults.ColumnType.LONG, results.getColumnType(0));
+		assertEquals(ColumnarResults.ColumnType.DOUBLE, results.getColumnType(1));
+		assertEquals(ColumnarResults.ColumnType.BOOLEAN_INT, results.getColumnType(2));
+		long[] counts = results.getLongs(0);
+		double[] weights = results.getDoubles(1);
+		int[] flags = results.getInts(2);
+		for (int i = 0; i < numRows; i++) {
+			assertEquals(i * 1000000000L, counts[i]);
+			assertFalse(results.isNull(i, 0));
+			if (i % 3 == 0) {
+				assertTrue(results.isNull(i, 1));
+				assertEquals(0.0, weights[i], 0.0);
+			} else {
+				assertFalse(results.isNull(i, 1));
+				assertEquals(i / 2.0, weights[i], 0.0);
+			}
+			assertEquals((i % 2 == 0 ? 1 : 0), flags[i]);
+		}
+
+		qb.where().lt(Sample.ID_FIELD, 0);
+		assertEquals(0, qb.queryColumnar(Sample.COUNT_FIELD).size());
+	}
+
+	@Test(expected = SQLException.class)
+	public void testColumnarNotNumeric() throws Exception {
+		Dao<Foo, String> dao = createDao(Foo.class, true);
+		dao.queryBuilder().queryColumnar(Foo.STRING_COLUMN_NAME);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testColumnarWrongArrayType() throws Exception {
+		Dao<Foo, String> dao = createDao(Foo.class, true);
+		dao.queryBuilder().queryColumnar(Foo.VAL_COLUMN_NAME).getLongs(0);
+	}
+
+	@Test
+	public void testColumnarThenOtherQueries() throws Exception {
+		Dao<Foo, String> dao = createDao(Foo.class, true);
+		Foo foo1 = new Foo();
+		foo1.val = 1;
+		assertEquals(1, dao.create(foo1));
+		Foo foo2 = new Foo();
+		foo2.val = 2;
+		assertEquals(1, dao.create(foo2));
+
+		QueryBuilder<Foo, String> qb = dao.queryBuilder();
+		assertEquals(2, qb.queryColumnar(Foo.VAL_COLUMN_NAME).size());
+		// the columns don't stick to the builder
+		assertEquals(2, qb.query().size());
+		assertEquals(2, qb.countOf());
+	}
+
+	@Test
+	public void testFetchSize() throws Exception {
+		Dao<Foo, String> dao = createDao(Foo.class, true);
+		for (int i = 0; i < 10; i++) {
+			assertEquals(1, dao.create(new Foo()));
+		}
+		QueryBuilder<Foo, String> qb = dao.queryBuilder();
+		qb.setFetchSize(3);
+		DatabaseConnection conn = createMock(DatabaseConnection.class);
+		CompiledStatement stmt = createMock(CompiledStatement.class);
+		expect(conn.compileStatement(isA(String.class), eq(StatementType.SELECT), isA(FieldType[].class),
+				eq(DatabaseConnection.DEFAULT_RESULT_FLAGS))).andReturn(stmt);
+		stmt.setFetchSize(3);
+		replay(conn, stmt);
+		assertSame(stmt, qb.prepare().compile(conn, StatementType.SELECT));
+		verify(conn, stmt);
+
+		CloseableIterator<Foo> iterator = qb.iterator();
+		try {
+			int count = 0;
+			while (iterator.hasNext()) {
+				assertNotNull(iterator.next());
+				count++;
+			}
+			assertEquals(10, count);
+		} finally {
+			iterator.close();
+		}
+		qb.clear();
+		// no fetch size is set on the statement after the clear
+		reset(conn, stmt);
+		expect(conn.compileStatement(isA(String.class), eq(StatementType.SELECT), isA(FieldType[].class),
+				eq(DatabaseConnection.DEFAULT_RESULT_FLAGS))).andReturn(stmt);
+		replay(conn, stmt);
+		assertSame(stmt, qb.prepare().compile(conn, StatementType.SELECT));
+		verify(conn, stmt);
+	}
+
 	@Test
 	public void testBaseClassComparison() throws Exception {
 		Dao<Bar, String> barDao = createDao(Bar.class, true);
@@ -889,6 +1162,78 @@ public class QueryBuilderTest extends BaseCoreStmtTest {
 		assertEquals(foo1.val, results.get(1).val);
 	}
 
+	@Test
+	public void testQueryPage() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		for (int i = 0; i < 7; i++) {
+			Foo foo = new Foo();
+			// duplicate values so the id is needed to break ties
+			foo.val = i / 2;
+			assertEquals(1, dao.create(foo));
+		}
+		QueryBuilder<Foo, Integer> qb = dao.queryBuilder();
+		qb.orderBy(Foo.VAL_COLUMN_NAME, false);
+		List<Foo> all = new ArrayList<Foo>();
+		String token = null;
+		int pageCount = 0;
+		do {
+			KeysetPage<Foo> page = qb.queryPage(token, 3);
+			assertTrue(page.getResults().size() <= 3);
+			all.addAll(page.getResults());
+			token = page.getContinuationToken();
+			pageCount++;
+		} while (token != null);
+		assertEquals(3, pageCount);
+		assertEquals(7, all.size());
+		List<Foo> expected = dao.queryBuilder().orderBy(Foo.VAL_COLUMN_NAME, false).orderBy(Foo.ID_COLUMN_NAME, true)
+				.query();
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).id, all.get(i).id);
+		}
+		// the builder was left as it was
+		assertEquals(7, qb.query().size());
+	}
+
+	@Test
+	public void testQueryPageWhere() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		for (int i = 0; i < 5; i++) {
+			Foo foo = new Foo();
+			foo.val = i;
+			foo.stringField = "foo" + i;
+			assertEquals(1, dao.create(foo));
+		}
+		dao.setSqlTemplateCaching(true);
+		QueryBuilder<Foo, Integer> qb = dao.queryBuilder();
+		qb.where().gt(Foo.VAL_COLUMN_NAME, 0);
+		KeysetPage<Foo> page = qb.queryPage(null, 2);
+		assertEquals(2, page.getResults().size());
+		assertFalse(page.isLastPage());
+		page = qb.where().gt(Foo.VAL_COLUMN_NAME, 0).queryPage(page.getContinuationToken(), 2);
+		assertEquals(2, page.getResults().size());
+		assertEquals(3, page.getResults().get(0).val);
+		assertTrue(page.isLastPage());
+		assertNull(page.getContinuationToken());
+	}
+
+	@Test(expected = SQLException.class)
+	public void testQueryPageBadToken() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		dao.queryBuilder().queryPage("bad", 10);
+	}
+
+	@Test(expected = SQLException.class)
+	public void testQueryPageWrongColumns() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		for (int i = 0; i < 3; i++) {
+			assertEquals(1, dao.create(new Foo()));
+		}
+		String token = dao.queryBuilder().queryPage(null, 1).getContinuationToken();
+		assertNotNull(token);
+		// the token has 1 value but we are now ordering by 2 columns
+		dao.queryBuilder().orderBy(Foo.VAL_COLUMN_NAME, true).queryPage(token, 1);
+	}
+
 	/* ======================================================================================================== */
 
 	private static class LimitInline extends BaseDatabaseType {
@@ -943,6 +1288,23 @@ public class QueryBuilderTest extends BaseCoreStmtTest {
 		}
 	}
 
+	protected static class Sample {
+		public static final String ID_FIELD = "id";
+		public static final String COUNT_FIELD = "count";
+		public static final String WEIGHT_FIELD = "weight";
+		public static final String FLAG_FIELD = "flag";
+		@DatabaseField(generatedId = true, columnName = ID_FIELD)
+		int id;
+		@DatabaseField(columnName = COUNT_FIELD)
+		long count;
+		@DatabaseField(columnName = WEIGHT_FIELD)
+		Double weight;
+		@DatabaseField(columnName = FLAG_FIELD)
+		boolean flag;
+		public Sample() {
+		}
+	}
+
 	protected static class Reserved {
 		public static final String FIELD_NAME_GROUP = "group";
 		@DatabaseField(generatedId = true)
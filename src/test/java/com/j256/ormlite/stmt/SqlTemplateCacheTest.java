@@ -0,0 +1,191 @@
+package com.j256.ormlite.stmt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.j256.ormlite.BaseCoreTest;
+import com.j256.ormlite.dao.Dao;
+
+public class SqlTemplateCacheTest extends BaseCoreTest {
+
+	@Test
+	public void testSameShape() throws Exception {
+		Dao<Foo, Integer> dao = createFoos(1, 4);
+		dao.setSqlTemplateCaching(true);
+		SqlTemplateCache cache = dao.getSqlTemplateCache();
+
+		PreparedQuery<Foo> query1 = prepareByVal(dao, 1);
+		assertEquals(1, cache.size());
+		PreparedQuery<Foo> query2 = prepareByVal(dao, 2);
+		assertEquals(1, cache.size());
+		// the SQL came from the cache
+		assertSame(query1.getStatement(), query2.getStatement());
+
+		List<Foo> results = dao.query(query1);
+		assertEquals(1, results.size());
+		assertEquals(1, results.get(0).val);
+		results = dao.query(query2);
+		assertEquals(1, results.size());
+		assertEquals(2, results.get(0).val);
+	}
+
+	@Test
+	public void testDifferentShape() throws Exception {
+		Dao<Foo, Integer> dao = createFoos(1, 4);
+		dao.setSqlTemplateCaching(true);
+		PreparedQuery<Foo> query1 = prepareByVal(dao, 1);
+		PreparedQuery<Foo> query2 = dao.queryBuilder().where().ge(Foo.VAL_COLUMN_NAME, 2).prepare();
+		assertNotSame(query1.getStatement(), query2.getStatement());
+		assertEquals(2, dao.getSqlTemplateCache().size());
+		assertEquals(3, dao.query(query2).size());
+
+		// a limit is a different shape
+		dao.queryBuilder().limit(1L).where().eq(Foo.VAL_COLUMN_NAME, 1).prepare();
+		assertEquals(3, dao.getSqlTemplateCache().size());
+	}
+
+	@Test
+	public void testLimitOffset() throws Exception {
+		Dao<Foo, Integer> dao = createFoos(1, 4);
+		dao.setSqlTemplateCaching(true);
+		for (long limit = 1; limit <= 3; limit++) {
+			for (long offset = 0; offset < 2; offset++) {
+				List<Foo> results = dao.queryBuilder()
+						.orderBy(Foo.VAL_COLUMN_NAME, true)
+						.limit(limit)
+						.offset(offset)
+						.where()
+						.ge(Foo.VAL_COLUMN_NAME, 1)
+						.query();
+				assertEquals(limit, results.size());
+				assertEquals(offset + 1, results.get(0).val);
+			}
+		}
+		// the values of the limit and offset do not make new shapes
+		assertEquals(1, dao.getSqlTemplateCache().size());
+	}
+
+	@Test
+	public void testIn() throws Exception {
+		Dao<Foo, Integer> dao = createFoos(1, 4);
+		dao.setSqlTemplateCaching(true);
+		assertEquals(2, dao.queryBuilder().where().in(Foo.VAL_COLUMN_NAME, 1, 3).query().size());
+		assertEquals(2, dao.queryBuilder().where().in(Foo.VAL_COLUMN_NAME, Arrays.asList(2, 4)).query().size());
+		assertEquals(1, dao.getSqlTemplateCache().size());
+		// lists are padded so a different number of values still has the same shape
+		assertEquals(3, dao.queryBuilder().where().in(Foo.VAL_COLUMN_NAME, 1, 2, 3).query().size());
+		assertEquals(1, dao.getSqlTemplateCache().size());
+	}
+
+	@Test
+	public void testInBuckets() throws Exception {
+		Dao<Foo, Integer> dao = createFoos(1, 4);
+		dao.setSqlTemplateCaching(true);
+		PreparedQuery<Foo> query = dao.queryBuilder().where().in(Foo.VAL_COLUMN_NAME, 4).prepare();
+		assertEquals(8, countArgs(query.getStatement()));
+		assertEquals(1, dao.query(query).size());
+
+		Integer[] vals = new Integer[9];
+		for (int i = 0; i < vals.length; i++) {
+			vals[i] = i + 1;
+		}
+		query = dao.queryBuilder().where().in(Foo.VAL_COLUMN_NAME, (Object[]) vals).prepare();
+		assertEquals(32, countArgs(query.getStatement()));
+		assertEquals(4, dao.query(query).size());
+		assertEquals(2, dao.getSqlTemplateCache().size());
+	}
+
+	@Test
+	public void testInTooManyValues() throws Exception {
+		Dao<Foo, Integer> dao = createFoos(1, 4);
+		dao.setSqlTemplateCaching(true);
+		Integer[] vals = new Integer[InListSizes.MAX_BUCKET_SIZE + 1];
+		for (int i = 0; i < vals.length; i++) {
+			vals[i] = i + 1;
+		}
+		PreparedQuery<Foo> query = dao.queryBuilder().where().in(Foo.VAL_COLUMN_NAME, (Object[]) vals).prepare();
+		// the values are in the SQL and not cached
+		assertEquals(0, countArgs(query.getStatement()));
+		assertEquals(4, dao.query(query).size());
+		assertEquals(0, dao.getSqlTemplateCache().size());
+	}
+
+	@Test
+	public void testAndOr() throws Exception {
+		Dao<Foo, Integer> dao = createFoos(1, 4);
+		dao.setSqlTemplateCaching(true);
+		for (int i = 1; i <= 3; i++) {
+			Where<Foo, Integer> where = dao.queryBuilder().where();
+			where.eq(Foo.VAL_COLUMN_NAME, i);
+			where.ge(Foo.VAL_COLUMN_NAME, 3);
+			where.eq(Foo.STRING_COLUMN_NAME, "foo" + i);
+			where.and(2).or(2);
+			List<Foo> results = where.query();
+			assertEquals(1, results.size());
+			assertEquals(i, results.get(0).val);
+		}
+		assertEquals(1, dao.getSqlTemplateCache().size());
+	}
+
+	@Test
+	public void testSelectArg() throws Exception {
+		Dao<Foo, Integer> dao = createFoos(1, 4);
+		dao.setSqlTemplateCaching(true);
+		SelectArg arg = new SelectArg(2);
+		PreparedQuery<Foo> query = dao.queryBuilder().where().eq(Foo.VAL_COLUMN_NAME, arg).prepare();
+		assertEquals(2, dao.queryForFirst(query).val);
+		// a new arg with the same shape picks up the column information
+		arg = new SelectArg(3);
+		query = dao.queryBuilder().where().eq(Foo.VAL_COLUMN_NAME, arg).prepare();
+		assertEquals(3, dao.queryForFirst(query).val);
+		assertEquals(1, dao.getSqlTemplateCache().size());
+	}
+
+	@Test
+	public void testNotCached() throws Exception {
+		Dao<Foo, Integer> dao = createFoos(1, 4);
+		dao.setSqlTemplateCaching(true);
+		QueryBuilder<Foo, Integer> inner = dao.queryBuilder().selectColumns(Foo.ID_COLUMN_NAME);
+		inner.where().eq(Foo.VAL_COLUMN_NAME, 1);
+		assertEquals(1, dao.queryBuilder().where().in(Foo.ID_COLUMN_NAME, inner).query().size());
+		assertEquals(0, dao.getSqlTemplateCache().size());
+	}
+
+	@Test
+	public void testDisabled() throws Exception {
+		Dao<Foo, Integer> dao = createFoos(1, 4);
+		assertNull(dao.getSqlTemplateCache());
+		// the value is inlined as before
+		QueryBuilder<Foo, Integer> qb = dao.queryBuilder();
+		qb.where().eq(Foo.VAL_COLUMN_NAME, 1);
+		assertEquals(-1, qb.prepareStatementString().indexOf('?'));
+
+		dao.setSqlTemplateCaching(true);
+		qb = dao.queryBuilder();
+		qb.where().eq(Foo.VAL_COLUMN_NAME, 1);
+		assertEquals(qb.prepareStatementString().length() - 2, qb.prepareStatementString().indexOf('?'));
+		dao.setSqlTemplateCaching(false);
+		assertNull(dao.getSqlTemplateCache());
+	}
+
+	private PreparedQuery<Foo> prepareByVal(Dao<Foo, Integer> dao, int val) throws Exception {
+		return dao.queryBuilder().orderBy(Foo.ID_COLUMN_NAME, true).where().eq(Foo.VAL_COLUMN_NAME, val).prepare();
+	}
+
+	private int countArgs(String statement) {
+		int count = 0;
+		for (int i = 0; i < statement.length(); i++) {
+			if (statement.charAt(i) == '?') {
+				count++;
+			}
+		}
+		return count;
+	}
+}
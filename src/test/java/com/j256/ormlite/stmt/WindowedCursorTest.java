@@ -0,0 +1,141 @@
+package com.j256.ormlite.stmt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.j256.ormlite.dao.Dao;
+
+public class WindowedCursorTest extends BaseCoreStmtTest {
+
+	@Test
+	public void testSequential() throws Exception {
+		Dao<Foo, Integer> dao = createFoos(0, 10);
+		WindowedCursor<Foo> cursor = dao.queryBuilder().windowedCursor(3, 2);
+		assertEquals(-1, cursor.getPosition());
+		assertNull(cursor.current());
+		for (int i = 0; i < 10; i++) {
+			Foo foo = cursor.next();
+			assertEquals(i, foo.val);
+			assertEquals(i, cursor.getPosition());
+		}
+		assertNull(cursor.next());
+		// 4 pages and the last one tells us the size
+		assertEquals(4, cursor.getPageQueryCount());
+		assertEquals(10, cursor.size());
+		assertEquals(4, cursor.getPageQueryCount());
+	}
+
+	@Test
+	public void testRandomAccess() throws Exception {
+		Dao<Foo, Integer> dao = createFoos(0, 20);
+		WindowedCursor<Foo> cursor = dao.queryBuilder().windowedCursor(4, 2);
+		assertEquals(20, cursor.size());
+		assertEquals(13, cursor.get(13).val);
+		assertEquals(1, cursor.getPageQueryCount());
+		// same page is cached
+		assertEquals(12, cursor.get(12).val);
+		assertEquals(15, cursor.get(15).val);
+		assertEquals(1, cursor.getPageQueryCount());
+		assertEquals(2, cursor.moveAbsolute(2).val);
+		assertEquals(2, cursor.getPageQueryCount());
+		assertEquals(5, cursor.moveRelative(3).val);
+		assertEquals(4, cursor.previous().val);
+		assertEquals(3, cursor.previous().val);
+		assertEquals(3, cursor.current().val);
+		assertEquals(0, cursor.first().val);
+		// page 1 pushed out page 3
+		assertEquals(3, cursor.getPageQueryCount());
+		assertEquals(13, cursor.get(13).val);
+		assertEquals(4, cursor.getPageQueryCount());
+		assertNull(cursor.previous());
+		assertEquals(-1, cursor.getPosition());
+		assertNull(cursor.get(20));
+		assertNull(cursor.moveAbsolute(100));
+	}
+
+	@Test
+	public void testSequentialAfterJump() throws Exception {
+		final Dao<Foo, Integer> dao = createFoos(0, 20);
+		final AtomicInteger windowCount = new AtomicInteger();
+		QueryBuilder<Foo, Integer> qb = new QueryBuilder<Foo, Integer>(databaseType, baseFooTableInfo, dao) {
+			@Override
+			List<Foo> queryWindow(long startRow, long maxRows) throws SQLException {
+				windowCount.incrementAndGet();
+				return super.queryWindow(startRow, maxRows);
+			}
+		};
+		WindowedCursor<Foo> cursor = qb.windowedCursor(4, 10);
+		// jumping to page 2 needs an offset
+		assertEquals(9, cursor.get(9).val);
+		assertEquals(1, windowCount.get());
+		// but the pages after it use the continuation token from the page before
+		for (int i = 10; i < 20; i++) {
+			assertEquals(i, cursor.get(i).val);
+		}
+		assertNull(cursor.get(20));
+		assertEquals(3, cursor.getPageQueryCount());
+		assertEquals(1, windowCount.get());
+	}
+
+	@Test
+	public void testOrderByAndWhere() throws Exception {
+		Dao<Foo, Integer> dao = createFoos(0, 10);
+		QueryBuilder<Foo, Integer> qb = dao.queryBuilder();
+		qb.orderBy(Foo.VAL_COLUMN_NAME, false).where().lt(Foo.VAL_COLUMN_NAME, 7);
+		WindowedCursor<Foo> cursor = qb.windowedCursor(2, 1);
+		assertEquals(7, cursor.size());
+		assertEquals(6, cursor.get(0).val);
+		assertEquals(3, cursor.get(3).val);
+		assertEquals(0, cursor.get(6).val);
+		assertNull(cursor.get(7));
+		cursor.clearCache();
+		assertEquals(5, cursor.get(1).val);
+		assertEquals(7, cursor.size());
+		// the offset and limit are put back after the page queries
+		assertEquals(7, qb.query().size());
+	}
+
+	@Test
+	public void testBuilderUnchanged() throws Exception {
+		Dao<Foo, Integer> dao = createFoos(0, 10);
+		QueryBuilder<Foo, Integer> qb = dao.queryBuilder();
+		qb.where().lt(Foo.VAL_COLUMN_NAME, 7);
+		String statement = qb.prepareStatementString();
+		WindowedCursor<Foo> cursor = qb.windowedCursor(2, 1);
+		assertEquals(7, cursor.size());
+		// sequential pages use keyset pagination and the jump uses an offset
+		assertEquals(0, cursor.get(0).val);
+		assertEquals(2, cursor.get(2).val);
+		assertEquals(5, cursor.get(5).val);
+		// the id order-by of the cursor doesn't stay on the builder
+		assertEquals(statement, qb.prepareStatementString());
+		qb.orderBy(Foo.VAL_COLUMN_NAME, false);
+		assertEquals(6, qb.query().get(0).val);
+	}
+
+	@Test
+	public void testEmpty() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		WindowedCursor<Foo> cursor = dao.queryBuilder().windowedCursor(5, 1);
+		assertNull(cursor.first());
+		assertEquals(0, cursor.size());
+	}
+
+	@Test(expected = SQLException.class)
+	public void testWithLimit() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		dao.queryBuilder().limit(10L).windowedCursor(5, 1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBadPageSize() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		dao.queryBuilder().windowedCursor(0, 1);
+	}
+}
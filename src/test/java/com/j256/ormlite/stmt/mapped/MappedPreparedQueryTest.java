@@ -1,6 +1,11 @@
 package com.j256.ormlite.stmt.mapped;
 
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -102,6 +107,27 @@ public class MappedPreparedQueryTest extends BaseCoreTest {
 		}
 	}
 
+	@Test
+	public void testFetchSize() throws Exception {
+		TableInfo<LocalFoo, Integer> tableInfo =
+				new TableInfo<LocalFoo, Integer>(connectionSource, null, LocalFoo.class);
+		String statement = "select * from " + TABLE_NAME;
+		FieldType[] argFieldTypes = new FieldType[0];
+		MappedPreparedStmt<LocalFoo, Integer> preparedQuery =
+				new MappedPreparedStmt<LocalFoo, Integer>(tableInfo, statement, argFieldTypes,
+						tableInfo.getFieldTypes(), new ArgumentHolder[0], null, StatementType.SELECT);
+		preparedQuery.setFetchSize(100);
+
+		DatabaseConnection conn = createMock(DatabaseConnection.class);
+		CompiledStatement stmt = createMock(CompiledStatement.class);
+		expect(conn.compileStatement(statement, StatementType.SELECT, argFieldTypes,
+				DatabaseConnection.DEFAULT_RESULT_FLAGS)).andReturn(stmt);
+		stmt.setFetchSize(100);
+		replay(conn, stmt);
+		assertSame(stmt, preparedQuery.compile(conn, StatementType.SELECT));
+		verify(conn, stmt);
+	}
+
 	@Test(expected = IllegalArgumentException.class)
 	public void testObjectNoConstructor() throws SQLException {
 		new MappedPreparedStmt<NoConstructor, Void>(new TableInfo<NoConstructor, Void>(connectionSource, null,
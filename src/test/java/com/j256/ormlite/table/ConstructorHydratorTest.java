@@ -0,0 +1,233 @@
+package com.j256.ormlite.table;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.j256.ormlite.BaseCoreTest;
+import com.j256.ormlite.dao.BaseDaoImpl;
+import com.j256.ormlite.dao.Dao;
+import com.j256.ormlite.field.DatabaseField;
+
+public class ConstructorHydratorTest extends BaseCoreTest {
+
+	@Test
+	public void testImmutableEntity() throws Exception {
+		Dao<Immutable, Integer> dao = createDao(Immutable.class, true);
+		assertNotNull(((BaseDaoImpl<Immutable, Integer>) dao).getTableInfo()
+				.getConstructorHydrator());
+		Immutable immutable = new Immutable(1, "pwoejfpwef", 23);
+		assertEquals(1, dao.create(immutable));
+
+		Immutable result = dao.queryForId(immutable.id);
+		assertNotNull(result);
+		assertEquals(immutable.id, result.id);
+		assertEquals(immutable.name, result.name);
+		assertEquals(immutable.val, result.val);
+
+		List<Immutable> results = dao.queryForAll();
+		assertEquals(1, results.size());
+		assertEquals(immutable.name, results.get(0).name);
+	}
+
+	@Test
+	public void testImmutableEntityPartialColumns() throws Exception {
+		Dao<Immutable, Integer> dao = createDao(Immutable.class, true);
+		Immutable immutable = new Immutable(1, "pwoejfpwef", 23);
+		assertEquals(1, dao.create(immutable));
+
+		List<Immutable> results = dao.queryBuilder().selectColumns("name").query();
+		assertEquals(1, results.size());
+		assertEquals(immutable.id, results.get(0).id);
+		assertEquals(immutable.name, results.get(0).name);
+		// not selected so it gets the default
+		assertEquals(0, results.get(0).val);
+	}
+
+	@Test
+	public void testFactoryMethod() throws Exception {
+		Dao<Factoried, Integer> dao = createDao(Factoried.class, true);
+		assertEquals(1, dao.create(Factoried.create(1, "wow")));
+		Factoried.factoryCalls = 0;
+		Factoried result = dao.queryForId(1);
+		assertEquals("wow", result.name);
+		assertEquals(1, Factoried.factoryCalls);
+	}
+
+	@Test
+	public void testForeignAutoRefresh() throws Exception {
+		Dao<Immutable, Integer> dao = createDao(Immutable.class, true);
+		Dao<ImmutableForeign, Integer> foreignDao = createDao(ImmutableForeign.class, true);
+		Immutable immutable = new Immutable(1, "pwoejfpwef", 23);
+		assertEquals(1, dao.create(immutable));
+		assertEquals(1, foreignDao.create(new ImmutableForeign(2, immutable)));
+		assertEquals(1, foreignDao.create(new ImmutableForeign(3, immutable)));
+
+		List<ImmutableForeign> results = foreignDao.queryForAll();
+		assertEquals(2, results.size());
+		assertEquals(immutable.name, results.get(0).immutable.name);
+		assertSame(results.get(0).immutable, results.get(1).immutable);
+	}
+
+	@Test
+	public void testForeignShell() throws Exception {
+		Dao<Immutable, Integer> dao = createDao(Immutable.class, true);
+		Dao<ShellForeign, Integer> foreignDao = createDao(ShellForeign.class, true);
+		Immutable immutable = new Immutable(1, "pwoejfpwef", 23);
+		assertEquals(1, dao.create(immutable));
+		ShellForeign shellForeign = new ShellForeign();
+		shellForeign.immutable = immutable;
+		assertEquals(1, foreignDao.create(shellForeign));
+
+		ShellForeign result = foreignDao.queryForId(shellForeign.id);
+		// the shell is created with the constructor and only has its id
+		assertEquals(immutable.id, result.immutable.id);
+		assertNull(result.immutable.name);
+		assertEquals(0, result.immutable.val);
+
+		// the rest of it can be queried for with its id
+		assertEquals(immutable.name, dao.queryForSameId(result.immutable).name);
+	}
+
+	@Test
+	public void testQueryInto() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		Foo foo = new Foo();
+		foo.val = 1231;
+		foo.stringField = "owjfepowjf";
+		assertEquals(1, dao.create(foo));
+
+		List<FooProjection> results =
+				dao.queryBuilder().selectColumns(Foo.VAL_COLUMN_NAME, Foo.STRING_COLUMN_NAME).queryInto(
+						FooProjection.class);
+		assertEquals(1, results.size());
+		assertEquals(foo.val, results.get(0).val);
+		assertEquals(foo.stringField, results.get(0).stringField);
+
+		List<FooIdProjection> idResults =
+				dao.queryInto(dao.queryBuilder().selectColumns(Foo.ID_COLUMN_NAME).prepare(), FooIdProjection.class);
+		assertEquals(1, idResults.size());
+		assertEquals(foo.id, idResults.get(0).id);
+	}
+
+	@Test(expected = SQLException.class)
+	public void testQueryIntoNoConstructor() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		// the id column is added to the select but that still doesn't match
+		dao.queryBuilder().selectColumns(Foo.VAL_COLUMN_NAME).queryInto(FooProjection.class);
+	}
+
+	@Test(expected = SQLException.class)
+	public void testQueryIntoAmbiguous() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, true);
+		dao.queryBuilder().selectColumns(Foo.VAL_COLUMN_NAME, Foo.STRING_COLUMN_NAME).queryInto(
+				AmbiguousProjection.class);
+	}
+
+	@Test(expected = SQLException.class)
+	public void testBadConstructor() throws Exception {
+		createDao(BadConstructor.class, true);
+	}
+
+	@Test
+	public void testNotAnnotated() throws Exception {
+		Dao<Foo, Integer> dao = createDao(Foo.class, false);
+		assertNull(((BaseDaoImpl<Foo, Integer>) dao).getTableInfo().getConstructorHydrator());
+	}
+
+	/* ======================================================================================= */
+
+	protected static class Immutable {
+		@DatabaseField(id = true)
+		final int id;
+		@DatabaseField
+		final String name;
+		@DatabaseField
+		final int val;
+		@DatabaseConstructor
+		public Immutable(int id, String name, int val) {
+			this.id = id;
+			this.name = name;
+			this.val = val;
+		}
+	}
+
+	protected static class ImmutableForeign {
+		@DatabaseField(id = true)
+		final int id;
+		@DatabaseField(foreign = true, foreignAutoRefresh = true)
+		final Immutable immutable;
+		@DatabaseConstructor
+		public ImmutableForeign(int id, Immutable immutable) {
+			this.id = id;
+			this.immutable = immutable;
+		}
+	}
+
+	protected static class ShellForeign {
+		@DatabaseField(generatedId = true)
+		int id;
+		@DatabaseField(foreign = true)
+		Immutable immutable;
+		public ShellForeign() {
+		}
+	}
+
+	protected static class Factoried {
+		static int factoryCalls;
+		@DatabaseField(id = true)
+		int id;
+		@DatabaseField
+		String name;
+		private Factoried() {
+		}
+		@DatabaseConstructor
+		public static Factoried create(int id, String name) {
+			Factoried factoried = new Factoried();
+			factoried.id = id;
+			factoried.name = name;
+			factoryCalls++;
+			return factoried;
+		}
+	}
+
+	protected static class BadConstructor {
+		@DatabaseField(id = true)
+		int id;
+		@DatabaseConstructor
+		public BadConstructor(String id) {
+		}
+	}
+
+	protected static class FooProjection {
+		final int val;
+		final String stringField;
+		public FooProjection(int val, String stringField) {
+			this.val = val;
+			this.stringField = stringField;
+		}
+	}
+
+	protected static class AmbiguousProjection {
+		final Object val;
+		public AmbiguousProjection(int val, String stringField) {
+			this.val = val;
+		}
+		public AmbiguousProjection(Object val, String stringField) {
+			this.val = val;
+		}
+	}
+
+	protected static class FooIdProjection {
+		final int id;
+		public FooIdProjection(int id) {
+			this.id = id;
+		}
+	}
+}